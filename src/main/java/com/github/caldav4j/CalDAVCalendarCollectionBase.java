@@ -16,16 +16,33 @@ package com.github.caldav4j;
 
 import com.github.caldav4j.cache.CalDAVResourceCache;
 import com.github.caldav4j.cache.EhCacheResourceCache;
+import com.github.caldav4j.cache.NegativeCache;
 import com.github.caldav4j.cache.NoOpResourceCache;
+import com.github.caldav4j.cache.RevalidationPolicy;
+import com.github.caldav4j.cache.ServerCapabilitiesCache;
+import com.github.caldav4j.cache.invalidation.CacheInvalidation;
+import com.github.caldav4j.cache.invalidation.CacheInvalidationBus;
+import com.github.caldav4j.cache.invalidation.CacheInvalidationListener;
 import com.github.caldav4j.exceptions.CacheException;
 import com.github.caldav4j.methods.CalDAV4JMethodFactory;
 import com.github.caldav4j.methods.HttpPutMethod;
 import com.github.caldav4j.model.request.CalendarRequest;
+import com.github.caldav4j.model.response.CalendarDataProperty;
+import com.github.caldav4j.model.response.ParserProfile;
+import com.github.caldav4j.util.ICalendarUtils;
 import com.github.caldav4j.util.UrlUtils;
 import java.net.URI;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.component.CalendarComponent;
 import org.apache.http.HttpHost;
 import org.apache.http.client.utils.URIUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Abstract Base class providing basic functionality for the CalDAVCollection
@@ -34,12 +51,20 @@ import org.apache.http.client.utils.URIUtils;
  */
 public abstract class CalDAVCalendarCollectionBase {
 
+    private static final Logger log = LoggerFactory.getLogger(CalDAVCalendarCollectionBase.class);
+
     protected CalDAV4JMethodFactory methodFactory = null;
     protected String calendarCollectionRoot = null;
     protected HttpHost httpHost = null;
     protected String prodId = null;
     protected CalDAVResourceCache cache = NoOpResourceCache.getCacheInstance();
-    private boolean tolerantParsing = false;
+    protected RevalidationPolicy revalidationPolicy = null;
+    protected NegativeCache negativeCache = null;
+    protected CacheInvalidationBus invalidationBus = null;
+    protected ServerCapabilitiesCache capabilitiesCache = null;
+    private final CacheInvalidationListener invalidationListener = this::applyInvalidations;
+    private ParserProfile parserProfile = null;
+    private Executor parsingExecutor = null;
 
     // Configuration Methods
 
@@ -69,14 +94,60 @@ public abstract class CalDAVCalendarCollectionBase {
      * @return Whether Tolerant Parsing for Calendars is enabled or not.
      */
     public boolean isTolerantParsing() {
-        return tolerantParsing;
+        return parserProfile != null && parserProfile != ParserProfile.STRICT;
     }
 
     /**
+     * Shortcut for {@link #setParserProfile(ParserProfile)} with {@link ParserProfile#LENIENT}, or
+     * the default profile.
+     *
+     * <p>Tolerant parsing used to enable the JVM wide ical4j compatibility hints, including the
+     * Outlook compatibility one. It now only drops invalid properties, for this collection only;
+     * applications relying on the Outlook quirks must enable {@link
+     * net.fortuna.ical4j.util.CompatibilityHints#KEY_OUTLOOK_COMPATIBILITY} themselves.
+     *
      * @param tolerantParsing Value used to enable or disable tolerant parsing of Calendars
      */
     public void setTolerantParsing(boolean tolerantParsing) {
-        this.tolerantParsing = tolerantParsing;
+        setParserProfile(tolerantParsing ? ParserProfile.LENIENT : null);
+    }
+
+    /**
+     * @return Profile used to parse the calendars of this collection, null for the default ones.
+     */
+    public ParserProfile getParserProfile() {
+        return parserProfile;
+    }
+
+    /**
+     * Sets the profile used to parse the calendars of this collection, regardless of the profile
+     * of the method factory. Profiles don't change any global ical4j setting, so collections with
+     * different profiles can be used concurrently.
+     *
+     * @param parserProfile Profile to use, null for the profile of the method factory on GET and
+     *     {@link CalendarDataProperty#DEFAULT_PROFILE} on REPORT.
+     */
+    public void setParserProfile(ParserProfile parserProfile) {
+        this.parserProfile = parserProfile;
+    }
+
+    /**
+     * @return Executor parsing the calendar-data of REPORT responses, null if parsed on the
+     *     calling thread.
+     */
+    public Executor getParsingExecutor() {
+        return parsingExecutor;
+    }
+
+    /**
+     * Sets the executor used to parse in parallel the calendar-data of large REPORT responses,
+     * e.g. a {@link java.util.concurrent.ForkJoinPool}. The order of the results is preserved, and
+     * a calendar which can't be parsed is skipped as when parsed on the calling thread.
+     *
+     * @param parsingExecutor Executor to use, null to parse on the calling thread.
+     */
+    public void setParsingExecutor(Executor parsingExecutor) {
+        this.parsingExecutor = parsingExecutor;
     }
 
     /**
@@ -107,6 +178,155 @@ public abstract class CalDAVCalendarCollectionBase {
         this.cache = cache;
     }
 
+    /**
+     * @return the stale-while-revalidate policy for cached resources, null if disabled.
+     */
+    public RevalidationPolicy getRevalidationPolicy() {
+        return revalidationPolicy;
+    }
+
+    /**
+     * Enables serving cached resources without waiting for the server, as specified by the
+     * policy. Only effective when a cache is set.
+     *
+     * @param revalidationPolicy policy to use, null to always revalidate synchronously.
+     */
+    public void setRevalidationPolicy(RevalidationPolicy revalidationPolicy) {
+        this.revalidationPolicy = revalidationPolicy;
+    }
+
+    /**
+     * @return the cache of hrefs and UIDs known to be missing, null if disabled.
+     */
+    public NegativeCache getNegativeCache() {
+        return negativeCache;
+    }
+
+    /**
+     * Enables remembering hrefs and UIDs which were not found on the server, so that lookups of
+     * absent objects fail without any request until the entries expire.
+     *
+     * @param negativeCache cache to use, null to disable.
+     */
+    public void setNegativeCache(NegativeCache negativeCache) {
+        this.negativeCache = negativeCache;
+    }
+
+    /**
+     * @return the cache of the server capabilities, null if the server is never probed.
+     */
+    public ServerCapabilitiesCache getCapabilitiesCache() {
+        return capabilitiesCache;
+    }
+
+    /**
+     * Sets the cache of the capabilities probed from the server, used to choose how resources are
+     * fetched. None is set by default, so that the server is never probed; {@link
+     * ServerCapabilitiesCache#getDefault()} shares the capabilities between all the collections.
+     *
+     * @param capabilitiesCache cache to use, null to never probe the server and assume it supports
+     *     everything the library relies on.
+     */
+    public void setCapabilitiesCache(ServerCapabilitiesCache capabilitiesCache) {
+        this.capabilitiesCache = capabilitiesCache;
+    }
+
+    /**
+     * @return the bus propagating cache invalidations to other nodes, null if disabled.
+     */
+    public CacheInvalidationBus getInvalidationBus() {
+        return invalidationBus;
+    }
+
+    /**
+     * Shares cache invalidations with the other nodes connected to the bus: writes done by this
+     * collection are published, and the invalidations received evict the cached resources and the
+     * negative cache entries. The previous bus, if any, is unsubscribed but not closed.
+     *
+     * @param invalidationBus bus to use, null to disable.
+     */
+    public void setInvalidationBus(CacheInvalidationBus invalidationBus) {
+        if (this.invalidationBus != null) {
+            this.invalidationBus.unsubscribe(invalidationListener);
+        }
+        this.invalidationBus = invalidationBus;
+        if (invalidationBus != null) {
+            invalidationBus.subscribe(invalidationListener);
+        }
+    }
+
+    /**
+     * Publishes the invalidation of the href and of the UIDs of the calendar components, if a bus
+     * is set.
+     *
+     * @param href Href of the resource changed
+     * @param calendar Calendar written, null on delete
+     */
+    protected void publishInvalidation(String href, Calendar calendar) {
+        publishInvalidation(href, getUIDs(calendar));
+    }
+
+    /**
+     * Publishes the invalidation of a resource to the other nodes, if a bus is set.
+     *
+     * @param href Href of the resource which changed
+     * @param uids UIDs of the components of the resource
+     */
+    protected void publishInvalidation(String href, Collection<String> uids) {
+        if (invalidationBus == null) {
+            return;
+        }
+        invalidationBus.publish(CacheInvalidation.href(href));
+        for (String uid : uids) {
+            invalidationBus.publish(CacheInvalidation.uid(uid));
+        }
+    }
+
+    /**
+     * @param calendar Calendar, may be null
+     * @return UIDs of the components of the calendar, without duplicates
+     */
+    protected static Set<String> getUIDs(Calendar calendar) {
+        Set<String> uids = new LinkedHashSet<>();
+        if (calendar != null) {
+            List<CalendarComponent> components = calendar.getComponents();
+            for (CalendarComponent component : components) {
+                String uid = ICalendarUtils.getUIDValue(component);
+                if (uid != null) {
+                    uids.add(uid);
+                }
+            }
+        }
+        return uids;
+    }
+
+    /**
+     * Evicts the resources affected by invalidations received from the bus.
+     *
+     * @param invalidations Invalidations to apply
+     */
+    protected void applyInvalidations(Collection<CacheInvalidation> invalidations) {
+        for (CacheInvalidation invalidation : invalidations) {
+            String value = invalidation.getValue();
+            try {
+                switch (invalidation.getType()) {
+                    case HREF:
+                        cache.removeResource(value);
+                        cache.removeResource(UrlUtils.stripHost(value));
+                        if (negativeCache != null) negativeCache.invalidateHref(value);
+                        break;
+                    case UID:
+                        String href = cache.getHrefForEventUID(value);
+                        if (href != null) cache.removeResource(href);
+                        if (negativeCache != null) negativeCache.invalidateUid(value);
+                        break;
+                }
+            } catch (CacheException | RuntimeException e) {
+                log.warn("Unable to apply invalidation " + invalidation, e);
+            }
+        }
+    }
+
     /**
      * Check if a cache is set
      *
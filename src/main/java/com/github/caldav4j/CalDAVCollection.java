@@ -19,6 +19,7 @@
 
 package com.github.caldav4j;
 
+import com.github.caldav4j.cache.ServerCapabilitiesCache;
 import com.github.caldav4j.exceptions.BadStatusException;
 import com.github.caldav4j.exceptions.CalDAV4JException;
 import com.github.caldav4j.exceptions.ResourceNotFoundException;
@@ -26,16 +27,39 @@ import com.github.caldav4j.exceptions.ResourceOutOfDateException;
 import com.github.caldav4j.methods.*;
 import com.github.caldav4j.model.request.*;
 import com.github.caldav4j.model.response.CalendarDataProperty;
+import com.github.caldav4j.model.response.CalendarProjection;
+import com.github.caldav4j.model.response.ParserProfile;
 import com.github.caldav4j.util.*;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.ConnectException;
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 import net.fortuna.ical4j.model.Calendar;
 import net.fortuna.ical4j.model.Component;
 import net.fortuna.ical4j.model.Date;
+import net.fortuna.ical4j.model.Property;
 import net.fortuna.ical4j.model.component.CalendarComponent;
 import net.fortuna.ical4j.model.component.VEvent;
 import net.fortuna.ical4j.model.component.VTimeZone;
@@ -43,14 +67,18 @@ import net.fortuna.ical4j.model.property.ProdId;
 import net.fortuna.ical4j.model.property.Uid;
 import net.fortuna.ical4j.model.property.immutable.ImmutableCalScale;
 import net.fortuna.ical4j.model.property.immutable.ImmutableVersion;
-import net.fortuna.ical4j.util.CompatibilityHints;
 import org.apache.http.Header;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
+import org.apache.http.ParseException;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpOptions;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
 import org.apache.jackrabbit.webdav.MultiStatus;
 import org.apache.jackrabbit.webdav.MultiStatusResponse;
+import org.apache.jackrabbit.webdav.property.DavProperty;
 import org.apache.jackrabbit.webdav.property.DavPropertyName;
 import org.apache.jackrabbit.webdav.property.DavPropertyNameSet;
 import org.apache.jackrabbit.webdav.security.AclProperty;
@@ -68,6 +96,18 @@ import org.slf4j.LoggerFactory;
 public class CalDAVCollection extends CalDAVCalendarCollectionBase {
     private static final Logger log = LoggerFactory.getLogger(CalDAVCollection.class);
 
+    /**
+     * Minimum number of responses of a REPORT for their calendar-data to be parsed on the {@link
+     * #getParsingExecutor() parsing executor}, smaller batches are parsed on the calling thread.
+     */
+    public static final int PARALLEL_PARSING_THRESHOLD = 8;
+
+    /** Manifest listed by the last preload, to find the resources deleted since. */
+    private volatile CollectionManifest preloadManifest = null;
+
+    /** Ctag of the collection when the last successful preload started, null if unknown. */
+    private volatile String preloadCTag = null;
+
     // configuration settings
 
     public CalDAVCollection() {}
@@ -125,7 +165,8 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
      *
      * @param httpClient the httpClient which will make the request
      * @param icsRelativePath the path, relative to the collection path
-     * @return the Calendar object at the specified path
+     * @return the Calendar object at the specified path. Its components may be shared with the
+     *     cache: they must be replaced rather than modified in place.
      * @throws CalDAV4JException on error
      */
     public Calendar getCalendar(HttpClient httpClient, String icsRelativePath)
@@ -197,7 +238,7 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
             throws CalDAV4JException {
 
         CalDAVResource resource = getCalDAVResourceByUID(httpClient, component, uid);
-        Calendar calendar = resource.getCalendar();
+        Calendar calendar = resource.getCalendarForUpdate();
         List<CalendarComponent> eventList = calendar.getComponents(component);
 
         // get a list of components to remove
@@ -274,6 +315,9 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
         cr.setIfMatch(true);
         cr.setCalendar(calendar);
         HttpPutMethod putMethod = methodFactory.createPutMethod(path, cr);
+        if (isPreferSupported()) {
+            putMethod.setPreferences(CalDAVConstants.PREFER_RETURN_MINIMAL);
+        }
 
         try {
             HttpResponse response =
@@ -290,6 +334,7 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
                     throw new BadStatusException(statusCode, putMethod.getMethod(), path);
             }
 
+            resourceChanged(getHref(path), calendar);
             if (isCacheEnabled()) {
                 Header h = putMethod.getFirstHeader("ETag");
                 String newEtag = null;
@@ -311,6 +356,35 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
         }
     }
 
+    /**
+     * Publishes the change to the other nodes, and forgets that the href and the UIDs of the
+     * calendar components were missing. Must be called before caching the new resource, as the
+     * bus may deliver the invalidation back to this collection.
+     *
+     * @param href Href of the resource just written
+     * @param calendar Calendar just written
+     */
+    private void resourceChanged(String href, Calendar calendar) {
+        resourceChanged(href, getUIDs(calendar));
+    }
+
+    /**
+     * Same as {@link #resourceChanged(String, Calendar)}, with the UIDs of the calendar.
+     *
+     * @param href Href of the resource just written
+     * @param uids UIDs of the components of the calendar just written
+     */
+    private void resourceChanged(String href, Collection<String> uids) {
+        publishInvalidation(href, uids);
+        if (negativeCache == null) {
+            return;
+        }
+        negativeCache.invalidateHref(href);
+        for (String uid : uids) {
+            negativeCache.invalidateUid(uid);
+        }
+    }
+
     /**
      * Adds a new Calendar with the given Component and VTimeZone to the collection.
      *
@@ -385,10 +459,16 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
             }
 
             HttpPutMethod putMethod = createPutMethodForNewResource(uid.getValue() + ".ics", c);
+            if (isPreferSupported()) {
+                putMethod.setPreferences(CalDAVConstants.PREFER_RETURN_MINIMAL);
+            }
             HttpResponse response = null;
             try {
                 response = httpClient.execute(getDefaultHttpHost(putMethod.getURI()), putMethod);
 
+                if (putMethod.succeeded(response)) {
+                    resourceChanged(getHref(UrlUtils.stripHost(putMethod.getURI().toString())), c);
+                }
                 if (isCacheEnabled() && putMethod.succeeded(response)) {
                     String etag =
                             UrlUtils.getHeaderPrettyValue(response, CalDAVConstants.HEADER_ETAG);
@@ -435,7 +515,7 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
             throws CalDAV4JException {
         String uid = ICalendarUtils.getUIDValue(vevent);
         CalDAVResource resource = getCalDAVResourceByUID(httpClient, Component.VEVENT, uid);
-        Calendar calendar = resource.getCalendar();
+        Calendar calendar = resource.getCalendarForUpdate();
 
         // let's find the master event first!
         VEvent originalVEvent = ICalendarUtils.getMasterEvent(calendar, uid);
@@ -487,6 +567,10 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
             HttpClient httpClient, String component, String uid)
             throws CalDAV4JException, ResourceNotFoundException {
 
+        if (negativeCache != null && negativeCache.isMissingUid(uid)) {
+            throw new ResourceNotFoundException(ResourceNotFoundException.IdentifierType.UID, uid);
+        }
+
         // first check the cache!
         String href = cache.getHrefForEventUID(uid);
         CalDAVResource resource = null;
@@ -515,21 +599,23 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
         GenerateQuery gq;
         gq = new GenerateQuery(null, component + " : UID==" + uid);
 
+        // a failed REPORT throws, and the UID is not recorded as missing
         List<CalDAVResource> cr;
         cr = getCalDAVResources(httpClient, gq.generate());
-        try {
+        if (!cr.isEmpty()) {
             resource = cr.get(0);
-            if (uid.equals(
-                    ICalendarUtils.getUIDValue(
-                            ICalendarUtils.getFirstComponent(resource, component)))) {
+            CalendarComponent found = ICalendarUtils.getFirstComponent(resource, component);
+            if (found != null && uid.equals(ICalendarUtils.getUIDValue(found))) {
                 cache.putResource(resource);
                 return resource;
-            } else {
-                throw new Exception();
             }
-        } catch (Exception e) {
-            throw new ResourceNotFoundException(ResourceNotFoundException.IdentifierType.UID, uid);
         }
+
+        // the server answered, without the UID
+        if (negativeCache != null) {
+            negativeCache.putMissingUid(uid);
+        }
+        throw new ResourceNotFoundException(ResourceNotFoundException.IdentifierType.UID, uid);
     }
 
     /**
@@ -538,6 +624,9 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
      *
      * <p>if calendar resource in cache is void, retrieve directly from server (avoid get etag only)
      *
+     * <p>If a {@link com.github.caldav4j.cache.RevalidationPolicy} is set, recently validated
+     * resources are returned straight from the cache, possibly scheduling a background refresh.
+     *
      * @param httpClient the httpClient which will make the request
      * @param path to resource
      * @return CalDAVResource
@@ -549,9 +638,42 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
         CalDAVResource calDAVResource = cache.getResource(getHref(path));
         if (calDAVResource == null || calDAVResource.getCalendar() == null) {
             return getCalDAVResourceFromServer(httpClient, path);
-        } else {
-            String currentEtag = getETag(httpClient, path);
-            return getCalDAVResource(httpClient, path, currentEtag);
+        }
+
+        if (revalidationPolicy != null) {
+            ResourceMetadata metadata = calDAVResource.getResourceMetadata();
+            if (revalidationPolicy.isFresh(metadata)) {
+                return calDAVResource;
+            }
+            if (revalidationPolicy.isServableStale(metadata)) {
+                revalidationPolicy.refresh(
+                        metadata.getHref(), () -> revalidateCalDAVResource(httpClient, path));
+                return calDAVResource;
+            }
+        }
+
+        String currentEtag = getETag(httpClient, path);
+        return getCalDAVResource(httpClient, path, currentEtag);
+    }
+
+    /**
+     * Checks the cached resource at the given path against the server, refreshing or evicting it.
+     * Used for background refreshes, thus it never throws.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @param path to resource
+     */
+    protected void revalidateCalDAVResource(HttpClient httpClient, String path) {
+        try {
+            getCalDAVResource(httpClient, path, getETag(httpClient, path));
+        } catch (ResourceNotFoundException e) {
+            try {
+                cache.removeResource(getHref(path));
+            } catch (CalDAV4JException ce) {
+                log.warn("Unable to evict " + path + " from cache", ce);
+            }
+        } catch (CalDAV4JException e) {
+            log.warn("Unable to revalidate " + path, e);
         }
     }
 
@@ -578,6 +700,7 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
                         != null) { // FIXME calDAVResource's calendar should not be null!
             String cachedEtag = calDAVResource.getResourceMetadata().getETag();
             if (cachedEtag.equals(currentEtag)) {
+                calDAVResource.getResourceMetadata().markValidated();
                 return calDAVResource;
             }
         }
@@ -599,12 +722,21 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
      */
     protected CalDAVResource getCalDAVResourceFromServer(HttpClient httpClient, String path)
             throws CalDAV4JException {
+        if (negativeCache != null && negativeCache.isMissingHref(getHref(path))) {
+            throw new ResourceNotFoundException(
+                    ResourceNotFoundException.IdentifierType.PATH, path);
+        }
+
         CalDAVResource calDAVResource = null;
         HttpGetMethod getMethod = getMethodFactory().createGetMethod(path);
         try {
             HttpResponse response =
                     httpClient.execute(getDefaultHttpHost(getMethod.getURI()), getMethod);
 
+            if (negativeCache != null
+                    && response.getStatusLine().getStatusCode() == CalDAVStatus.SC_NOT_FOUND) {
+                negativeCache.putMissingHref(getHref(path));
+            }
             if (response.getStatusLine().getStatusCode() != CalDAVStatus.SC_OK) {
                 MethodUtil.StatusToExceptions(getMethod, response);
                 throw new BadStatusException(getMethod, response);
@@ -614,12 +746,10 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
             String etag = response.getFirstHeader(CalDAVConstants.HEADER_ETAG).getValue();
             Calendar calendar = null;
 
-            if (isTolerantParsing()) {
-                CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_UNFOLDING, false);
-                CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING, false);
-                CompatibilityHints.setHintEnabled(
-                        CompatibilityHints.KEY_OUTLOOK_COMPATIBILITY, true);
-                CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_VALIDATION, false);
+            if (getParserProfile() != null) {
+                // parse with a builder from the pool of the profile
+                getMethod.setParserProfile(getParserProfile());
+                getMethod.setCalendarBuilder(null);
             }
             calendar = getMethod.getResponseBodyAsCalendar(response);
 
@@ -640,6 +770,68 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
         return calDAVResource;
     }
 
+    /**
+     * Parses the calendar-data of a REPORT response with the profile of this collection.
+     *
+     * @param response Response carrying the calendar-data
+     * @return Calendar, null if missing or invalid
+     */
+    protected Calendar getCalendarFromResponse(MultiStatusResponse response) {
+        ParserProfile profile = getParserProfile();
+        return CalendarDataProperty.getCalendarfromResponse(
+                response, profile != null ? profile : CalendarDataProperty.DEFAULT_PROFILE);
+    }
+
+    /**
+     * Parses the calendar-data of a batch of REPORT responses. When a {@link #getParsingExecutor()
+     * parsing executor} is set and the batch has at least {@link #PARALLEL_PARSING_THRESHOLD}
+     * responses, the responses are parsed in parallel on it.
+     *
+     * @param responses Responses carrying the calendar-data
+     * @return Calendars, in the order of the responses. An item is null if the response is null,
+     *     or its calendar-data is missing or can't be parsed.
+     */
+    protected List<Calendar> getCalendarsFromResponses(MultiStatusResponse[] responses) {
+        List<Calendar> calendars = new ArrayList<>(responses.length);
+        Executor executor = getParsingExecutor();
+        if (executor == null || responses.length < PARALLEL_PARSING_THRESHOLD) {
+            for (MultiStatusResponse response : responses) {
+                calendars.add(parseCalendarFromResponse(response));
+            }
+            return calendars;
+        }
+
+        List<CompletableFuture<Calendar>> futures = new ArrayList<>(responses.length);
+        for (MultiStatusResponse response : responses) {
+            CompletableFuture<Calendar> future;
+            try {
+                future =
+                        CompletableFuture.supplyAsync(
+                                () -> parseCalendarFromResponse(response), executor);
+            } catch (RejectedExecutionException e) {
+                future = CompletableFuture.completedFuture(parseCalendarFromResponse(response));
+            }
+            futures.add(future);
+        }
+        for (CompletableFuture<Calendar> future : futures) {
+            calendars.add(future.join());
+        }
+        return calendars;
+    }
+
+    /** Parses one response of a batch, so that an error doesn't fail the whole batch. */
+    private Calendar parseCalendarFromResponse(MultiStatusResponse response) {
+        if (response == null) {
+            return null;
+        }
+        try {
+            return getCalendarFromResponse(response);
+        } catch (RuntimeException e) {
+            log.warn("Unable to parse calendar-data of " + response.getHref(), e);
+            return null;
+        }
+    }
+
     /**
      * Deletes a resource at a given path. Also removes it from cache.
      *
@@ -661,7 +853,198 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
             MethodUtil.StatusToExceptions(deleteMethod, response);
             throw new CalDAV4JException("Problem executing delete method");
         }
+        publishInvalidation(getHref(path), null);
         if (isCacheEnabled()) cache.removeResource(getHref(path));
+        if (negativeCache != null) negativeCache.putMissingHref(getHref(path));
+    }
+
+    /**
+     * Gets the body of a resource as is, without parsing it, e.g. to copy it to another server.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @param icsRelativePath the path, relative to the collection path
+     * @return Resource
+     * @throws CalDAV4JException on error
+     * @see #getRaw(HttpClient, String, OutputStream)
+     */
+    public RawResource getRaw(HttpClient httpClient, String icsRelativePath)
+            throws CalDAV4JException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Charset[] charset = new Charset[1];
+        String etag = getRaw(httpClient, icsRelativePath, out, c -> charset[0] = c);
+        return new RawResource(
+                out.toByteArray(), charset[0], etag, getHref(getAbsolutePath(icsRelativePath)));
+    }
+
+    /**
+     * Streams the body of a resource as is to the given stream, without parsing it. The resource is
+     * not cached, as this would require parsing it, but a cached version with another ETag is
+     * evicted.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @param icsRelativePath the path, relative to the collection path
+     * @param out Stream the body is written to, not closed by this method.
+     * @return ETag of the resource, null if not returned by the server
+     * @throws CalDAV4JException on error
+     */
+    public String getRaw(HttpClient httpClient, String icsRelativePath, OutputStream out)
+            throws CalDAV4JException {
+        return getRaw(httpClient, icsRelativePath, out, charset -> {});
+    }
+
+    /**
+     * @param charsetConsumer Receives the charset of the Content-Type of the response, null if
+     *     none or not supported.
+     */
+    private String getRaw(
+            HttpClient httpClient,
+            String icsRelativePath,
+            OutputStream out,
+            Consumer<Charset> charsetConsumer)
+            throws CalDAV4JException {
+        String path = getAbsolutePath(icsRelativePath);
+        String href = getHref(path);
+        if (negativeCache != null && negativeCache.isMissingHref(href)) {
+            throw new ResourceNotFoundException(
+                    ResourceNotFoundException.IdentifierType.PATH, path);
+        }
+
+        HttpGetMethod getMethod = getMethodFactory().createGetMethod(path);
+        try {
+            HttpResponse response =
+                    httpClient.execute(getDefaultHttpHost(getMethod.getURI()), getMethod);
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (negativeCache != null && statusCode == CalDAVStatus.SC_NOT_FOUND) {
+                negativeCache.putMissingHref(href);
+            }
+            if (statusCode != CalDAVStatus.SC_OK) {
+                MethodUtil.StatusToExceptions(getMethod, response);
+                throw new BadStatusException(getMethod, response);
+            }
+            if (response.getEntity() == null) {
+                throw new CalDAV4JException("Error: No content stream at " + path);
+            }
+
+            response.getEntity().writeTo(out);
+            charsetConsumer.accept(getCharset(response));
+            String etag = UrlUtils.getHeaderPrettyValue(response, CalDAVConstants.HEADER_ETAG);
+            if (isCacheEnabled()) {
+                CalDAVResource cached = cache.getResource(href);
+                if (cached != null
+                        && (etag == null
+                                || !etag.equals(cached.getResourceMetadata().getETag()))) {
+                    cache.removeResource(href);
+                }
+            }
+            return etag;
+        } catch (CalDAV4JException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CalDAV4JException("Problem executing get method", e);
+        } finally {
+            getMethod.reset();
+        }
+    }
+
+    private static Charset getCharset(HttpResponse response) {
+        try {
+            ContentType contentType = ContentType.get(response.getEntity());
+            return contentType != null ? contentType.getCharset() : null;
+        } catch (UnsupportedCharsetException | ParseException e) {
+            log.warn("Unsupported Content-Type: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the body of a resource encoded in UTF-8 as is.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @param icsRelativePath the path, relative to the collection path
+     * @param data Body of the resource, an iCalendar object encoded in UTF-8
+     * @param etag ETag the resource must have on the server to be replaced, null to write it
+     *     unconditionally.
+     * @return New ETag of the resource, null if not returned by the server
+     * @throws ResourceOutOfDateException if the ETag doesn't match
+     * @throws CalDAV4JException on error
+     * @see #putRaw(HttpClient, String, byte[], Charset, String)
+     */
+    public String putRaw(HttpClient httpClient, String icsRelativePath, byte[] data, String etag)
+            throws CalDAV4JException {
+        return putRaw(httpClient, icsRelativePath, data, StandardCharsets.UTF_8, etag);
+    }
+
+    /**
+     * Writes the body of a resource as is, without parsing nor serializing it, e.g. to copy it
+     * from another server with the charset of its {@link RawResource}. The cached version of the
+     * resource is evicted, and the invalidation published to the other nodes; the resource is
+     * cached again when next read.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @param icsRelativePath the path, relative to the collection path
+     * @param data Body of the resource, an iCalendar object
+     * @param charset Charset the body is encoded in, sent in the Content-Type.
+     * @param etag ETag the resource must have on the server to be replaced, null to write it
+     *     unconditionally.
+     * @return New ETag of the resource, null if not returned by the server
+     * @throws ResourceOutOfDateException if the ETag doesn't match
+     * @throws CalDAV4JException on error
+     */
+    public String putRaw(
+            HttpClient httpClient,
+            String icsRelativePath,
+            byte[] data,
+            Charset charset,
+            String etag)
+            throws CalDAV4JException {
+        String path = getAbsolutePath(icsRelativePath);
+        CalendarRequest cr = new CalendarRequest();
+        if (etag != null) {
+            cr.addEtag(etag);
+            cr.setIfMatch(true);
+        }
+        cr.setCalendarData(data);
+        cr.setCharset(charset);
+        HttpPutMethod putMethod = methodFactory.createPutMethod(path, cr);
+        if (isPreferSupported()) {
+            putMethod.setPreferences(CalDAVConstants.PREFER_RETURN_MINIMAL);
+        }
+
+        try {
+            HttpResponse response =
+                    httpClient.execute(getDefaultHttpHost(putMethod.getURI()), putMethod);
+            int statusCode = response.getStatusLine().getStatusCode();
+
+            switch (statusCode) {
+                case CalDAVStatus.SC_NO_CONTENT:
+                case CalDAVStatus.SC_CREATED:
+                    break;
+                case CalDAVStatus.SC_PRECONDITION_FAILED:
+                    throw new ResourceOutOfDateException("Etag was not matched: " + etag);
+                default:
+                    throw new BadStatusException(statusCode, putMethod.getMethod(), path);
+            }
+
+            String href = getHref(path);
+            String uid =
+                    ICalendarScanner.scan(
+                                    new String(data, charset),
+                                    null,
+                                    Collections.singleton(Property.UID))
+                            .getUid();
+            resourceChanged(
+                    href, uid != null ? Collections.singleton(uid) : Collections.emptySet());
+            if (isCacheEnabled()) {
+                cache.removeResource(href);
+            }
+            return UrlUtils.getHeaderPrettyValue(response, CalDAVConstants.HEADER_ETAG);
+        } catch (CalDAV4JException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CalDAV4JException("Problem executing put method", e);
+        } finally {
+            putMethod.reset();
+        }
     }
 
     /**
@@ -691,6 +1074,9 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
             int statusCode = response.getStatusLine().getStatusCode();
 
             if (statusCode == CalDAVStatus.SC_NOT_FOUND) {
+                if (negativeCache != null) {
+                    negativeCache.putMissingHref(getHref(path));
+                }
                 throw new ResourceNotFoundException(
                         ResourceNotFoundException.IdentifierType.PATH, path);
             }
@@ -755,15 +1141,34 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
             throws CalDAV4JException {
 
         List<String> propertyList = new ArrayList<>();
-        List<Calendar> calendarList = getCalendarLight(httpClient, query);
+        if (!isCacheEnabled()) {
+            // only one property is needed: scan the calendar-data instead of parsing it
+            readReport(
+                    httpClient,
+                    query,
+                    response -> {
+                        CalendarProjection projection =
+                                CalendarDataProperty.getProjectionfromResponse(
+                                        response,
+                                        componentName,
+                                        Collections.singleton(propertyName));
+                        if (projection != null && projection.getComponentName() != null) {
+                            propertyList.add(projection.getValue(propertyName));
+                        }
+                    });
+            return propertyList;
+        }
 
-        for (Calendar cal : calendarList) {
-            cal.getComponent(componentName)
-                    .ifPresent(
-                            component ->
-                                    propertyList.add(
-                                            ICalendarUtils.getPropertyValue(
-                                                    component, propertyName)));
+        // the cached calendars are projected in place, without copying them
+        query.setCalendarDataProp(null);
+        Map<String, String> etags = new LinkedHashMap<>();
+        readReport(httpClient, query, response -> putETag(etags, response));
+        for (CalDAVResource resource : getCalDAVResourcesWithCache(httpClient, etags, false)) {
+            CalendarProjection projection =
+                    resource.getProjection(componentName, Collections.singleton(propertyName));
+            if (projection.getComponentName() != null) {
+                propertyList.add(projection.getValue(propertyName));
+            }
         }
 
         return propertyList;
@@ -787,6 +1192,27 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
         return list;
     }
 
+    /**
+     * Return a list of components using REPORT, with a query compiled beforehand.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @param query Prepared query
+     * @param parameters Values of the parameters of the query, by name
+     * @return a new Calendar list with no elements if 0
+     * @throws CalDAV4JException on error, or if a parameter has no value
+     * @see GenerateQuery#prepare()
+     */
+    public List<Calendar> queryCalendars(
+            HttpClient httpClient, PreparedQuery query, Map<String, ?> parameters)
+            throws CalDAV4JException {
+        List<Calendar> list = new ArrayList<>();
+        for (CalDAVResource cr : getCalDAVResources(httpClient, query, parameters)) {
+            list.add(cr.getCalendar());
+        }
+
+        return list;
+    }
+
     /**
      * Return a list of components using REPORT without passing through the CaldavResource Cache
      *
@@ -802,39 +1228,18 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
 
         if (isCacheEnabled()) {
             query.setCalendarDataProp(null);
-        }
-        HttpCalDAVReportMethod reportMethod = null;
-        try {
-            reportMethod =
-                    methodFactory.createCalDAVReportMethod(
-                            getCalendarCollectionRoot(), query, CalDAVConstants.DEPTH_1);
-            HttpResponse httpResponse =
-                    httpClient.execute(getDefaultHttpHost(reportMethod.getURI()), reportMethod);
-
-            MultiStatusResponse[] set =
-                    reportMethod.getResponseBodyAsMultiStatus(httpResponse).getResponses();
-            for (MultiStatusResponse response : set) {
-                String etag = CalendarDataProperty.getEtagfromResponse(response);
-
-                if (isCacheEnabled()) {
-                    CalDAVResource resource =
-                            getCalDAVResource(
-                                    httpClient, UrlUtils.stripHost(response.getHref()), etag);
-
-                    list.add(resource.getCalendar());
-
-                    // XXX check if getCalDAVResource does its caching job
-                    cache.putResource(resource);
-
-                } else {
-                    Calendar cal = CalendarDataProperty.getCalendarfromResponse(response);
-                    if (cal != null) list.add(cal);
-                }
+            Map<String, String> etags = new LinkedHashMap<>();
+            readReport(httpClient, query, response -> putETag(etags, response));
+            // looked up in the cache at once, the stale ones fetched and cached in one multiget
+            for (CalDAVResource resource : getCalDAVResourcesWithCache(httpClient, etags, false)) {
+                list.add(resource.getCalendar());
+            }
+        } else {
+            ResourceReader reader = new ResourceReader();
+            readReport(httpClient, query, reader);
+            for (CalDAVResource resource : reader.getResources()) {
+                if (resource.getCalendar() != null) list.add(resource.getCalendar());
             }
-        } catch (Exception he) {
-            throw new CalDAV4JException("Problem executing method", he);
-        } finally {
-            if (reportMethod != null) reportMethod.reset();
         }
 
         return list;
@@ -875,9 +1280,9 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
      * Return a list of caldav resources. All other methods should use this one
      *
      * <p>The use of caching changes the behavior of this method. if cache is not enable, returns a
-     * list of CalDAVResource parsed from the response if cache is enabled, foreach HREF returned by
-     * server: - retrieve the resource using getCaldavReource(client, string), this method checks
-     * cache
+     * list of CalDAVResource parsed from the response if cache is enabled, only the etags are
+     * requested: the HREFs returned by server are looked up in the cache at once, and the missing
+     * or out of date ones are fetched with a single multiget.
      *
      * @param httpClient the httpClient which will make the request
      * @param query Query to get the CalDAV resources for
@@ -893,47 +1298,181 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
         }
         log.trace("Executing query: " + GenerateQuery.printQuery(query));
 
-        HttpCalDAVReportMethod reportMethod = null;
+        HttpCalDAVReportMethod reportMethod;
+        try {
+            reportMethod =
+                    methodFactory.createCalDAVReportMethod(
+                            getCalendarCollectionRoot(), query, CalDAVConstants.DEPTH_1);
+        } catch (IOException e) {
+            throw new CalDAV4JException("Problem executing method", e);
+        }
+        return getCalDAVResources(httpClient, reportMethod, usingCache);
+    }
 
-        List<CalDAVResource> list = new ArrayList<>();
+    /**
+     * Return a list of caldav resources, with a query compiled beforehand. Behaves as {@link
+     * #getCalDAVResources(HttpClient, CalendarQuery)}.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @param query Prepared query
+     * @param parameters Values of the parameters of the query, by name
+     * @return List of CalDAVResource's
+     * @throws CalDAV4JException on error, or if a parameter has no value
+     */
+    protected List<CalDAVResource> getCalDAVResources(
+            HttpClient httpClient, PreparedQuery query, Map<String, ?> parameters)
+            throws CalDAV4JException {
+        boolean usingCache = isCacheEnabled();
+        if (usingCache) {
+            query = query.withoutCalendarData();
+        }
+        HttpCalDAVReportMethod reportMethod =
+                methodFactory.createCalDAVReportMethod(
+                        URI.create(getCalendarCollectionRoot()),
+                        query.toEntity(parameters),
+                        CalDAVConstants.DEPTH_1);
+        return getCalDAVResources(httpClient, reportMethod, usingCache);
+    }
+
+    private List<CalDAVResource> getCalDAVResources(
+            HttpClient httpClient, HttpCalDAVReportMethod reportMethod, boolean usingCache)
+            throws CalDAV4JException {
+        if (isPreferSupported()) {
+            reportMethod.setPreferences(CalDAVConstants.PREFER_RETURN_MINIMAL);
+        }
+        if (usingCache) {
+            Map<String, String> etags = new LinkedHashMap<>();
+            readReport(httpClient, reportMethod, response -> putETag(etags, response));
+            return getCalDAVResourcesWithCache(httpClient, etags, false);
+        }
+        ResourceReader reader = new ResourceReader();
+        readReport(httpClient, reportMethod, reader);
+        return reader.getResources();
+    }
+
+    /**
+     * Runs a REPORT with a Depth of 1 on the collection, see {@link #readReport(HttpClient,
+     * HttpCalDAVReportMethod, Consumer)}.
+     */
+    private void readReport(
+            HttpClient httpClient,
+            CalDAVReportRequest query,
+            Consumer<MultiStatusResponse> handler,
+            String... preferences)
+            throws CalDAV4JException {
+        HttpCalDAVReportMethod reportMethod;
         try {
             reportMethod =
                     methodFactory.createCalDAVReportMethod(
                             getCalendarCollectionRoot(), query, CalDAVConstants.DEPTH_1);
+        } catch (IOException e) {
+            throw new CalDAV4JException("Problem executing method", e);
+        }
+        reportMethod.setPreferences(preferences);
+        readReport(httpClient, reportMethod, handler);
+    }
+
+    /**
+     * Runs a REPORT, and hands the responses of its multistatus to the handler one at a time as
+     * they are read, so that the whole multistatus is never held in memory.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @param reportMethod REPORT to run, reset once read
+     * @param handler Consumer of the responses
+     * @throws CalDAV4JException on error, or if the REPORT failed
+     */
+    private void readReport(
+            HttpClient httpClient,
+            HttpCalDAVReportMethod reportMethod,
+            Consumer<MultiStatusResponse> handler)
+            throws CalDAV4JException {
+        try {
             HttpResponse httpResponse =
                     httpClient.execute(getDefaultHttpHost(reportMethod.getURI()), reportMethod);
-
-            log.trace("Parsing response.. ");
-
-            MultiStatusResponse[] responses =
-                    reportMethod.getResponseBodyAsMultiStatus(httpResponse).getResponses();
-            for (MultiStatusResponse response : responses) {
-                String etag = CalendarDataProperty.getEtagfromResponse(response);
-
-                if (usingCache) {
-                    CalDAVResource resource =
-                            getCalDAVResource(
-                                    httpClient, UrlUtils.stripHost(response.getHref()), etag);
-                    list.add(resource);
-                    cache.putResource(resource);
-                } else {
-                    if (response != null) {
-                        list.add(new CalDAVResource(response));
-                    }
-                }
+            if (!reportMethod.succeeded(httpResponse)) {
+                MethodUtil.StatusToExceptions(reportMethod, httpResponse);
+                throw new BadStatusException(reportMethod, httpResponse);
             }
 
+            log.trace("Parsing response.. ");
+            reportMethod.getResponseBodyAsMultiStatus(httpResponse, handler);
         } catch (ConnectException connEx) {
             throw new CalDAV4JException(
                     "Can't connecto to " + getDefaultHttpHost(reportMethod.getURI()),
                     connEx.getCause());
+        } catch (CalDAV4JException e) {
+            throw e;
         } catch (Exception he) {
             throw new CalDAV4JException("Problem executing method", he);
         } finally {
-            if (reportMethod != null) reportMethod.reset();
+            reportMethod.reset();
         }
+    }
 
-        return list;
+    /** Records the etag of a REPORT response by path, for the resolution from the cache. */
+    private static void putETag(Map<String, String> etags, MultiStatusResponse response) {
+        etags.put(
+                UrlUtils.stripHost(response.getHref()),
+                CalendarDataProperty.getEtagfromResponse(response));
+    }
+
+    /**
+     * Turns the responses of a REPORT into resources as they are read. Once there are at least
+     * {@link #PARALLEL_PARSING_THRESHOLD} of them, the calendar-data are parsed on the {@link
+     * #getParsingExecutor() parsing executor}, if set, as in {@link
+     * #getCalendarsFromResponses(MultiStatusResponse[])}. Each response is released once parsed.
+     */
+    private class ResourceReader implements Consumer<MultiStatusResponse> {
+        private final Executor executor = getParsingExecutor();
+        private final List<MultiStatusResponse> pending = new ArrayList<>();
+        private final List<CompletableFuture<CalDAVResource>> resources = new ArrayList<>();
+
+        @Override
+        public void accept(MultiStatusResponse response) {
+            if (executor == null) {
+                resources.add(CompletableFuture.completedFuture(toResource(response)));
+                return;
+            }
+            // below the threshold, parsed on the calling thread in getResources()
+            pending.add(response);
+            if (resources.size() + pending.size() >= PARALLEL_PARSING_THRESHOLD) {
+                for (MultiStatusResponse p : pending) {
+                    resources.add(parseAsync(p));
+                }
+                pending.clear();
+            }
+        }
+
+        /**
+         * @return The resources, in the order of the responses. The calendar of a resource is null
+         *     if its calendar-data is missing or can't be parsed.
+         */
+        List<CalDAVResource> getResources() {
+            for (MultiStatusResponse response : pending) {
+                resources.add(CompletableFuture.completedFuture(toResource(response)));
+            }
+            pending.clear();
+            List<CalDAVResource> list = new ArrayList<>(resources.size());
+            for (CompletableFuture<CalDAVResource> future : resources) {
+                list.add(future.join());
+            }
+            return list;
+        }
+
+        private CompletableFuture<CalDAVResource> parseAsync(MultiStatusResponse response) {
+            try {
+                return CompletableFuture.supplyAsync(() -> toResource(response), executor);
+            } catch (RejectedExecutionException e) {
+                return CompletableFuture.completedFuture(toResource(response));
+            }
+        }
+
+        private CalDAVResource toResource(MultiStatusResponse response) {
+            return new CalDAVResource(
+                    parseCalendarFromResponse(response),
+                    CalendarDataProperty.getEtagfromResponse(response),
+                    response.getHref());
+        }
     }
 
     //
@@ -952,43 +1491,24 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
             query.setCalendarDataProp(null);
         }
 
-        HttpCalDAVReportMethod reportMethod = null;
+        String[] preferences =
+                isPreferSupported()
+                        ? new String[] {CalDAVConstants.PREFER_RETURN_MINIMAL}
+                        : new String[0];
         List<Calendar> list = new ArrayList<>();
 
-        try {
-            reportMethod =
-                    methodFactory.createCalDAVReportMethod(
-                            getCalendarCollectionRoot(), query, CalDAVConstants.DEPTH_1);
-            HttpResponse httpResponse =
-                    httpClient.execute(getDefaultHttpHost(reportMethod.getURI()), reportMethod);
-
-            MultiStatusResponse[] e =
-                    reportMethod.getResponseBodyAsMultiStatus(httpResponse).getResponses();
-
-            for (MultiStatusResponse response : e) {
-                CalDAVResource resource = null;
-
-                if (isCacheEnabled()) {
-                    String etag = CalendarDataProperty.getEtagfromResponse(response);
-                    try {
-                        resource =
-                                getCalDAVResource(
-                                        httpClient, UrlUtils.stripHost(response.getHref()), etag);
-
-                        list.add(resource.getCalendar());
-                    } catch (Exception e1) {
-                        log.warn("Unable to get CalDAVResource for etag: " + etag);
-                        e1.printStackTrace();
-                    }
-                } else {
-                    list.add(CalendarDataProperty.getCalendarfromResponse(response));
-                }
+        if (isCacheEnabled()) {
+            Map<String, String> etags = new LinkedHashMap<>();
+            readReport(httpClient, query, response -> putETag(etags, response), preferences);
+            for (CalDAVResource resource : getCalDAVResourcesWithCache(httpClient, etags, true)) {
+                list.add(resource.getCalendar());
+            }
+        } else {
+            ResourceReader reader = new ResourceReader();
+            readReport(httpClient, query, reader, preferences);
+            for (CalDAVResource resource : reader.getResources()) {
+                list.add(resource.getCalendar());
             }
-
-        } catch (Exception he) {
-            throw new CalDAV4JException("Problem executing method", he);
-        } finally {
-            if (reportMethod != null) reportMethod.reset();
         }
 
         return list;
@@ -1017,6 +1537,410 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
         return getComponentByMultiget(httpClient, query);
     }
 
+    /**
+     * Warms the cache with the resources of the collection. Lists the hrefs and etags of the
+     * collection with a single PROPFIND, see {@link #getManifest(HttpClient)}, then fetches only
+     * the resources missing from the cache or whose etag changed, using calendar-multiget reports
+     * executed in parallel. The HttpClient must thus be thread safe, e.g. backed by a pooling
+     * connection manager. Resources deleted since the previous preload are removed from the cache.
+     *
+     * <p>If the {@link #getServerCapabilities(HttpClient) capabilities} of the server show that it
+     * doesn't support calendar-multiget, each chunk is fetched with GET requests instead. If they
+     * show that the collection has a ctag, and the ctag didn't change since the previous successful
+     * preload, nothing is listed nor fetched: resources evicted from the cache in the meantime are
+     * then only fetched when next read.
+     *
+     * <p>Resources fetched by the successful reports stay cached even if other reports fail.
+     *
+     * @param httpClient the httpClient which will make the requests
+     * @param options chunk size and parallelism of the reports
+     * @return number of resources fetched from the server
+     * @throws CalDAV4JException if the listing, or any of the reports, failed
+     */
+    public int preload(HttpClient httpClient, PreloadOptions options) throws CalDAV4JException {
+        if (!isCacheEnabled()) {
+            log.warn("Cache is not enabled, skipping preload");
+            return 0;
+        }
+
+        ServerCapabilities capabilities = getServerCapabilities(httpClient);
+        String ctag = capabilities.isCTagSupported() ? getCTag(httpClient) : null;
+        if (ctag != null && ctag.equals(preloadCTag) && preloadManifest != null) {
+            log.debug("Ctag of " + getCalendarCollectionRoot() + " unchanged, skipping preload");
+            return 0;
+        }
+        preloadCTag = null;
+
+        CollectionManifest manifest = getManifest(httpClient);
+        ManifestDiff diff = diffWithCache(manifest, preloadManifest);
+        preloadManifest = manifest;
+        if (!diff.getDeleted().isEmpty()) {
+            List<String> deleted = new ArrayList<>();
+            for (String path : diff.getDeleted()) {
+                deleted.add(getHref(path));
+            }
+            cache.removeResources(deleted);
+        }
+
+        List<String> toFetch = diff.getModified();
+        if (toFetch.isEmpty()) {
+            preloadCTag = ctag;
+            return 0;
+        }
+
+        boolean multiget = capabilities.isCalendarMultigetSupported();
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < toFetch.size(); i += options.getChunkSize()) {
+            chunks.add(toFetch.subList(i, Math.min(i + options.getChunkSize(), toFetch.size())));
+        }
+
+        ExecutorService executor = options.getExecutor();
+        boolean ownExecutor = executor == null;
+        if (ownExecutor) {
+            executor =
+                    Executors.newFixedThreadPool(Math.min(options.getParallelism(), chunks.size()));
+        }
+
+        int fetched = 0;
+        CalDAV4JException failure = null;
+        try {
+            CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+            int next = 0;
+            int running = 0;
+            while (next < chunks.size() || running > 0) {
+                while (running < options.getParallelism() && next < chunks.size()) {
+                    List<String> chunk = chunks.get(next++);
+                    completion.submit(() -> preloadChunk(httpClient, chunk, multiget));
+                    running++;
+                }
+                Future<Integer> done = completion.take();
+                running--;
+                try {
+                    fetched += done.get();
+                } catch (ExecutionException e) {
+                    log.warn("Problem preloading resources", e.getCause());
+                    if (failure == null) {
+                        failure =
+                                new CalDAV4JException(
+                                        "Problem preloading resources", e.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CalDAV4JException("Interrupted while preloading resources", e);
+        } finally {
+            if (ownExecutor) executor.shutdownNow();
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+        preloadCTag = ctag;
+        return fetched;
+    }
+
+    /**
+     * Fetches the given resources with a single calendar-multiget report, or one GET each, and
+     * caches them.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @param paths Paths of the resources to fetch
+     * @param multiget Whether to use a calendar-multiget report
+     * @return number of resources cached
+     * @throws CalDAV4JException on error
+     */
+    private int preloadChunk(HttpClient httpClient, List<String> paths, boolean multiget)
+            throws CalDAV4JException {
+        if (!multiget) {
+            for (String path : paths) {
+                if (negativeCache != null) {
+                    negativeCache.invalidateHref(getHref(path));
+                }
+                // cached by the GET
+                getCalDAVResourceFromServer(httpClient, path);
+            }
+            return paths.size();
+        }
+
+        Map<String, CalDAVResource> resources = getCalDAVResourcesByMultiget(httpClient, paths);
+        cache.putResources(resources.values());
+        if (negativeCache != null) {
+            for (String href : resources.keySet()) {
+                negativeCache.invalidateHref(href);
+            }
+        }
+        return resources.size();
+    }
+
+    /**
+     * Fetches the given resources from the server with a single calendar-multiget report. Does not
+     * check nor update the cache.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @param paths Paths of the resources to fetch
+     * @return Map of the hrefs, as returned by {@link #getHref(String)}, to the resources found
+     * @throws CalDAV4JException on error
+     */
+    protected Map<String, CalDAVResource> getCalDAVResourcesByMultiget(
+            HttpClient httpClient, List<String> paths) throws CalDAV4JException {
+        CalendarMultiget query = new CalendarMultiget();
+        query.addProperty(CalDAVConstants.DNAME_GETETAG);
+        query.setCalendarDataProp(new CalendarData());
+        query.setHrefs(paths);
+
+        ResourceReader reader = new ResourceReader();
+        if (isPreferSupported()) {
+            readReport(httpClient, query, reader, CalDAVConstants.PREFER_RETURN_MINIMAL);
+        } else {
+            readReport(httpClient, query, reader);
+        }
+
+        Map<String, CalDAVResource> resources = new LinkedHashMap<>();
+        for (CalDAVResource resource : reader.getResources()) {
+            String etag = resource.getResourceMetadata().getETag();
+            Calendar calendar = resource.getCalendar();
+            if (etag == null || calendar == null) {
+                continue;
+            }
+            String href = getHref(UrlUtils.stripHost(resource.getResourceMetadata().getHref()));
+            resources.put(href, new CalDAVResource(calendar, etag, href));
+        }
+        return resources;
+    }
+
+    /**
+     * Resolves the resources listed by a REPORT which returned only their etags. All the resources
+     * are looked up in the cache at once, and the ones missing or out of date are fetched with a
+     * single calendar-multiget, then cached at once. Resources not returned by the multiget, or all
+     * of them if the server doesn't support calendar-multiget, are retrieved one by one.
+     *
+     * @param httpClient the httpClient which will make the requests
+     * @param etagsByPath Etags listed by the REPORT, by path of the resources
+     * @param skipFailures If true, resources which can't be retrieved are logged and skipped,
+     *     otherwise the first failure is thrown.
+     * @return Resources, in the order of the responses
+     * @throws CalDAV4JException on error
+     */
+    private List<CalDAVResource> getCalDAVResourcesWithCache(
+            HttpClient httpClient, Map<String, String> etagsByPath, boolean skipFailures)
+            throws CalDAV4JException {
+        Map<String, String> paths = new LinkedHashMap<>();
+        Map<String, String> etags = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : etagsByPath.entrySet()) {
+            String href = getHref(entry.getKey());
+            paths.put(href, entry.getKey());
+            etags.put(href, entry.getValue());
+        }
+
+        Map<String, CalDAVResource> cachedResources = cache.getResources(paths.keySet());
+        Map<String, CalDAVResource> resources = new HashMap<>();
+        List<String> stale = new ArrayList<>();
+        for (Map.Entry<String, String> entry : paths.entrySet()) {
+            CalDAVResource cached = cachedResources.get(entry.getKey());
+            String etag = etags.get(entry.getKey());
+            if (cached != null
+                    && cached.getCalendar() != null
+                    && etag != null
+                    && etag.equals(cached.getResourceMetadata().getETag())) {
+                cached.getResourceMetadata().markValidated();
+                resources.put(entry.getKey(), cached);
+            } else {
+                stale.add(entry.getValue());
+            }
+        }
+
+        if (!stale.isEmpty() && getServerCapabilities(httpClient).isCalendarMultigetSupported()) {
+            try {
+                Map<String, CalDAVResource> fetched =
+                        getCalDAVResourcesByMultiget(httpClient, stale);
+                cache.putResources(fetched.values());
+                resources.putAll(fetched);
+            } catch (CalDAV4JException e) {
+                log.warn("Multiget of stale resources failed, retrieving them one by one", e);
+            }
+        }
+
+        List<CalDAVResource> list = new ArrayList<>(paths.size());
+        for (Map.Entry<String, String> entry : paths.entrySet()) {
+            CalDAVResource resource = resources.get(entry.getKey());
+            if (resource == null) {
+                try {
+                    resource = getCalDAVResourceFromServer(httpClient, entry.getValue());
+                } catch (CalDAV4JException e) {
+                    if (!skipFailures) {
+                        throw e;
+                    }
+                    log.warn("Unable to get CalDAVResource for " + entry.getValue(), e);
+                    continue;
+                }
+            }
+            list.add(resource);
+        }
+        return list;
+    }
+
+    /**
+     * Lists the resources of the collection along with their etags, using a PROPFIND with a Depth
+     * of 1. The collection itself and sub-collections are skipped.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @return Map of the resource paths to their etags
+     * @throws CalDAV4JException on error
+     */
+    protected Map<String, String> getETagsByPropFind(HttpClient httpClient)
+            throws CalDAV4JException {
+        CollectionManifest manifest = getManifest(httpClient);
+        Map<String, String> etags = new LinkedHashMap<>();
+        for (int i = 0; i < manifest.size(); i++) {
+            etags.put(manifest.getPath(i), manifest.getETag(i));
+        }
+        return etags;
+    }
+
+    /**
+     * Gets the ctag of the collection with a PROPFIND with a Depth of 0. The ctag changes whenever
+     * a resource of the collection is added, changed or removed.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @return The CS:getctag of the collection, null if the server has none.
+     * @throws CalDAV4JException on error
+     */
+    public String getCTag(HttpClient httpClient) throws CalDAV4JException {
+        DavPropertyNameSet props = new DavPropertyNameSet();
+        props.add(CalDAVConstants.DNAME_GETCTAG);
+
+        HttpPropFindMethod method = null;
+        try {
+            method =
+                    methodFactory.createPropFindMethod(
+                            getCalendarCollectionRoot(), props, CalDAVConstants.DEPTH_0);
+            HttpResponse response = httpClient.execute(getDefaultHttpHost(method.getURI()), method);
+            if (!method.succeeded(response)) {
+                MethodUtil.StatusToExceptions(method, response);
+                throw new BadStatusException(method, response);
+            }
+
+            MultiStatusResponse[] responses =
+                    method.getResponseBodyAsMultiStatus(response).getResponses();
+            if (responses.length == 0) {
+                return null;
+            }
+            DavProperty<?> ctag =
+                    responses[0]
+                            .getProperties(CalDAVStatus.SC_OK)
+                            .get(CalDAVConstants.DNAME_GETCTAG);
+            if (ctag == null || ctag.getValue() == null) {
+                return null;
+            }
+            String value = ctag.getValue().toString().trim();
+            return value.isEmpty() ? null : value;
+        } catch (CalDAV4JException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CalDAV4JException("Error in PROPFIND " + getCalendarCollectionRoot(), e);
+        } finally {
+            if (method != null) method.reset();
+        }
+    }
+
+    /**
+     * Lists the paths and etags of the resources of the collection with a single PROPFIND with a
+     * Depth of 1. The collection itself and sub-collections are skipped.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @return The manifest of the collection
+     * @throws CalDAV4JException on error
+     */
+    public CollectionManifest getManifest(HttpClient httpClient) throws CalDAV4JException {
+        return getManifest(httpClient, false);
+    }
+
+    /**
+     * Lists the resources of the collection with a single PROPFIND with a Depth of 1, see {@link
+     * #diffWithCache(CollectionManifest, CollectionManifest)} to compare it with the cache.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @param withDetails Whether to also list the size and last modification date of the resources
+     * @return The manifest of the collection
+     * @throws CalDAV4JException on error
+     */
+    public CollectionManifest getManifest(HttpClient httpClient, boolean withDetails)
+            throws CalDAV4JException {
+        DavPropertyNameSet props = new DavPropertyNameSet();
+        props.add(DavPropertyName.GETETAG);
+        if (withDetails) {
+            props.add(DavPropertyName.GETCONTENTLENGTH);
+            props.add(DavPropertyName.GETLASTMODIFIED);
+        }
+
+        HttpPropFindMethod method = null;
+        try {
+            method =
+                    methodFactory.createPropFindMethod(
+                            getCalendarCollectionRoot(), props, CalDAVConstants.DEPTH_1);
+            if (isPreferSupported()) {
+                // the collection itself and the propstats of missing details are skipped anyway
+                method.setPreferences(
+                        CalDAVConstants.PREFER_RETURN_MINIMAL, CalDAVConstants.PREFER_DEPTH_NOROOT);
+            }
+            HttpResponse response = httpClient.execute(getDefaultHttpHost(method.getURI()), method);
+            if (!method.succeeded(response)) {
+                MethodUtil.StatusToExceptions(method, response);
+                throw new BadStatusException(method, response);
+            }
+
+            return CollectionManifest.fromResponses(
+                    getCalendarCollectionRoot(),
+                    method.getResponseBodyAsMultiStatus(response).getResponses());
+        } catch (CalDAV4JException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CalDAV4JException("Error in PROPFIND " + getCalendarCollectionRoot(), e);
+        } finally {
+            if (method != null) method.reset();
+        }
+    }
+
+    /**
+     * Compares a manifest of the collection with the cache, looking up all the resources at once.
+     * Resources missing from the cache are added, and cached resources whose etag differs are
+     * changed; the other cached resources are current, and marked as validated. The cache can't
+     * list its resources, so the deleted resources are the ones of the previous manifest missing
+     * from the new one.
+     *
+     * @param manifest Manifest of the collection, as returned by {@link #getManifest(HttpClient)}
+     * @param previous Previous manifest of the collection, null if none.
+     * @return The resources to fetch and to evict
+     * @throws CalDAV4JException on error reading the cache
+     */
+    public ManifestDiff diffWithCache(CollectionManifest manifest, CollectionManifest previous)
+            throws CalDAV4JException {
+        List<String> hrefs = new ArrayList<>(manifest.size());
+        for (int i = 0; i < manifest.size(); i++) {
+            hrefs.add(getHref(manifest.getPath(i)));
+        }
+        Map<String, CalDAVResource> cachedResources = cache.getResources(hrefs);
+
+        List<String> added = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < manifest.size(); i++) {
+            CalDAVResource cached = cachedResources.get(hrefs.get(i));
+            if (cached == null || cached.getCalendar() == null) {
+                added.add(manifest.getPath(i));
+            } else if (!manifest.getETag(i).equals(cached.getResourceMetadata().getETag())) {
+                changed.add(manifest.getPath(i));
+            } else {
+                cached.getResourceMetadata().markValidated();
+            }
+        }
+        List<String> deleted =
+                previous != null
+                        ? manifest.diff(previous).getDeleted()
+                        : Collections.<String>emptyList();
+        return new ManifestDiff(added, changed, deleted);
+    }
+
     /**
      * Executes a FreeBusyQuery Report as based on <a
      * href="https://tools.ietf.org/html/rfc4791#section-7.10">RFC 4791 Section 7.10</a> with a
@@ -1099,6 +2023,117 @@ public class CalDAVCollection extends CalDAVCalendarCollectionBase {
         return response.getStatusLine().getStatusCode();
     }
 
+    //
+    // OPTIONS method, used to probe the capabilities of the server
+    //
+
+    /**
+     * Returns the capabilities of the server for this collection, probing them on first use with
+     * {@link #probeServerCapabilities(HttpClient)}. The result is kept in the {@link
+     * #getCapabilitiesCache() capabilities cache}, shared by the collections on the same host and
+     * path, which run a single probe at a time. Without a cache, the server is not probed.
+     *
+     * @param httpClient the httpClient which will make the requests
+     * @return The capabilities, {@link ServerCapabilities#UNKNOWN} if the cache is disabled.
+     */
+    public ServerCapabilities getServerCapabilities(HttpClient httpClient) {
+        ServerCapabilitiesCache capabilitiesCache = this.capabilitiesCache;
+        if (capabilitiesCache == null) {
+            return ServerCapabilities.UNKNOWN;
+        }
+        return capabilitiesCache.get(
+                getDefaultHttpHost(URI.create(getCalendarCollectionRoot())),
+                getCalendarCollectionRoot(),
+                () -> probeServerCapabilities(httpClient));
+    }
+
+    /**
+     * Probes the capabilities of the server with an OPTIONS request and a Depth 0 PROPFIND of the
+     * supported-report-set and getctag of the collection. The PROPFIND is sent with a Prefer:
+     * return=minimal header, which tells from the Preference-Applied header of the response
+     * whether the server honors it. A failed request leaves the capabilities it would have revealed
+     * unknown.
+     *
+     * @param httpClient the httpClient which will make the requests
+     * @return The capabilities advertised by the server
+     */
+    protected ServerCapabilities probeServerCapabilities(HttpClient httpClient) {
+        HttpResponse optionsResponse = null;
+        HttpOptions options = new HttpOptions(getCalendarCollectionRoot());
+        try {
+            HttpResponse response =
+                    httpClient.execute(getDefaultHttpHost(options.getURI()), options);
+            EntityUtils.consumeQuietly(response.getEntity());
+            if (response.getStatusLine().getStatusCode() / 100 == 2) {
+                optionsResponse = response;
+            } else {
+                log.debug(
+                        "OPTIONS " + getCalendarCollectionRoot() + ": " + response.getStatusLine());
+            }
+        } catch (IOException e) {
+            log.debug("Problem executing OPTIONS on " + getCalendarCollectionRoot(), e);
+        } finally {
+            options.reset();
+        }
+
+        DavPropertyNameSet props = new DavPropertyNameSet();
+        props.add(CalDAVConstants.DNAME_SUPPORTED_REPORT_SET);
+        props.add(CalDAVConstants.DNAME_GETCTAG);
+        HttpResponse propFindResponse = null;
+        MultiStatusResponse collectionResponse = null;
+        HttpPropFindMethod method = null;
+        try {
+            method =
+                    methodFactory.createPropFindMethod(
+                            getCalendarCollectionRoot(), props, CalDAVConstants.DEPTH_0);
+            method.setPreferences(CalDAVConstants.PREFER_RETURN_MINIMAL);
+            HttpResponse response = httpClient.execute(getDefaultHttpHost(method.getURI()), method);
+            if (method.succeeded(response)) {
+                propFindResponse = response;
+                MultiStatusResponse[] responses =
+                        method.getResponseBodyAsMultiStatus(response).getResponses();
+                if (responses.length > 0) {
+                    collectionResponse = responses[0];
+                }
+            } else {
+                log.debug(
+                        "PROPFIND "
+                                + getCalendarCollectionRoot()
+                                + ": "
+                                + response.getStatusLine());
+            }
+        } catch (Exception e) {
+            log.debug("Problem executing PROPFIND on " + getCalendarCollectionRoot(), e);
+        } finally {
+            if (method != null) method.reset();
+        }
+
+        ServerCapabilities capabilities =
+                ServerCapabilities.fromResponses(
+                        optionsResponse, propFindResponse, collectionResponse);
+        log.debug("Capabilities of " + getCalendarCollectionRoot() + ": " + capabilities);
+        return capabilities;
+    }
+
+    /**
+     * Whether to send Prefer headers, as shown by the capabilities of the server. Only the
+     * capabilities already probed, e.g. by {@link #preload(HttpClient, PreloadOptions)} or {@link
+     * #getServerCapabilities(HttpClient)}, are looked up, so that no request is made.
+     *
+     * @return Whether the server honors the Prefer header, false if unknown.
+     */
+    protected boolean isPreferSupported() {
+        ServerCapabilitiesCache capabilitiesCache = this.capabilitiesCache;
+        if (capabilitiesCache == null) {
+            return false;
+        }
+        ServerCapabilities capabilities =
+                capabilitiesCache.get(
+                        getDefaultHttpHost(URI.create(getCalendarCollectionRoot())),
+                        getCalendarCollectionRoot());
+        return capabilities != null && capabilities.isPreferSupported();
+    }
+
     //
     // manage ACL TODO
     //
@@ -32,6 +32,8 @@ public interface CalDAVConstants {
     public static final String NS_DAV = "DAV:";
     public static final String NS_QUAL_DAV = "D";
     public static final String NS_QUAL_CALDAV = "C";
+    public static final String NS_CALENDARSERVER = "http://calendarserver.org/ns/";
+    public static final String NS_QUAL_CALENDARSERVER = "CS";
 
     public static final String PROC_ID_DEFAULT = "-//NONSGML CalDAV4j Client//EN";
 
@@ -39,6 +41,12 @@ public interface CalDAVConstants {
     public static final String HEADER_IF_MATCH = "If-Match";
     public static final String HEADER_CONTENT_TYPE = "Content-Type";
     public static final String HEADER_ETAG = "ETag";
+    public static final String HEADER_PREFER = "Prefer";
+    public static final String HEADER_PREFERENCE_APPLIED = "Preference-Applied";
+
+    // RFC 7240 and RFC 8144 preferences
+    public static final String PREFER_RETURN_MINIMAL = "return=minimal";
+    public static final String PREFER_DEPTH_NOROOT = "depth-noroot";
 
     public static final String CONTENT_TYPE_CALENDAR = "text/calendar";
     public static final String CONTENT_TYPE_TEXT_XML = "text/xml";
@@ -49,12 +57,21 @@ public interface CalDAVConstants {
     public static final String DAV_DISPLAYNAME = "displayname";
     public static final String DAV_PRINCIPAL_OWNER = "owner";
     public static final String DAV_PRINCIPAL_AUTHENTICATED = "authenticated";
+    public static final String DAV_SUPPORTED_REPORT_SET = "supported-report-set";
+    public static final String DAV_SYNC_COLLECTION = "sync-collection";
+    public static final String DAV_CURRENT_USER_PRINCIPAL = "current-user-principal";
+
+    public static final String CALENDARSERVER_GETCTAG = "getctag";
 
     public static final String CALDAV_PRIVILEGE_READ_FREE_BUSY = "read-free-busy";
     public static final String CALDAV_PRIVILEGE_SCHEDULE = "schedule";
     public static final String CALDAV_CALENDAR_DESCRIPTION = "calendar-description";
     public static final String CALDAV_CALENDAR_QUERY = "calendar-query";
     public static final String CALDAV_CALENDAR_DATA = "calendar-data";
+    public static final String CALDAV_CALENDAR = "calendar";
+    public static final String CALDAV_CALENDAR_HOME_SET = "calendar-home-set";
+    public static final String CALDAV_SUPPORTED_CALENDAR_COMPONENT_SET =
+            "supported-calendar-component-set";
 
     public static final String ATTR_START = "start";
     public static final String ATTR_END = "end";
@@ -88,6 +105,8 @@ public interface CalDAVConstants {
     public static final Namespace NAMESPACE_CALDAV =
             Namespace.getNamespace(NS_QUAL_CALDAV, NS_CALDAV);
     public static final Namespace NAMESPACE_WEBDAV = Namespace.getNamespace(NS_QUAL_DAV, NS_DAV);
+    public static final Namespace NAMESPACE_CALENDARSERVER =
+            Namespace.getNamespace(NS_QUAL_CALENDARSERVER, NS_CALENDARSERVER);
 
     // Jackrabbit Constants
 
@@ -114,6 +133,16 @@ public interface CalDAVConstants {
             DavPropertyName.create(ELEM_ALLPROP, NAMESPACE_WEBDAV);
     public static final DavPropertyName DNAME_DISPLAYNAME =
             DavPropertyName.create(DAV_DISPLAYNAME, NAMESPACE_CALDAV);
+    public static final DavPropertyName DNAME_SUPPORTED_REPORT_SET =
+            DavPropertyName.create(DAV_SUPPORTED_REPORT_SET, NAMESPACE_WEBDAV);
+    public static final DavPropertyName DNAME_GETCTAG =
+            DavPropertyName.create(CALENDARSERVER_GETCTAG, NAMESPACE_CALENDARSERVER);
+    public static final DavPropertyName DNAME_CURRENT_USER_PRINCIPAL =
+            DavPropertyName.create(DAV_CURRENT_USER_PRINCIPAL, NAMESPACE_WEBDAV);
+    public static final DavPropertyName DNAME_CALENDAR_HOME_SET =
+            DavPropertyName.create(CALDAV_CALENDAR_HOME_SET, NAMESPACE_CALDAV);
+    public static final DavPropertyName DNAME_SUPPORTED_CALENDAR_COMPONENT_SET =
+            DavPropertyName.create(CALDAV_SUPPORTED_CALENDAR_COMPONENT_SET, NAMESPACE_CALDAV);
     // -------------------------------------------------< PropFind Constants >---
     public static final int PROPFIND_BY_PROPERTY = 0;
     public static final int PROPFIND_ALL_PROP = 1;
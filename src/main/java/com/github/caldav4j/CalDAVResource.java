@@ -17,18 +17,35 @@
 package com.github.caldav4j;
 
 import com.github.caldav4j.model.response.CalendarDataProperty;
+import com.github.caldav4j.model.response.CalendarProjection;
+import com.github.caldav4j.model.response.SharedTimeZones;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.ComponentList;
+import net.fortuna.ical4j.model.Property;
+import net.fortuna.ical4j.model.PropertyList;
+import net.fortuna.ical4j.model.component.CalendarComponent;
 import org.apache.jackrabbit.webdav.MultiStatusResponse;
 
 /**
  * A serializable class representing the Calendar along with the associated metadata. Used for
  * storing into the cache.
+ *
+ * <p>Caches store {@link #snapshot() snapshots}, which are shared by all the threads reading the
+ * cache. The Calendar of a snapshot is handed out as a shallow copy: components and calendar
+ * properties can be added to or removed from it without affecting the snapshot, but the components
+ * themselves are shared and must be replaced rather than modified in place. Code which needs to
+ * modify them in place must work on {@link #getCalendarCopy()}.
  */
 public class CalDAVResource implements Serializable {
     private static final long serialVersionUID = -2607152240683030192L;
     private ResourceMetadata resourceMetadata = null;
     private Calendar calendar = null;
+    private boolean snapshot = false;
+    private transient volatile CalendarProjection projection = null;
 
     /**
      * Construct a Resource based on the Response.
@@ -62,12 +79,137 @@ public class CalDAVResource implements Serializable {
         resourceMetadata = new ResourceMetadata();
     }
 
+    /**
+     * @param calendar Calendar of the resource
+     * @throws UnsupportedOperationException if the resource is a snapshot
+     */
     public void setCalendar(Calendar calendar) {
+        if (snapshot) {
+            throw new UnsupportedOperationException("Snapshots can't be modified");
+        }
         this.calendar = calendar;
     }
 
+    /**
+     * @return Calendar of the resource. For a snapshot, a shallow copy of its Calendar, whose
+     *     components are shared with the snapshot.
+     */
     public Calendar getCalendar() {
-        return calendar;
+        return snapshot ? copyOf(calendar) : calendar;
+    }
+
+    /**
+     * Returns a copy of the Calendar which can be modified without affecting this resource. The
+     * copy is shallow and cheap: as ical4j property and component lists are immutable, adding or
+     * removing components and calendar properties on the copy replaces its lists, leaving the
+     * original untouched. Components themselves are shared, so they must be replaced rather than
+     * modified in place.
+     *
+     * @return Copy of the Calendar, null if the resource has none.
+     */
+    public Calendar getCalendarForUpdate() {
+        return copyOf(calendar);
+    }
+
+    /**
+     * Returns a deep copy of the Calendar, whose properties and components can be modified in place
+     * without affecting this resource. Costlier than {@link #getCalendarForUpdate()}, it is only
+     * needed by code which changes the components of a cached Calendar in place.
+     *
+     * @return Copy of the Calendar, null if the resource has none.
+     * @throws IllegalStateException if a property or a component can't be copied
+     */
+    public Calendar getCalendarCopy() {
+        if (calendar == null) {
+            return null;
+        }
+        try {
+            List<Property> properties = new ArrayList<>();
+            for (Property property : calendar.getProperties()) {
+                properties.add(property.copy());
+            }
+            List<CalendarComponent> components = new ArrayList<>();
+            for (CalendarComponent component : calendar.getComponents()) {
+                components.add(component.copy());
+            }
+            return new Calendar(new PropertyList(properties), new ComponentList<>(components));
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to copy calendar", e);
+        }
+    }
+
+    /**
+     * @return Whether this resource is an immutable snapshot.
+     */
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns an immutable snapshot of this resource, which can be safely shared between threads.
+     * The snapshot owns a shallow copy of the Calendar, so that later changes to the lists of this
+     * resource's Calendar are not seen by readers of the snapshot. Its timezones are resolved to
+     * the canonical instances of {@link SharedTimeZones#getDefault()}, so that cached calendars
+     * don't each hold a copy of the same definitions. These are copies owned by the registry: the
+     * VTIMEZONE components of this resource can still be changed without affecting the snapshot.
+     *
+     * @return This resource if already a snapshot, a snapshot of it otherwise.
+     */
+    public CalDAVResource snapshot() {
+        if (snapshot) {
+            return this;
+        }
+        CalDAVResource copy = new CalDAVResource();
+        copy.calendar = copyOf(SharedTimeZones.getDefault().deduplicate(calendar));
+        copy.resourceMetadata = resourceMetadata.frozenCopy();
+        copy.snapshot = true;
+        return copy;
+    }
+
+    private static Calendar copyOf(Calendar calendar) {
+        if (calendar == null) {
+            return null;
+        }
+        return new Calendar(calendar.getPropertyList(), calendar.getComponentList());
+    }
+
+    /**
+     * Returns the {@link CalendarProjection#HOT_PROPERTIES} of the main component of the Calendar.
+     * The projection of a snapshot is computed once and kept, as its Calendar can't change.
+     *
+     * @return Projection, empty if the resource has no Calendar.
+     */
+    public CalendarProjection getProjection() {
+        CalendarProjection result = projection;
+        if (result == null) {
+            result =
+                    CalendarProjection.of(calendar, null, CalendarProjection.HOT_PROPERTIES);
+            if (snapshot) {
+                projection = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param propertyNames Names of the properties to keep.
+     * @return Projection of the main component of the Calendar, empty if the resource has no
+     *     Calendar.
+     */
+    public CalendarProjection getProjection(Collection<String> propertyNames) {
+        return getProjection(null, propertyNames);
+    }
+
+    /**
+     * Projects a component of the Calendar without copying it, even for a snapshot.
+     *
+     * @param componentName Name of the component to project, null for the main component.
+     * @param propertyNames Names of the properties to keep.
+     * @return Projection of the first such component, empty if the Calendar has none.
+     */
+    public CalendarProjection getProjection(
+            String componentName, Collection<String> propertyNames) {
+        return CalendarProjection.of(calendar, componentName, propertyNames);
     }
 
     public ResourceMetadata getResourceMetadata() {
@@ -0,0 +1,510 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import com.github.caldav4j.exceptions.BadStatusException;
+import com.github.caldav4j.exceptions.CalDAV4JException;
+import com.github.caldav4j.methods.CalDAV4JMethodFactory;
+import com.github.caldav4j.methods.HttpPropFindMethod;
+import com.github.caldav4j.model.request.Comp;
+import com.github.caldav4j.util.CalDAVStatus;
+import com.github.caldav4j.util.MethodUtil;
+import com.github.caldav4j.util.UrlUtils;
+import com.github.caldav4j.util.XMLUtils;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.jackrabbit.webdav.MultiStatusResponse;
+import org.apache.jackrabbit.webdav.property.DavProperty;
+import org.apache.jackrabbit.webdav.property.DavPropertyName;
+import org.apache.jackrabbit.webdav.property.DavPropertyNameSet;
+import org.apache.jackrabbit.webdav.property.DavPropertySet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Finds the calendars of a user, following current-user-principal, then calendar-home-set, then
+ * listing the calendar collections of the homes with their display name, ctag and supported
+ * components, as described by <a href="https://tools.ietf.org/html/rfc4791#section-6.2.1">RFC
+ * 4791 Section 6.2.1</a> and <a href="https://tools.ietf.org/html/rfc5397">RFC 5397</a>.
+ *
+ * <p>The {@link CalendarHome} of each principal is cached for the user who listed it, as the
+ * calendars visible in a home depend on the privileges of the user. Within the time to live it is
+ * returned without any request; past it, a single Depth 1 PROPFIND of each home revalidates it,
+ * and the cached home is kept if no calendar was added, removed or changed. Calendars without a
+ * ctag are compared by their path, display name and components only. The HttpClient must carry
+ * the credentials of the user, as the principal depends on them.
+ *
+ * <p>When the caller names the authenticated user, its principal is cached too, so that a repeated
+ * {@link #discover(HttpClient, String, String)} within the time to live makes no request.
+ */
+public class CalendarDiscovery {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarDiscovery.class);
+
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000;
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private final HttpHost httpHost;
+    private final CalDAV4JMethodFactory methodFactory;
+    private final long ttlMillis;
+    private final Map<Key, Entry<CalendarHome>> homes;
+    private final Map<Key, Entry<String>> principals;
+
+    /**
+     * Creates a discovery with the default time to live and size.
+     *
+     * @param httpHost Host of the server, null to use the host of absolute paths.
+     * @param methodFactory Factory of the PROPFIND methods
+     */
+    public CalendarDiscovery(HttpHost httpHost, CalDAV4JMethodFactory methodFactory) {
+        this(httpHost, methodFactory, DEFAULT_TTL_MILLIS, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param httpHost Host of the server, null to use the host of absolute paths.
+     * @param methodFactory Factory of the PROPFIND methods
+     * @param ttlMillis Time during which a cached home is used without revalidation, in
+     *     milliseconds.
+     * @param maxEntries Maximum number of homes cached, one per user and principal, and of
+     *     principals cached, one per user and context path.
+     */
+    public CalendarDiscovery(
+            HttpHost httpHost,
+            CalDAV4JMethodFactory methodFactory,
+            long ttlMillis,
+            final int maxEntries) {
+        if (ttlMillis <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("TTL and size must be positive");
+        }
+        this.httpHost = httpHost;
+        this.methodFactory = methodFactory;
+        this.ttlMillis = ttlMillis;
+        this.homes = lruMap(maxEntries);
+        this.principals = lruMap(maxEntries);
+    }
+
+    private static <V> Map<Key, V> lruMap(final int maxEntries) {
+        return new LinkedHashMap<Key, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Finds the calendars of the authenticated user. The principal is looked up on every call,
+     * as it depends on the credentials of the HttpClient, while its home comes from the cache.
+     *
+     * @param httpClient the httpClient which will make the requests, with the user credentials
+     * @param contextPath Path of any resource of the server, e.g. / or /.well-known/caldav
+     * @return The calendars of the user
+     * @throws CalDAV4JException on error
+     */
+    public CalendarHome discover(HttpClient httpClient, String contextPath)
+            throws CalDAV4JException {
+        return getCalendarHome(httpClient, getCurrentUserPrincipal(httpClient, contextPath));
+    }
+
+    /**
+     * Finds the calendars of the authenticated user, caching them and the principal for the given
+     * user. Within the time to live, a repeated call makes no request.
+     *
+     * @param httpClient the httpClient which will make the requests, with the user credentials
+     * @param user Name of the authenticated user
+     * @param contextPath Path of any resource of the server, e.g. / or /.well-known/caldav
+     * @return The calendars of the user
+     * @throws CalDAV4JException on error
+     * @see #getCalendarHome(HttpClient, String, String)
+     */
+    public CalendarHome discover(HttpClient httpClient, String user, String contextPath)
+            throws CalDAV4JException {
+        Key key = new Key(user, contextPath);
+        String principalPath;
+        synchronized (principals) {
+            principalPath = valueOf(principals.get(key));
+        }
+        if (principalPath == null) {
+            principalPath = getCurrentUserPrincipal(httpClient, contextPath);
+            synchronized (principals) {
+                principals.put(
+                        key, new Entry<>(principalPath, System.currentTimeMillis() + ttlMillis));
+            }
+        }
+        return getCalendarHome(httpClient, user, principalPath);
+    }
+
+    /**
+     * @param httpClient the httpClient which will make the request, with the user credentials
+     * @param path Path of any resource of the server, e.g. / or /.well-known/caldav
+     * @return Path of the principal of the authenticated user
+     * @throws CalDAV4JException on error, or if the server doesn't return the principal.
+     */
+    public String getCurrentUserPrincipal(HttpClient httpClient, String path)
+            throws CalDAV4JException {
+        DavPropertyNameSet props = new DavPropertyNameSet();
+        props.add(CalDAVConstants.DNAME_CURRENT_USER_PRINCIPAL);
+        DavPropertySet found = propFindDepth0(httpClient, path, props);
+        List<String> hrefs = hrefs(found.get(CalDAVConstants.DNAME_CURRENT_USER_PRINCIPAL));
+        if (hrefs.isEmpty()) {
+            throw new CalDAV4JException("No current-user-principal for " + path);
+        }
+        return UrlUtils.stripHost(hrefs.get(0));
+    }
+
+    /**
+     * @param httpClient the httpClient which will make the request
+     * @param principalPath Path of the principal
+     * @return Paths of the calendar-home-set of the principal
+     * @throws CalDAV4JException on error, or if the principal has no calendar home.
+     */
+    public List<String> getCalendarHomeSet(HttpClient httpClient, String principalPath)
+            throws CalDAV4JException {
+        DavPropertyNameSet props = new DavPropertyNameSet();
+        props.add(CalDAVConstants.DNAME_CALENDAR_HOME_SET);
+        DavPropertySet found = propFindDepth0(httpClient, principalPath, props);
+        List<String> homePaths = new ArrayList<>();
+        for (String href : hrefs(found.get(CalDAVConstants.DNAME_CALENDAR_HOME_SET))) {
+            homePaths.add(UrlUtils.ensureTrailingSlash(UrlUtils.stripHost(href)));
+        }
+        if (homePaths.isEmpty()) {
+            throw new CalDAV4JException("No calendar-home-set for " + principalPath);
+        }
+        return homePaths;
+    }
+
+    /**
+     * Lists the calendar collections of a home with a PROPFIND with a Depth of 1. Other
+     * collections, such as the scheduling inbox and outbox, are skipped.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @param homePath Path of a calendar home
+     * @return The calendar collections of the home
+     * @throws CalDAV4JException on error
+     */
+    public List<CalendarInfo> getCalendars(HttpClient httpClient, String homePath)
+            throws CalDAV4JException {
+        DavPropertyNameSet props = new DavPropertyNameSet();
+        props.add(DavPropertyName.RESOURCETYPE);
+        props.add(DavPropertyName.DISPLAYNAME);
+        props.add(CalDAVConstants.DNAME_GETCTAG);
+        props.add(CalDAVConstants.DNAME_SUPPORTED_CALENDAR_COMPONENT_SET);
+        return getCalendarsFromResponses(
+                homePath, propFind(httpClient, homePath, props, CalDAVConstants.DEPTH_1));
+    }
+
+    /**
+     * Returns the calendars of the principal of the authenticated user, from the cache if
+     * possible. The principal must be the one of the user, as returned by {@link
+     * #getCurrentUserPrincipal(HttpClient, String)}: the home is cached for the principal itself,
+     * and would be returned to any other user asking for it. Use {@link
+     * #getCalendarHome(HttpClient, String, String)} to list the home of another principal.
+     *
+     * @param httpClient the httpClient which will make the requests, with the user credentials
+     * @param principalPath Path of the principal of the authenticated user
+     * @return The calendars of the principal
+     * @throws CalDAV4JException on error
+     */
+    public CalendarHome getCalendarHome(HttpClient httpClient, String principalPath)
+            throws CalDAV4JException {
+        return getCalendarHome(httpClient, principalPath, principalPath);
+    }
+
+    /**
+     * Returns the calendars of a principal as seen by a user, from the cache if possible. A cached
+     * home older than the time to live is revalidated with the properties of its calendars.
+     *
+     * @param httpClient the httpClient which will make the requests, with the user credentials
+     * @param user Name of the authenticated user, the home is only returned from the cache to the
+     *     same user.
+     * @param principalPath Path of the principal
+     * @return The calendars of the principal
+     * @throws CalDAV4JException on error
+     */
+    public CalendarHome getCalendarHome(HttpClient httpClient, String user, String principalPath)
+            throws CalDAV4JException {
+        Key key = new Key(user, principalPath);
+        Entry<CalendarHome> entry;
+        synchronized (homes) {
+            entry = homes.get(key);
+        }
+        CalendarHome fresh = valueOf(entry);
+        if (fresh != null) {
+            return fresh;
+        }
+
+        List<String> homePaths =
+                entry != null
+                        ? entry.value.getHomePaths()
+                        : getCalendarHomeSet(httpClient, principalPath);
+        List<CalendarInfo> calendars = new ArrayList<>();
+        for (String homePath : homePaths) {
+            calendars.addAll(getCalendars(httpClient, homePath));
+        }
+        CalendarHome home;
+        if (entry != null && sameCalendars(entry.value.getCalendars(), calendars)) {
+            home = entry.value;
+        } else {
+            if (entry != null) {
+                log.debug("Calendars of " + principalPath + " changed");
+            }
+            home = new CalendarHome(principalPath, homePaths, calendars);
+        }
+        synchronized (homes) {
+            homes.put(key, new Entry<>(home, System.currentTimeMillis() + ttlMillis));
+        }
+        return home;
+    }
+
+    /**
+     * Forgets the home of a principal for all users, e.g. after creating or deleting one of its
+     * calendars, or after a change of its calendar-home-set.
+     *
+     * @param principalPath Path of the principal
+     */
+    public void invalidate(String principalPath) {
+        synchronized (homes) {
+            homes.keySet().removeIf(key -> key.path.equals(principalPath));
+        }
+    }
+
+    /** Forgets all the homes and principals. */
+    public void clear() {
+        synchronized (homes) {
+            homes.clear();
+        }
+        synchronized (principals) {
+            principals.clear();
+        }
+    }
+
+    /**
+     * @return Number of homes cached, one per user and principal.
+     */
+    public int size() {
+        synchronized (homes) {
+            return homes.size();
+        }
+    }
+
+    /**
+     * Builds the calendar collections of a home from the responses of a Depth 1 PROPFIND.
+     *
+     * @param homePath Path of the home
+     * @param responses Responses of the PROPFIND
+     * @return The calendar collections, in the order of the responses
+     */
+    protected static List<CalendarInfo> getCalendarsFromResponses(
+            String homePath, MultiStatusResponse[] responses) {
+        String home = UrlUtils.ensureTrailingSlash(homePath);
+        List<CalendarInfo> calendars = new ArrayList<>();
+        for (MultiStatusResponse response : responses) {
+            String path = UrlUtils.ensureTrailingSlash(UrlUtils.stripHost(response.getHref()));
+            DavPropertySet found = response.getProperties(CalDAVStatus.SC_OK);
+            if (path.equals(home) || !isCalendar(found.get(DavPropertyName.RESOURCETYPE))) {
+                continue;
+            }
+            DavProperty<?> components =
+                    found.get(CalDAVConstants.DNAME_SUPPORTED_CALENDAR_COMPONENT_SET);
+            calendars.add(
+                    new CalendarInfo(
+                            path,
+                            text(found.get(DavPropertyName.DISPLAYNAME)),
+                            text(found.get(CalDAVConstants.DNAME_GETCTAG)),
+                            componentNames(components)));
+        }
+        return calendars;
+    }
+
+    /**
+     * Compares the calendars of a cached home with the listed ones. Calendars without a ctag are
+     * equal if their other properties are.
+     *
+     * @return Whether no calendar was added, removed nor changed.
+     */
+    private static boolean sameCalendars(List<CalendarInfo> cached, List<CalendarInfo> listed) {
+        if (cached.size() != listed.size()) {
+            return false;
+        }
+        for (int i = 0; i < cached.size(); i++) {
+            CalendarInfo a = cached.get(i);
+            CalendarInfo b = listed.get(i);
+            if (!a.getPath().equals(b.getPath())
+                    || !Objects.equals(a.getCTag(), b.getCTag())
+                    || !Objects.equals(a.getDisplayName(), b.getDisplayName())
+                    || !a.getSupportedComponents().equals(b.getSupportedComponents())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private DavPropertySet propFindDepth0(
+            HttpClient httpClient, String path, DavPropertyNameSet props) throws CalDAV4JException {
+        MultiStatusResponse[] responses =
+                propFind(httpClient, path, props, CalDAVConstants.DEPTH_0);
+        if (responses.length == 0) {
+            throw new CalDAV4JException("Empty PROPFIND response for " + path);
+        }
+        return responses[0].getProperties(CalDAVStatus.SC_OK);
+    }
+
+    /**
+     * Executes a PROPFIND.
+     *
+     * @param httpClient the httpClient which will make the request
+     * @param path Path of the resource
+     * @param props Properties to find
+     * @param depth Depth of the PROPFIND
+     * @return The responses
+     * @throws CalDAV4JException on error
+     */
+    protected MultiStatusResponse[] propFind(
+            HttpClient httpClient, String path, DavPropertyNameSet props, int depth)
+            throws CalDAV4JException {
+        HttpPropFindMethod method = null;
+        try {
+            method = methodFactory.createPropFindMethod(path, props, depth);
+            HttpResponse response = httpClient.execute(getHttpHost(method.getURI()), method);
+            if (!method.succeeded(response)) {
+                MethodUtil.StatusToExceptions(method, response);
+                throw new BadStatusException(method, response);
+            }
+            return method.getResponseBodyAsMultiStatus(response).getResponses();
+        } catch (CalDAV4JException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CalDAV4JException("Error in PROPFIND " + path, e);
+        } finally {
+            if (method != null) method.reset();
+        }
+    }
+
+    private HttpHost getHttpHost(URI uri) {
+        return httpHost != null ? httpHost : URIUtils.extractHost(uri);
+    }
+
+    private static boolean isCalendar(DavProperty<?> resourceType) {
+        Element element = toElement(resourceType);
+        if (element == null) {
+            return false;
+        }
+        NodeList types =
+                element.getElementsByTagNameNS(
+                        CalDAVConstants.NS_CALDAV, CalDAVConstants.CALDAV_CALENDAR);
+        return types.getLength() > 0;
+    }
+
+    private static List<String> hrefs(DavProperty<?> property) {
+        Element element = toElement(property);
+        return element != null ? XMLUtils.getHrefs(element) : Collections.emptyList();
+    }
+
+    private static String text(DavProperty<?> property) {
+        Element element = toElement(property);
+        if (element == null) {
+            return null;
+        }
+        String text = element.getTextContent().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static List<String> componentNames(DavProperty<?> supportedComponentSet) {
+        List<String> names = new ArrayList<>();
+        Element element = toElement(supportedComponentSet);
+        if (element != null) {
+            NodeList comps =
+                    element.getElementsByTagNameNS(CalDAVConstants.NS_CALDAV, Comp.ELEMENT_NAME);
+            for (int i = 0; i < comps.getLength(); i++) {
+                String name = ((Element) comps.item(i)).getAttribute(Comp.ATTR_NAME);
+                if (!name.isEmpty()) {
+                    names.add(name.toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+        return names;
+    }
+
+    private static Element toElement(DavProperty<?> property) {
+        if (property == null) {
+            return null;
+        }
+        try {
+            return XMLUtils.toElement(property);
+        } catch (ParserConfigurationException e) {
+            log.warn("Unable to read " + property.getName(), e);
+            return null;
+        }
+    }
+
+    /**
+     * @return The value of the entry, null if none or expired.
+     */
+    private static <V> V valueOf(Entry<V> entry) {
+        return entry != null && entry.validUntil > System.currentTimeMillis() ? entry.value : null;
+    }
+
+    /** User and path of a principal, or of the context a principal was looked up from. */
+    private static final class Key {
+        private final String user;
+        private final String path;
+
+        private Key(String user, String path) {
+            this.user = user;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(user, other.user) && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(user, path);
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long validUntil;
+
+        private Entry(V value, long validUntil) {
+            this.value = value;
+            this.validUntil = validUntil;
+        }
+    }
+}
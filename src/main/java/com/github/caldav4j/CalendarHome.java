@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import com.github.caldav4j.methods.CalDAV4JMethodFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.http.HttpHost;
+
+/**
+ * Calendar collections of a principal, found in its calendar-home-set by {@link
+ * CalendarDiscovery}.
+ */
+public final class CalendarHome {
+
+    private final String principalPath;
+    private final List<String> homePaths;
+    private final List<CalendarInfo> calendars;
+
+    /**
+     * @param principalPath Path of the principal
+     * @param homePaths Paths of the calendar-home-set of the principal
+     * @param calendars Calendar collections found in the homes
+     */
+    public CalendarHome(
+            String principalPath, List<String> homePaths, List<CalendarInfo> calendars) {
+        this.principalPath = principalPath;
+        this.homePaths = Collections.unmodifiableList(new ArrayList<>(homePaths));
+        this.calendars = Collections.unmodifiableList(new ArrayList<>(calendars));
+    }
+
+    /**
+     * @return Path of the principal
+     */
+    public String getPrincipalPath() {
+        return principalPath;
+    }
+
+    /**
+     * @return Paths of the calendar-home-set of the principal, usually only one.
+     */
+    public List<String> getHomePaths() {
+        return homePaths;
+    }
+
+    /**
+     * @return Calendar collections of the principal, in the order listed by the server.
+     */
+    public List<CalendarInfo> getCalendars() {
+        return calendars;
+    }
+
+    /**
+     * @param componentName Name of a component, e.g. VEVENT or VTODO
+     * @return The calendar collections accepting the component.
+     */
+    public List<CalendarInfo> getCalendars(String componentName) {
+        List<CalendarInfo> result = new ArrayList<>();
+        for (CalendarInfo calendar : calendars) {
+            if (calendar.supports(componentName)) {
+                result.add(calendar);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param path Path of a calendar collection
+     * @return The calendar collection with the given path, null if none.
+     */
+    public CalendarInfo getCalendar(String path) {
+        for (CalendarInfo calendar : calendars) {
+            if (calendar.getPath().equals(path)) {
+                return calendar;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a collection for each calendar of the principal, e.g. to query them all with a
+     * {@link CalendarHomeQuery}.
+     *
+     * @param httpHost Host information for the CalDAV Server
+     * @param methodFactory methodFactory to obtain HTTP methods from
+     * @return The collections, in the order of {@link #getCalendars()}.
+     */
+    public List<CalDAVCollection> createCollections(
+            HttpHost httpHost, CalDAV4JMethodFactory methodFactory) {
+        List<CalDAVCollection> collections = new ArrayList<>();
+        for (CalendarInfo calendar : calendars) {
+            collections.add(
+                    new CalDAVCollection(
+                            calendar.getPath(),
+                            httpHost,
+                            methodFactory,
+                            CalDAVConstants.PROC_ID_DEFAULT));
+        }
+        return collections;
+    }
+
+    @Override
+    public String toString() {
+        return "CalendarHome[" + principalPath + ", " + calendars.size() + " calendars]";
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import com.github.caldav4j.exceptions.CalDAV4JException;
+import com.github.caldav4j.model.request.CalendarQuery;
+import com.github.caldav4j.util.PreparedQuery;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Property;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+import net.fortuna.ical4j.model.component.VTimeZone;
+import net.fortuna.ical4j.model.property.DateProperty;
+import org.apache.http.client.HttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs one query on all the calendar collections of a {@link CalendarHome}, e.g. to build the
+ * agenda of a user, with a bounded number of REPORTs at a time. The calendars found are merged by
+ * the DTSTART, or DUE, of their first component: a recurring event is ordered by the start of its
+ * series, not by its first instance in the range of the query. A collection which fails doesn't
+ * fail the query: its error is part of the {@link Result}. When a timeout is set, the query
+ * returns what was found by then, and the collections not queried in time are reported as such.
+ *
+ * <p>The HttpClient must be thread safe, e.g. backed by a pooling connection manager. Requests
+ * still running at the deadline are interrupted, but may only end at the socket timeout of the
+ * client.
+ */
+public class CalendarHomeQuery {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarHomeQuery.class);
+
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private final List<CalDAVCollection> collections;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private ExecutorService executor = null;
+    private long timeoutMillis = 0;
+
+    /**
+     * @param collections Collections to query, see {@link CalendarHome#createCollections}
+     */
+    public CalendarHomeQuery(List<CalDAVCollection> collections) {
+        this.collections = new ArrayList<>(collections);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @param parallelism Maximum number of collections queried concurrently.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @param executor Executor running the queries, which is not shut down by the query. Null to
+     *     use a pool of {@link #getParallelism()} threads.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * @param timeoutMillis Time after which the query returns the results found so far, in
+     *     milliseconds. Zero to wait for all the collections.
+     */
+    public void setTimeoutMillis(long timeoutMillis) {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("Timeout can't be negative");
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Runs a query on all the collections. As {@link CalDAVCollection#queryCalendars(HttpClient,
+     * CalendarQuery)} removes the calendar-data of the query when the collection has a cache, the
+     * collections must all have a cache, or all be without one; see {@link #query(HttpClient,
+     * PreparedQuery, Map)} otherwise.
+     *
+     * @param httpClient the httpClient which will make the requests
+     * @param query Query to run, shared by the collections
+     * @return The calendars found, and the collections which failed or timed out
+     * @throws CalDAV4JException if interrupted
+     * @throws IllegalArgumentException if only some of the collections have a cache
+     */
+    public Result query(HttpClient httpClient, CalendarQuery query) throws CalDAV4JException {
+        boolean cached = !collections.isEmpty() && collections.get(0).isCacheEnabled();
+        for (CalDAVCollection collection : collections) {
+            if (collection.isCacheEnabled() != cached) {
+                throw new IllegalArgumentException(
+                        "Collections with and without cache can't share a CalendarQuery");
+            }
+        }
+        if (cached) {
+            // as done by each collection, but before the query is shared by the threads
+            query.setCalendarDataProp(null);
+        }
+        return query(collection -> collection.queryCalendars(httpClient, query));
+    }
+
+    /**
+     * Runs a prepared query on all the collections.
+     *
+     * @param httpClient the httpClient which will make the requests
+     * @param query Prepared query to run
+     * @param parameters Values of the parameters of the query, by name
+     * @return The calendars found, and the collections which failed or timed out
+     * @throws CalDAV4JException if interrupted
+     */
+    public Result query(HttpClient httpClient, PreparedQuery query, Map<String, ?> parameters)
+            throws CalDAV4JException {
+        return query(collection -> collection.queryCalendars(httpClient, query, parameters));
+    }
+
+    private Result query(CollectionQuery query) throws CalDAV4JException {
+        long deadline =
+                timeoutMillis > 0
+                        ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis)
+                        : 0;
+        Map<String, List<Calendar>> calendars = new LinkedHashMap<>();
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        List<String> timedOut = new ArrayList<>();
+        if (collections.isEmpty()) {
+            return new Result(calendars, failures, timedOut);
+        }
+
+        ExecutorService executor = this.executor;
+        boolean ownExecutor = executor == null;
+        if (ownExecutor) {
+            executor = Executors.newFixedThreadPool(Math.min(parallelism, collections.size()));
+        }
+
+        Map<Future<List<Calendar>>, CalDAVCollection> running = new LinkedHashMap<>();
+        int next = 0;
+        try {
+            CompletionService<List<Calendar>> completion =
+                    new ExecutorCompletionService<>(executor);
+            while (next < collections.size() || !running.isEmpty()) {
+                while (running.size() < parallelism && next < collections.size()) {
+                    CalDAVCollection collection = collections.get(next++);
+                    running.put(completion.submit(() -> query.execute(collection)), collection);
+                }
+                Future<List<Calendar>> done;
+                if (deadline == 0) {
+                    done = completion.take();
+                } else {
+                    done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        // queries which ended since the last poll are not timed out
+                        Iterator<Map.Entry<Future<List<Calendar>>, CalDAVCollection>> it =
+                                running.entrySet().iterator();
+                        while (it.hasNext()) {
+                            Map.Entry<Future<List<Calendar>>, CalDAVCollection> entry = it.next();
+                            if (entry.getKey().isDone()) {
+                                it.remove();
+                                collect(entry.getKey(), entry.getValue(), calendars, failures);
+                            }
+                        }
+                        break;
+                    }
+                }
+                collect(done, running.remove(done), calendars, failures);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CalDAV4JException("Interrupted while querying the calendar home", e);
+        } finally {
+            for (Future<List<Calendar>> future : running.keySet()) {
+                future.cancel(true);
+            }
+            if (ownExecutor) executor.shutdownNow();
+        }
+
+        for (CalDAVCollection collection : running.values()) {
+            timedOut.add(collection.getCalendarCollectionRoot());
+        }
+        for (CalDAVCollection collection : collections.subList(next, collections.size())) {
+            timedOut.add(collection.getCalendarCollectionRoot());
+        }
+        if (!timedOut.isEmpty()) {
+            log.warn("Query timed out on " + timedOut.size() + " collections");
+        }
+        return new Result(calendars, failures, timedOut);
+    }
+
+    /** Adds the result of a completed query to the calendars found, or to the failures. */
+    private static void collect(
+            Future<List<Calendar>> done,
+            CalDAVCollection collection,
+            Map<String, List<Calendar>> calendars,
+            Map<String, Throwable> failures)
+            throws InterruptedException {
+        String path = collection.getCalendarCollectionRoot();
+        try {
+            calendars.put(path, done.get());
+        } catch (ExecutionException e) {
+            log.warn("Problem querying " + path, e.getCause());
+            failures.put(path, e.getCause());
+        }
+    }
+
+    /**
+     * @param calendar Calendar
+     * @return The start of the first component of the calendar, null if none. For a recurring
+     *     component, this is the start of the series, not of its first instance in the range of
+     *     the query.
+     */
+    static Instant getStart(Calendar calendar) {
+        for (CalendarComponent component : calendar.getComponentList().getAll()) {
+            if (component instanceof VTimeZone) {
+                continue;
+            }
+            Optional<Property> start = component.getProperty(Property.DTSTART);
+            if (!start.isPresent()) {
+                start = component.getProperty(Property.DUE);
+            }
+            if (start.isPresent() && start.get() instanceof DateProperty) {
+                return toInstant(((DateProperty<?>) start.get()).getDate());
+            }
+            return null;
+        }
+        return null;
+    }
+
+    private static Instant toInstant(Temporal temporal) {
+        if (temporal instanceof Instant) {
+            return (Instant) temporal;
+        } else if (temporal instanceof ZonedDateTime) {
+            return ((ZonedDateTime) temporal).toInstant();
+        } else if (temporal instanceof OffsetDateTime) {
+            return ((OffsetDateTime) temporal).toInstant();
+        } else if (temporal instanceof LocalDateTime) {
+            // floating time, compared as UTC
+            return ((LocalDateTime) temporal).toInstant(ZoneOffset.UTC);
+        } else if (temporal instanceof LocalDate) {
+            return ((LocalDate) temporal).atStartOfDay().toInstant(ZoneOffset.UTC);
+        }
+        return null;
+    }
+
+    /** Query run on each collection. */
+    private interface CollectionQuery {
+        List<Calendar> execute(CalDAVCollection collection) throws CalDAV4JException;
+    }
+
+    /** Calendars found by a {@link CalendarHomeQuery}, and the collections which failed. */
+    public static final class Result {
+        private final Map<String, List<Calendar>> calendarsByCollection;
+        private final Map<String, Throwable> failures;
+        private final List<String> timedOut;
+        private final List<Calendar> calendars;
+
+        private Result(
+                Map<String, List<Calendar>> calendarsByCollection,
+                Map<String, Throwable> failures,
+                List<String> timedOut) {
+            this.calendarsByCollection = Collections.unmodifiableMap(calendarsByCollection);
+            this.failures = Collections.unmodifiableMap(failures);
+            this.timedOut = Collections.unmodifiableList(timedOut);
+
+            List<Calendar> merged = new ArrayList<>();
+            for (List<Calendar> list : calendarsByCollection.values()) {
+                merged.addAll(list);
+            }
+            // starts computed once, the sort being stable for calendars starting together
+            Map<Calendar, Instant> starts = new IdentityHashMap<>();
+            for (Calendar calendar : merged) {
+                starts.put(calendar, getStart(calendar));
+            }
+            merged.sort(
+                    Comparator.comparing(
+                            starts::get, Comparator.nullsLast(Comparator.naturalOrder())));
+            this.calendars = Collections.unmodifiableList(merged);
+        }
+
+        /**
+         * @return The calendars of all the collections which answered, by start time, which is the
+         *     start of the series for recurring events. Calendars without start come last.
+         */
+        public List<Calendar> getCalendars() {
+            return calendars;
+        }
+
+        /**
+         * @return The calendars found, by path of the collections which answered.
+         */
+        public Map<String, List<Calendar>> getCalendarsByCollection() {
+            return calendarsByCollection;
+        }
+
+        /**
+         * @return The errors, by path of the collections which failed.
+         */
+        public Map<String, Throwable> getFailures() {
+            return failures;
+        }
+
+        /**
+         * @return The paths of the collections which didn't answer before the timeout.
+         */
+        public List<String> getTimedOut() {
+            return timedOut;
+        }
+
+        /**
+         * @return Whether all the collections answered.
+         */
+        public boolean isComplete() {
+            return failures.isEmpty() && timedOut.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/** Calendar collection of a {@link CalendarHome}, as listed by {@link CalendarDiscovery}. */
+public final class CalendarInfo {
+
+    private final String path;
+    private final String displayName;
+    private final String ctag;
+    private final Set<String> supportedComponents;
+
+    /**
+     * @param path Path of the collection, ending with a slash
+     * @param displayName Display name of the collection, null if none.
+     * @param ctag CS:getctag of the collection, null if the server has none.
+     * @param supportedComponents Names of the components the collection accepts, e.g. VEVENT, empty
+     *     if not restricted.
+     */
+    public CalendarInfo(
+            String path, String displayName, String ctag, Collection<String> supportedComponents) {
+        this.path = path;
+        this.displayName = displayName;
+        this.ctag = ctag;
+        this.supportedComponents =
+                Collections.unmodifiableSet(new LinkedHashSet<>(supportedComponents));
+    }
+
+    /**
+     * @return Path of the collection, ending with a slash
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return Display name of the collection, null if none.
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @return CS:getctag of the collection, which changes whenever a resource of the collection
+     *     changes. Null if the server has none.
+     */
+    public String getCTag() {
+        return ctag;
+    }
+
+    /**
+     * @return Names of the components the collection accepts, empty if not restricted.
+     */
+    public Set<String> getSupportedComponents() {
+        return supportedComponents;
+    }
+
+    /**
+     * @param componentName Name of a component, e.g. VEVENT or VTODO
+     * @return Whether the collection accepts the component.
+     */
+    public boolean supports(String componentName) {
+        return supportedComponents.isEmpty()
+                || supportedComponents.contains(componentName.toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public String toString() {
+        return "CalendarInfo[" + path + ", " + displayName + ", ctag=" + ctag + "]";
+    }
+}
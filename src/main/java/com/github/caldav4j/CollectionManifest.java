@@ -0,0 +1,311 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import com.github.caldav4j.model.response.CalendarDataProperty;
+import com.github.caldav4j.util.CalDAVStatus;
+import com.github.caldav4j.util.UrlUtils;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.jackrabbit.webdav.MultiStatusResponse;
+import org.apache.jackrabbit.webdav.property.DavProperty;
+import org.apache.jackrabbit.webdav.property.DavPropertyName;
+import org.apache.jackrabbit.webdav.property.DavPropertySet;
+
+/**
+ * Paths and etags of the resources of a collection, optionally with their size and last
+ * modification date, as listed by a Depth 1 PROPFIND. It is the cheapest full-state check of a
+ * collection on servers without sync-collection: comparing two manifests, or a manifest and the
+ * cache, tells which resources were added, changed or deleted.
+ *
+ * <p>Entries are stored in parallel arrays sorted by path, with the paths relative to the
+ * collection, so that manifests of large collections stay small.
+ *
+ * @see CalDAVCollection#getManifest(org.apache.http.client.HttpClient)
+ */
+public final class CollectionManifest {
+
+    /** Value of a size or a last modification date which is unknown. */
+    public static final long UNKNOWN = -1;
+
+    private final String collectionPath;
+    // relative to the collection path, or absolute paths starting with '/' for resources outside
+    private final String[] names;
+    private final String[] etags;
+    private final long[] contentLengths;
+    private final long[] lastModified;
+
+    private CollectionManifest(
+            String collectionPath,
+            String[] names,
+            String[] etags,
+            long[] contentLengths,
+            long[] lastModified) {
+        this.collectionPath = collectionPath;
+        this.names = names;
+        this.etags = etags;
+        this.contentLengths = contentLengths;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Builds the manifest of a collection from the responses of a Depth 1 PROPFIND. The
+     * collection itself, sub-collections and resources without etag are skipped.
+     *
+     * @param collectionPath Path of the collection, ending with a slash
+     * @param responses Responses of the PROPFIND
+     * @return The manifest
+     */
+    public static CollectionManifest fromResponses(
+            String collectionPath, MultiStatusResponse[] responses) {
+        Builder builder = new Builder(collectionPath);
+        for (MultiStatusResponse response : responses) {
+            String etag = CalendarDataProperty.getEtagfromResponse(response);
+            if (etag == null || response.getHref().endsWith("/")) {
+                continue;
+            }
+            DavPropertySet found = response.getProperties(CalDAVStatus.SC_OK);
+            long contentLength = UNKNOWN;
+            String length = propertyValue(found, DavPropertyName.GETCONTENTLENGTH);
+            if (length != null) {
+                try {
+                    contentLength = Long.parseLong(length.trim());
+                } catch (NumberFormatException e) {
+                    // left unknown
+                }
+            }
+            long modified = UNKNOWN;
+            String date = propertyValue(found, DavPropertyName.GETLASTMODIFIED);
+            if (date != null) {
+                Date parsed = DateUtils.parseDate(date.trim());
+                if (parsed != null) {
+                    modified = parsed.getTime();
+                }
+            }
+            builder.add(UrlUtils.stripHost(response.getHref()), etag, contentLength, modified);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return Path of the collection
+     */
+    public String getCollectionPath() {
+        return collectionPath;
+    }
+
+    /**
+     * @return Number of resources
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @param index Index of the entry, from 0 to {@link #size()} excluded.
+     * @return Path of the resource
+     */
+    public String getPath(int index) {
+        String name = names[index];
+        return name.startsWith("/") ? name : collectionPath + name;
+    }
+
+    /**
+     * @param index Index of the entry, from 0 to {@link #size()} excluded.
+     * @return Etag of the resource
+     */
+    public String getETag(int index) {
+        return etags[index];
+    }
+
+    /**
+     * @param index Index of the entry, from 0 to {@link #size()} excluded.
+     * @return Size of the resource in bytes, {@link #UNKNOWN} if not listed.
+     */
+    public long getContentLength(int index) {
+        return contentLengths != null ? contentLengths[index] : UNKNOWN;
+    }
+
+    /**
+     * @param index Index of the entry, from 0 to {@link #size()} excluded.
+     * @return Last modification date of the resource in milliseconds since the epoch, {@link
+     *     #UNKNOWN} if not listed.
+     */
+    public long getLastModified(int index) {
+        return lastModified != null ? lastModified[index] : UNKNOWN;
+    }
+
+    /**
+     * @param path Path of a resource
+     * @return Index of the resource, negative if not listed.
+     */
+    public int indexOf(String path) {
+        int index = Arrays.binarySearch(names, name(collectionPath, path));
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * @param path Path of a resource
+     * @return Etag of the resource, null if not listed.
+     */
+    public String getETag(String path) {
+        int index = indexOf(path);
+        return index >= 0 ? etags[index] : null;
+    }
+
+    /**
+     * @return The paths of the resources, in order. The list is a view of the manifest.
+     */
+    public List<String> getPaths() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return getPath(index);
+            }
+
+            @Override
+            public int size() {
+                return names.length;
+            }
+        };
+    }
+
+    /**
+     * Compares this manifest with a previous one of the same collection.
+     *
+     * @param previous Previous manifest, null if none.
+     * @return The resources added, changed and deleted since the previous manifest.
+     */
+    public ManifestDiff diff(CollectionManifest previous) {
+        List<String> added = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        for (int i = 0; i < size(); i++) {
+            String etag = previous != null ? previous.getETag(getPath(i)) : null;
+            if (etag == null) {
+                added.add(getPath(i));
+            } else if (!etag.equals(etags[i])) {
+                changed.add(getPath(i));
+            }
+        }
+        if (previous != null) {
+            for (int i = 0; i < previous.size(); i++) {
+                if (indexOf(previous.getPath(i)) < 0) {
+                    deleted.add(previous.getPath(i));
+                }
+            }
+        }
+        return new ManifestDiff(added, changed, deleted);
+    }
+
+    @Override
+    public String toString() {
+        return "CollectionManifest[" + collectionPath + ", " + names.length + " resources]";
+    }
+
+    private static String name(String collectionPath, String path) {
+        return path.startsWith(collectionPath) && path.length() > collectionPath.length()
+                ? path.substring(collectionPath.length())
+                : path;
+    }
+
+    private static String propertyValue(DavPropertySet properties, DavPropertyName name) {
+        DavProperty<?> property = properties.get(name);
+        return property != null && property.getValue() != null
+                ? property.getValue().toString()
+                : null;
+    }
+
+    /** Collects the entries of a manifest, in any order. */
+    public static final class Builder {
+        private final String collectionPath;
+        private final List<Entry> entries = new ArrayList<>();
+        private boolean hasContentLengths = false;
+        private boolean hasLastModified = false;
+
+        /**
+         * @param collectionPath Path of the collection, ending with a slash
+         */
+        public Builder(String collectionPath) {
+            this.collectionPath = UrlUtils.ensureTrailingSlash(collectionPath);
+        }
+
+        /**
+         * @param path Path of the resource
+         * @param etag Etag of the resource
+         * @param contentLength Size of the resource, {@link CollectionManifest#UNKNOWN} if
+         *     unknown.
+         * @param lastModified Last modification date of the resource, {@link
+         *     CollectionManifest#UNKNOWN} if unknown.
+         * @return This builder
+         */
+        public Builder add(String path, String etag, long contentLength, long lastModified) {
+            entries.add(new Entry(name(collectionPath, path), etag, contentLength, lastModified));
+            hasContentLengths |= contentLength != UNKNOWN;
+            hasLastModified |= lastModified != UNKNOWN;
+            return this;
+        }
+
+        /**
+         * @return The manifest. Of several entries with the same path, the last one is kept.
+         */
+        public CollectionManifest build() {
+            // stable, so that the last of duplicate entries comes last
+            entries.sort((a, b) -> a.name.compareTo(b.name));
+            int size = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                if (i + 1 == entries.size() || !entry.name.equals(entries.get(i + 1).name)) {
+                    entries.set(size++, entry);
+                }
+            }
+
+            String[] names = new String[size];
+            String[] etags = new String[size];
+            long[] contentLengths = hasContentLengths ? new long[size] : null;
+            long[] lastModified = hasLastModified ? new long[size] : null;
+            for (int i = 0; i < size; i++) {
+                Entry entry = entries.get(i);
+                names[i] = entry.name;
+                etags[i] = entry.etag;
+                if (contentLengths != null) {
+                    contentLengths[i] = entry.contentLength;
+                }
+                if (lastModified != null) {
+                    lastModified[i] = entry.lastModified;
+                }
+            }
+            return new CollectionManifest(
+                    collectionPath, names, etags, contentLengths, lastModified);
+        }
+    }
+
+    private static final class Entry {
+        private final String name;
+        private final String etag;
+        private final long contentLength;
+        private final long lastModified;
+
+        private Entry(String name, String etag, long contentLength, long lastModified) {
+            this.name = name;
+            this.etag = etag;
+            this.contentLength = contentLength;
+            this.lastModified = lastModified;
+        }
+    }
+}
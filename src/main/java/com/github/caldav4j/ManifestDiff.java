@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Paths of the resources added, changed and deleted in a collection, as found by comparing a
+ * {@link CollectionManifest} with a previous one, or with the cache.
+ */
+public final class ManifestDiff {
+
+    private final List<String> added;
+    private final List<String> changed;
+    private final List<String> deleted;
+
+    /**
+     * @param added Paths of the resources added
+     * @param changed Paths of the resources whose etag changed
+     * @param deleted Paths of the resources deleted
+     */
+    public ManifestDiff(List<String> added, List<String> changed, List<String> deleted) {
+        this.added = Collections.unmodifiableList(new ArrayList<>(added));
+        this.changed = Collections.unmodifiableList(new ArrayList<>(changed));
+        this.deleted = Collections.unmodifiableList(new ArrayList<>(deleted));
+    }
+
+    /**
+     * @return Paths of the resources added
+     */
+    public List<String> getAdded() {
+        return added;
+    }
+
+    /**
+     * @return Paths of the resources whose etag changed
+     */
+    public List<String> getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return Paths of the resources deleted
+     */
+    public List<String> getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * @return Paths of the resources added or changed, which are to be fetched.
+     */
+    public List<String> getModified() {
+        List<String> modified = new ArrayList<>(added.size() + changed.size());
+        modified.addAll(added);
+        modified.addAll(changed);
+        return modified;
+    }
+
+    /**
+     * @return Whether nothing was added, changed nor deleted.
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && deleted.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ManifestDiff[added="
+                + added.size()
+                + ", changed="
+                + changed.size()
+                + ", deleted="
+                + deleted.size()
+                + "]";
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Options for {@link CalDAVCollection#preload(org.apache.http.client.HttpClient, PreloadOptions)}.
+ *
+ * <p>Missing and stale resources are fetched with calendar-multiget reports of at most {@link
+ * #getChunkSize()} hrefs each, running {@link #getParallelism()} reports at a time. When an
+ * executor is set, the reports run on it instead of a pool created for the preload.
+ */
+public class PreloadOptions {
+
+    public static final int DEFAULT_CHUNK_SIZE = 50;
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private ExecutorService executor = null;
+
+    public PreloadOptions() {}
+
+    /**
+     * @param chunkSize Maximum number of hrefs per multiget report.
+     * @param parallelism Number of reports executed concurrently.
+     */
+    public PreloadOptions(int chunkSize, int parallelism) {
+        setChunkSize(chunkSize);
+        setParallelism(parallelism);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @param executor Executor running the reports, which is not shut down by the preload. Null to
+     *     use a pool of {@link #getParallelism()} threads.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Calendar resource as stored on the server: the bytes of its body, not parsed, along with its
+ * charset, ETag and href.
+ *
+ * @see CalDAVCollection#getRaw(org.apache.http.client.HttpClient, String)
+ * @see CalDAVCollection#putRaw(org.apache.http.client.HttpClient, String, byte[], Charset, String)
+ */
+public class RawResource {
+
+    private final byte[] data;
+    private final Charset charset;
+    private final String etag;
+    private final String href;
+
+    /**
+     * Creates a resource encoded in UTF-8.
+     *
+     * @param data Body of the resource
+     * @param etag ETag of the resource, null if not returned by the server
+     * @param href Href of the resource
+     */
+    public RawResource(byte[] data, String etag, String href) {
+        this(data, StandardCharsets.UTF_8, etag, href);
+    }
+
+    /**
+     * @param data Body of the resource
+     * @param charset Charset of the body, null for UTF-8, the default of iCalendar.
+     * @param etag ETag of the resource, null if not returned by the server
+     * @param href Href of the resource
+     */
+    public RawResource(byte[] data, Charset charset, String etag, String href) {
+        this.data = data;
+        this.charset = charset != null ? charset : StandardCharsets.UTF_8;
+        this.etag = etag;
+        this.href = href;
+    }
+
+    /**
+     * @return Body of the resource, as returned by the server.
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * @return Charset of the body, as returned by the server, UTF-8 if none.
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public String getETag() {
+        return etag;
+    }
+
+    public String getHref() {
+        return href;
+    }
+}
@@ -21,19 +21,54 @@ import java.io.Serializable;
 
 /**
  * Serializable Metadata for each {@link CalDAVResource} containing currently the ETag, and Href of
- * the Resource.
+ * the Resource, along with the time the ETag was last validated against the server.
+ *
+ * <p>The metadata of a {@link CalDAVResource#snapshot() snapshot} is frozen: its ETag and Href
+ * can't be changed, while its validation time is still updated by the cache.
  */
 public class ResourceMetadata implements Serializable {
 
     private static final long serialVersionUID = -3385356629201926900L;
-    private String eTag = null;
-    private String href = null;
+    private volatile String eTag = null;
+    private volatile String href = null;
+    private volatile long lastValidated = System.currentTimeMillis();
+    private final boolean frozen;
+
+    public ResourceMetadata() {
+        this.frozen = false;
+    }
+
+    private ResourceMetadata(ResourceMetadata metadata) {
+        this.eTag = metadata.eTag;
+        this.href = metadata.href;
+        this.lastValidated = metadata.lastValidated;
+        this.frozen = true;
+    }
+
+    /**
+     * @return A copy of this metadata whose ETag and Href can't be changed.
+     */
+    ResourceMetadata frozenCopy() {
+        return new ResourceMetadata(this);
+    }
+
+    /**
+     * @return Whether the ETag and Href can't be changed.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
 
     public String getETag() {
         return eTag;
     }
 
+    /**
+     * @param tag ETag of the resource
+     * @throws UnsupportedOperationException if the metadata is frozen
+     */
     public void setETag(String tag) {
+        checkNotFrozen();
         eTag = tag;
     }
 
@@ -41,7 +76,41 @@ public class ResourceMetadata implements Serializable {
         return href;
     }
 
+    /**
+     * @param href Href of the resource
+     * @throws UnsupportedOperationException if the metadata is frozen
+     */
     public void setHref(String href) {
+        checkNotFrozen();
         this.href = UrlUtils.removeDoubleSlashes(href);
     }
+
+    /**
+     * @return Time in milliseconds when the ETag was last known to match the server.
+     */
+    public long getLastValidated() {
+        return lastValidated;
+    }
+
+    public void setLastValidated(long lastValidated) {
+        this.lastValidated = lastValidated;
+    }
+
+    /** Records that the ETag has just been confirmed by the server. */
+    public void markValidated() {
+        this.lastValidated = System.currentTimeMillis();
+    }
+
+    /**
+     * @return Milliseconds elapsed since the ETag was last validated.
+     */
+    public long getAge() {
+        return System.currentTimeMillis() - lastValidated;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Metadata of snapshots can't be modified");
+        }
+    }
 }
@@ -0,0 +1,325 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import com.github.caldav4j.methods.PreferHeader;
+import com.github.caldav4j.model.request.CalendarMultiget;
+import com.github.caldav4j.model.request.CalendarQuery;
+import com.github.caldav4j.model.request.FreeBusyQuery;
+import com.github.caldav4j.util.CalDAVStatus;
+import com.github.caldav4j.util.XMLUtils;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.jackrabbit.webdav.MultiStatusResponse;
+import org.apache.jackrabbit.webdav.property.DavProperty;
+import org.apache.jackrabbit.webdav.property.DavPropertySet;
+import org.apache.jackrabbit.webdav.xml.Namespace;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Features supported by a server for a collection, as advertised by the DAV and Allow headers of
+ * an OPTIONS response and by the DAV:supported-report-set property of the collection. Support of
+ * the Prefer header is not advertised, but told by the Preference-Applied header of a response.
+ *
+ * <p>What was not advertised is unknown rather than unsupported: the methods and reports the
+ * library always relied on are then assumed to be supported, while optional features, such as
+ * sync-collection reports or ctags, are not. {@link #UNKNOWN} thus keeps the behavior of a
+ * collection which never probed the server.
+ *
+ * <p>{@link CalDAVCollection} chooses between calendar-multiget and GET, sends Prefer headers, and
+ * skips the listing of {@link CalDAVCollection#preload(org.apache.http.client.HttpClient,
+ * PreloadOptions) preload} when the ctag of the collection didn't change, according to these
+ * capabilities.
+ *
+ * @see CalDAVCollection#getServerCapabilities(org.apache.http.client.HttpClient)
+ */
+public final class ServerCapabilities {
+
+    /** Capabilities of a server which was not, or could not be, probed. */
+    public static final ServerCapabilities UNKNOWN =
+            new ServerCapabilities(null, null, null, false, false);
+
+    private final Set<String> complianceClasses;
+    private final Set<String> allowedMethods;
+    private final Set<String> supportedReports;
+    private final boolean ctagSupported;
+    private final boolean preferSupported;
+
+    /**
+     * @param complianceClasses Tokens of the DAV header, null if unknown.
+     * @param allowedMethods Methods of the Allow header, null if unknown.
+     * @param supportedReports Reports of the supported-report-set, as returned by {@link
+     *     #reportName(Namespace, String)}, null if unknown.
+     * @param ctagSupported Whether the collection has a CS:getctag property.
+     */
+    public ServerCapabilities(
+            Set<String> complianceClasses,
+            Set<String> allowedMethods,
+            Set<String> supportedReports,
+            boolean ctagSupported) {
+        this(complianceClasses, allowedMethods, supportedReports, ctagSupported, false);
+    }
+
+    /**
+     * @param complianceClasses Tokens of the DAV header, null if unknown.
+     * @param allowedMethods Methods of the Allow header, null if unknown.
+     * @param supportedReports Reports of the supported-report-set, as returned by {@link
+     *     #reportName(Namespace, String)}, null if unknown.
+     * @param ctagSupported Whether the collection has a CS:getctag property.
+     * @param preferSupported Whether the server applied a Prefer: return=minimal header.
+     */
+    public ServerCapabilities(
+            Set<String> complianceClasses,
+            Set<String> allowedMethods,
+            Set<String> supportedReports,
+            boolean ctagSupported,
+            boolean preferSupported) {
+        this.complianceClasses = unmodifiableCopy(complianceClasses);
+        this.allowedMethods = unmodifiableCopy(allowedMethods);
+        this.supportedReports = unmodifiableCopy(supportedReports);
+        this.ctagSupported = ctagSupported;
+        this.preferSupported = preferSupported;
+    }
+
+    /**
+     * @param options Response to an OPTIONS request on the collection, null if unavailable.
+     * @param collection Response of the collection to a Depth 0 PROPFIND of {@link
+     *     CalDAVConstants#DNAME_SUPPORTED_REPORT_SET} and {@link CalDAVConstants#DNAME_GETCTAG},
+     *     null if unavailable.
+     * @return The capabilities advertised by the responses
+     */
+    public static ServerCapabilities fromResponses(
+            HttpResponse options, MultiStatusResponse collection) {
+        return fromResponses(options, null, collection);
+    }
+
+    /**
+     * @param options Response to an OPTIONS request on the collection, null if unavailable.
+     * @param propFind Response to the PROPFIND of the collection, sent with a Prefer: {@link
+     *     CalDAVConstants#PREFER_RETURN_MINIMAL} header, null if unavailable.
+     * @param collection Response of the collection to the PROPFIND, see {@link
+     *     #fromResponses(HttpResponse, MultiStatusResponse)}, null if unavailable.
+     * @return The capabilities advertised by the responses
+     */
+    public static ServerCapabilities fromResponses(
+            HttpResponse options, HttpResponse propFind, MultiStatusResponse collection) {
+        Set<String> complianceClasses = null;
+        Set<String> allowedMethods = null;
+        if (options != null) {
+            complianceClasses = headerTokens(options, "DAV", false);
+            allowedMethods = headerTokens(options, "Allow", true);
+        }
+
+        Set<String> supportedReports = null;
+        boolean ctagSupported = false;
+        if (collection != null) {
+            DavPropertySet found = collection.getProperties(CalDAVStatus.SC_OK);
+            supportedReports = reportNames(found.get(CalDAVConstants.DNAME_SUPPORTED_REPORT_SET));
+            ctagSupported = found.contains(CalDAVConstants.DNAME_GETCTAG);
+        }
+        boolean preferSupported =
+                propFind != null
+                        && PreferHeader.isApplied(propFind, CalDAVConstants.PREFER_RETURN_MINIMAL);
+        return new ServerCapabilities(
+                complianceClasses,
+                allowedMethods,
+                supportedReports,
+                ctagSupported,
+                preferSupported);
+    }
+
+    /**
+     * @param namespace Namespace of the report element
+     * @param name Local name of the report element
+     * @return Name of the report in Clark notation, e.g. {@code
+     *     {urn:ietf:params:xml:ns:caldav}calendar-multiget}
+     */
+    public static String reportName(Namespace namespace, String name) {
+        return "{" + namespace.getURI() + "}" + name;
+    }
+
+    /**
+     * @return Whether anything was learnt from the server.
+     */
+    public boolean isKnown() {
+        return complianceClasses != null || allowedMethods != null || supportedReports != null;
+    }
+
+    /**
+     * @return Tokens of the DAV header, e.g. 1, access-control or calendar-access, empty if
+     *     unknown.
+     */
+    public Set<String> getComplianceClasses() {
+        return complianceClasses != null ? complianceClasses : Collections.emptySet();
+    }
+
+    /**
+     * @return Methods of the Allow header, empty if unknown.
+     */
+    public Set<String> getAllowedMethods() {
+        return allowedMethods != null ? allowedMethods : Collections.emptySet();
+    }
+
+    /**
+     * @return Reports of the supported-report-set, in Clark notation, empty if unknown.
+     */
+    public Set<String> getSupportedReports() {
+        return supportedReports != null ? supportedReports : Collections.emptySet();
+    }
+
+    /**
+     * @return Whether the server advertises calendar-access, true if unknown.
+     */
+    public boolean isCalendarAccessSupported() {
+        return complianceClasses == null || complianceClasses.contains("calendar-access");
+    }
+
+    /**
+     * @param method Name of the method, e.g. REPORT
+     * @return Whether the method is allowed on the collection, true if unknown.
+     */
+    public boolean isMethodAllowed(String method) {
+        return allowedMethods == null || allowedMethods.contains(method.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @param namespace Namespace of the report element
+     * @param name Local name of the report element
+     * @return Whether the report is supported by the collection, true if unknown.
+     */
+    public boolean isReportSupported(Namespace namespace, String name) {
+        return isMethodAllowed(CalDAVConstants.METHOD_REPORT)
+                && (supportedReports == null
+                        || supportedReports.contains(reportName(namespace, name)));
+    }
+
+    /**
+     * @return Whether calendar-multiget reports are supported, true if unknown.
+     */
+    public boolean isCalendarMultigetSupported() {
+        return isReportSupported(CalDAVConstants.NAMESPACE_CALDAV, CalendarMultiget.ELEMENT_NAME);
+    }
+
+    /**
+     * @return Whether calendar-query reports are supported, true if unknown.
+     */
+    public boolean isCalendarQuerySupported() {
+        return isReportSupported(CalDAVConstants.NAMESPACE_CALDAV, CalendarQuery.ELEMENT_NAME);
+    }
+
+    /**
+     * @return Whether free-busy-query reports are supported, true if unknown.
+     */
+    public boolean isFreeBusyQuerySupported() {
+        return isReportSupported(CalDAVConstants.NAMESPACE_CALDAV, FreeBusyQuery.ELEMENT_NAME);
+    }
+
+    /**
+     * @return Whether sync-collection reports are advertised, false if unknown.
+     */
+    public boolean isSyncCollectionSupported() {
+        return supportedReports != null
+                && isReportSupported(
+                        CalDAVConstants.NAMESPACE_WEBDAV, CalDAVConstants.DAV_SYNC_COLLECTION);
+    }
+
+    /**
+     * @return Whether the collection has a CS:getctag property, false if unknown.
+     */
+    public boolean isCTagSupported() {
+        return ctagSupported;
+    }
+
+    /**
+     * @return Whether the server honors the Prefer header of RFC 8144, false if unknown.
+     */
+    public boolean isPreferSupported() {
+        return preferSupported;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerCapabilities[dav="
+                + complianceClasses
+                + ", allow="
+                + allowedMethods
+                + ", reports="
+                + supportedReports
+                + ", ctag="
+                + ctagSupported
+                + ", prefer="
+                + preferSupported
+                + "]";
+    }
+
+    /**
+     * @return The comma separated tokens of all the headers with the given name, null if none.
+     */
+    private static Set<String> headerTokens(
+            HttpResponse response, String headerName, boolean upperCase) {
+        Header[] headers = response.getHeaders(headerName);
+        if (headers == null || headers.length == 0) {
+            return null;
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (Header header : headers) {
+            for (String token : header.getValue().split(",")) {
+                token = token.trim();
+                if (!token.isEmpty()) {
+                    tokens.add(upperCase ? token.toUpperCase(Locale.ROOT) : token);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * @return Names of the reports of a supported-report-set, null if the property is missing.
+     */
+    private static Set<String> reportNames(DavProperty<?> supportedReportSet) {
+        if (supportedReportSet == null) {
+            return null;
+        }
+        Element element;
+        try {
+            element = XMLUtils.toElement(supportedReportSet);
+        } catch (ParserConfigurationException e) {
+            return null;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        NodeList reports = element.getElementsByTagNameNS(CalDAVConstants.NS_DAV, "report");
+        for (int i = 0; i < reports.getLength(); i++) {
+            for (Node child = reports.item(i).getFirstChild();
+                    child != null;
+                    child = child.getNextSibling()) {
+                if (child.getNodeType() == Node.ELEMENT_NODE) {
+                    names.add("{" + child.getNamespaceURI() + "}" + child.getLocalName());
+                    break;
+                }
+            }
+        }
+        return names;
+    }
+
+    private static Set<String> unmodifiableCopy(Set<String> values) {
+        return values != null ? Collections.unmodifiableSet(new LinkedHashSet<>(values)) : null;
+    }
+}
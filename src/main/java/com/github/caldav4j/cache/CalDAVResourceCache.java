@@ -2,6 +2,9 @@ package com.github.caldav4j.cache;
 
 import com.github.caldav4j.CalDAVResource;
 import com.github.caldav4j.exceptions.CacheException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Implementations allow for caching of CalDAVResources based on path, and also for paths based on
@@ -13,6 +16,7 @@ public interface CalDAVResourceCache {
 
     /**
      * Returns the cached CalDAVResource for the given href, or null if none has been cached yet.
+     * The resource is a {@link CalDAVResource#snapshot() snapshot} shared with the other readers.
      *
      * @param href the href to use to lookup the CalDAVResource
      * @return CalDAVResource referred by the href, null if not found.
@@ -26,6 +30,8 @@ public interface CalDAVResourceCache {
      * <p>If there is an event in the enclosed calendar, adds the href to the cache retrievable by
      * the UID of the event.
      *
+     * <p>Implementations store a {@link CalDAVResource#snapshot() snapshot} of the resource.
+     *
      * @param calDAVResource the resource to cache
      * @throws CacheException If error is encountered.
      */
@@ -47,4 +53,50 @@ public interface CalDAVResourceCache {
      * @throws CacheException If error is encountered.
      */
     public void removeResource(String href) throws CacheException;
+
+    /**
+     * Returns the cached resources for the given hrefs. The default implementation calls {@link
+     * #getResource(String)} for each href; implementations should override it to lookup all the
+     * hrefs at once.
+     *
+     * @param hrefs the hrefs to lookup
+     * @return Map of the requested hrefs to their resources, hrefs not found are missing.
+     * @throws CacheException If error is encountered.
+     */
+    public default Map<String, CalDAVResource> getResources(Collection<String> hrefs)
+            throws CacheException {
+        Map<String, CalDAVResource> resources = new LinkedHashMap<>();
+        for (String href : hrefs) {
+            CalDAVResource resource = getResource(href);
+            if (resource != null) {
+                resources.put(href, resource);
+            }
+        }
+        return resources;
+    }
+
+    /**
+     * Adds the given resources to the cache, as {@link #putResource(CalDAVResource)} does.
+     *
+     * @param calDAVResources the resources to cache
+     * @throws CacheException If error is encountered.
+     */
+    public default void putResources(Collection<CalDAVResource> calDAVResources)
+            throws CacheException {
+        for (CalDAVResource resource : calDAVResources) {
+            putResource(resource);
+        }
+    }
+
+    /**
+     * Removes the resources with the given hrefs from the cache.
+     *
+     * @param hrefs the hrefs of the resources to remove
+     * @throws CacheException If error is encountered.
+     */
+    public default void removeResources(Collection<String> hrefs) throws CacheException {
+        for (String href : hrefs) {
+            removeResource(href);
+        }
+    }
 }
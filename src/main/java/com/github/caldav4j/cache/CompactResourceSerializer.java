@@ -0,0 +1,233 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache;
+
+import com.github.caldav4j.CalDAVResource;
+import com.github.caldav4j.ResourceMetadata;
+import com.github.caldav4j.exceptions.CacheException;
+import com.github.caldav4j.model.response.CalendarDataProperty;
+import com.github.caldav4j.model.response.ParserProfile;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import net.fortuna.ical4j.data.CalendarOutputter;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.model.Calendar;
+
+/**
+ * Serializes resources in a compact binary format, storing the calendar as iCalendar text rather
+ * than its ical4j object graph as Java serialization does.
+ *
+ * <p>Format, version 1, numbers in big-endian order:
+ *
+ * <pre>
+ * magic         2 bytes   0xCA 0x4D
+ * version       1 byte    1
+ * flags         1 byte    1: has a calendar, 2: calendar is gzipped
+ * lastValidated 8 bytes   milliseconds since the epoch
+ * href          string
+ * etag          string
+ * calendar      4 bytes length, then the UTF-8 iCalendar text, gzipped if flagged
+ *
+ * string: 4 bytes length, -1 for null, then the UTF-8 bytes
+ * </pre>
+ *
+ * The calendar text is only compressed from a given size, as small calendars don't shrink enough
+ * to pay for the compression. Calendars are written without validation, and parsed back with a
+ * {@link ParserProfile}.
+ */
+public class CompactResourceSerializer implements ResourceSerializer {
+
+    /** Default size of the iCalendar text from which it is compressed. */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+    static final short MAGIC = (short) 0xCA4D;
+    static final byte VERSION = 1;
+    private static final int FLAG_CALENDAR = 1;
+    private static final int FLAG_GZIP = 2;
+
+    private final int compressionThreshold;
+    private final ParserProfile parserProfile;
+
+    /**
+     * Compresses calendars from {@link #DEFAULT_COMPRESSION_THRESHOLD} bytes, and parses them with
+     * {@link CalendarDataProperty#DEFAULT_PROFILE}.
+     */
+    public CompactResourceSerializer() {
+        this(DEFAULT_COMPRESSION_THRESHOLD, CalendarDataProperty.DEFAULT_PROFILE);
+    }
+
+    /**
+     * @param compressionThreshold Size in bytes of the iCalendar text from which it is gzipped,
+     *     negative to never compress.
+     * @param parserProfile Profile parsing the calendars back.
+     */
+    public CompactResourceSerializer(int compressionThreshold, ParserProfile parserProfile) {
+        this.compressionThreshold = compressionThreshold;
+        this.parserProfile = parserProfile;
+    }
+
+    /** {@inheritDoc} */
+    public byte[] serialize(CalDAVResource resource) throws CacheException {
+        ResourceMetadata metadata = resource.getResourceMetadata();
+        Calendar calendar = resource.getCalendar();
+        try {
+            byte[] payload = null;
+            int flags = 0;
+            if (calendar != null) {
+                flags |= FLAG_CALENDAR;
+                payload = toICalendar(calendar);
+                if (compressionThreshold >= 0 && payload.length >= compressionThreshold) {
+                    flags |= FLAG_GZIP;
+                    payload = gzip(payload);
+                }
+            }
+
+            ByteArrayOutputStream bytes =
+                    new ByteArrayOutputStream(64 + (payload != null ? payload.length : 0));
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeShort(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(flags);
+            out.writeLong(metadata.getLastValidated());
+            writeString(out, metadata.getHref());
+            writeString(out, metadata.getETag());
+            if (payload != null) {
+                out.writeInt(payload.length);
+                out.write(payload);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new CacheException("Problem serializing " + metadata.getHref(), e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public CalDAVResource deserialize(byte[] data) throws CacheException {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            if (in.readShort() != MAGIC) {
+                throw new CacheException("Not a serialized resource");
+            }
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new CacheException("Unsupported serialization version " + version);
+            }
+            int flags = in.readByte();
+            long lastValidated = in.readLong();
+            String href = readString(in);
+            String etag = readString(in);
+
+            Calendar calendar = null;
+            if ((flags & FLAG_CALENDAR) != 0) {
+                byte[] payload = new byte[readLength(in)];
+                in.readFully(payload);
+                if ((flags & FLAG_GZIP) != 0) {
+                    payload = gunzip(payload);
+                }
+                calendar = parserProfile.parse(new String(payload, StandardCharsets.UTF_8));
+            }
+
+            CalDAVResource resource = new CalDAVResource();
+            resource.setCalendar(calendar);
+            ResourceMetadata metadata = resource.getResourceMetadata();
+            metadata.setETag(etag);
+            if (href != null) {
+                metadata.setHref(href);
+            }
+            metadata.setLastValidated(lastValidated);
+            return resource.snapshot();
+        } catch (IOException | ParserException e) {
+            throw new CacheException("Problem deserializing resource", e);
+        }
+    }
+
+    private static byte[] toICalendar(Calendar calendar) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        try {
+            // closes the writer
+            new CalendarOutputter(false)
+                    .output(calendar, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Problem generating calendar", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = gzip.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static int readLength(DataInputStream in) throws IOException, CacheException {
+        int length = in.readInt();
+        checkLength(in, length);
+        return length;
+    }
+
+    /** Rejects a corrupt length before an array is allocated for it. */
+    private static void checkLength(DataInputStream in, int length)
+            throws IOException, CacheException {
+        // the stream reads an array, so the available bytes are the remaining ones
+        if (length < 0 || length > in.available()) {
+            throw new CacheException("Corrupt serialized resource, invalid length " + length);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException, CacheException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        checkLength(in, length);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -3,10 +3,17 @@ package com.github.caldav4j.cache;
 import static com.github.caldav4j.util.UrlUtils.stripHost;
 
 import com.github.caldav4j.CalDAVResource;
-import com.github.caldav4j.util.ICalendarUtils;
+import com.github.caldav4j.model.response.CalendarProjection;
 import com.github.caldav4j.util.UrlUtils;
-import net.fortuna.ical4j.model.Calendar;
-import net.fortuna.ical4j.model.component.VEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.fortuna.ical4j.model.Component;
 import net.sf.ehcache.*;
 
 /**
@@ -15,8 +22,18 @@ import net.sf.ehcache.*;
  * @author bobbyrullo
  */
 public class EhCacheResourceCache implements CalDAVResourceCache {
-    private Cache uidToHrefCache = null;
-    private Cache hrefToResourceCache = null;
+    /** Default number of deserialized resources kept, see {@link #setDeserializedCacheSize}. */
+    public static final int DEFAULT_DESERIALIZED_CACHE_SIZE = 256;
+
+    private volatile Cache uidToHrefCache = null;
+    private volatile Cache hrefToResourceCache = null;
+    private volatile ResourceSerializer resourceSerializer = null;
+    private volatile PropertyInterner propertyInterner = null;
+    private volatile int deserializedCacheSize = DEFAULT_DESERIALIZED_CACHE_SIZE;
+
+    /** Resources recently deserialized, by href, along with the bytes they were read from. */
+    private final LinkedHashMap<Object, Deserialized> deserialized =
+            new LinkedHashMap<>(16, 0.75f, true);
 
     // cache names
     private static final String HREF_TO_RESOURCE_CACHE = "hrefToResourceCache";
@@ -26,6 +43,18 @@ public class EhCacheResourceCache implements CalDAVResourceCache {
 
     private EhCacheResourceCache() {}
 
+    /**
+     * Creates a cache on top of caches already registered by the caller, so that several
+     * instances can coexist in the same {@link CacheManager}.
+     *
+     * @param hrefToResourceCache Cache storing the resources by href
+     * @param uidToHrefCache Cache storing the hrefs by UID
+     */
+    public EhCacheResourceCache(Cache hrefToResourceCache, Cache uidToHrefCache) {
+        this.hrefToResourceCache = hrefToResourceCache;
+        this.uidToHrefCache = uidToHrefCache;
+    }
+
     /**
      * Implements a Cache Singleton access. This ensures that only one copy of the cache is ever
      * created.
@@ -121,10 +150,62 @@ public class EhCacheResourceCache implements CalDAVResourceCache {
         this.uidToHrefCache = uidToPathCache;
     }
 
+    public ResourceSerializer getResourceSerializer() {
+        return resourceSerializer;
+    }
+
+    /**
+     * Stores the resources as bytes, e.g. for a cache overflowing to disk or off-heap, instead of
+     * storing the resource objects. Resources already cached as objects are still read.
+     *
+     * @param resourceSerializer Serializer of the resources, null to store the objects.
+     */
+    public void setResourceSerializer(ResourceSerializer resourceSerializer) {
+        this.resourceSerializer = resourceSerializer;
+        synchronized (deserialized) {
+            deserialized.clear();
+        }
+    }
+
+    public int getDeserializedCacheSize() {
+        return deserializedCacheSize;
+    }
+
+    /**
+     * Sets how many resources read with the {@link #setResourceSerializer(ResourceSerializer)
+     * serializer} are kept deserialized, so that the most recently used ones are not parsed again
+     * on every lookup. A kept resource is reused as long as the stored bytes are unchanged.
+     *
+     * @param deserializedCacheSize Number of resources kept, 0 to parse them on every lookup.
+     */
+    public void setDeserializedCacheSize(int deserializedCacheSize) {
+        if (deserializedCacheSize < 0) {
+            throw new IllegalArgumentException("Size must not be negative");
+        }
+        this.deserializedCacheSize = deserializedCacheSize;
+        synchronized (deserialized) {
+            trimDeserialized();
+        }
+    }
+
+    public PropertyInterner getPropertyInterner() {
+        return propertyInterner;
+    }
+
+    /**
+     * Interns the repeated properties of the stored resources, so that cached calendars share
+     * them. Resources already cached are not affected.
+     *
+     * @param propertyInterner Pool of the properties, null to store the resources as they are.
+     */
+    public void setPropertyInterner(PropertyInterner propertyInterner) {
+        this.propertyInterner = propertyInterner;
+    }
+
     /**
      * @see CalDAVResourceCache#getHrefForEventUID(String)
      */
-    public synchronized String getHrefForEventUID(String uid)
+    public String getHrefForEventUID(String uid)
             throws com.github.caldav4j.exceptions.CacheException {
         Element e = null;
         try {
@@ -140,7 +221,7 @@ public class EhCacheResourceCache implements CalDAVResourceCache {
     /**
      * @see CalDAVResourceCache#getResource(String)
      */
-    public synchronized CalDAVResource getResource(String href)
+    public CalDAVResource getResource(String href)
             throws com.github.caldav4j.exceptions.CacheException {
         Element e = null;
         try {
@@ -154,7 +235,7 @@ public class EhCacheResourceCache implements CalDAVResourceCache {
                     "Problem with the hrefToResourceCache", ce);
         }
 
-        return e == null ? null : (CalDAVResource) e.getObjectValue();
+        return e == null ? null : toResource(e);
     }
 
     /**
@@ -165,8 +246,9 @@ public class EhCacheResourceCache implements CalDAVResourceCache {
      * @see CalDAVResourceCache#putResource(CalDAVResource)
      */
     public synchronized void putResource(CalDAVResource calDAVResource) {
+        calDAVResource = toSnapshot(calDAVResource);
         String href = calDAVResource.getResourceMetadata().getHref();
-        Element resourceElement = new Element(href, calDAVResource);
+        Element resourceElement = new Element(href, toValue(calDAVResource));
         hrefToResourceCache.put(resourceElement);
 
         String uid = getEventUID(calDAVResource);
@@ -184,6 +266,7 @@ public class EhCacheResourceCache implements CalDAVResourceCache {
         CalDAVResource resource = getResource(href);
         if (resource != null) {
             hrefToResourceCache.remove(href);
+            forgetDeserialized(Collections.singleton(href));
             String uid = getEventUID(resource);
             if (uid != null) {
                 uidToHrefCache.remove(uid);
@@ -191,12 +274,183 @@ public class EhCacheResourceCache implements CalDAVResourceCache {
         }
     }
 
-    /** Thread safe retrieval of event ID. */
-    private synchronized String getEventUID(CalDAVResource calDAVResource) {
-        Calendar calendar = calDAVResource.getCalendar();
-        VEvent vevent = ICalendarUtils.getFirstEvent(calendar);
-        if (vevent != null) {
-            return ICalendarUtils.getUIDValue(vevent);
+    /**
+     * Looks up all the hrefs with a single call to the underlying cache, then the ones not found
+     * without their host, as {@link #getResource(String)} does.
+     *
+     * @see CalDAVResourceCache#getResources(Collection)
+     */
+    public Map<String, CalDAVResource> getResources(Collection<String> hrefs)
+            throws com.github.caldav4j.exceptions.CacheException {
+        Map<String, CalDAVResource> resources = new LinkedHashMap<>();
+        Map<String, String> keys = new LinkedHashMap<>();
+        for (String href : hrefs) {
+            keys.put(UrlUtils.removeDoubleSlashes(href), href);
+        }
+        try {
+            Map<String, String> missing = getAll(keys, resources);
+            if (!missing.isEmpty()) {
+                Map<String, String> stripped = new LinkedHashMap<>();
+                for (Map.Entry<String, String> key : missing.entrySet()) {
+                    stripped.put(stripHost(key.getKey()), key.getValue());
+                }
+                getAll(stripped, resources);
+            }
+        } catch (CacheException ce) {
+            throw new com.github.caldav4j.exceptions.CacheException(
+                    "Problem with the hrefToResourceCache", ce);
+        }
+        return resources;
+    }
+
+    /**
+     * @param keys Map of the cache keys to the requested hrefs
+     * @param resources Map where to add the resources found, by requested href
+     * @return The entries of keys which were not found
+     */
+    private Map<String, String> getAll(
+            Map<String, String> keys, Map<String, CalDAVResource> resources)
+            throws com.github.caldav4j.exceptions.CacheException {
+        Map<Object, Element> elements = hrefToResourceCache.getAll(keys.keySet());
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (Map.Entry<String, String> key : keys.entrySet()) {
+            Element e = elements.get(key.getKey());
+            if (e != null) {
+                resources.put(key.getValue(), toResource(e));
+            } else {
+                missing.put(key.getKey(), key.getValue());
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * @see CalDAVResourceCache#putResources(Collection)
+     */
+    public synchronized void putResources(Collection<CalDAVResource> calDAVResources) {
+        List<Element> resourceElements = new ArrayList<>(calDAVResources.size());
+        List<Element> hrefElements = new ArrayList<>(calDAVResources.size());
+        for (CalDAVResource calDAVResource : calDAVResources) {
+            calDAVResource = toSnapshot(calDAVResource);
+            String href = calDAVResource.getResourceMetadata().getHref();
+            resourceElements.add(new Element(href, toValue(calDAVResource)));
+
+            String uid = getEventUID(calDAVResource);
+            if (uid != null) {
+                hrefElements.add(new Element(uid, href));
+            }
+        }
+        hrefToResourceCache.putAll(resourceElements);
+        uidToHrefCache.putAll(hrefElements);
+    }
+
+    /**
+     * @see CalDAVResourceCache#removeResources(Collection)
+     */
+    public synchronized void removeResources(Collection<String> hrefs)
+            throws com.github.caldav4j.exceptions.CacheException {
+        List<String> hrefKeys = new ArrayList<>(hrefs);
+        List<String> uids = new ArrayList<>();
+        for (CalDAVResource resource : getResources(hrefs).values()) {
+            hrefKeys.add(resource.getResourceMetadata().getHref());
+            String uid = getEventUID(resource);
+            if (uid != null) {
+                uids.add(uid);
+            }
+        }
+        hrefToResourceCache.removeAll(hrefKeys);
+        forgetDeserialized(hrefKeys);
+        uidToHrefCache.removeAll(uids);
+    }
+
+    /** The snapshot stored for a resource, with interned properties if an interner is set. */
+    private CalDAVResource toSnapshot(CalDAVResource resource) {
+        PropertyInterner interner = propertyInterner;
+        return interner != null ? interner.snapshot(resource) : resource.snapshot();
+    }
+
+    /**
+     * The value stored for a snapshot, serialized if a serializer is set.
+     *
+     * @throws CacheException unchecked, as thrown by the underlying cache, if the snapshot can't be
+     *     serialized
+     */
+    private Object toValue(CalDAVResource snapshot) {
+        ResourceSerializer serializer = resourceSerializer;
+        if (serializer == null) {
+            return snapshot;
+        }
+        try {
+            return serializer.serialize(snapshot);
+        } catch (com.github.caldav4j.exceptions.CacheException e) {
+            throw new CacheException(
+                    "Problem serializing " + snapshot.getResourceMetadata().getHref(), e);
+        }
+    }
+
+    /** The resource stored in the element, deserialized if stored as bytes. */
+    private CalDAVResource toResource(Element e)
+            throws com.github.caldav4j.exceptions.CacheException {
+        Object value = e.getObjectValue();
+        if (value instanceof byte[]) {
+            ResourceSerializer serializer = resourceSerializer;
+            if (serializer == null) {
+                throw new com.github.caldav4j.exceptions.CacheException(
+                        "No serializer to read the resource " + e.getObjectKey());
+            }
+            byte[] data = (byte[]) value;
+            synchronized (deserialized) {
+                Deserialized kept = deserialized.get(e.getObjectKey());
+                // elements read back from disk are new arrays with the same bytes
+                if (kept != null && (kept.data == data || Arrays.equals(kept.data, data))) {
+                    return kept.resource;
+                }
+            }
+            CalDAVResource resource = serializer.deserialize(data);
+            if (deserializedCacheSize > 0) {
+                synchronized (deserialized) {
+                    deserialized.put(e.getObjectKey(), new Deserialized(data, resource));
+                    trimDeserialized();
+                }
+            }
+            return resource;
+        }
+        return (CalDAVResource) value;
+    }
+
+    /** Must hold the lock of {@link #deserialized}. */
+    private void trimDeserialized() {
+        Iterator<Object> it = deserialized.keySet().iterator();
+        while (deserialized.size() > deserializedCacheSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private void forgetDeserialized(Collection<?> keys) {
+        synchronized (deserialized) {
+            deserialized.keySet().removeAll(keys);
+        }
+    }
+
+    private static final class Deserialized {
+        private final byte[] data;
+        private final CalDAVResource resource;
+
+        private Deserialized(byte[] data, CalDAVResource resource) {
+            this.data = data;
+            this.resource = resource;
+        }
+    }
+
+    /**
+     * Retrieval of event ID, used as the secondary key of the cached resources. The cached
+     * resources being snapshots, the UID is read from their memoized projection.
+     */
+    static String getEventUID(CalDAVResource calDAVResource) {
+        CalendarProjection projection = calDAVResource.getProjection();
+        if (Component.VEVENT.equals(projection.getComponentName())) {
+            return projection.getUid();
         }
         return null;
     }
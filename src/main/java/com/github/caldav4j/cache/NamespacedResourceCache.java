@@ -0,0 +1,270 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache;
+
+import static com.github.caldav4j.util.UrlUtils.stripHost;
+
+import com.github.caldav4j.CalDAVResource;
+import com.github.caldav4j.cache.SharedResourceCacheManager.Key;
+import com.github.caldav4j.util.UrlUtils;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.Element;
+
+/**
+ * A view over the store of a {@link SharedResourceCacheManager}, restricted to one namespace and
+ * limited to a quota of resources. Obtain instances through {@link
+ * SharedResourceCacheManager#getCache(String)}.
+ *
+ * <p>Hrefs are stored without their host and with double slashes collapsed, so that a resource
+ * can be put, looked up and removed with either its absolute URL or its path. Once released by
+ * {@link SharedResourceCacheManager#releaseCache(String)}, the view throws {@link
+ * IllegalStateException} on use.
+ */
+public class NamespacedResourceCache implements CalDAVResourceCache {
+
+    private final String namespace;
+    private final Cache hrefToResourceCache;
+    private final Cache uidToHrefCache;
+    private volatile int quota;
+    private volatile boolean released = false;
+
+    /** Cached hrefs of this namespace, with their UID, in least recently used order. */
+    private final LinkedHashMap<String, String> index = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Hrefs evicted by the shared store, removed from the index on the next access. */
+    private final Queue<String> evicted = new ConcurrentLinkedQueue<>();
+
+    NamespacedResourceCache(SharedResourceCacheManager manager, String namespace, int quota) {
+        this.namespace = namespace;
+        this.hrefToResourceCache = manager.getHrefToResourceCache();
+        this.uidToHrefCache = manager.getUidToHrefCache();
+        this.quota = quota;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public int getQuota() {
+        return quota;
+    }
+
+    /**
+     * Changes the number of resources this namespace may hold. Shrinking takes effect on the next
+     * put.
+     *
+     * @param quota New quota, must be positive.
+     */
+    public void setQuota(int quota) {
+        if (quota <= 0) {
+            throw new IllegalArgumentException("Quota must be positive");
+        }
+        this.quota = quota;
+    }
+
+    /**
+     * @return Number of resources currently held by this namespace.
+     */
+    public synchronized int size() {
+        checkNotReleased();
+        drainEvicted();
+        return index.size();
+    }
+
+    /**
+     * @see CalDAVResourceCache#getHrefForEventUID(String)
+     */
+    public String getHrefForEventUID(String uid)
+            throws com.github.caldav4j.exceptions.CacheException {
+        checkNotReleased();
+        Element e = null;
+        try {
+            e = uidToHrefCache.get(new Key(namespace, uid));
+        } catch (net.sf.ehcache.CacheException ce) {
+            throw new com.github.caldav4j.exceptions.CacheException(
+                    "Problem with the uidToHrefCache", ce);
+        }
+        return e == null ? null : (String) e.getObjectValue();
+    }
+
+    /**
+     * @see CalDAVResourceCache#getResource(String)
+     */
+    public synchronized CalDAVResource getResource(String href)
+            throws com.github.caldav4j.exceptions.CacheException {
+        checkNotReleased();
+        drainEvicted();
+        Element e = null;
+        try {
+            href = normalize(href);
+            e = hrefToResourceCache.get(new Key(namespace, href));
+        } catch (net.sf.ehcache.CacheException ce) {
+            throw new com.github.caldav4j.exceptions.CacheException(
+                    "Problem with the hrefToResourceCache", ce);
+        }
+
+        if (e == null) {
+            return null;
+        }
+        // refresh the position in the LRU order
+        index.get(href);
+        return (CalDAVResource) e.getObjectValue();
+    }
+
+    /**
+     * @see CalDAVResourceCache#putResource(CalDAVResource)
+     */
+    public synchronized void putResource(CalDAVResource calDAVResource) {
+        checkNotReleased();
+        drainEvicted();
+        calDAVResource = calDAVResource.snapshot();
+        String href = normalize(calDAVResource.getResourceMetadata().getHref());
+        String uid = EhCacheResourceCache.getEventUID(calDAVResource);
+
+        String previousUid = index.remove(href);
+        if (previousUid != null && !previousUid.equals(uid)) {
+            uidToHrefCache.remove(new Key(namespace, previousUid));
+        }
+
+        hrefToResourceCache.put(new Element(new Key(namespace, href), calDAVResource));
+        if (uid != null) {
+            uidToHrefCache.put(new Element(new Key(namespace, uid), href));
+        }
+        index.put(href, uid);
+
+        Iterator<Map.Entry<String, String>> it = index.entrySet().iterator();
+        while (index.size() > quota && it.hasNext()) {
+            Map.Entry<String, String> eldest = it.next();
+            it.remove();
+            removeFromStore(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /**
+     * @see CalDAVResourceCache#removeResource(String)
+     */
+    public synchronized void removeResource(String href) {
+        checkNotReleased();
+        drainEvicted();
+        href = normalize(href);
+        if (index.containsKey(href)) {
+            removeFromStore(href, index.remove(href));
+        } else {
+            hrefToResourceCache.remove(new Key(namespace, href));
+        }
+    }
+
+    /**
+     * @see CalDAVResourceCache#getResources(Collection)
+     */
+    public synchronized Map<String, CalDAVResource> getResources(Collection<String> hrefs)
+            throws com.github.caldav4j.exceptions.CacheException {
+        checkNotReleased();
+        Map<String, CalDAVResource> resources = new LinkedHashMap<>();
+        for (String href : hrefs) {
+            CalDAVResource resource = getResource(href);
+            if (resource != null) {
+                resources.put(href, resource);
+            }
+        }
+        return resources;
+    }
+
+    /**
+     * @see CalDAVResourceCache#putResources(Collection)
+     */
+    public synchronized void putResources(Collection<CalDAVResource> calDAVResources) {
+        checkNotReleased();
+        for (CalDAVResource calDAVResource : calDAVResources) {
+            putResource(calDAVResource);
+        }
+    }
+
+    /**
+     * @see CalDAVResourceCache#removeResources(Collection)
+     */
+    public synchronized void removeResources(Collection<String> hrefs) {
+        checkNotReleased();
+        for (String href : hrefs) {
+            removeResource(href);
+        }
+    }
+
+    /** Removes all the resources of this namespace from the shared store. */
+    public synchronized void clear() {
+        checkNotReleased();
+        removeAll();
+    }
+
+    /**
+     * Called by the manager when the namespace is released: removes its resources, and makes the
+     * view unusable.
+     */
+    synchronized void release() {
+        if (!released) {
+            removeAll();
+            released = true;
+        }
+    }
+
+    private void removeAll() {
+        for (Map.Entry<String, String> entry : index.entrySet()) {
+            removeFromStore(entry.getKey(), entry.getValue());
+        }
+        index.clear();
+        evicted.clear();
+    }
+
+    /**
+     * Called by the manager when the shared store evicts one of our resources. May be invoked
+     * while another namespace holds its lock, so it must not lock this one.
+     */
+    void forget(String href) {
+        evicted.add(href);
+    }
+
+    private void checkNotReleased() {
+        if (released) {
+            throw new IllegalStateException("Namespace " + namespace + " was released");
+        }
+    }
+
+    /** Key of an href in the shared store, whether the href is absolute or a path. */
+    private static String normalize(String href) {
+        return stripHost(UrlUtils.removeDoubleSlashes(href));
+    }
+
+    private void drainEvicted() {
+        String href;
+        while ((href = evicted.poll()) != null) {
+            String uid = index.remove(href);
+            if (uid != null) {
+                uidToHrefCache.remove(new Key(namespace, uid));
+            }
+        }
+    }
+
+    private void removeFromStore(String href, String uid) {
+        hrefToResourceCache.remove(new Key(namespace, href));
+        if (uid != null) {
+            uidToHrefCache.remove(new Key(namespace, uid));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of hrefs and UIDs which are known not to exist on the server.
+ *
+ * <p>Entries expire after a short time to live, and the least recently recorded entries are
+ * dropped once the size limit is reached. Writes to the collection must invalidate the affected
+ * entries, see {@link #invalidateHref(String)} and {@link #invalidateUid(String)}.
+ */
+public class NegativeCache {
+
+    public static final long DEFAULT_TTL_MILLIS = 30 * 1000;
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private final long ttlMillis;
+    private final Map<String, Long> missingHrefs;
+    private final Map<String, Long> missingUids;
+
+    /** Creates a negative cache with the default time to live and size. */
+    public NegativeCache() {
+        this(DEFAULT_TTL_MILLIS, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param ttlMillis Time to live of each entry, in milliseconds.
+     * @param maxEntries Maximum number of hrefs, and of UIDs, remembered.
+     */
+    public NegativeCache(long ttlMillis, int maxEntries) {
+        if (ttlMillis <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("TTL and size must be positive");
+        }
+        this.ttlMillis = ttlMillis;
+        this.missingHrefs = createBoundedMap(maxEntries);
+        this.missingUids = createBoundedMap(maxEntries);
+    }
+
+    private static Map<String, Long> createBoundedMap(final int maxEntries) {
+        return new LinkedHashMap<String, Long>(16, 0.75f, false) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param href Href which was not found on the server.
+     */
+    public synchronized void putMissingHref(String href) {
+        missingHrefs.remove(href);
+        missingHrefs.put(href, System.currentTimeMillis() + ttlMillis);
+    }
+
+    /**
+     * @param uid UID for which no resource was found on the server.
+     */
+    public synchronized void putMissingUid(String uid) {
+        missingUids.remove(uid);
+        missingUids.put(uid, System.currentTimeMillis() + ttlMillis);
+    }
+
+    /**
+     * @param href Href to check
+     * @return True if the href was recently found missing.
+     */
+    public synchronized boolean isMissingHref(String href) {
+        return isMissing(missingHrefs, href);
+    }
+
+    /**
+     * @param uid UID to check
+     * @return True if the UID was recently found missing.
+     */
+    public synchronized boolean isMissingUid(String uid) {
+        return isMissing(missingUids, uid);
+    }
+
+    public synchronized void invalidateHref(String href) {
+        missingHrefs.remove(href);
+    }
+
+    public synchronized void invalidateUid(String uid) {
+        missingUids.remove(uid);
+    }
+
+    /** Forgets all the entries. */
+    public synchronized void clear() {
+        missingHrefs.clear();
+        missingUids.clear();
+    }
+
+    private boolean isMissing(Map<String, Long> map, String key) {
+        Long expiry = map.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry < System.currentTimeMillis()) {
+            map.remove(key);
+            return false;
+        }
+        return true;
+    }
+}
@@ -1,6 +1,9 @@
 package com.github.caldav4j.cache;
 
 import com.github.caldav4j.CalDAVResource;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * Cache which does nothing. But is very fast.
@@ -19,7 +22,7 @@ public class NoOpResourceCache implements CalDAVResourceCache {
      * @return Cache Instance
      * @see #destroyCacheInstance()
      */
-    public static NoOpResourceCache getCacheInstance() {
+    public static synchronized NoOpResourceCache getCacheInstance() {
         if (SINGLETON == null) SINGLETON = new NoOpResourceCache();
 
         return SINGLETON;
@@ -30,7 +33,7 @@ public class NoOpResourceCache implements CalDAVResourceCache {
      *
      * @see #getCacheInstance()
      */
-    public static void destroyCacheInstance() {
+    public static synchronized void destroyCacheInstance() {
         SINGLETON = null;
     }
 
@@ -59,4 +62,21 @@ public class NoOpResourceCache implements CalDAVResourceCache {
      * @see CalDAVResourceCache#removeResource(String)
      */
     public void removeResource(String href) {}
+
+    /**
+     * @see CalDAVResourceCache#getResources(Collection)
+     */
+    public Map<String, CalDAVResource> getResources(Collection<String> hrefs) {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * @see CalDAVResourceCache#putResources(Collection)
+     */
+    public void putResources(Collection<CalDAVResource> calDAVResources) {}
+
+    /**
+     * @see CalDAVResourceCache#removeResources(Collection)
+     */
+    public void removeResources(Collection<String> hrefs) {}
 }
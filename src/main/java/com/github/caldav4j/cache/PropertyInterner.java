@@ -0,0 +1,438 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache;
+
+import com.github.caldav4j.CalDAVResource;
+import com.github.caldav4j.ResourceMetadata;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Component;
+import net.fortuna.ical4j.model.ComponentContainer;
+import net.fortuna.ical4j.model.ComponentList;
+import net.fortuna.ical4j.model.Parameter;
+import net.fortuna.ical4j.model.ParameterList;
+import net.fortuna.ical4j.model.Property;
+import net.fortuna.ical4j.model.PropertyList;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+import net.fortuna.ical4j.model.component.VTimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded, weak intern pool of the properties whose values repeat across the cached calendars of
+ * an organisation, such as attendees, organizers, categories and locations. Equal properties,
+ * parameters included, are replaced by one canonical instance, which is dropped from the pool once
+ * no cached calendar references it anymore. Parameters repeating on other properties, such as the
+ * TZID of DTSTART, DTEND, RECURRENCE-ID and EXDATE, are interned the same way in a second pool.
+ *
+ * <p>Canonical instances are copies owned by the pool. As the components of a resource are shared
+ * with the calendar it was created from, the components holding properties to replace are copied:
+ * the caller's calendar is left untouched, and can still be modified. Interned properties are
+ * shared by all the cached calendars, and like the rest of a {@link CalDAVResource#snapshot()
+ * snapshot} must not be modified. VTIMEZONE components are left as they are, being already shared
+ * by {@link com.github.caldav4j.model.response.SharedTimeZones}.
+ *
+ * @see EhCacheResourceCache#setPropertyInterner(PropertyInterner)
+ */
+public class PropertyInterner {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyInterner.class);
+
+    /** Default maximum number of properties kept by a pool. */
+    public static final int DEFAULT_MAX_SIZE = 50000;
+
+    /** Names of the properties interned by default. */
+    public static final Set<String> DEFAULT_PROPERTY_NAMES =
+            Collections.unmodifiableSet(
+                    new HashSet<>(
+                            Arrays.asList(
+                                    Property.ATTENDEE,
+                                    Property.ORGANIZER,
+                                    Property.CATEGORIES,
+                                    Property.LOCATION)));
+
+    /** Names of the parameters interned by default. */
+    public static final Set<String> DEFAULT_PARAMETER_NAMES =
+            Collections.singleton(Parameter.TZID);
+
+    private final Set<String> propertyNames;
+    private final Set<String> parameterNames;
+    private final int maxSize;
+    private final Map<Property, WeakReference<Property>> pool = new WeakHashMap<>();
+    private final Map<Parameter, WeakReference<Parameter>> parameterPool = new WeakHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+
+    /** Interns the {@link #DEFAULT_PROPERTY_NAMES}, keeping up to {@link #DEFAULT_MAX_SIZE}. */
+    public PropertyInterner() {
+        this(DEFAULT_PROPERTY_NAMES, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Interns the {@link #DEFAULT_PARAMETER_NAMES}, and the given properties.
+     *
+     * @param propertyNames Names of the properties to intern.
+     * @param maxSize Maximum number of properties kept, further ones are left as they are.
+     */
+    public PropertyInterner(Collection<String> propertyNames, int maxSize) {
+        this(propertyNames, DEFAULT_PARAMETER_NAMES, maxSize);
+    }
+
+    /**
+     * @param propertyNames Names of the properties to intern.
+     * @param parameterNames Names of the parameters to intern, on any property.
+     * @param maxSize Maximum number of properties, and of parameters, kept. Further ones are left
+     *     as they are.
+     */
+    public PropertyInterner(
+            Collection<String> propertyNames, Collection<String> parameterNames, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive");
+        }
+        this.propertyNames = Collections.unmodifiableSet(new HashSet<>(propertyNames));
+        this.parameterNames = Collections.unmodifiableSet(new HashSet<>(parameterNames));
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return Names of the properties interned.
+     */
+    public Set<String> getPropertyNames() {
+        return propertyNames;
+    }
+
+    /**
+     * @return Names of the parameters interned.
+     */
+    public Set<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * @param property Property to intern
+     * @return The canonical instance equal to the property, a copy of it if it is the first of its
+     *     kind, or the property itself if the pool is full or the property is not interned.
+     */
+    public Property intern(Property property) {
+        return intern(property, false);
+    }
+
+    /**
+     * @param parameter Parameter to intern
+     * @return The canonical instance equal to the parameter, which is the parameter itself if it is
+     *     the first of its kind, if the pool is full or if the parameter is not interned.
+     */
+    public Parameter intern(Parameter parameter) {
+        if (!parameterNames.contains(parameter.getName())) {
+            return parameter;
+        }
+        synchronized (parameterPool) {
+            Parameter canonical = lookup(parameterPool, parameter);
+            if (canonical != null) {
+                if (canonical != parameter) {
+                    hits.incrementAndGet();
+                }
+                return canonical;
+            }
+            if (parameterPool.size() < maxSize) {
+                // parameters are immutable, so the caller's instance can be shared as it is
+                parameterPool.put(parameter, new WeakReference<>(parameter));
+            }
+            return parameter;
+        }
+    }
+
+    /**
+     * @param owned Whether the property belongs to this class, and can become the canonical
+     *     instance without being copied.
+     */
+    private Property intern(Property property, boolean owned) {
+        if (!propertyNames.contains(property.getName())) {
+            return property;
+        }
+        synchronized (pool) {
+            Property canonical = lookup(pool, property);
+            if (canonical != null) {
+                if (canonical != property) {
+                    hits.incrementAndGet();
+                }
+                return canonical;
+            }
+            if (pool.size() >= maxSize) {
+                return property;
+            }
+            if (owned) {
+                canonical = property;
+            } else {
+                try {
+                    canonical = property.copy();
+                } catch (Exception e) {
+                    log.debug("Unable to copy " + property.getName() + ", not interned", e);
+                    return property;
+                }
+            }
+            // before the property is a key of the pool; equal parameters keep its hash code
+            internParameters(canonical);
+            pool.put(canonical, new WeakReference<>(canonical));
+            return canonical;
+        }
+    }
+
+    private static <T> T lookup(Map<T, WeakReference<T>> pool, T value) {
+        WeakReference<T> reference = pool.get(value);
+        return reference != null ? reference.get() : null;
+    }
+
+    /**
+     * @param calendar Calendar, may be null
+     * @return The given calendar if it has no property to intern, otherwise a copy referencing the
+     *     interned properties. The given calendar is not modified.
+     */
+    public Calendar intern(Calendar calendar) {
+        if (calendar == null) {
+            return null;
+        }
+        boolean changed = false;
+        List<Property> properties = internAll(calendar.getPropertyList().getAll());
+        if (properties == null) {
+            properties = calendar.getPropertyList().getAll();
+        } else {
+            changed = true;
+        }
+
+        List<CalendarComponent> components = new ArrayList<>();
+        for (CalendarComponent component : calendar.getComponentList().getAll()) {
+            CalendarComponent interned = component;
+            if (!(component instanceof VTimeZone)) {
+                if (hasValuesToIntern(component)) {
+                    interned = copyOf(component);
+                } else {
+                    registerParameters(component);
+                }
+            }
+            changed |= interned != component;
+            components.add(interned);
+        }
+        if (!changed) {
+            return calendar;
+        }
+        return new Calendar(new PropertyList(properties), new ComponentList<>(components));
+    }
+
+    /**
+     * @param resource Resource to intern
+     * @return A snapshot of the resource, referencing the interned properties.
+     */
+    public CalDAVResource snapshot(CalDAVResource resource) {
+        CalDAVResource snapshot = resource.snapshot();
+        Calendar calendar = snapshot.getCalendar();
+        Calendar interned = intern(calendar);
+        if (interned == calendar) {
+            return snapshot;
+        }
+        CalDAVResource copy = new CalDAVResource();
+        copy.setCalendar(interned);
+        ResourceMetadata metadata = snapshot.getResourceMetadata();
+        copy.getResourceMetadata().setETag(metadata.getETag());
+        if (metadata.getHref() != null) {
+            copy.getResourceMetadata().setHref(metadata.getHref());
+        }
+        copy.getResourceMetadata().setLastValidated(metadata.getLastValidated());
+        return copy.snapshot();
+    }
+
+    /**
+     * @return Number of properties in the pool, including the ones not yet collected.
+     */
+    public int size() {
+        synchronized (pool) {
+            return pool.size();
+        }
+    }
+
+    /**
+     * @return Number of parameters in the pool, including the ones not yet collected.
+     */
+    public int parameterPoolSize() {
+        synchronized (parameterPool) {
+            return parameterPool.size();
+        }
+    }
+
+    /**
+     * @return Number of times a property or a parameter was replaced by its canonical instance.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /** Empties the pool. Cached calendars keep the instances they reference. */
+    public void clear() {
+        synchronized (pool) {
+            pool.clear();
+        }
+        synchronized (parameterPool) {
+            parameterPool.clear();
+        }
+    }
+
+    /**
+     * Whether interning would replace properties or parameters of the component or of its
+     * subcomponents. Only looks the pools up, without adding to them.
+     */
+    private boolean hasValuesToIntern(Component component) {
+        for (Property property : component.getPropertyList().getAll()) {
+            if (hasValuesToIntern(property)) {
+                return true;
+            }
+        }
+        if (component instanceof ComponentContainer) {
+            for (Object child : ((ComponentContainer<?>) component).getComponentList().getAll()) {
+                if (hasValuesToIntern((Component) child)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hasValuesToIntern(Property property) {
+        if (propertyNames.contains(property.getName())) {
+            synchronized (pool) {
+                Property canonical = lookup(pool, property);
+                // a new property is replaced by a copy, unless the pool is full
+                if (canonical != null ? canonical != property : pool.size() < maxSize) {
+                    return true;
+                }
+            }
+        }
+        for (Parameter parameter : property.getParameterList().getAll()) {
+            if (parameterNames.contains(parameter.getName())) {
+                synchronized (parameterPool) {
+                    Parameter canonical = lookup(parameterPool, parameter);
+                    if (canonical != null && canonical != parameter) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the parameters of a component which is kept as it is to the pool, so that the next
+     * components share them.
+     */
+    private void registerParameters(Component component) {
+        if (parameterNames.isEmpty()) {
+            return;
+        }
+        for (Property property : component.getPropertyList().getAll()) {
+            for (Parameter parameter : property.getParameterList().getAll()) {
+                intern(parameter);
+            }
+        }
+        if (component instanceof ComponentContainer) {
+            for (Object child : ((ComponentContainer<?>) component).getComponentList().getAll()) {
+                registerParameters((Component) child);
+            }
+        }
+    }
+
+    /**
+     * @return A deep copy of the component with the interned properties, or the component itself
+     *     if it can't be copied.
+     */
+    private <T extends Component> T copyOf(T component) {
+        T copy;
+        try {
+            copy = component.copy();
+        } catch (Exception e) {
+            log.debug("Unable to copy " + component.getName() + ", not interned", e);
+            return component;
+        }
+        internInPlace(copy);
+        return copy;
+    }
+
+    /** Interns the properties and parameters of a component owned by this class. */
+    private void internInPlace(Component component) {
+        List<Property> properties = new ArrayList<>(component.getPropertyList().getAll());
+        boolean changed = false;
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            Property canonical = intern(property, true);
+            if (canonical != property) {
+                properties.set(i, canonical);
+                changed = true;
+            } else if (!propertyNames.contains(property.getName())) {
+                internParameters(property);
+            }
+        }
+        if (changed) {
+            component.setPropertyList(new PropertyList(properties));
+        }
+        if (component instanceof ComponentContainer) {
+            for (Object child : ((ComponentContainer<?>) component).getComponentList().getAll()) {
+                internInPlace((Component) child);
+            }
+        }
+    }
+
+    /** Interns the parameters of a property owned by this class. */
+    private void internParameters(Property property) {
+        List<Parameter> parameters = property.getParameterList().getAll();
+        List<Parameter> result = null;
+        for (int i = 0; i < parameters.size(); i++) {
+            Parameter parameter = parameters.get(i);
+            Parameter canonical = intern(parameter);
+            if (canonical != parameter) {
+                if (result == null) {
+                    result = new ArrayList<>(parameters);
+                }
+                result.set(i, canonical);
+            }
+        }
+        if (result != null) {
+            property.setParameterList(new ParameterList(result));
+        }
+    }
+
+    /**
+     * @return The interned properties, null if none was replaced.
+     */
+    private List<Property> internAll(List<Property> properties) {
+        List<Property> result = null;
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            Property canonical = intern(property);
+            if (canonical != property) {
+                if (result == null) {
+                    result = new ArrayList<>(properties);
+                }
+                result.set(i, canonical);
+            }
+        }
+        return result;
+    }
+}
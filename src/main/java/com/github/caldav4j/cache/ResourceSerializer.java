@@ -0,0 +1,41 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache;
+
+import com.github.caldav4j.CalDAVResource;
+import com.github.caldav4j.exceptions.CacheException;
+
+/**
+ * Converts resources to bytes and back, for caches keeping their entries outside the heap or on
+ * disk.
+ *
+ * @see CompactResourceSerializer
+ * @see EhCacheResourceCache#setResourceSerializer(ResourceSerializer)
+ */
+public interface ResourceSerializer {
+
+    /**
+     * @param resource Resource to serialize
+     * @return Bytes representing the resource
+     * @throws CacheException if the resource can't be serialized
+     */
+    byte[] serialize(CalDAVResource resource) throws CacheException;
+
+    /**
+     * @param data Bytes returned by {@link #serialize(CalDAVResource)}
+     * @return A {@link CalDAVResource#snapshot() snapshot} of the serialized resource.
+     * @throws CacheException if the bytes are not a valid serialized resource
+     */
+    CalDAVResource deserialize(byte[] data) throws CacheException;
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache;
+
+import com.github.caldav4j.ResourceMetadata;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stale-while-revalidate policy for cached resources.
+ *
+ * <p>A cached resource validated less than {@code freshMillis} ago is served without contacting
+ * the server. A resource older than that, but younger than {@code freshMillis + staleMillis}, is
+ * served as is while a background refresh is scheduled on the given executor. Anything older is
+ * revalidated synchronously, as when no policy is set.
+ *
+ * <p>Refreshes are coalesced per href, and at most {@code maxConcurrentRefreshes} of them run at
+ * the same time. Refreshes which can't get a slot are simply dropped: the next read will try again.
+ *
+ * @see com.github.caldav4j.CalDAVCalendarCollectionBase#setRevalidationPolicy(RevalidationPolicy)
+ */
+public class RevalidationPolicy {
+
+    private static final Logger log = LoggerFactory.getLogger(RevalidationPolicy.class);
+
+    private final long freshMillis;
+    private final long staleMillis;
+    private final Executor executor;
+    private final Semaphore permits;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param freshMillis Age under which a cached resource is served without revalidation.
+     * @param staleMillis Additional age under which a cached resource is served while refreshed in
+     *     the background.
+     * @param executor Executor running the background refreshes.
+     * @param maxConcurrentRefreshes Maximum number of refreshes running at the same time.
+     */
+    public RevalidationPolicy(
+            long freshMillis, long staleMillis, Executor executor, int maxConcurrentRefreshes) {
+        if (freshMillis < 0 || staleMillis < 0) {
+            throw new IllegalArgumentException("Staleness windows must not be negative");
+        }
+        if (maxConcurrentRefreshes < 1) {
+            throw new IllegalArgumentException("At least one concurrent refresh is required");
+        }
+        this.freshMillis = freshMillis;
+        this.staleMillis = staleMillis;
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrentRefreshes);
+    }
+
+    public long getFreshMillis() {
+        return freshMillis;
+    }
+
+    public long getStaleMillis() {
+        return staleMillis;
+    }
+
+    /**
+     * @param metadata Metadata of the cached resource
+     * @return True if the resource can be served without contacting the server.
+     */
+    public boolean isFresh(ResourceMetadata metadata) {
+        return metadata.getAge() < freshMillis;
+    }
+
+    /**
+     * @param metadata Metadata of the cached resource
+     * @return True if the resource can be served while being refreshed in background.
+     */
+    public boolean isServableStale(ResourceMetadata metadata) {
+        return metadata.getAge() < freshMillis + staleMillis;
+    }
+
+    /**
+     * Schedules a background refresh of the given href, unless one is already running for it or
+     * the concurrency limit is reached.
+     *
+     * @param href Href of the resource, used to coalesce refreshes.
+     * @param refresh Task revalidating the resource.
+     * @return True if the refresh was scheduled.
+     */
+    public boolean refresh(String href, Runnable refresh) {
+        if (!inFlight.add(href)) {
+            return false;
+        }
+        if (!permits.tryAcquire()) {
+            inFlight.remove(href);
+            log.debug("Too many refreshes running, skipping " + href);
+            return false;
+        }
+        try {
+            executor.execute(
+                    () -> {
+                        try {
+                            refresh.run();
+                        } catch (RuntimeException e) {
+                            log.warn("Background refresh failed for " + href, e);
+                        } finally {
+                            inFlight.remove(href);
+                            permits.release();
+                        }
+                    });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(href);
+            permits.release();
+            log.warn("Background refresh rejected for " + href);
+            return false;
+        }
+    }
+
+    /**
+     * @param href Href of the resource
+     * @return True if a refresh is currently running for the href.
+     */
+    public boolean isRefreshing(String href) {
+        return inFlight.contains(href);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache;
+
+import com.github.caldav4j.ServerCapabilities;
+import java.time.Clock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.apache.http.HttpHost;
+
+/**
+ * Cache of the {@link ServerCapabilities} probed for each host and collection, so that the probe
+ * runs once for all the {@link com.github.caldav4j.CalDAVCollection} instances of a collection.
+ * Entries expire after a time to live, as servers may be upgraded or reconfigured.
+ *
+ * <p>Collections have no cache by default, and never probe the server: see {@link
+ * com.github.caldav4j.CalDAVCalendarCollectionBase#setCapabilitiesCache(ServerCapabilitiesCache)}.
+ */
+public class ServerCapabilitiesCache {
+
+    public static final long DEFAULT_TTL_MILLIS = 60 * 60 * 1000;
+
+    private static final ServerCapabilitiesCache DEFAULT = new ServerCapabilitiesCache();
+
+    private final long ttlMillis;
+    private final Clock clock;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<ServerCapabilities>> probes =
+            new ConcurrentHashMap<>();
+
+    /** Creates a cache with the default time to live. */
+    public ServerCapabilitiesCache() {
+        this(DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * @param ttlMillis Time to live of each entry, in milliseconds.
+     */
+    public ServerCapabilitiesCache(long ttlMillis) {
+        this(ttlMillis, Clock.systemUTC());
+    }
+
+    /**
+     * @param ttlMillis Time to live of each entry, in milliseconds.
+     * @param clock Clock telling when entries expire
+     */
+    public ServerCapabilitiesCache(long ttlMillis, Clock clock) {
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @return A cache which can be shared by all the collections.
+     */
+    public static ServerCapabilitiesCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param host Host of the collection
+     * @param path Path of the collection
+     * @return The capabilities probed for the collection, null if missing or expired.
+     */
+    public ServerCapabilities get(HttpHost host, String path) {
+        String key = key(host, path);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= clock.millis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.capabilities;
+    }
+
+    /**
+     * @param host Host of the collection
+     * @param path Path of the collection
+     * @param capabilities Capabilities probed for the collection
+     */
+    public void put(HttpHost host, String path, ServerCapabilities capabilities) {
+        entries.put(
+                key(host, path),
+                new Entry(capabilities, clock.millis() + ttlMillis));
+    }
+
+    /**
+     * Returns the capabilities of a collection, probing them if missing or expired. Concurrent
+     * callers for the same collection wait for a single probe instead of each sending their own.
+     *
+     * @param host Host of the collection
+     * @param path Path of the collection
+     * @param probe Probe of the capabilities of the collection
+     * @return The capabilities of the collection
+     */
+    public ServerCapabilities get(
+            HttpHost host, String path, Supplier<ServerCapabilities> probe) {
+        ServerCapabilities capabilities = get(host, path);
+        if (capabilities != null) {
+            return capabilities;
+        }
+        String key = key(host, path);
+        CompletableFuture<ServerCapabilities> result = new CompletableFuture<>();
+        CompletableFuture<ServerCapabilities> running = probes.putIfAbsent(key, result);
+        if (running != null) {
+            return running.join();
+        }
+        try {
+            // a probe may have ended since the first lookup
+            capabilities = get(host, path);
+            if (capabilities == null) {
+                capabilities = probe.get();
+                put(host, path, capabilities);
+            }
+            result.complete(capabilities);
+            return capabilities;
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            throw e;
+        } finally {
+            probes.remove(key, result);
+        }
+    }
+
+    /**
+     * Forgets the capabilities of a collection, so that they are probed again on next use.
+     *
+     * @param host Host of the collection
+     * @param path Path of the collection
+     */
+    public void invalidate(HttpHost host, String path) {
+        entries.remove(key(host, path));
+    }
+
+    /**
+     * @return Number of entries, including the expired ones not yet removed.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private static String key(HttpHost host, String path) {
+        return (host != null ? host.toURI() : "") + path;
+    }
+
+    private static final class Entry {
+        private final ServerCapabilities capabilities;
+        private final long expiresAt;
+
+        private Entry(ServerCapabilities capabilities, long expiresAt) {
+            this.capabilities = capabilities;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
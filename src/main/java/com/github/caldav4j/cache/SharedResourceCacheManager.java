@@ -0,0 +1,223 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.ObjectExistsException;
+import net.sf.ehcache.event.CacheEventListenerAdapter;
+
+/**
+ * Hands out per-collection views over a single shared EhCache store, so that many collections (or
+ * tenants) share one memory budget.
+ *
+ * <p>Each view is identified by a namespace, e.g. the collection href or a tenant id, and holds at
+ * most its quota of resources: when full, the least recently used resources of that namespace are
+ * evicted, leaving other namespaces untouched. The shared store evicts globally once its overall
+ * size is reached.
+ *
+ * <pre>
+ * SharedResourceCacheManager manager = new SharedResourceCacheManager(100000, 500);
+ * collection.setCache(manager.getCache(tenantId + collectionHref));
+ * ...
+ * manager.releaseCache(tenantId + collectionHref);
+ * </pre>
+ */
+public class SharedResourceCacheManager {
+
+    private static final String CACHE_PREFIX = "caldav4j-shared-";
+    private static final AtomicInteger instances = new AtomicInteger();
+
+    private final CacheManager cacheManager;
+    private final Cache hrefToResourceCache;
+    private final Cache uidToHrefCache;
+    private final int defaultQuota;
+    private final Map<String, NamespacedResourceCache> views = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a manager on the default {@link CacheManager}.
+     *
+     * @param maxEntries Maximum number of resources kept in memory over all namespaces.
+     * @param defaultQuota Maximum number of resources kept for a single namespace.
+     * @throws com.github.caldav4j.exceptions.CacheException on error creating the shared store
+     */
+    public SharedResourceCacheManager(int maxEntries, int defaultQuota)
+            throws com.github.caldav4j.exceptions.CacheException {
+        this(CacheManager.create(), maxEntries, defaultQuota);
+    }
+
+    /**
+     * @param cacheManager Manager where to register the shared store.
+     * @param maxEntries Maximum number of resources kept in memory over all namespaces.
+     * @param defaultQuota Maximum number of resources kept for a single namespace.
+     * @throws com.github.caldav4j.exceptions.CacheException on error creating the shared store
+     */
+    public SharedResourceCacheManager(CacheManager cacheManager, int maxEntries, int defaultQuota)
+            throws com.github.caldav4j.exceptions.CacheException {
+        if (maxEntries <= 0 || defaultQuota <= 0) {
+            throw new IllegalArgumentException("Cache sizes must be positive");
+        }
+        this.cacheManager = cacheManager;
+        this.defaultQuota = defaultQuota;
+
+        String name = CACHE_PREFIX + instances.incrementAndGet();
+        hrefToResourceCache = createCache(name + "-hrefToResource", maxEntries);
+        uidToHrefCache = createCache(name + "-uidToHref", maxEntries);
+        try {
+            cacheManager.addCache(hrefToResourceCache);
+            cacheManager.addCache(uidToHrefCache);
+        } catch (ObjectExistsException e) {
+            throw new com.github.caldav4j.exceptions.CacheException("Cache exists", e);
+        }
+
+        hrefToResourceCache
+                .getCacheEventNotificationService()
+                .registerListener(
+                        new CacheEventListenerAdapter() {
+                            @Override
+                            public void notifyElementEvicted(Ehcache cache, Element element) {
+                                forget(element);
+                            }
+
+                            @Override
+                            public void notifyElementExpired(Ehcache cache, Element element) {
+                                forget(element);
+                            }
+                        });
+    }
+
+    private static Cache createCache(String name, int maxEntries) {
+        return new Cache(
+                name,
+                maxEntries,
+                null,
+                false,
+                System.getProperty("java.io.tmpdir"),
+                false,
+                600,
+                300,
+                false,
+                0,
+                null);
+    }
+
+    /** Keeps the per-namespace bookkeeping in sync with global evictions. */
+    private void forget(Element element) {
+        if (element != null && element.getObjectKey() instanceof Key) {
+            Key key = (Key) element.getObjectKey();
+            NamespacedResourceCache view = views.get(key.namespace);
+            if (view != null) {
+                view.forget(key.value);
+            }
+        }
+    }
+
+    /**
+     * Returns the view for the given namespace, creating it with the default quota if needed.
+     *
+     * @param namespace Namespace of the view, e.g. the collection href.
+     * @return Cache to be set on the collection.
+     */
+    public NamespacedResourceCache getCache(String namespace) {
+        return views.computeIfAbsent(
+                namespace, n -> new NamespacedResourceCache(this, n, defaultQuota));
+    }
+
+    /**
+     * Returns the view for the given namespace, with a specific quota.
+     *
+     * @param namespace Namespace of the view, e.g. the collection href.
+     * @param quota Maximum number of resources kept for the namespace.
+     * @return Cache to be set on the collection.
+     */
+    public NamespacedResourceCache getCache(String namespace, int quota) {
+        NamespacedResourceCache view = getCache(namespace);
+        view.setQuota(quota);
+        return view;
+    }
+
+    /**
+     * Removes all the resources of the namespace from the shared store. The view throws {@link
+     * IllegalStateException} if used afterwards, and a new one is created by the next {@link
+     * #getCache(String)}.
+     *
+     * @param namespace Namespace to release.
+     */
+    public void releaseCache(String namespace) {
+        NamespacedResourceCache view = views.remove(namespace);
+        if (view != null) {
+            view.release();
+        }
+    }
+
+    /**
+     * @return Number of namespaces currently holding a view.
+     */
+    public int getNamespaceCount() {
+        return views.size();
+    }
+
+    /** Releases all the namespaces and removes the shared store from the {@link CacheManager}. */
+    public void shutdown() {
+        views.clear();
+        cacheManager.removeCache(hrefToResourceCache.getName());
+        cacheManager.removeCache(uidToHrefCache.getName());
+    }
+
+    Cache getHrefToResourceCache() {
+        return hrefToResourceCache;
+    }
+
+    Cache getUidToHrefCache() {
+        return uidToHrefCache;
+    }
+
+    /** Key of the shared store: the namespace along with the href, or the UID. */
+    static final class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final String namespace;
+        final String value;
+
+        Key(String namespace, String value) {
+            this.namespace = namespace;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return namespace.equals(other.namespace) && Objects.equals(value, other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * namespace.hashCode() + Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return namespace + " " + value;
+        }
+    }
+}
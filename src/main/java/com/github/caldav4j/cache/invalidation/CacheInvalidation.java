@@ -0,0 +1,70 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache.invalidation;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/** Notification that the resource identified by an href, or by a UID, changed on the server. */
+public final class CacheInvalidation implements Serializable {
+
+    private static final long serialVersionUID = 5128431950264305127L;
+
+    public enum Type {
+        HREF,
+        UID
+    }
+
+    private final Type type;
+    private final String value;
+
+    public CacheInvalidation(Type type, String value) {
+        this.type = Objects.requireNonNull(type);
+        this.value = Objects.requireNonNull(value);
+    }
+
+    public static CacheInvalidation href(String href) {
+        return new CacheInvalidation(Type.HREF, href);
+    }
+
+    public static CacheInvalidation uid(String uid) {
+        return new CacheInvalidation(Type.UID, uid);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CacheInvalidation)) return false;
+        CacheInvalidation other = (CacheInvalidation) o;
+        return type == other.type && value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.hashCode() + value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + value;
+    }
+}
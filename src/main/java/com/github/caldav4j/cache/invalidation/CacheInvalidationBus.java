@@ -0,0 +1,46 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache.invalidation;
+
+/**
+ * Propagates cache invalidations between the nodes sharing the same CalDAV collections, so that a
+ * write on one node evicts the stale copies cached by the others.
+ *
+ * <p>Implementations may deliver invalidations in batches and asynchronously, and may deliver them
+ * back to the publishing node too: applying an invalidation more than once is harmless.
+ *
+ * @see com.github.caldav4j.CalDAVCalendarCollectionBase#setInvalidationBus(CacheInvalidationBus)
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * Publishes an invalidation to the other nodes.
+     *
+     * @param invalidation Invalidation to send.
+     */
+    public void publish(CacheInvalidation invalidation);
+
+    /**
+     * @param listener Listener to be notified of the invalidations received.
+     */
+    public void subscribe(CacheInvalidationListener listener);
+
+    /**
+     * @param listener Listener not to be notified anymore.
+     */
+    public void unsubscribe(CacheInvalidationListener listener);
+
+    /** Flushes the pending invalidations, and releases the resources held by the bus. */
+    public void close();
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache.invalidation;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Bus delivering invalidations synchronously to the listeners of the same JVM. Useful for tests,
+ * and for several collections instances pointing to the same server within one process.
+ */
+public class InMemoryInvalidationBus implements CacheInvalidationBus {
+
+    private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void publish(CacheInvalidation invalidation) {
+        List<CacheInvalidation> batch = Collections.singletonList(invalidation);
+        for (CacheInvalidationListener listener : listeners) {
+            listener.onInvalidation(batch);
+        }
+    }
+
+    public void subscribe(CacheInvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(CacheInvalidationListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void close() {
+        listeners.clear();
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache.invalidation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bus sending invalidations as UDP datagrams to a fixed list of peers.
+ *
+ * <p>Published invalidations are queued, deduplicated and sent in batches every flush interval, or
+ * as soon as a datagram is full. Delivery is best effort: a lost datagram only means that the
+ * peers serve the stale entries until their next etag check.
+ *
+ * <p>Each datagram holds: the magic number, the protocol version, the id of the sending node, the
+ * number of entries, and for each entry its type and its UTF-8 value.
+ */
+public class UdpInvalidationBus implements CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(UdpInvalidationBus.class);
+
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 50;
+
+    static final int MAGIC = 0x43444956; // "CDIV"
+    static final byte VERSION = 1;
+    static final int MAX_DATAGRAM_SIZE = 1400;
+    private static final int HEADER_SIZE = 4 + 1 + 2 + 36 + 2;
+    private static final int ENTRY_OVERHEAD = 1 + 2;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final DatagramSocket socket;
+    private final List<InetSocketAddress> peers;
+    private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    private final Set<CacheInvalidation> pending = new LinkedHashSet<>();
+    private int pendingSize = 0;
+    private final ScheduledExecutorService flusher;
+    private final Thread receiver;
+    private volatile boolean closed = false;
+
+    /**
+     * @param bindAddress Local address where to receive the invalidations.
+     * @param peers Addresses of the other nodes.
+     * @throws IOException if the socket can't be bound.
+     */
+    public UdpInvalidationBus(InetSocketAddress bindAddress, Collection<InetSocketAddress> peers)
+            throws IOException {
+        this(bindAddress, peers, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param bindAddress Local address where to receive the invalidations.
+     * @param peers Addresses of the other nodes.
+     * @param flushIntervalMillis Maximum time an invalidation is held before being sent.
+     * @throws IOException if the socket can't be bound.
+     */
+    public UdpInvalidationBus(
+            InetSocketAddress bindAddress,
+            Collection<InetSocketAddress> peers,
+            long flushIntervalMillis)
+            throws IOException {
+        this.socket = new DatagramSocket(bindAddress);
+        this.peers = new CopyOnWriteArrayList<>(peers);
+
+        this.flusher =
+                Executors.newSingleThreadScheduledExecutor(
+                        r -> {
+                            Thread t = new Thread(r, "caldav4j-invalidation-flusher");
+                            t.setDaemon(true);
+                            return t;
+                        });
+        flusher.scheduleWithFixedDelay(
+                this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+
+        this.receiver = new Thread(this::receive, "caldav4j-invalidation-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    /**
+     * @return Port where the invalidations are received.
+     */
+    public int getLocalPort() {
+        return socket.getLocalPort();
+    }
+
+    /**
+     * @param peer Address of a node joining the cluster.
+     */
+    public void addPeer(InetSocketAddress peer) {
+        peers.add(peer);
+    }
+
+    public void publish(CacheInvalidation invalidation) {
+        int size = entrySize(invalidation);
+        if (HEADER_SIZE + size > MAX_DATAGRAM_SIZE) {
+            log.warn("Invalidation too large to be sent: " + invalidation);
+            return;
+        }
+
+        boolean full;
+        synchronized (pending) {
+            if (pending.add(invalidation)) {
+                pendingSize += size;
+            }
+            full = HEADER_SIZE + pendingSize >= MAX_DATAGRAM_SIZE;
+        }
+        if (full) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    public void subscribe(CacheInvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void unsubscribe(CacheInvalidationListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        flusher.shutdownNow();
+        socket.close();
+        listeners.clear();
+    }
+
+    /** Sends the pending invalidations to all the peers. */
+    public void flush() {
+        List<CacheInvalidation> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending);
+            pending.clear();
+            pendingSize = 0;
+        }
+
+        try {
+            for (byte[] datagram : encode(nodeId, batch)) {
+                for (InetSocketAddress peer : peers) {
+                    socket.send(new DatagramPacket(datagram, datagram.length, peer));
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                log.warn("Unable to send " + batch.size() + " invalidations", e);
+            }
+        }
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[65535];
+        while (!closed) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+                List<CacheInvalidation> batch =
+                        decode(nodeId, packet.getData(), packet.getLength());
+                if (!batch.isEmpty()) {
+                    for (CacheInvalidationListener listener : listeners) {
+                        listener.onInvalidation(batch);
+                    }
+                }
+            } catch (SocketException e) {
+                if (!closed) {
+                    log.warn("Invalidation socket failure", e);
+                }
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Discarding invalidation datagram", e);
+            }
+        }
+    }
+
+    private static int entrySize(CacheInvalidation invalidation) {
+        return ENTRY_OVERHEAD + invalidation.getValue().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Encodes the invalidations in as few datagrams as possible.
+     *
+     * @param nodeId Id of the sending node
+     * @param invalidations Invalidations to encode
+     * @return datagrams payloads
+     * @throws IOException on encoding error
+     */
+    static List<byte[]> encode(String nodeId, List<CacheInvalidation> invalidations)
+            throws IOException {
+        List<byte[]> datagrams = new ArrayList<>();
+        int from = 0;
+        while (from < invalidations.size()) {
+            int to = from;
+            int size = HEADER_SIZE;
+            while (to < invalidations.size()
+                    && size + entrySize(invalidations.get(to)) <= MAX_DATAGRAM_SIZE) {
+                size += entrySize(invalidations.get(to));
+                to++;
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(size);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            writeString(out, nodeId);
+            out.writeShort(to - from);
+            for (CacheInvalidation invalidation : invalidations.subList(from, to)) {
+                out.writeByte(invalidation.getType().ordinal());
+                writeString(out, invalidation.getValue());
+            }
+            out.flush();
+            datagrams.add(bytes.toByteArray());
+            from = to;
+        }
+        return datagrams;
+    }
+
+    /**
+     * Decodes a datagram, discarding the ones sent by the given node.
+     *
+     * @param nodeId Id of the receiving node
+     * @param data Datagram payload
+     * @param length Length of the payload
+     * @return Invalidations sent by other nodes
+     * @throws IOException on malformed datagram
+     */
+    static List<CacheInvalidation> decode(String nodeId, byte[] data, int length)
+            throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, length));
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Not an invalidation datagram");
+        }
+        List<CacheInvalidation> invalidations = new ArrayList<>();
+        if (nodeId.equals(readString(in))) {
+            return invalidations;
+        }
+        int count = in.readUnsignedShort();
+        CacheInvalidation.Type[] types = CacheInvalidation.Type.values();
+        for (int i = 0; i < count; i++) {
+            int type = in.readUnsignedByte();
+            if (type >= types.length) {
+                throw new IOException("Unknown invalidation type " + type);
+            }
+            invalidations.add(new CacheInvalidation(types[type], readString(in)));
+        }
+        return invalidations;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(b.length);
+        out.write(b);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] b = new byte[in.readUnsignedShort()];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
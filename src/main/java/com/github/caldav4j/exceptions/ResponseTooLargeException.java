@@ -0,0 +1,41 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.exceptions;
+
+/**
+ * Thrown when the body of a response exceeds the maximum size allowed, the request being aborted.
+ *
+ * @see com.github.caldav4j.methods.ResponseBodyLimits
+ */
+public class ResponseTooLargeException extends CalDAV4JException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long maxSize;
+
+    /**
+     * @param maxSize Maximum size of the body, in bytes
+     */
+    public ResponseTooLargeException(long maxSize) {
+        super("Response body exceeds the limit of " + maxSize + " bytes");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return Maximum size of the body which was exceeded, in bytes
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+}
@@ -20,10 +20,11 @@ package com.github.caldav4j.methods;
 import com.github.caldav4j.model.request.CalDAVReportRequest;
 import com.github.caldav4j.model.request.CalendarRequest;
 import com.github.caldav4j.model.request.MkCalendar;
+import com.github.caldav4j.model.response.ParserProfile;
 import java.io.IOException;
 import java.net.URI;
-import net.fortuna.ical4j.data.CalendarBuilder;
 import net.fortuna.ical4j.data.CalendarOutputter;
+import org.apache.http.HttpEntity;
 import org.apache.jackrabbit.webdav.property.DavPropertyNameSet;
 import org.apache.jackrabbit.webdav.security.AclProperty;
 
@@ -35,8 +36,9 @@ public class CalDAV4JMethodFactory {
 
     private boolean validatingOutputter = false;
 
-    private ThreadLocal<CalendarBuilder> calendarBuilderThreadLocal = new ThreadLocal<>();
     private CalendarOutputter calendarOutputter = null;
+    private ParserProfile parserProfile = null;
+    private ResponseBodyLimits responseBodyLimits = ResponseBodyLimits.DEFAULT;
 
     /** Empty Constructor */
     public CalDAV4JMethodFactory() {}
@@ -204,7 +206,9 @@ public class CalDAV4JMethodFactory {
      */
     public HttpPropFindMethod createPropFindMethod(URI uri, DavPropertyNameSet names, int depth)
             throws IOException {
-        return new HttpPropFindMethod(uri, names, depth);
+        HttpPropFindMethod m = new HttpPropFindMethod(uri, names, depth);
+        m.setResponseBodyLimits(responseBodyLimits);
+        return m;
     }
 
     /**
@@ -219,7 +223,9 @@ public class CalDAV4JMethodFactory {
      */
     public HttpPropFindMethod createPropFindMethod(
             URI uri, int propfindtype, DavPropertyNameSet names, int depth) throws IOException {
-        return new HttpPropFindMethod(uri, propfindtype, names, depth);
+        HttpPropFindMethod m = new HttpPropFindMethod(uri, propfindtype, names, depth);
+        m.setResponseBodyLimits(responseBodyLimits);
+        return m;
     }
 
     /**
@@ -233,7 +239,9 @@ public class CalDAV4JMethodFactory {
      */
     public HttpPropFindMethod createPropFindMethod(String uri, DavPropertyNameSet names, int depth)
             throws IOException {
-        return new HttpPropFindMethod(uri, names, depth);
+        HttpPropFindMethod m = new HttpPropFindMethod(uri, names, depth);
+        m.setResponseBodyLimits(responseBodyLimits);
+        return m;
     }
 
     /**
@@ -248,7 +256,9 @@ public class CalDAV4JMethodFactory {
      */
     public HttpPropFindMethod createPropFindMethod(
             String uri, int propfindtype, DavPropertyNameSet names, int depth) throws IOException {
-        return new HttpPropFindMethod(uri, propfindtype, names, depth);
+        HttpPropFindMethod m = new HttpPropFindMethod(uri, propfindtype, names, depth);
+        m.setResponseBodyLimits(responseBodyLimits);
+        return m;
     }
 
     /**
@@ -262,7 +272,8 @@ public class CalDAV4JMethodFactory {
     public HttpCalDAVReportMethod createCalDAVReportMethod(URI uri, CalDAVReportRequest request)
             throws IOException {
         HttpCalDAVReportMethod m = new HttpCalDAVReportMethod(uri, request);
-        m.setCalendarBuilder(getCalendarBuilderInstance());
+        m.setParserProfile(parserProfile);
+        m.setResponseBodyLimits(responseBodyLimits);
         return m;
     }
 
@@ -279,7 +290,25 @@ public class CalDAV4JMethodFactory {
     public HttpCalDAVReportMethod createCalDAVReportMethod(
             URI uri, CalDAVReportRequest request, int depth) throws IOException {
         HttpCalDAVReportMethod m = new HttpCalDAVReportMethod(uri, request, depth);
-        m.setCalendarBuilder(getCalendarBuilderInstance());
+        m.setParserProfile(parserProfile);
+        m.setResponseBodyLimits(responseBodyLimits);
+        return m;
+    }
+
+    /**
+     * Creates a {@link HttpCalDAVReportMethod} instance, with an already serialized body.
+     *
+     * @param uri URI to the Calendar resource.
+     * @param requestBody The Report request body, e.g. from a {@link
+     *     com.github.caldav4j.util.PreparedQuery}
+     * @param depth Depth of the request
+     * @return the instance
+     */
+    public HttpCalDAVReportMethod createCalDAVReportMethod(
+            URI uri, HttpEntity requestBody, int depth) {
+        HttpCalDAVReportMethod m = new HttpCalDAVReportMethod(uri, requestBody, depth);
+        m.setParserProfile(parserProfile);
+        m.setResponseBodyLimits(responseBodyLimits);
         return m;
     }
 
@@ -319,7 +348,9 @@ public class CalDAV4JMethodFactory {
      * @return the instance
      */
     public HttpGetMethod createGetMethod(URI uri) {
-        return new HttpGetMethod(uri, getCalendarBuilderInstance());
+        HttpGetMethod m = new HttpGetMethod(uri, null);
+        m.setParserProfile(parserProfile);
+        return m;
     }
 
     /**
@@ -329,7 +360,7 @@ public class CalDAV4JMethodFactory {
      * @return the instance
      */
     public HttpGetMethod createGetMethod(String uri) {
-        return new HttpGetMethod(uri, new CalendarBuilder());
+        return createGetMethod(URI.create(uri));
     }
 
     /**
@@ -414,6 +445,41 @@ public class CalDAV4JMethodFactory {
         this.validatingOutputter = validatingOutputter;
     }
 
+    /**
+     * @return Profile used to parse the calendars, null to use the ical4j defaults.
+     */
+    public ParserProfile getParserProfile() {
+        return parserProfile;
+    }
+
+    /**
+     * Sets the profile used to parse the calendars returned by the methods created afterwards.
+     *
+     * @param parserProfile Profile to use, null to use the ical4j defaults.
+     */
+    public void setParserProfile(ParserProfile parserProfile) {
+        this.parserProfile = parserProfile;
+    }
+
+    /**
+     * @return Limits applied to the multistatus responses of the REPORT and PROPFIND methods.
+     */
+    public ResponseBodyLimits getResponseBodyLimits() {
+        return responseBodyLimits;
+    }
+
+    /**
+     * Sets the limits applied to the multistatus responses of the REPORT and PROPFIND methods
+     * created afterwards. Defaults to {@link ResponseBodyLimits#DEFAULT}, which caps the bodies at
+     * {@link ResponseBodyLimits#DEFAULT_MAX_SIZE}; {@link ResponseBodyLimits#UNLIMITED} lifts the
+     * cap.
+     *
+     * @param responseBodyLimits Limits to apply
+     */
+    public void setResponseBodyLimits(ResponseBodyLimits responseBodyLimits) {
+        this.responseBodyLimits = responseBodyLimits;
+    }
+
     /**
      * Return the CalendarOuputter instance.
      *
@@ -425,18 +491,4 @@ public class CalDAV4JMethodFactory {
         }
         return calendarOutputter;
     }
-
-    /**
-     * Return the CalendarBuilder instance.
-     *
-     * @return CalendarBuilder
-     */
-    private CalendarBuilder getCalendarBuilderInstance() {
-        CalendarBuilder builder = calendarBuilderThreadLocal.get();
-        if (builder == null) {
-            builder = new CalendarBuilder();
-            calendarBuilderThreadLocal.set(builder);
-        }
-        return builder;
-    }
 }
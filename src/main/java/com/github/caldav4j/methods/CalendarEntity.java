@@ -0,0 +1,176 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.methods;
+
+import com.github.caldav4j.CalDAVConstants;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import net.fortuna.ical4j.data.CalendarOutputter;
+import net.fortuna.ical4j.model.Calendar;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+/**
+ * Request entity with a text/calendar body, which is either:
+ *
+ * <ul>
+ *   <li>a Calendar, serialized by the {@link CalendarOutputter} straight to the connection when
+ *       the request is sent, without keeping the text in memory. The Content-Length is either
+ *       computed beforehand by serializing the calendar once without storing it, or the body is
+ *       sent with chunked transfer encoding. The Calendar must not be modified until the request
+ *       has been executed.
+ *   <li>bytes of an already serialized calendar, which are sent unchanged.
+ * </ul>
+ */
+public class CalendarEntity extends AbstractHttpEntity {
+
+    private final Calendar calendar;
+    private final CalendarOutputter calendarOutputter;
+    private final byte[] data;
+    private final Charset charset;
+    private final long contentLength;
+
+    /**
+     * @param calendar Calendar to send
+     * @param calendarOutputter Outputter serializing the calendar
+     * @param charset Charset to encode the calendar in
+     * @param precomputeLength If true the Content-Length is computed now, which also validates the
+     *     calendar, otherwise the calendar is sent chunked.
+     * @throws IOException if the calendar can't be serialized while computing its length
+     */
+    public CalendarEntity(
+            Calendar calendar,
+            CalendarOutputter calendarOutputter,
+            Charset charset,
+            boolean precomputeLength)
+            throws IOException {
+        this.calendar = calendar;
+        this.calendarOutputter = calendarOutputter;
+        this.data = null;
+        this.charset = charset;
+        setContentType(
+                ContentType.create(CalDAVConstants.CONTENT_TYPE_CALENDAR, charset).toString());
+        if (precomputeLength) {
+            CountingOutputStream counter = new CountingOutputStream();
+            write(counter);
+            this.contentLength = counter.getCount();
+        } else {
+            this.contentLength = -1;
+            setChunked(true);
+        }
+    }
+
+    /**
+     * @param data Serialized calendar, sent as is.
+     * @param charset Charset the calendar is encoded in
+     */
+    public CalendarEntity(byte[] data, Charset charset) {
+        this.calendar = null;
+        this.calendarOutputter = null;
+        this.data = data;
+        this.charset = charset;
+        this.contentLength = data.length;
+        setContentType(
+                ContentType.create(CalDAVConstants.CONTENT_TYPE_CALENDAR, charset).toString());
+    }
+
+    /**
+     * @return Calendar sent, null if the entity was built from bytes.
+     */
+    public Calendar getCalendar() {
+        return calendar;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /** Serializes the body in memory, prefer {@link #writeTo(OutputStream)}. */
+    @Override
+    public InputStream getContent() throws IOException {
+        if (data != null) {
+            return new ByteArrayInputStream(data);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        if (data != null) {
+            outStream.write(data);
+            outStream.flush();
+        } else {
+            write(outStream);
+        }
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    /** Serializes the calendar, without closing the stream. */
+    private void write(OutputStream out) throws IOException {
+        Writer writer =
+                new BufferedWriter(
+                        new OutputStreamWriter(new NonClosingOutputStream(out), charset));
+        try {
+            calendarOutputter.output(calendar, writer);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Problem generating calendar", e);
+        }
+        // the outputter may already have closed it: closing flushes without closing the stream
+        writer.close();
+    }
+
+    /** Keeps the underlying stream open when closed, flushing it instead. */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -2,18 +2,26 @@ package com.github.caldav4j.methods;
 
 import com.github.caldav4j.CalDAVConstants;
 import com.github.caldav4j.model.request.CalDAVReportRequest;
+import com.github.caldav4j.model.response.CalendarBuilderPool;
+import com.github.caldav4j.model.response.ParserProfile;
 import com.github.caldav4j.util.CalDAVStatus;
+import com.github.caldav4j.xml.XmlStreamSerializable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.function.Consumer;
 import net.fortuna.ical4j.data.CalendarBuilder;
 import net.fortuna.ical4j.data.ParserException;
 import net.fortuna.ical4j.model.Calendar;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.jackrabbit.webdav.DavException;
 import org.apache.jackrabbit.webdav.DavMethods;
+import org.apache.jackrabbit.webdav.MultiStatus;
 import org.apache.jackrabbit.webdav.MultiStatusResponse;
 import org.apache.jackrabbit.webdav.client.methods.BaseDavRequest;
 import org.apache.jackrabbit.webdav.client.methods.XmlEntity;
@@ -33,6 +41,9 @@ public class HttpCalDAVReportMethod extends BaseDavRequest {
 
     private static final Logger log = LoggerFactory.getLogger(HttpCalDAVReportMethod.class);
     private CalendarBuilder calendarBuilder = null;
+    private CalendarBuilderPool calendarBuilderPool = null;
+    private ParserProfile parserProfile = null;
+    private ResponseBodyLimits responseBodyLimits = ResponseBodyLimits.DEFAULT;
 
     /**
      * @param uri URI to the calendar resource.
@@ -47,6 +58,18 @@ public class HttpCalDAVReportMethod extends BaseDavRequest {
         setDepth(depth);
     }
 
+    /**
+     * @param uri URI to the calendar resource.
+     * @param requestBody Already serialized Report request, e.g. by a {@link
+     *     com.github.caldav4j.util.PreparedQuery}
+     * @param depth Depth of the Report Request
+     */
+    public HttpCalDAVReportMethod(URI uri, HttpEntity requestBody, int depth) {
+        super(uri);
+        setEntity(requestBody);
+        setDepth(depth);
+    }
+
     /**
      * Depth is set to 0, by default. According to the RFC Specs.
      *
@@ -87,13 +110,18 @@ public class HttpCalDAVReportMethod extends BaseDavRequest {
     }
 
     /**
-     * Sets the depth and the request body as the Report specified.
+     * Sets the depth and the request body as the Report specified. The Report is streamed to the
+     * request body if possible, without building a DOM tree.
      *
      * @param reportRequest Report for Request body
      * @throws IOException on error
      */
     private void processReportRequest(CalDAVReportRequest reportRequest) throws IOException {
-        setEntity(XmlEntity.create(reportRequest));
+        if (reportRequest instanceof XmlStreamSerializable) {
+            setEntity(new XmlStreamEntity((XmlStreamSerializable) reportRequest));
+        } else {
+            setEntity(XmlEntity.create(reportRequest));
+        }
     }
 
     /**
@@ -106,6 +134,17 @@ public class HttpCalDAVReportMethod extends BaseDavRequest {
         setHeader(dh.getHeaderName(), dh.getHeaderValue());
     }
 
+    /**
+     * Sets the Prefer header of the request, e.g. to {@link CalDAVConstants#PREFER_RETURN_MINIMAL}
+     * to leave the propstats of missing properties out of the response.
+     *
+     * @param preferences Preferences, none to remove the header.
+     * @see PreferHeader
+     */
+    public void setPreferences(String... preferences) {
+        PreferHeader.apply(this, preferences);
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean succeeded(HttpResponse response) {
@@ -133,8 +172,8 @@ public class HttpCalDAVReportMethod extends BaseDavRequest {
     /**
      * Check the provided {@link HttpResponse} for a {@link Calendar}, response, and attempts to
      * build the object. <br>
-     * <b>Note:</b> Set the CalendarBuilder instance, before invoking this. Will be auto assigned if
-     * invoked from the {@link CalDAV4JMethodFactory}
+     * <b>Note:</b> When no CalendarBuilder instance is set, one is borrowed from the {@link
+     * #getCalendarBuilderPool() pool} for the parsing.
      *
      * @param response Response object to glean the calendar from.
      * @return If the Response was a calendar, then we return the {@link Calendar} instance, else
@@ -145,7 +184,7 @@ public class HttpCalDAVReportMethod extends BaseDavRequest {
         Calendar calendarResponse = null;
         if (this.succeeded(response)) {
             try (InputStream in = response.getEntity().getContent()) {
-                calendarResponse = calendarBuilder.build(in);
+                calendarResponse = buildCalendar(in);
             } catch (ParserException e) {
                 throw new IOException("Error parsing calendar from response", e);
             }
@@ -210,4 +249,106 @@ public class HttpCalDAVReportMethod extends BaseDavRequest {
             if (response.getHref().equals(uri)) return response;
         return null;
     }
+
+    /**
+     * @return Pool lending the builders when no CalendarBuilder instance is set: the one set, else
+     *     the pool of the parser profile, else the default pool.
+     */
+    public CalendarBuilderPool getCalendarBuilderPool() {
+        if (calendarBuilderPool != null) {
+            return calendarBuilderPool;
+        }
+        return parserProfile != null
+                ? parserProfile.getCalendarBuilderPool()
+                : CalendarBuilderPool.getDefault();
+    }
+
+    /**
+     * @param calendarBuilderPool Pool lending the builders when no CalendarBuilder instance is set,
+     *     null to use the pool of the parser profile.
+     */
+    public void setCalendarBuilderPool(CalendarBuilderPool calendarBuilderPool) {
+        this.calendarBuilderPool = calendarBuilderPool;
+    }
+
+    /**
+     * @return Profile used to parse the calendar, null to use the ical4j defaults.
+     */
+    public ParserProfile getParserProfile() {
+        return parserProfile;
+    }
+
+    /**
+     * Sets the profile used to parse the calendar. A CalendarBuilder instance, if set, should be
+     * configured by the same profile.
+     *
+     * @param parserProfile Profile to use, null to use the ical4j defaults.
+     */
+    public void setParserProfile(ParserProfile parserProfile) {
+        this.parserProfile = parserProfile;
+    }
+
+    /**
+     * @return Limits applied to the multistatus body of the response.
+     */
+    public ResponseBodyLimits getResponseBodyLimits() {
+        return responseBodyLimits;
+    }
+
+    /**
+     * @param responseBodyLimits Limits applied to the multistatus body of the response.
+     */
+    public void setResponseBodyLimits(ResponseBodyLimits responseBodyLimits) {
+        this.responseBodyLimits = responseBodyLimits;
+    }
+
+    /**
+     * Reads the multistatus body one response at a time, buffered in memory or spooled to a
+     * temporary file depending on its size. The request is aborted if the body exceeds the
+     * {@link #getResponseBodyLimits() limits}.
+     *
+     * @param response Response to read
+     * @return The multistatus
+     * @throws DavException if the body can't be read, or exceeds the maximum size, in which case
+     *     the cause is a {@link com.github.caldav4j.exceptions.ResponseTooLargeException}.
+     */
+    @Override
+    public MultiStatus getResponseBodyAsMultiStatus(HttpResponse response) throws DavException {
+        return MultiStatusReader.read(this, response, responseBodyLimits);
+    }
+
+    /**
+     * Reads the multistatus body like {@link #getResponseBodyAsMultiStatus(HttpResponse)}, handing
+     * each response to the handler as soon as it is parsed, so that the responses don't all have
+     * to be held in memory at once.
+     *
+     * @param response Response to read
+     * @param handler Consumer of the responses, in the order of the body.
+     * @return The description of the multistatus, null if none.
+     * @throws DavException if the body can't be read, or exceeds the maximum size, in which case
+     *     the cause is a {@link com.github.caldav4j.exceptions.ResponseTooLargeException}.
+     */
+    public String getResponseBodyAsMultiStatus(
+            HttpResponse response, Consumer<MultiStatusResponse> handler) throws DavException {
+        return MultiStatusReader.read(this, response, responseBodyLimits, handler);
+    }
+
+    /**
+     * Parses the calendar with the CalendarBuilder instance if set, else with one borrowed from the
+     * pool.
+     */
+    private Calendar buildCalendar(InputStream in) throws IOException, ParserException {
+        if (calendarBuilder != null) {
+            return buildCalendar(calendarBuilder, in);
+        }
+        return getCalendarBuilderPool().build(builder -> buildCalendar(builder, in));
+    }
+
+    private Calendar buildCalendar(CalendarBuilder builder, InputStream in)
+            throws IOException, ParserException {
+        if (parserProfile != null) {
+            return parserProfile.parse(builder, new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+        return builder.build(in);
+    }
 }
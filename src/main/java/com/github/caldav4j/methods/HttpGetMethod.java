@@ -3,10 +3,15 @@ package com.github.caldav4j.methods;
 import com.github.caldav4j.CalDAVConstants;
 import com.github.caldav4j.exceptions.CalDAV4JException;
 import com.github.caldav4j.exceptions.CalDAV4JProtocolException;
+import com.github.caldav4j.model.response.CalendarBuilderPool;
+import com.github.caldav4j.model.response.ParserProfile;
 import com.github.caldav4j.util.UrlUtils;
 import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import net.fortuna.ical4j.data.CalendarBuilder;
 import net.fortuna.ical4j.data.ParserException;
 import net.fortuna.ical4j.model.Calendar;
@@ -26,10 +31,13 @@ public class HttpGetMethod extends HttpGet {
     private static final Logger log = LoggerFactory.getLogger(HttpGetMethod.class);
 
     private CalendarBuilder calendarBuilder = null;
+    private CalendarBuilderPool calendarBuilderPool = null;
+    private ParserProfile parserProfile = null;
 
     /**
      * @param uri Location of the CalendarResource
-     * @param calendarBuilder Builder Instance for constructing the response object.
+     * @param calendarBuilder Builder Instance for constructing the response object, null to borrow
+     *     one from the pool.
      */
     public HttpGetMethod(URI uri, CalendarBuilder calendarBuilder) {
         super(uri);
@@ -40,7 +48,8 @@ public class HttpGetMethod extends HttpGet {
 
     /**
      * @param uri Location of the CalendarResource
-     * @param calendarBuilder Builder Instance for constructing the response object.
+     * @param calendarBuilder Builder Instance for constructing the response object, null to borrow
+     *     one from the pool.
      */
     public HttpGetMethod(String uri, CalendarBuilder calendarBuilder) {
         this(URI.create(uri), calendarBuilder);
@@ -64,7 +73,7 @@ public class HttpGetMethod extends HttpGet {
                     || contentType.startsWith(CalDAVConstants.CONTENT_TYPE_CALENDAR))) {
                 if (response.getEntity() != null && response.getEntity().getContent() != null) {
                     stream = new BufferedInputStream(response.getEntity().getContent());
-                    ret = calendarBuilder.build(stream);
+                    ret = buildCalendar(stream);
                     return ret;
                 }
 
@@ -97,4 +106,61 @@ public class HttpGetMethod extends HttpGet {
     public void setCalendarBuilder(CalendarBuilder calendarBuilder) {
         this.calendarBuilder = calendarBuilder;
     }
+
+    /**
+     * @return Pool lending the builders when no CalendarBuilder instance is set: the one set, else
+     *     the pool of the parser profile, else the default pool.
+     */
+    public CalendarBuilderPool getCalendarBuilderPool() {
+        if (calendarBuilderPool != null) {
+            return calendarBuilderPool;
+        }
+        return parserProfile != null
+                ? parserProfile.getCalendarBuilderPool()
+                : CalendarBuilderPool.getDefault();
+    }
+
+    /**
+     * @param calendarBuilderPool Pool lending the builders when no CalendarBuilder instance is set,
+     *     null to use the pool of the parser profile.
+     */
+    public void setCalendarBuilderPool(CalendarBuilderPool calendarBuilderPool) {
+        this.calendarBuilderPool = calendarBuilderPool;
+    }
+
+    /**
+     * @return Profile used to parse the calendar, null to use the ical4j defaults.
+     */
+    public ParserProfile getParserProfile() {
+        return parserProfile;
+    }
+
+    /**
+     * Sets the profile used to parse the calendar. A CalendarBuilder instance, if set, should be
+     * configured by the same profile.
+     *
+     * @param parserProfile Profile to use, null to use the ical4j defaults.
+     */
+    public void setParserProfile(ParserProfile parserProfile) {
+        this.parserProfile = parserProfile;
+    }
+
+    /**
+     * Parses the calendar with the CalendarBuilder instance if set, else with one borrowed from the
+     * pool.
+     */
+    private Calendar buildCalendar(InputStream in) throws IOException, ParserException {
+        if (calendarBuilder != null) {
+            return buildCalendar(calendarBuilder, in);
+        }
+        return getCalendarBuilderPool().build(builder -> buildCalendar(builder, in));
+    }
+
+    private Calendar buildCalendar(CalendarBuilder builder, InputStream in)
+            throws IOException, ParserException {
+        if (parserProfile != null) {
+            return parserProfile.parse(builder, new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+        return builder.build(in);
+    }
 }
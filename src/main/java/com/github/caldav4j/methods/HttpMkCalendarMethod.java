@@ -8,12 +8,8 @@ import com.github.caldav4j.model.request.Prop;
 import com.github.caldav4j.util.CalDAVStatus;
 import java.io.IOException;
 import java.net.URI;
-import javax.xml.parsers.ParserConfigurationException;
 import org.apache.http.HttpResponse;
 import org.apache.jackrabbit.webdav.client.methods.BaseDavRequest;
-import org.apache.jackrabbit.webdav.client.methods.XmlEntity;
-import org.apache.jackrabbit.webdav.xml.DomUtil;
-import org.w3c.dom.Document;
 
 public class HttpMkCalendarMethod extends BaseDavRequest {
 
@@ -126,18 +122,12 @@ public class HttpMkCalendarMethod extends BaseDavRequest {
     }
 
     /**
-     * Sets the Request Entity, and if successful, also sets the corresponding request headers.
+     * Sets the Request Entity, streaming the MkCalendar request body.
      *
      * @throws IOException on error.
      */
     private void processRequest() throws IOException {
-        try {
-            Document d = DomUtil.createDocument();
-            d.appendChild(mkCalendar.toXml(d));
-            setEntity(XmlEntity.create(d));
-        } catch (ParserConfigurationException e) {
-            throw new IOException(e.getMessage());
-        }
+        setEntity(new XmlStreamEntity(mkCalendar));
     }
 
     /** {@inheritDoc} */
@@ -3,15 +3,11 @@ package com.github.caldav4j.methods;
 import com.github.caldav4j.CalDAVConstants;
 import com.github.caldav4j.model.request.CalendarRequest;
 import com.github.caldav4j.util.CalDAVStatus;
-import java.io.StringWriter;
 import java.net.URI;
-import java.nio.charset.UnsupportedCharsetException;
 import net.fortuna.ical4j.data.CalendarOutputter;
 import net.fortuna.ical4j.model.Calendar;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,28 +45,30 @@ public class HttpPostMethod extends HttpPost {
     }
 
     /**
-     * Generates the calendar request body, and sets the entity.
+     * Sets the entity of the request: the already serialized calendar data if set, else a {@link
+     * CalendarEntity} serializing the calendar while the request is sent.
      *
      * @param calendarRequest Object representing the marshalled properties of the request
      * @param calendarOutputter Outputter object to generate the calendar string output
      */
     protected void generateRequestBody(
             CalendarRequest calendarRequest, CalendarOutputter calendarOutputter) {
+        if (calendarRequest.getCalendarData() != null) {
+            setEntity(
+                    new CalendarEntity(
+                            calendarRequest.getCalendarData(), calendarRequest.getCharset()));
+            return;
+        }
+
         Calendar calendar = calendarRequest.getCalendar();
         if (calendar != null) {
-            StringWriter writer = new StringWriter();
             try {
-                calendarOutputter.output(calendar, writer);
-
-                ContentType ct =
-                        ContentType.create(
-                                CalDAVConstants.CONTENT_TYPE_CALENDAR,
-                                calendarRequest.getCharset());
-
-                setEntity(new StringEntity(writer.toString(), ct));
-            } catch (UnsupportedCharsetException e) {
-                log.error("Unsupported encoding in event" + writer.toString());
-                throw new RuntimeException("Problem generating calendar. ", e);
+                setEntity(
+                        new CalendarEntity(
+                                calendar,
+                                calendarOutputter,
+                                calendarRequest.getCharset(),
+                                calendarRequest.isPrecomputeContentLength()));
             } catch (Exception e) {
                 log.error("Problem generating calendar: ", e);
                 throw new RuntimeException("Problem generating calendar. ", e);
@@ -11,6 +11,7 @@ import java.util.List;
 import javax.xml.parsers.ParserConfigurationException;
 import org.apache.http.HttpResponse;
 import org.apache.jackrabbit.webdav.DavException;
+import org.apache.jackrabbit.webdav.MultiStatus;
 import org.apache.jackrabbit.webdav.MultiStatusResponse;
 import org.apache.jackrabbit.webdav.client.methods.HttpPropfind;
 import org.apache.jackrabbit.webdav.property.DavProperty;
@@ -31,6 +32,8 @@ public class HttpPropFindMethod extends HttpPropfind {
 
     private static final Logger log = LoggerFactory.getLogger(HttpPropFindMethod.class);
 
+    private ResponseBodyLimits responseBodyLimits = ResponseBodyLimits.DEFAULT;
+
     /**
      * @param uri Path of the principal
      * @param propfindType Type of Propfind Call. Specified, in CalDavConstants. Specifically,
@@ -258,4 +261,41 @@ public class HttpPropFindMethod extends HttpPropfind {
         log.warn("No Response found for uri: " + uri);
         return null;
     }
+
+    /**
+     * Sets the Prefer header of the request, e.g. to {@link CalDAVConstants#PREFER_RETURN_MINIMAL}
+     * and {@link CalDAVConstants#PREFER_DEPTH_NOROOT} to leave the collection and the missing
+     * properties out of a Depth 1 response.
+     *
+     * @param preferences Preferences, none to remove the header.
+     * @see PreferHeader
+     */
+    public void setPreferences(String... preferences) {
+        PreferHeader.apply(this, preferences);
+    }
+
+    /**
+     * @return Limits applied to the multistatus body of the response.
+     */
+    public ResponseBodyLimits getResponseBodyLimits() {
+        return responseBodyLimits;
+    }
+
+    /**
+     * @param responseBodyLimits Limits applied to the multistatus body of the response.
+     */
+    public void setResponseBodyLimits(ResponseBodyLimits responseBodyLimits) {
+        this.responseBodyLimits = responseBodyLimits;
+    }
+
+    /**
+     * Reads the multistatus body with a {@link MultiStatusReader}, within the {@link
+     * #getResponseBodyLimits() limits}.
+     *
+     * @see HttpCalDAVReportMethod#getResponseBodyAsMultiStatus(HttpResponse)
+     */
+    @Override
+    public MultiStatus getResponseBodyAsMultiStatus(HttpResponse response) throws DavException {
+        return MultiStatusReader.read(this, response, responseBodyLimits);
+    }
 }
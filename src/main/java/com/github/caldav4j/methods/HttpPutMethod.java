@@ -2,15 +2,11 @@ package com.github.caldav4j.methods;
 
 import com.github.caldav4j.CalDAVConstants;
 import com.github.caldav4j.model.request.CalendarRequest;
-import java.io.StringWriter;
 import java.net.URI;
-import java.nio.charset.UnsupportedCharsetException;
 import net.fortuna.ical4j.data.CalendarOutputter;
 import net.fortuna.ical4j.model.Calendar;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpPut;
-import org.apache.http.entity.ContentType;
-import org.apache.http.entity.StringEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,28 +44,30 @@ public class HttpPutMethod extends HttpPut {
     }
 
     /**
-     * Generates the calendar request body, and sets the entity.
+     * Sets the entity of the request: the already serialized calendar data if set, else a {@link
+     * CalendarEntity} serializing the calendar while the request is sent.
      *
      * @param calendarRequest Object representing the marshalled properties of the request
      * @param calendarOutputter Outputter object to generate the calendar string output
      */
     protected void generateRequestBody(
             CalendarRequest calendarRequest, CalendarOutputter calendarOutputter) {
+        if (calendarRequest.getCalendarData() != null) {
+            setEntity(
+                    new CalendarEntity(
+                            calendarRequest.getCalendarData(), calendarRequest.getCharset()));
+            return;
+        }
+
         Calendar calendar = calendarRequest.getCalendar();
         if (calendar != null) {
-            StringWriter writer = new StringWriter();
             try {
-                calendarOutputter.output(calendar, writer);
-
-                ContentType ct =
-                        ContentType.create(
-                                CalDAVConstants.CONTENT_TYPE_CALENDAR,
-                                calendarRequest.getCharset());
-
-                setEntity(new StringEntity(writer.toString(), ct));
-            } catch (UnsupportedCharsetException e) {
-                log.error("Unsupported encoding in event" + writer.toString());
-                throw new RuntimeException("Problem generating calendar. ", e);
+                setEntity(
+                        new CalendarEntity(
+                                calendar,
+                                calendarOutputter,
+                                calendarRequest.getCharset(),
+                                calendarRequest.isPrecomputeContentLength()));
             } catch (Exception e) {
                 log.error("Problem generating calendar: ", e);
                 throw new RuntimeException("Problem generating calendar. ", e);
@@ -104,6 +102,17 @@ public class HttpPutMethod extends HttpPut {
         }
     }
 
+    /**
+     * Sets the Prefer header of the request, e.g. to {@link CalDAVConstants#PREFER_RETURN_MINIMAL}
+     * to be answered without body.
+     *
+     * @param preferences Preferences, none to remove the header.
+     * @see PreferHeader
+     */
+    public void setPreferences(String... preferences) {
+        PreferHeader.apply(this, preferences);
+    }
+
     /**
      * Check the provided {@link HttpResponse} for successful execution. This treats all 2xx status
      * codes.
@@ -0,0 +1,277 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.methods;
+
+import com.github.caldav4j.exceptions.ResponseTooLargeException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.jackrabbit.webdav.DavConstants;
+import org.apache.jackrabbit.webdav.DavException;
+import org.apache.jackrabbit.webdav.MultiStatus;
+import org.apache.jackrabbit.webdav.MultiStatusResponse;
+import org.apache.jackrabbit.webdav.xml.DomUtil;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Reads a multistatus body with a StAX parser, one response element at a time. Only the DOM tree
+ * of the response being read is built, instead of the tree of the whole body as {@link
+ * MultiStatus#createFromXml(Element)} requires, so that large bodies can be processed with a
+ * bounded amount of memory.
+ */
+public final class MultiStatusReader {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private MultiStatusReader() {}
+
+    /**
+     * Reads the multistatus body of a response, applying the given limits. The request is aborted
+     * if the body exceeds the maximum size.
+     *
+     * @param method Request of the response
+     * @param response Response to read
+     * @param limits Limits applied to the body
+     * @return The multistatus
+     * @throws DavException if the response has no body, or the body can't be read or exceeds the
+     *     maximum size, in which case the cause is a {@link ResponseTooLargeException}.
+     */
+    public static MultiStatus read(
+            HttpRequestBase method, HttpResponse response, ResponseBodyLimits limits)
+            throws DavException {
+        MultiStatus multiStatus = new MultiStatus();
+        String description = read(method, response, limits, multiStatus::addResponse);
+        if (description != null) {
+            multiStatus.setResponseDescription(description);
+        }
+        return multiStatus;
+    }
+
+    /**
+     * Reads the multistatus body of a response like {@link #read(HttpRequestBase, HttpResponse,
+     * ResponseBodyLimits)}, handing each response to the handler as soon as it is parsed instead
+     * of keeping them all.
+     *
+     * @param method Request of the response
+     * @param response Response to read
+     * @param limits Limits applied to the body
+     * @param handler Consumer of the responses, in the order of the body.
+     * @return The description of the multistatus, null if none.
+     * @throws DavException if the response has no body, or the body can't be read or exceeds the
+     *     maximum size, in which case the cause is a {@link ResponseTooLargeException}.
+     */
+    public static String read(
+            HttpRequestBase method,
+            HttpResponse response,
+            ResponseBodyLimits limits,
+            Consumer<MultiStatusResponse> handler)
+            throws DavException {
+        int status = response.getStatusLine().getStatusCode();
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            throw new DavException(status, "no response body");
+        }
+
+        SpooledResponseBody body;
+        try {
+            InputStream in = entity.getContent();
+            try {
+                body = SpooledResponseBody.read(in, entity.getContentLength(), limits);
+            } catch (ResponseTooLargeException e) {
+                // closing the stream would read the rest of the body
+                method.abort();
+                throw new DavException(
+                        status,
+                        method.getMethod() + " " + method.getURI() + ": " + e.getMessage(),
+                        e,
+                        null);
+            } finally {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // the connection is released anyway
+                }
+            }
+        } catch (IOException e) {
+            throw new DavException(status, e);
+        }
+
+        try (SpooledResponseBody spooled = body;
+                InputStream in = spooled.getContent()) {
+            return read(in, handler);
+        } catch (IOException e) {
+            throw new DavException(status, e);
+        }
+    }
+
+    /**
+     * @param in Stream of a multistatus body, not closed by this method.
+     * @return The multistatus
+     * @throws IOException on error reading the body, or if it is not a valid multistatus
+     */
+    public static MultiStatus read(InputStream in) throws IOException {
+        MultiStatus multiStatus = new MultiStatus();
+        String description = read(in, multiStatus::addResponse);
+        if (description != null) {
+            multiStatus.setResponseDescription(description);
+        }
+        return multiStatus;
+    }
+
+    /**
+     * Reads a multistatus body, handing each response to the handler as soon as it is parsed.
+     *
+     * @param in Stream of a multistatus body, not closed by this method.
+     * @param handler Consumer of the responses, in the order of the body.
+     * @return The description of the multistatus, null if none.
+     * @throws IOException on error reading the body, or if it is not a valid multistatus
+     */
+    public static String read(InputStream in, Consumer<MultiStatusResponse> handler)
+            throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = INPUT_FACTORY.createXMLStreamReader(in);
+            reader.nextTag();
+            if (!isDavElement(reader, DavConstants.XML_MULTISTATUS)) {
+                throw new IOException(
+                        "Expected a DAV:multistatus element, got " + reader.getName());
+            }
+
+            Document document = DomUtil.createDocument();
+            String description = null;
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if (isDavElement(reader, DavConstants.XML_RESPONSE)) {
+                    Element response = readElement(reader, document);
+                    handler.accept(MultiStatusResponse.createFromXml(response));
+                } else if (isDavElement(reader, DavConstants.XML_RESPONSEDESCRIPTION)) {
+                    description = reader.getElementText();
+                } else {
+                    skipElement(reader);
+                }
+            }
+            return description;
+        } catch (XMLStreamException | ParserConfigurationException | IllegalArgumentException e) {
+            throw new IOException("Invalid multistatus body", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // nothing left to release
+                }
+            }
+        }
+    }
+
+    private static boolean isDavElement(XMLStreamReader reader, String localName) {
+        return DavConstants.NAMESPACE.getURI().equals(reader.getNamespaceURI())
+                && localName.equals(reader.getLocalName());
+    }
+
+    /** Builds the element the reader is on, leaving the reader on its end tag. */
+    private static Element readElement(XMLStreamReader reader, Document document)
+            throws XMLStreamException {
+        Element root = createElement(reader, document);
+        Node current = root;
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    Element child = createElement(reader, document);
+                    current.appendChild(child);
+                    current = child;
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    current = current.getParentNode();
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    current.appendChild(document.createTextNode(reader.getText()));
+                    break;
+                default:
+                    // comments and processing instructions
+                    break;
+            }
+        }
+        return root;
+    }
+
+    private static Element createElement(XMLStreamReader reader, Document document) {
+        Element element =
+                document.createElementNS(
+                        emptyToNull(reader.getNamespaceURI()),
+                        qualifiedName(reader.getPrefix(), reader.getLocalName()));
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String prefix = reader.getNamespacePrefix(i);
+            element.setAttributeNS(
+                    XMLConstants.XMLNS_ATTRIBUTE_NS_URI,
+                    prefix == null || prefix.isEmpty()
+                            ? XMLConstants.XMLNS_ATTRIBUTE
+                            : XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix,
+                    reader.getNamespaceURI(i));
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            element.setAttributeNS(
+                    emptyToNull(reader.getAttributeNamespace(i)),
+                    qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+                    reader.getAttributeValue(i));
+        }
+        return element;
+    }
+
+    /** Skips the element the reader is on, leaving the reader on its end tag. */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        // responses come from the network
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.methods;
+
+import com.github.caldav4j.CalDAVConstants;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import org.apache.http.Header;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+
+/**
+ * Prefer request header and Preference-Applied response header. With {@link
+ * CalDAVConstants#PREFER_RETURN_MINIMAL}, a server omits from multistatus responses the propstats
+ * of missing properties, and the body of PUT responses; with {@link
+ * CalDAVConstants#PREFER_DEPTH_NOROOT}, a Depth 1 PROPFIND or REPORT omits the collection itself.
+ * Servers ignore the preferences they don't support.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc7240">RFC 7240</a>
+ * @see <a href="https://tools.ietf.org/html/rfc8144">RFC 8144</a>
+ */
+public final class PreferHeader {
+
+    private PreferHeader() {}
+
+    /**
+     * Sets the Prefer header of a request, replacing the previous one.
+     *
+     * @param request Request
+     * @param preferences Preferences, e.g. {@link CalDAVConstants#PREFER_RETURN_MINIMAL}. None to
+     *     remove the header.
+     */
+    public static void apply(HttpRequest request, String... preferences) {
+        request.removeHeaders(CalDAVConstants.HEADER_PREFER);
+        if (preferences.length > 0) {
+            request.setHeader(CalDAVConstants.HEADER_PREFER, String.join(", ", preferences));
+        }
+    }
+
+    /**
+     * @param response Response
+     * @return The preferences of the Preference-Applied headers of the response, in lower case and
+     *     without quotes, e.g. {@code return=minimal}.
+     */
+    public static Set<String> getPreferencesApplied(HttpResponse response) {
+        Set<String> applied = new LinkedHashSet<>();
+        for (Header header : response.getHeaders(CalDAVConstants.HEADER_PREFERENCE_APPLIED)) {
+            for (String token : header.getValue().split(",")) {
+                // parameters of the preference, after a semicolon, are ignored
+                int semicolon = token.indexOf(';');
+                if (semicolon >= 0) {
+                    token = token.substring(0, semicolon);
+                }
+                int equals = token.indexOf('=');
+                String name = (equals < 0 ? token : token.substring(0, equals)).trim();
+                String value = equals < 0 ? "" : token.substring(equals + 1).trim();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                if (!name.isEmpty()) {
+                    applied.add(
+                            (value.isEmpty() ? name : name + "=" + value).toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * @param response Response
+     * @param preference Preference, e.g. {@link CalDAVConstants#PREFER_RETURN_MINIMAL}
+     * @return Whether the server reports having applied the preference.
+     */
+    public static boolean isApplied(HttpResponse response, String preference) {
+        return getPreferencesApplied(response).contains(preference.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.methods;
+
+import java.io.File;
+
+/**
+ * Immutable limits applied to the multistatus responses of REPORT and PROPFIND requests, which
+ * can be bound to a {@link CalDAV4JMethodFactory}.
+ *
+ * <ul>
+ *   <li>Bodies up to the memory threshold are buffered in memory, larger ones are spooled to a
+ *       temporary file. Both are then parsed with a {@link MultiStatusReader}, one response at a
+ *       time, without building a DOM tree of the whole body.
+ *   <li>Bodies larger than the maximum size abort the request with a {@link
+ *       com.github.caldav4j.exceptions.ResponseTooLargeException}.
+ * </ul>
+ */
+public final class ResponseBodyLimits {
+
+    /** Default size in bytes up to which bodies are kept in memory. */
+    public static final long DEFAULT_MEMORY_THRESHOLD = 8L * 1024 * 1024;
+
+    /**
+     * Default maximum size in bytes of the bodies. Bodies past the memory threshold are on disk,
+     * so this bounds the temporary files and the time spent reading a runaway response.
+     */
+    public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+    /**
+     * Memory threshold of {@link #DEFAULT_MEMORY_THRESHOLD}, and maximum size of {@link
+     * #DEFAULT_MAX_SIZE}.
+     */
+    public static final ResponseBodyLimits DEFAULT =
+            new ResponseBodyLimits(DEFAULT_MEMORY_THRESHOLD, DEFAULT_MAX_SIZE, null);
+
+    /** Memory threshold of {@link #DEFAULT_MEMORY_THRESHOLD}, and no maximum size. */
+    public static final ResponseBodyLimits UNLIMITED =
+            new ResponseBodyLimits(DEFAULT_MEMORY_THRESHOLD, -1, null);
+
+    private final long memoryThreshold;
+    private final long maxSize;
+    private final File spoolDirectory;
+
+    /**
+     * @param memoryThreshold Size in bytes up to which bodies are kept in memory.
+     * @param maxSize Maximum size in bytes of the bodies, negative for no limit.
+     */
+    public ResponseBodyLimits(long memoryThreshold, long maxSize) {
+        this(memoryThreshold, maxSize, null);
+    }
+
+    /**
+     * @param memoryThreshold Size in bytes up to which bodies are kept in memory.
+     * @param maxSize Maximum size in bytes of the bodies, negative for no limit.
+     * @param spoolDirectory Directory of the temporary files, null for the default one.
+     */
+    public ResponseBodyLimits(long memoryThreshold, long maxSize, File spoolDirectory) {
+        if (memoryThreshold < 0) {
+            throw new IllegalArgumentException("Memory threshold must not be negative");
+        }
+        this.memoryThreshold = memoryThreshold;
+        this.maxSize = maxSize;
+        this.spoolDirectory = spoolDirectory;
+    }
+
+    /**
+     * @return Size in bytes up to which bodies are kept in memory.
+     */
+    public long getMemoryThreshold() {
+        return memoryThreshold;
+    }
+
+    /**
+     * @return Maximum size in bytes of the bodies, negative for no limit.
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return Directory of the temporary files, null for the default one.
+     */
+    public File getSpoolDirectory() {
+        return spoolDirectory;
+    }
+
+    /**
+     * @param size Size in bytes
+     * @return Whether the size exceeds the maximum size.
+     */
+    public boolean exceedsMaxSize(long size) {
+        return maxSize >= 0 && size > maxSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseBodyLimits[memoryThreshold="
+                + memoryThreshold
+                + ", maxSize="
+                + maxSize
+                + "]";
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.methods;
+
+import com.github.caldav4j.exceptions.ResponseTooLargeException;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Body of a response read up to its end, kept in memory up to the {@link
+ * ResponseBodyLimits#getMemoryThreshold() memory threshold} and spooled to a temporary file past
+ * it. The file is deleted when the body is closed.
+ */
+public class SpooledResponseBody implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final byte[] bytes;
+    private final File file;
+    private final long size;
+
+    private SpooledResponseBody(byte[] bytes, File file, long size) {
+        this.bytes = bytes;
+        this.file = file;
+        this.size = size;
+    }
+
+    /**
+     * Reads a body up to its end. The stream is not closed: when the maximum size is exceeded, the
+     * caller should abort the request before closing it, as closing a response stream reads what
+     * remains of the body.
+     *
+     * @param in Stream of the body
+     * @param contentLength Length announced by the response, negative if unknown
+     * @param limits Limits to apply
+     * @return The body read
+     * @throws IOException on error reading the body or writing the temporary file
+     * @throws ResponseTooLargeException if the body, or its announced length, exceeds the maximum
+     *     size
+     */
+    public static SpooledResponseBody read(
+            InputStream in, long contentLength, ResponseBodyLimits limits)
+            throws IOException, ResponseTooLargeException {
+        if (limits.exceedsMaxSize(contentLength)) {
+            throw new ResponseTooLargeException(limits.getMaxSize());
+        }
+
+        long threshold = limits.getMemoryThreshold();
+        boolean fitsInMemory = contentLength >= 0 && contentLength <= threshold;
+        int initialSize = fitsInMemory ? (int) contentLength : BUFFER_SIZE;
+        ByteArrayOutputStream memory = new ByteArrayOutputStream(initialSize);
+        OutputStream out = memory;
+        File file = null;
+        long size = 0;
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                size += read;
+                if (limits.exceedsMaxSize(size)) {
+                    throw new ResponseTooLargeException(limits.getMaxSize());
+                }
+                if (file == null && size > threshold) {
+                    file =
+                            File.createTempFile(
+                                    "caldav4j-response-", ".xml", limits.getSpoolDirectory());
+                    out = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+                    memory.writeTo(out);
+                    memory = null;
+                }
+                out.write(buffer, 0, read);
+            }
+            out.close();
+        } catch (IOException | ResponseTooLargeException | RuntimeException e) {
+            if (file != null) {
+                try {
+                    out.close();
+                } catch (IOException closing) {
+                    e.addSuppressed(closing);
+                }
+                file.delete();
+            }
+            throw e;
+        }
+        return file != null
+                ? new SpooledResponseBody(null, file, size)
+                : new SpooledResponseBody(memory.toByteArray(), null, size);
+    }
+
+    /**
+     * @return A new stream of the body, to be closed by the caller.
+     * @throws IOException on error opening the temporary file
+     */
+    public InputStream getContent() throws IOException {
+        if (file != null) {
+            return new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+        }
+        return new ByteArrayInputStream(bytes);
+    }
+
+    /**
+     * @return Size of the body in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return Whether the body was spooled to a temporary file.
+     */
+    public boolean isSpooled() {
+        return file != null;
+    }
+
+    /** Deletes the temporary file, if any. */
+    @Override
+    public void close() {
+        if (file != null) {
+            file.delete();
+        }
+    }
+}
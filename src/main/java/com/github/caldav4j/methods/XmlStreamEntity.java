@@ -0,0 +1,127 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.methods;
+
+import com.github.caldav4j.xml.XmlStreamSerializable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+/**
+ * Request entity with an XML body, written by a {@link XmlStreamSerializable} straight to the
+ * connection when the request is sent, without building a DOM tree nor keeping the XML in memory.
+ *
+ * <p>The Content-Length is either computed beforehand by writing the XML once without storing it,
+ * or the body is sent with chunked transfer encoding. The body must not be modified until the
+ * request has been executed.
+ */
+public class XmlStreamEntity extends AbstractHttpEntity {
+
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+    private static final ContentType CONTENT_TYPE =
+            ContentType.create("application/xml", StandardCharsets.UTF_8);
+
+    private final XmlStreamSerializable body;
+    private final long contentLength;
+
+    /**
+     * The Content-Length is computed beforehand.
+     *
+     * @param body XML body to send
+     * @throws IOException if the body can't be written
+     */
+    public XmlStreamEntity(XmlStreamSerializable body) throws IOException {
+        this(body, true);
+    }
+
+    /**
+     * @param body XML body to send
+     * @param precomputeLength If true the Content-Length is computed now, which also validates the
+     *     body, otherwise the body is sent chunked.
+     * @throws IOException if the body can't be written while computing its length
+     */
+    public XmlStreamEntity(XmlStreamSerializable body, boolean precomputeLength)
+            throws IOException {
+        this.body = body;
+        setContentType(CONTENT_TYPE.toString());
+        if (precomputeLength) {
+            CountingOutputStream counter = new CountingOutputStream();
+            write(counter);
+            this.contentLength = counter.getCount();
+        } else {
+            this.contentLength = -1;
+            setChunked(true);
+        }
+    }
+
+    /**
+     * @return XML body sent
+     */
+    public XmlStreamSerializable getBody() {
+        return body;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /** Writes the body in memory, prefer {@link #writeTo(OutputStream)}. */
+    @Override
+    public InputStream getContent() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        write(outStream);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    /** Writes the XML document, without closing the stream. */
+    private void write(OutputStream out) throws IOException {
+        try {
+            XMLStreamWriter writer =
+                    OUTPUT_FACTORY.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+            writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            body.writeTo(writer);
+            writer.writeEndDocument();
+            writer.flush();
+            // closing the writer doesn't close the stream
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Problem generating XML", e);
+        }
+        out.flush();
+    }
+}
@@ -39,7 +39,9 @@ import net.fortuna.ical4j.model.property.immutable.ImmutableVersion;
 public class CalendarRequest {
 
     private Calendar calendar = null;
+    private byte[] calendarData = null;
     private Charset charset = null;
+    private boolean precomputeContentLength = true;
 
     private Set<String> etags = new HashSet<>();
     private boolean ifMatch = false;
@@ -127,6 +129,43 @@ public class CalendarRequest {
         setCalendar(event, null, null);
     }
 
+    /**
+     * @return Already serialized calendar, sent instead of the Calendar if set.
+     */
+    public byte[] getCalendarData() {
+        return calendarData;
+    }
+
+    /**
+     * Sets the body of the request to an already serialized calendar, e.g. as stored or received
+     * from another server, which is sent unchanged. It takes precedence over the Calendar.
+     *
+     * @param calendarData Calendar encoded in the {@link #getCharset() charset} of the request.
+     */
+    public void setCalendarData(byte[] calendarData) {
+        this.calendarData = calendarData;
+    }
+
+    /**
+     * @return Whether the Content-Length of the calendar is computed before sending it.
+     * @see #setPrecomputeContentLength(boolean)
+     */
+    public boolean isPrecomputeContentLength() {
+        return precomputeContentLength;
+    }
+
+    /**
+     * The Calendar is serialized straight to the connection. By default it is serialized once
+     * beforehand, without being stored, to send its Content-Length, which also validates it when
+     * the request is created. Otherwise it is sent with chunked transfer encoding, which not all
+     * servers accept.
+     *
+     * @param precomputeContentLength False to send the calendar chunked.
+     */
+    public void setPrecomputeContentLength(boolean precomputeContentLength) {
+        this.precomputeContentLength = precomputeContentLength;
+    }
+
     public Set<String> getEtags() {
         return etags;
     }
@@ -16,7 +16,11 @@
  */
 package com.github.caldav4j.model.request;
 
+import com.github.caldav4j.util.XMLUtils;
+import com.github.caldav4j.xml.XmlStreamSerializable;
 import java.util.*;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import org.apache.jackrabbit.webdav.property.DavProperty;
 import org.apache.jackrabbit.webdav.property.DavPropertyNameSet;
 import org.apache.jackrabbit.webdav.property.DavPropertySet;
@@ -38,7 +42,7 @@ import org.w3c.dom.Node;
  * @author Ankush Mishra
  * @see DefaultDavProperty
  */
-public class PropProperty<T> extends DefaultDavProperty<T> {
+public class PropProperty<T> extends DefaultDavProperty<T> implements XmlStreamSerializable {
 
     private Map<String, String> attributes = null;
     private Collection<XmlSerializable> children = new ArrayList<>();
@@ -399,6 +403,55 @@ public class PropProperty<T> extends DefaultDavProperty<T> {
         return elem;
     }
 
+    /**
+     * Writes the property as {@link #toXml(Document)} does, without building a DOM tree.
+     *
+     * @param writer Writer to write the element to.
+     * @throws XMLStreamException on error writing
+     */
+    public void writeTo(XMLStreamWriter writer) throws XMLStreamException {
+        XMLUtils.writeStartElement(writer, getName().getName(), getName().getNamespace());
+
+        // Set Attributes for the current Property
+        if (attributes != null) {
+            for (Map.Entry<String, String> entry : attributes.entrySet()) {
+                writer.writeAttribute(entry.getKey(), entry.getValue());
+            }
+        }
+
+        T value = getValue();
+        if (value != null) {
+            if (value instanceof Node[]) {
+                for (Node node : (Node[]) value) {
+                    XMLUtils.writeNode(writer, node);
+                }
+            } else if (value instanceof Collection) {
+                for (Object entry : ((Collection<?>) value)) {
+                    writeValue(writer, entry);
+                }
+            } else {
+                writeValue(writer, value);
+            }
+        } else if (getChildren() != null) {
+            for (XmlSerializable child : getChildren()) {
+                XMLUtils.writeXml(writer, child);
+            }
+        }
+
+        writer.writeEndElement();
+    }
+
+    private static void writeValue(XMLStreamWriter writer, Object value)
+            throws XMLStreamException {
+        if (value instanceof XmlSerializable) {
+            XMLUtils.writeXml(writer, (XmlSerializable) value);
+        } else if (value instanceof Node) {
+            XMLUtils.writeNode(writer, (Node) value);
+        } else {
+            writer.writeCharacters(value.toString());
+        }
+    }
+
     /**
      * @return Return the Property Iterator to iterate through all the children
      */
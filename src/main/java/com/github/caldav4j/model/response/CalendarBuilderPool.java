@@ -0,0 +1,143 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.model.response;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.model.Calendar;
+
+/**
+ * Bounded pool of {@link CalendarBuilder}, which are not thread safe but are expensive to create
+ * (parser, content handler and timezone registry).
+ *
+ * <p>A builder is borrowed for the duration of one parse and then given back, so builders are
+ * reused whatever the thread doing the parsing, including short lived or virtual threads where a
+ * ThreadLocal would create one builder per task. Borrowing never blocks: when no builder is idle a
+ * new one is created, and at most <code>maxIdle</code> builders are kept once released.
+ *
+ * <p>The timezone registry of a builder is cleared when the builder is given back, so that the
+ * VTIMEZONE definitions of a calendar are neither used to resolve the TZID of the next calendar
+ * parsed with the builder, nor kept for as long as the builder is idle.
+ */
+public class CalendarBuilderPool {
+
+    /** Default maximum number of idle builders kept by a pool. */
+    public static final int DEFAULT_MAX_IDLE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final CalendarBuilderPool DEFAULT =
+            new CalendarBuilderPool(CalendarBuilder::new);
+
+    /** Parsing done with a borrowed builder. */
+    public interface BuildFunction {
+
+        /**
+         * @param builder Builder borrowed from the pool, not to be used once returned.
+         * @return Parsed Calendar
+         * @throws IOException on error reading the data
+         * @throws ParserException on invalid data
+         */
+        Calendar build(CalendarBuilder builder) throws IOException, ParserException;
+    }
+
+    private final Supplier<CalendarBuilder> factory;
+    private final BlockingQueue<CalendarBuilder> idle;
+    private final AtomicLong created = new AtomicLong();
+
+    /**
+     * @param factory Creates the builders of the pool.
+     */
+    public CalendarBuilderPool(Supplier<CalendarBuilder> factory) {
+        this(factory, DEFAULT_MAX_IDLE);
+    }
+
+    /**
+     * @param factory Creates the builders of the pool.
+     * @param maxIdle Maximum number of idle builders kept.
+     */
+    public CalendarBuilderPool(Supplier<CalendarBuilder> factory, int maxIdle) {
+        if (maxIdle <= 0) {
+            throw new IllegalArgumentException("Max idle must be positive");
+        }
+        this.factory = factory;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    /**
+     * @return Pool of builders with the ical4j default settings.
+     */
+    public static CalendarBuilderPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return An idle builder, or a new one if none is idle. It must be given back with {@link
+     *     #release(CalendarBuilder)} once the parsing is done.
+     */
+    public CalendarBuilder borrow() {
+        CalendarBuilder builder = idle.poll();
+        if (builder == null) {
+            builder = factory.get();
+            created.incrementAndGet();
+        }
+        return builder;
+    }
+
+    /**
+     * Gives back a builder, clearing the timezones it registered. The builder is dropped if the
+     * pool is full.
+     *
+     * @param builder Builder obtained from {@link #borrow()}
+     */
+    public void release(CalendarBuilder builder) {
+        if (builder != null) {
+            builder.getRegistry().clear();
+            idle.offer(builder);
+        }
+    }
+
+    /**
+     * Runs the parsing with a borrowed builder. The builder is given back only if the parsing
+     * succeeds, as a failure may leave it in an inconsistent state.
+     *
+     * @param function Parsing to run
+     * @return Parsed Calendar
+     * @throws IOException on error reading the data
+     * @throws ParserException on invalid data
+     */
+    public Calendar build(BuildFunction function) throws IOException, ParserException {
+        CalendarBuilder builder = borrow();
+        Calendar calendar = function.build(builder);
+        release(builder);
+        return calendar;
+    }
+
+    /**
+     * @return Number of idle builders.
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * @return Number of builders created by this pool since its creation.
+     */
+    public long getCreatedCount() {
+        return created.get();
+    }
+}
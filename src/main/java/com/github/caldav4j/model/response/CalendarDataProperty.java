@@ -20,14 +20,16 @@ package com.github.caldav4j.model.response;
 
 import com.github.caldav4j.CalDAVConstants;
 import com.github.caldav4j.util.CalDAVStatus;
-import java.io.StringReader;
+import com.github.caldav4j.util.ICalendarScanner;
+import java.util.Collection;
 import net.fortuna.ical4j.data.CalendarBuilder;
 import net.fortuna.ical4j.data.ParserException;
 import net.fortuna.ical4j.model.Calendar;
-import net.fortuna.ical4j.util.CompatibilityHints;
 import org.apache.jackrabbit.webdav.MultiStatusResponse;
 import org.apache.jackrabbit.webdav.property.DavProperty;
 import org.apache.jackrabbit.webdav.property.DavPropertyName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Contains various static methods to process Calendar Data from the responses.
@@ -38,6 +40,15 @@ public class CalendarDataProperty {
 
     public static final String ELEMENT_CALENDAR_DATA = "calendar-data";
 
+    private static final Logger log = LoggerFactory.getLogger(CalendarDataProperty.class);
+
+    /**
+     * Profile used when none is given: strict parsing, retried with {@link ParserProfile#RELAXED}
+     * on error.
+     */
+    public static final ParserProfile DEFAULT_PROFILE =
+            ParserProfile.STRICT.withFallback(ParserProfile.RELAXED);
+
     /**
      * Private ThreadLocal object for the {@link CalendarBuilder}, due to not being thread safe.
      *
@@ -45,12 +56,22 @@ public class CalendarDataProperty {
      */
     private static ThreadLocal<CalendarBuilder> calendarBuilderThreadLocal = null;
 
+    /**
+     * @return ThreadLocal of builders
+     * @deprecated not used anymore, builders are provided by {@link ParserProfile}
+     */
+    @Deprecated
     public static ThreadLocal<CalendarBuilder> getCalendarBuilderThreadLocal() {
         if (calendarBuilderThreadLocal == null)
             calendarBuilderThreadLocal = ThreadLocal.withInitial(CalendarBuilder::new);
         return calendarBuilderThreadLocal;
     }
 
+    /**
+     * @param calendarBuilderThreadLocal ThreadLocal of builders
+     * @deprecated not used anymore, builders are provided by {@link ParserProfile}
+     */
+    @Deprecated
     public static void setCalendarBuilderThreadLocal(
             ThreadLocal<CalendarBuilder> calendarBuilderThreadLocal) {
         CalendarDataProperty.calendarBuilderThreadLocal = calendarBuilderThreadLocal;
@@ -59,42 +80,29 @@ public class CalendarDataProperty {
     /**
      * @param property Property from whom value we retrieve the Calendar from.
      * @return Returns the Calendar in the Property specified.
+     * @see #DEFAULT_PROFILE
      */
     public static Calendar getCalendarfromProperty(DavProperty property) {
-        if (property == null || property.getValue() == null) return null;
+        return getCalendarfromProperty(property, DEFAULT_PROFILE);
+    }
 
-        Calendar calendar = null;
-        String text = property.getValue().toString();
+    /**
+     * @param property Property from whom value we retrieve the Calendar from.
+     * @param profile Profile used to parse the calendar.
+     * @return Returns the Calendar in the Property specified, null if it can't be parsed.
+     */
+    public static Calendar getCalendarfromProperty(DavProperty property, ParserProfile profile) {
+        if (property == null || property.getValue() == null) return null;
 
         // text might contain lines breaked only with \n. RFC states that long lines must be
-        // delimited by CRLF.
+        // delimited by CRLF: the profile fixes them while parsing.
         // @see{http://www.apps.ietf.org/rfc/rfc2445.html#sec-4.1 }
-        // this fix the problem occurred when lines are breaked only with \n
-        text = text.replaceAll("\n", "\r\n").replaceAll("\r\r\n", "\r\n");
-
-        ThreadLocal<CalendarBuilder> threadLocalCalendarBuilder = getCalendarBuilderThreadLocal();
-        CalendarBuilder calendarBuilder = threadLocalCalendarBuilder.get();
-
-        StringReader stringReader = new StringReader(text);
         try {
-            calendar = calendarBuilder.build(stringReader);
+            return profile.parse(property.getValue().toString());
         } catch (ParserException e) {
-            try {
-                CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING, true);
-                CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_UNFOLDING, true);
-                CompatibilityHints.setHintEnabled(
-                        CompatibilityHints.KEY_OUTLOOK_COMPATIBILITY, true);
-
-                calendar = calendarBuilder.build(stringReader);
-            } catch (Exception e2) {
-                e2.printStackTrace();
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
+            log.warn("Unable to parse calendar-data with profile " + profile, e);
+            return null;
         }
-        threadLocalCalendarBuilder.remove();
-        return calendar;
     }
 
     /**
@@ -104,9 +112,41 @@ public class CalendarDataProperty {
      * @return Calendar retrieved from Response
      */
     public static Calendar getCalendarfromResponse(MultiStatusResponse response) {
+        return getCalendarfromResponse(response, DEFAULT_PROFILE);
+    }
+
+    /**
+     * Convenience method to return the Calendar from the Response object.
+     *
+     * @param response Response to retrieve the Calendar from.
+     * @param profile Profile used to parse the calendar.
+     * @return Calendar retrieved from Response
+     */
+    public static Calendar getCalendarfromResponse(
+            MultiStatusResponse response, ParserProfile profile) {
         return getCalendarfromProperty(
-                response.getProperties(CalDAVStatus.SC_OK)
-                        .get(CalDAVConstants.DNAME_CALENDAR_DATA));
+                response.getProperties(CalDAVStatus.SC_OK).get(CalDAVConstants.DNAME_CALENDAR_DATA),
+                profile);
+    }
+
+    /**
+     * Extracts a few properties from the calendar-data of a response, scanning the text without
+     * parsing the calendar.
+     *
+     * @param response Response carrying the calendar-data
+     * @param componentName Name of the component to project, null for the first component which is
+     *     not a VTIMEZONE.
+     * @param propertyNames Names of the properties to extract.
+     * @return Projection, null if the response has no calendar-data.
+     * @see ICalendarScanner
+     */
+    public static CalendarProjection getProjectionfromResponse(
+            MultiStatusResponse response, String componentName, Collection<String> propertyNames) {
+        DavProperty<?> property =
+                response.getProperties(CalDAVStatus.SC_OK).get(CalDAVConstants.DNAME_CALENDAR_DATA);
+        if (property == null || property.getValue() == null) return null;
+
+        return ICalendarScanner.scan(property.getValue().toString(), componentName, propertyNames);
     }
 
     /**
@@ -0,0 +1,203 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.model.response;
+
+import com.github.caldav4j.util.ICalendarScanner;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Component;
+import net.fortuna.ical4j.model.Parameter;
+import net.fortuna.ical4j.model.Property;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+
+/**
+ * Values of a few properties of the main component of a calendar resource, i.e. its first
+ * component which is not a VTIMEZONE, e.g. to index or sort resources without building or walking
+ * the whole ical4j object model.
+ *
+ * <p>A projection is obtained either by scanning raw iCalendar text with {@link ICalendarScanner},
+ * or from a parsed Calendar with {@link #of(Calendar, String, Collection)}. Values are the
+ * unescaped text values, not interpreted (e.g. dates are kept as in the iCalendar text). Only the
+ * first occurrence of each property is kept.
+ */
+public final class CalendarProjection implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Properties commonly needed to identify and sort resources. */
+    public static final Set<String> HOT_PROPERTIES =
+            Collections.unmodifiableSet(
+                    new LinkedHashSet<>(
+                            Arrays.asList(
+                                    Property.UID,
+                                    Property.DTSTART,
+                                    Property.DTEND,
+                                    Property.SUMMARY,
+                                    Property.RECURRENCE_ID,
+                                    Property.SEQUENCE)));
+
+    private static final CalendarProjection EMPTY =
+            new CalendarProjection(null, Collections.emptyMap(), Collections.emptyMap());
+
+    private final String componentName;
+    private final Map<String, String> values;
+    private final Map<String, Map<String, String>> parameters;
+
+    /**
+     * @param componentName Name of the main component, null if none was found.
+     * @param values Values of the properties found, by upper case property name.
+     * @param parameters Parameters of the properties found, by upper case property and parameter
+     *     names. Properties without parameters may be missing.
+     */
+    public CalendarProjection(
+            String componentName,
+            Map<String, String> values,
+            Map<String, Map<String, String>> parameters) {
+        this.componentName = componentName;
+        this.values = Collections.unmodifiableMap(new HashMap<>(values));
+        this.parameters = Collections.unmodifiableMap(new HashMap<>(parameters));
+    }
+
+    /**
+     * @return A projection of a calendar without component.
+     */
+    public static CalendarProjection empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a projection from a parsed Calendar.
+     *
+     * @param calendar Calendar to project, may be null.
+     * @param componentName Name of the component to project, null for the first component which is
+     *     not a VTIMEZONE.
+     * @param propertyNames Names of the properties to keep.
+     * @return Projection, empty if the calendar has no such component.
+     */
+    public static CalendarProjection of(
+            Calendar calendar, String componentName, Collection<String> propertyNames) {
+        if (calendar == null) {
+            return EMPTY;
+        }
+        for (CalendarComponent component : calendar.getComponents()) {
+            if (ICalendarScanner.isMainComponent(component.getName(), componentName)) {
+                return of(component, propertyNames);
+            }
+        }
+        return EMPTY;
+    }
+
+    private static CalendarProjection of(Component component, Collection<String> propertyNames) {
+        Map<String, String> values = new HashMap<>();
+        Map<String, Map<String, String>> parameters = new HashMap<>();
+        for (String name : propertyNames) {
+            String key = name.toUpperCase(Locale.ROOT);
+            component
+                    .getProperty(key)
+                    .ifPresent(
+                            property -> {
+                                values.put(key, property.getValue());
+                                Map<String, String> params = new HashMap<>();
+                                for (Parameter parameter : property.getParameters()) {
+                                    params.putIfAbsent(parameter.getName(), parameter.getValue());
+                                }
+                                if (!params.isEmpty()) {
+                                    parameters.put(key, params);
+                                }
+                            });
+        }
+        return new CalendarProjection(component.getName(), values, parameters);
+    }
+
+    /**
+     * @return Name of the projected component, null if the calendar has none.
+     */
+    public String getComponentName() {
+        return componentName;
+    }
+
+    /**
+     * @param propertyName Name of the property
+     * @return Whether the property was found.
+     */
+    public boolean contains(String propertyName) {
+        return values.containsKey(propertyName.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @param propertyName Name of the property
+     * @return Value of the property, null if not found or not projected.
+     */
+    public String getValue(String propertyName) {
+        return values.get(propertyName.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @param propertyName Name of the property
+     * @param parameterName Name of the parameter, e.g. TZID
+     * @return Value of the parameter, without quotes, null if not found.
+     */
+    public String getParameter(String propertyName, String parameterName) {
+        Map<String, String> params = parameters.get(propertyName.toUpperCase(Locale.ROOT));
+        return params != null ? params.get(parameterName.toUpperCase(Locale.ROOT)) : null;
+    }
+
+    public String getUid() {
+        return getValue(Property.UID);
+    }
+
+    public String getSummary() {
+        return getValue(Property.SUMMARY);
+    }
+
+    public String getDtStart() {
+        return getValue(Property.DTSTART);
+    }
+
+    public String getDtEnd() {
+        return getValue(Property.DTEND);
+    }
+
+    public String getRecurrenceId() {
+        return getValue(Property.RECURRENCE_ID);
+    }
+
+    /**
+     * @return SEQUENCE of the component, 0 if missing or invalid as per RFC 5545.
+     */
+    public int getSequence() {
+        String sequence = getValue(Property.SEQUENCE);
+        if (sequence == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(sequence.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CalendarProjection[" + componentName + ", " + values + "]";
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.model.response;
+
+import com.github.caldav4j.util.CrLfNormalizingReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.data.CalendarParserFactory;
+import net.fortuna.ical4j.data.ContentHandlerContext;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.data.UnfoldingReader;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.TimeZoneRegistryFactory;
+
+/**
+ * Immutable set of options used to parse calendars, which can be bound to a collection or to a
+ * {@link com.github.caldav4j.methods.CalDAV4JMethodFactory}.
+ *
+ * <p>Unlike ical4j {@link net.fortuna.ical4j.util.CompatibilityHints}, which are global to the
+ * JVM, profiles only affect the parsing done through them, so collections using different profiles
+ * can parse concurrently. Each profile has its own {@link CalendarBuilderPool} of configured
+ * builders.
+ *
+ * <ul>
+ *   <li>{@link #STRICT}: RFC 5545 unfolding, invalid properties fail the parsing.
+ *   <li>{@link #LENIENT}: RFC 5545 unfolding, invalid properties (e.g. the non standard values
+ *       written by Outlook) are dropped. The Outlook value quirks of ical4j are not applied, as
+ *       they are only available as JVM wide compatibility hints.
+ *   <li>{@link #RELAXED}: lines folded without the leading whitespace are unfolded too, and
+ *       invalid properties are dropped.
+ * </ul>
+ *
+ * A profile may have a fallback profile, used to parse again the data it failed to parse, and may
+ * resolve the timezones of the parsed calendars to the canonical instances of a {@link
+ * SharedTimeZones} registry.
+ */
+public final class ParserProfile {
+
+    public static final ParserProfile STRICT =
+            new ParserProfile("STRICT", false, false, null, null);
+    public static final ParserProfile LENIENT =
+            new ParserProfile("LENIENT", false, true, null, null);
+    public static final ParserProfile RELAXED =
+            new ParserProfile("RELAXED", true, true, null, null);
+
+    private final String name;
+    private final boolean relaxedUnfolding;
+    private final boolean suppressInvalidProperties;
+    private final ParserProfile fallback;
+    private final SharedTimeZones sharedTimeZones;
+    private final CalendarBuilderPool calendarBuilderPool =
+            new CalendarBuilderPool(this::createCalendarBuilder);
+
+    private ParserProfile(
+            String name,
+            boolean relaxedUnfolding,
+            boolean suppressInvalidProperties,
+            ParserProfile fallback,
+            SharedTimeZones sharedTimeZones) {
+        this.name = name;
+        this.relaxedUnfolding = relaxedUnfolding;
+        this.suppressInvalidProperties = suppressInvalidProperties;
+        this.fallback = fallback;
+        this.sharedTimeZones = sharedTimeZones;
+    }
+
+    /**
+     * @param fallback Profile used when parsing with this one fails.
+     * @return A profile with the options of this one, and the given fallback.
+     */
+    public ParserProfile withFallback(ParserProfile fallback) {
+        return new ParserProfile(
+                name + ">" + fallback.name,
+                relaxedUnfolding,
+                suppressInvalidProperties,
+                fallback,
+                sharedTimeZones);
+    }
+
+    /**
+     * Calendars parsed by the returned profile reference the canonical VTIMEZONE instances of the
+     * registry, which must not be modified in place. The fallback profiles use the same registry.
+     *
+     * @param sharedTimeZones Registry of the timezones, null to keep the parsed ones.
+     * @return A profile with the options of this one, and the given registry.
+     */
+    public ParserProfile withSharedTimeZones(SharedTimeZones sharedTimeZones) {
+        return new ParserProfile(
+                name,
+                relaxedUnfolding,
+                suppressInvalidProperties,
+                fallback != null ? fallback.withSharedTimeZones(sharedTimeZones) : null,
+                sharedTimeZones);
+    }
+
+    public boolean isRelaxedUnfolding() {
+        return relaxedUnfolding;
+    }
+
+    public boolean isSuppressInvalidProperties() {
+        return suppressInvalidProperties;
+    }
+
+    /**
+     * @return Profile used when parsing with this one fails, null if none.
+     */
+    public ParserProfile getFallback() {
+        return fallback;
+    }
+
+    /**
+     * @return Registry the timezones of the parsed calendars are resolved to, null if none.
+     */
+    public SharedTimeZones getSharedTimeZones() {
+        return sharedTimeZones;
+    }
+
+    /**
+     * @return A new CalendarBuilder configured for this profile.
+     */
+    public CalendarBuilder createCalendarBuilder() {
+        return new CalendarBuilder(
+                CalendarParserFactory.getInstance().get(),
+                new ContentHandlerContext().withSupressInvalidProperties(suppressInvalidProperties),
+                TimeZoneRegistryFactory.getInstance().createRegistry());
+    }
+
+    /**
+     * @return Pool of the builders configured for this profile.
+     */
+    public CalendarBuilderPool getCalendarBuilderPool() {
+        return calendarBuilderPool;
+    }
+
+    /**
+     * Parses a calendar with a builder borrowed from the pool of this profile. The fallback is not
+     * used, as the reader can't be read again.
+     *
+     * @param reader Reader of the calendar
+     * @return Parsed Calendar
+     * @throws IOException on error reading the data
+     * @throws ParserException on invalid data
+     */
+    public Calendar parse(Reader reader) throws IOException, ParserException {
+        return calendarBuilderPool.build(builder -> parse(builder, reader));
+    }
+
+    /**
+     * Parses a calendar with the given builder, applying the unfolding and the shared timezones of
+     * this profile. The fallback is not used, as the reader can't be read again.
+     *
+     * @param calendarBuilder Builder to use
+     * @param reader Reader of the calendar
+     * @return Parsed Calendar
+     * @throws IOException on error reading the data
+     * @throws ParserException on invalid data
+     */
+    public Calendar parse(CalendarBuilder calendarBuilder, Reader reader)
+            throws IOException, ParserException {
+        Calendar calendar = calendarBuilder.build(new UnfoldingReader(reader, relaxedUnfolding));
+        return sharedTimeZones != null ? sharedTimeZones.deduplicate(calendar) : calendar;
+    }
+
+    /**
+     * Parses a calendar, fixing bare LF line endings, and trying the fallback profiles on error.
+     *
+     * @param text Text of the calendar
+     * @return Parsed Calendar
+     * @throws ParserException if the text can't be parsed by this profile nor its fallbacks
+     */
+    public Calendar parse(String text) throws ParserException {
+        try {
+            return parse(new CrLfNormalizingReader(new StringReader(text)));
+        } catch (ParserException e) {
+            if (fallback == null) {
+                throw e;
+            }
+            return fallback.parse(text);
+        } catch (IOException e) {
+            // can't happen when reading a String
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.model.response;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.ComponentList;
+import net.fortuna.ical4j.model.Property;
+import net.fortuna.ical4j.model.TimeZone;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+import net.fortuna.ical4j.model.component.VTimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Concurrent registry of canonical VTIMEZONE components, keyed by TZID and compared by content,
+ * so that calendars embedding the same timezone definition share one instance instead of each
+ * holding its own copy.
+ *
+ * <p>The canonical instance of a definition is a deep copy of the first one seen, so that the
+ * caller which registered it can't change it afterwards. Canonical instances are shared by all the
+ * calendars referencing them, and must not be modified in place: as for the other components of a
+ * shared Calendar, they must be replaced. At most <code>maxSize</code> definitions are kept, the
+ * least recently used ones being forgotten first; calendars keep the instances they reference.
+ *
+ * @see ParserProfile#withSharedTimeZones(SharedTimeZones)
+ * @see com.github.caldav4j.CalDAVResource#snapshot()
+ */
+public class SharedTimeZones {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedTimeZones.class);
+
+    /** Default maximum number of timezone definitions kept by a registry. */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final SharedTimeZones DEFAULT = new SharedTimeZones(DEFAULT_MAX_SIZE);
+
+    private final int maxSize;
+    // definitions by TZID, in access order; guarded by itself
+    private final LinkedHashMap<String, List<Entry>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int size = 0;
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * @param maxSize Maximum number of timezone definitions kept.
+     */
+    public SharedTimeZones(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be positive");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return Registry shared by the caches of the JVM.
+     */
+    public static SharedTimeZones getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param vTimeZone Timezone definition
+     * @return The canonical instance with the same TZID and content, a copy of the given one if
+     *     it is the first of its kind. The given one if it has no TZID or can't be copied.
+     */
+    public VTimeZone canonical(VTimeZone vTimeZone) {
+        Entry entry = getEntry(vTimeZone);
+        return entry != null ? entry.vTimeZone : vTimeZone;
+    }
+
+    /**
+     * @param vTimeZone Timezone definition
+     * @return The TimeZone of the canonical instance, created once per definition.
+     */
+    public TimeZone getTimeZone(VTimeZone vTimeZone) {
+        Entry entry = getEntry(vTimeZone);
+        return entry != null ? entry.getTimeZone() : new TimeZone(vTimeZone);
+    }
+
+    /**
+     * Replaces the VTIMEZONE components of a calendar with their canonical instances. The given
+     * calendar is not modified.
+     *
+     * @param calendar Calendar, may be null
+     * @return The given calendar if all its timezones are already canonical, otherwise a shallow
+     *     copy referencing the canonical timezones.
+     */
+    public Calendar deduplicate(Calendar calendar) {
+        if (calendar == null) {
+            return null;
+        }
+        List<CalendarComponent> components = calendar.getComponents();
+        List<CalendarComponent> replaced = null;
+        for (int i = 0; i < components.size(); i++) {
+            CalendarComponent component = components.get(i);
+            if (!(component instanceof VTimeZone)) {
+                continue;
+            }
+            VTimeZone canonical = canonical((VTimeZone) component);
+            if (canonical != component) {
+                if (replaced == null) {
+                    replaced = new ArrayList<>(components);
+                }
+                replaced.set(i, canonical);
+            }
+        }
+        if (replaced == null) {
+            return calendar;
+        }
+        return new Calendar(calendar.getPropertyList(), new ComponentList<>(replaced));
+    }
+
+    /**
+     * @return Number of timezone definitions kept.
+     */
+    public int size() {
+        synchronized (entries) {
+            return size;
+        }
+    }
+
+    /**
+     * @return Number of times a duplicate was replaced by its canonical instance.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /** Forgets all the timezone definitions. Calendars keep the instances they reference. */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            size = 0;
+        }
+    }
+
+    private Entry getEntry(VTimeZone vTimeZone) {
+        String tzid = vTimeZone.getProperty(Property.TZID).map(Property::getValue).orElse(null);
+        if (tzid == null) {
+            return null;
+        }
+        List<Entry> candidates;
+        synchronized (entries) {
+            candidates = entries.get(tzid);
+        }
+        // compared outside the lock; the lists are copied on write
+        Entry entry = find(candidates, vTimeZone);
+        if (entry != null) {
+            return entry;
+        }
+
+        VTimeZone copy;
+        try {
+            copy = vTimeZone.copy();
+        } catch (Exception e) {
+            log.debug("Unable to copy timezone " + tzid + ", not shared", e);
+            return null;
+        }
+        synchronized (entries) {
+            List<Entry> current = entries.get(tzid);
+            if (current != candidates) {
+                // changed since the lookup
+                entry = find(current, vTimeZone);
+                if (entry != null) {
+                    return entry;
+                }
+            }
+            List<Entry> updated = current != null ? new ArrayList<>(current) : new ArrayList<>(1);
+            entry = new Entry(copy);
+            updated.add(entry);
+            entries.put(tzid, updated);
+            size++;
+            evict();
+            return entry;
+        }
+    }
+
+    private Entry find(List<Entry> candidates, VTimeZone vTimeZone) {
+        if (candidates == null) {
+            return null;
+        }
+        for (Entry entry : candidates) {
+            if (entry.vTimeZone == vTimeZone) {
+                return entry;
+            }
+        }
+        for (Entry entry : candidates) {
+            if (entry.vTimeZone.equals(vTimeZone)) {
+                hits.incrementAndGet();
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /** Forgets the least recently used definitions beyond the maximum size. */
+    private void evict() {
+        Iterator<Map.Entry<String, List<Entry>>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            size -= iterator.next().getValue().size();
+            iterator.remove();
+        }
+    }
+
+    private static class Entry {
+        private final VTimeZone vTimeZone;
+        private volatile TimeZone timeZone = null;
+
+        private Entry(VTimeZone vTimeZone) {
+            this.vTimeZone = vTimeZone;
+        }
+
+        private TimeZone getTimeZone() {
+            TimeZone result = timeZone;
+            if (result == null) {
+                // created at most a few times under contention, all equivalent
+                result = new TimeZone(vTimeZone);
+                timeZone = result;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.util;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader turning the bare LF line endings into CRLF while reading, as required by <a
+ * href="https://tools.ietf.org/html/rfc5545#section-3.1">RFC 5545 Section 3.1</a>. Existing CRLF
+ * sequences are left untouched.
+ *
+ * <p>Servers often return calendar-data with LF only line endings, as XML parsers normalize them;
+ * this allows to feed such text to the CalendarBuilder without rewriting it first.
+ */
+public class CrLfNormalizingReader extends FilterReader {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final char[] buffer;
+    private int position = 0;
+    private int limit = 0;
+    private boolean lastWasCr = false;
+    private boolean pendingLf = false;
+
+    /**
+     * @param in Reader to normalize
+     */
+    public CrLfNormalizingReader(Reader in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param in Reader to normalize
+     * @param bufferSize Number of characters read at once from the underlying reader
+     */
+    public CrLfNormalizingReader(Reader in, int bufferSize) {
+        super(in);
+        this.buffer = new char[bufferSize];
+    }
+
+    @Override
+    public int read() throws IOException {
+        // same as read(char[], int, int), without an array per character
+        if (pendingLf) {
+            pendingLf = false;
+            lastWasCr = false;
+            return '\n';
+        }
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        char c = buffer[position++];
+        if (c == '\n' && !lastWasCr) {
+            pendingLf = true;
+            return '\r';
+        }
+        lastWasCr = c == '\r';
+        return c;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        int n = 0;
+        while (n < len) {
+            if (pendingLf) {
+                cbuf[off + n++] = '\n';
+                pendingLf = false;
+                lastWasCr = false;
+                continue;
+            }
+            if (position == limit) {
+                // don't block once something can be returned
+                if (n > 0 || !fill()) {
+                    break;
+                }
+            }
+
+            char c = buffer[position++];
+            if (c == '\n' && !lastWasCr) {
+                cbuf[off + n++] = '\r';
+                pendingLf = true;
+            } else {
+                cbuf[off + n++] = c;
+                lastWasCr = c == '\r';
+            }
+        }
+        return n == 0 ? -1 : n;
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        char[] skipped = new char[(int) Math.min(n, DEFAULT_BUFFER_SIZE)];
+        long total = 0;
+        while (total < n) {
+            int read = read(skipped, 0, (int) Math.min(n - total, skipped.length));
+            if (read == -1) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return pendingLf || position < limit || in.ready();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readAheadLimit) throws IOException {
+        throw new IOException("mark() not supported");
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("reset() not supported");
+    }
+}
@@ -42,6 +42,9 @@ import org.w3c.dom.Document;
  *
  * start and end values can be empty strings "" or RFC2445-UTC timestamp
  *
+ * <p>Time-range bounds and text-match values can also be parameters, written <code>${name}</code>,
+ * to compile the query once with {@link #prepare()} and execute it with different values.
+ *
  * <p><b>Note: This class is still experimental</b>
  *
  * @since 0.5
@@ -49,6 +52,25 @@ import org.w3c.dom.Document;
 public class GenerateQuery {
 
     private static final Logger log = LoggerFactory.getLogger(GenerateQuery.class);
+
+    // DSL syntax, compiled once
+    private static final Pattern COMPONENT_SEPARATOR = Pattern.compile("\\s*:\\s*");
+    private static final Pattern LIST_SEPARATOR = Pattern.compile("\\s*,\\s*");
+    private static final Pattern COMP_FILTER =
+            Pattern.compile("(.+?)\\s*(\\[(.*?);(.*?)\\])?");
+    private static final Pattern PROP_FILTER =
+            Pattern.compile("(.+?)([!=]=)(\\[(.*?);(.*?)\\]|([^\\]].+))");
+    private static final Pattern PARAMETER = Pattern.compile("\\$\\{(\\w+)\\}");
+    private static final List<String> COMPONENTS =
+            Arrays.asList(
+                    Component.VALARM,
+                    Component.VEVENT,
+                    Component.VFREEBUSY,
+                    Component.VJOURNAL,
+                    Component.VTIMEZONE,
+                    Component.VTODO,
+                    Component.VVENUE);
+
     // component attributes
     private String requestedComponent = null; // VEVENT, VTODO
     private List<String> requestedComponentProperties =
@@ -155,14 +177,14 @@ public class GenerateQuery {
     public void setComponent(String component) {
         if (component != null) {
             String cl[] = null;
-            String c[] = component.trim().split("\\s*:\\s*", 2);
+            String c[] = COMPONENT_SEPARATOR.split(component.trim(), 2);
 
             setRequestedComponent(c[0]);
 
             // if a list of properties is specified, then remove the allprop tag
             if (c.length > 1) {
                 allProp = false;
-                cl = c[1].trim().split("\\s*,\\s*");
+                cl = LIST_SEPARATOR.split(c[1].trim());
                 this.requestedComponentProperties = Arrays.asList(cl);
             }
         }
@@ -229,10 +251,9 @@ public class GenerateQuery {
      */
     public void setFilter(String filterComponent) throws CalDAV4JException {
         if (filterComponent != null) {
-            String c[] = filterComponent.split("\\s*:\\s*", 2); // split string in two
-            Pattern compFilterString = Pattern.compile("(.+?)\\s*(\\[(.*?);(.*?)\\])?");
+            String c[] = COMPONENT_SEPARATOR.split(filterComponent, 2); // split string in two
 
-            Matcher m = compFilterString.matcher(c[0]);
+            Matcher m = COMP_FILTER.matcher(c[0]);
             if (m.matches()) {
                 setFilterComponent(m.group(1));
 
@@ -243,7 +264,7 @@ public class GenerateQuery {
                 }
 
                 if (c.length > 1) {
-                    String cl[] = c[1].trim().split("\\s*,\\s*");
+                    String cl[] = LIST_SEPARATOR.split(c[1].trim());
                     this.filterComponentProperties = Arrays.asList(cl);
                 }
             }
@@ -270,7 +291,6 @@ public class GenerateQuery {
      */
     private List<PropFilter> getPropFilters() throws CalDAV4JException {
         List<PropFilter> pf = new ArrayList<>();
-        Pattern filter = Pattern.compile("(.+?)([!=]=)(\\[(.*?);(.*?)\\]|([^\\]].+))");
 
         for (String p : this.filterComponentProperties) {
             String name = null;
@@ -283,7 +303,7 @@ public class GenerateQuery {
             //
             // parse: UID==3oij312po3214432 , DESCRIPTION!=Spada , DTSTART==[b;e]
             //
-            Matcher str = filter.matcher(p);
+            Matcher str = PROP_FILTER.matcher(p);
 
             if (str.matches() && (str.group(3) != null)) {
                 name = str.group(1);
@@ -294,7 +314,7 @@ public class GenerateQuery {
                     if ("UNDEF".equals(str.group(3))) {
                         isDefined = false;
                     } else {
-                        textmatchString = str.group(3);
+                        textmatchString = parseText(str.group(3));
                     }
                 } else if (str.group(5) != null) {
                     // a time-range filter
@@ -302,17 +322,7 @@ public class GenerateQuery {
                     timeRangeEnd = parseTime(str.group(5));
                 }
 
-                List<String> componentList =
-                        Arrays.asList(
-                                Component.VALARM,
-                                Component.VEVENT,
-                                Component.VFREEBUSY,
-                                Component.VJOURNAL,
-                                Component.VTIMEZONE,
-                                Component.VTODO,
-                                Component.VVENUE);
-
-                if (!componentList.contains(name)) {
+                if (!COMPONENTS.contains(name)) {
                     pf.add(
                             new PropFilter(
                                     name,
@@ -344,6 +354,7 @@ public class GenerateQuery {
 
         // parse filterComponent
         if (this.filterComponent != null) {
+            List<PropFilter> propFilters = getPropFilters();
             CompFilter vEventCompFilter =
                     new CompFilter(
                             this.filterComponent,
@@ -351,7 +362,7 @@ public class GenerateQuery {
                             timeRangeStart,
                             timeRangeEnd, /// isDefined, dateStart, dateEnd
                             null,
-                            getPropFilters().size() == 0 ? null : getPropFilters());
+                            propFilters.isEmpty() ? null : propFilters);
             try {
                 vEventCompFilter.validate();
                 vCalendarCompFilter.addCompFilter(vEventCompFilter);
@@ -382,7 +393,33 @@ public class GenerateQuery {
      * @throws CalDAV4JException on parsing errors
      */
     public CalendarQuery generate() throws CalDAV4JException {
+        if (hasParameters()) {
+            throw new CalDAV4JException("The query has parameters, use prepare() instead");
+        }
+        return build();
+    }
 
+    /**
+     * Compiles the query once, with its parameters, to execute it many times.
+     *
+     * @return The prepared query
+     * @throws CalDAV4JException on parsing errors
+     * @see PreparedQuery
+     */
+    public PreparedQuery prepare() throws CalDAV4JException {
+        CalendarQuery query = build();
+        CalendarQuery etagOnlyQuery = null;
+        if (query.getCalendarDataProp() != null) {
+            etagOnlyQuery = build();
+            etagOnlyQuery.setCalendarDataProp(null);
+        }
+        return PreparedQuery.compile(query, etagOnlyQuery);
+    }
+
+    /**
+     * @return The CalendarQuery, with placeholders for the parameters
+     */
+    private CalendarQuery build() throws CalDAV4JException {
         CalendarQuery query = new CalendarQuery();
         query.addProperty(CalDAVConstants.DNAME_GETETAG);
 
@@ -553,7 +590,10 @@ public class GenerateQuery {
      */
     private Date parseTime(String time) throws CalDAV4JException {
         if (time != null && !"".equals(time)) {
-            if ("NOW".equals(time)) {
+            Matcher parameter = PARAMETER.matcher(time);
+            if (parameter.matches()) {
+                return PreparedQuery.timeParameter(parameter.group(1));
+            } else if ("NOW".equals(time)) {
                 return new DateTime(true);
             } else {
                 try {
@@ -571,5 +611,35 @@ public class GenerateQuery {
 
         return null;
     }
+
+    /**
+     * @param text Text-match value, or parameter
+     * @return The value, or the placeholder of the parameter
+     */
+    private static String parseText(String text) {
+        Matcher parameter = PARAMETER.matcher(text);
+        if (parameter.matches()) {
+            return PreparedQuery.textParameter(parameter.group(1));
+        }
+        return text;
+    }
+
+    /**
+     * @return Whether the query has parameters, which need to be prepared.
+     */
+    private boolean hasParameters() {
+        if (PreparedQuery.isParameter(timeRangeStart)
+                || PreparedQuery.isParameter(timeRangeEnd)
+                || PreparedQuery.isParameter(recurrenceSetStart)
+                || PreparedQuery.isParameter(recurrenceSetEnd)) {
+            return true;
+        }
+        for (String p : filterComponentProperties) {
+            if (PARAMETER.matcher(p).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
 //
@@ -0,0 +1,231 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.util;
+
+import com.github.caldav4j.model.response.CalendarProjection;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import net.fortuna.ical4j.model.Component;
+
+/**
+ * Line scanner extracting a few properties from raw iCalendar text, without building the ical4j
+ * object model.
+ *
+ * <p>Lines are unfolded as per <a href="https://tools.ietf.org/html/rfc5545#section-3.1">RFC 5545
+ * Section 3.1</a>, accepting CRLF as well as bare LF line endings. Parameters are parsed, quoted
+ * values included, and TEXT escapes are removed from the values. Only the properties of the main
+ * component are read, not the ones of its sub-components (e.g. VALARM), and the scan stops at the
+ * end of the main component.
+ */
+public final class ICalendarScanner {
+
+    private static final String BEGIN = "BEGIN";
+    private static final String END = "END";
+
+    private ICalendarScanner() {}
+
+    /**
+     * @param text iCalendar text
+     * @param componentName Name of the component to project, null for the first component which is
+     *     not a VTIMEZONE.
+     * @param propertyNames Names of the properties to extract.
+     * @return Projection of the component, empty if not found.
+     */
+    public static CalendarProjection scan(
+            String text, String componentName, Collection<String> propertyNames) {
+        try {
+            return scan(new StringReader(text), componentName, propertyNames);
+        } catch (IOException e) {
+            // can't happen when reading a String
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param reader Reader of the iCalendar text, not closed by this method.
+     * @param componentName Name of the component to project, null for the first component which is
+     *     not a VTIMEZONE.
+     * @param propertyNames Names of the properties to extract.
+     * @return Projection of the component, empty if not found.
+     * @throws IOException on error reading the text
+     */
+    public static CalendarProjection scan(
+            Reader reader, String componentName, Collection<String> propertyNames)
+            throws IOException {
+        String[] names = new String[propertyNames.size()];
+        int n = 0;
+        for (String name : propertyNames) {
+            names[n++] = name.toUpperCase(Locale.ROOT);
+        }
+
+        BufferedReader in =
+                reader instanceof BufferedReader
+                        ? (BufferedReader) reader
+                        : new BufferedReader(reader);
+        Map<String, String> values = new HashMap<>();
+        Map<String, Map<String, String>> parameters = new HashMap<>();
+        StringBuilder line = new StringBuilder(128);
+        String found = null;
+        // number of components opened, VCALENDAR included
+        int depth = 0;
+
+        String next = in.readLine();
+        while (next != null) {
+            line.setLength(0);
+            line.append(next);
+            while ((next = in.readLine()) != null && isContinuation(next)) {
+                line.append(next, 1, next.length());
+            }
+            if (line.length() == 0) {
+                continue;
+            }
+
+            if (startsWithName(line, BEGIN)) {
+                depth++;
+                if (found == null && depth == 2) {
+                    String name = line.substring(BEGIN.length() + 1).trim();
+                    if (isMainComponent(name, componentName)) {
+                        found = name.toUpperCase(Locale.ROOT);
+                    }
+                }
+            } else if (startsWithName(line, END)) {
+                if (found != null && depth == 2) {
+                    break;
+                }
+                depth--;
+            } else if (found != null && depth == 2 && values.size() < names.length) {
+                for (String name : names) {
+                    if (startsWithName(line, name) && !values.containsKey(name)) {
+                        parseProperty(line, name, values, parameters);
+                        break;
+                    }
+                }
+            }
+            if (found != null && values.size() == names.length) {
+                break;
+            }
+        }
+
+        if (found == null) {
+            return CalendarProjection.empty();
+        }
+        return new CalendarProjection(found, values, parameters);
+    }
+
+    /**
+     * @param name Name of a component
+     * @param componentName Name of the component looked for, null for any but VTIMEZONE
+     * @return Whether the component is the one to project.
+     */
+    public static boolean isMainComponent(String name, String componentName) {
+        if (componentName == null) {
+            return !Component.VTIMEZONE.equalsIgnoreCase(name);
+        }
+        return componentName.equalsIgnoreCase(name);
+    }
+
+    private static boolean isContinuation(String line) {
+        return !line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t');
+    }
+
+    /** Whether the line is a property with the given name, followed by parameters or a value. */
+    private static boolean startsWithName(CharSequence line, String name) {
+        int length = name.length();
+        if (line.length() <= length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toUpperCase(line.charAt(i)) != name.charAt(i)) {
+                return false;
+            }
+        }
+        char delimiter = line.charAt(length);
+        return delimiter == ':' || delimiter == ';';
+    }
+
+    private static void parseProperty(
+            StringBuilder line,
+            String name,
+            Map<String, String> values,
+            Map<String, Map<String, String>> parameters) {
+        int length = line.length();
+        int pos = name.length();
+        Map<String, String> params = null;
+
+        while (pos < length && line.charAt(pos) == ';') {
+            int eq = line.indexOf("=", pos + 1);
+            if (eq < 0) {
+                return;
+            }
+            String parameterName = line.substring(pos + 1, eq).trim().toUpperCase(Locale.ROOT);
+            StringBuilder value = new StringBuilder();
+            pos = eq + 1;
+            while (pos < length) {
+                char c = line.charAt(pos);
+                if (c == '"') {
+                    int close = line.indexOf("\"", pos + 1);
+                    if (close < 0) {
+                        close = length;
+                    }
+                    value.append(line, pos + 1, close);
+                    pos = close + 1;
+                } else if (c == ';' || c == ':') {
+                    break;
+                } else {
+                    value.append(c);
+                    pos++;
+                }
+            }
+            if (params == null) {
+                params = new HashMap<>(4);
+            }
+            params.putIfAbsent(parameterName, value.toString());
+        }
+
+        if (pos >= length || line.charAt(pos) != ':') {
+            // malformed property
+            return;
+        }
+        values.put(name, unescape(line.substring(pos + 1)));
+        if (params != null) {
+            parameters.put(name, params);
+        }
+    }
+
+    /** Removes the escapes of TEXT values, as per RFC 5545 Section 3.3.11. */
+    static String unescape(String value) {
+        int backslash = value.indexOf('\\');
+        if (backslash < 0) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        unescaped.append(value, 0, backslash);
+        for (int i = backslash; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                unescaped.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.util;
+
+import com.github.caldav4j.exceptions.CalDAV4JException;
+import com.github.caldav4j.model.request.CalendarQuery;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import net.fortuna.ical4j.model.Date;
+import net.fortuna.ical4j.model.DateTime;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+import org.apache.jackrabbit.webdav.client.methods.XmlEntity;
+
+/**
+ * Calendar-Query REPORT body compiled once from a {@link GenerateQuery}, to be sent many times with
+ * different parameters.
+ *
+ * <p>Parameters are written <code>${name}</code> in the filter, in place of the start or end of a
+ * time-range or of the value of a text-match, e.g.:
+ *
+ * <pre>
+ * GenerateQuery qg = new GenerateQuery("VEVENT", "VEVENT [${start};${end}] : UID==${uid}");
+ * PreparedQuery query = qg.prepare();
+ *
+ * Map&lt;String, Object&gt; parameters = new HashMap&lt;&gt;();
+ * parameters.put("start", new DateTime("20260101T000000Z"));
+ * parameters.put("end", new DateTime("20260201T000000Z"));
+ * parameters.put("uid", "abc@example.com");
+ * HttpEntity body = query.toEntity(parameters);
+ * </pre>
+ *
+ * The XML of the query is serialized once, when the query is prepared: executing it only copies
+ * the serialized chunks and the escaped parameter values into a byte array. Date values are
+ * written as with {@link Date#toString()}, other values with {@link String#valueOf(Object)}.
+ *
+ * <p>Instances are immutable and thread safe.
+ */
+public final class PreparedQuery {
+
+    // private use characters, kept as is by the XML serializer and unlikely in a query
+    private static final char MARKER_START = '\uE000';
+    private static final char MARKER_END = '\uE001';
+    private static final Pattern MARKER = Pattern.compile(MARKER_START + "(\\w+)" + MARKER_END);
+
+    private final byte[][] chunks;
+    private final String[] parameters;
+    private final String contentType;
+    private final PreparedQuery withoutCalendarData;
+
+    private PreparedQuery(
+            byte[][] chunks,
+            String[] parameters,
+            String contentType,
+            PreparedQuery withoutCalendarData) {
+        this.chunks = chunks;
+        this.parameters = parameters;
+        this.contentType = contentType;
+        this.withoutCalendarData = withoutCalendarData != null ? withoutCalendarData : this;
+    }
+
+    /**
+     * Compiles a query, where parameters are placeholders created by {@link #timeParameter(String)}
+     * and {@link #textParameter(String)}.
+     *
+     * @param query Query to compile
+     * @param etagOnlyQuery Same query without calendar-data, null if the query has none.
+     * @return The prepared query
+     * @throws CalDAV4JException if the query can't be serialized
+     */
+    static PreparedQuery compile(CalendarQuery query, CalendarQuery etagOnlyQuery)
+            throws CalDAV4JException {
+        PreparedQuery etagOnly = etagOnlyQuery != null ? compile(etagOnlyQuery, null) : null;
+
+        String contentType;
+        String xml;
+        try {
+            HttpEntity entity = XmlEntity.create(query);
+            contentType = entity.getContentType().getValue();
+            xml = new String(EntityUtils.toByteArray(entity), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new CalDAV4JException("Problem serializing query", e);
+        }
+
+        List<byte[]> chunks = new ArrayList<>();
+        List<String> parameters = new ArrayList<>();
+        Matcher m = MARKER.matcher(xml);
+        int last = 0;
+        while (m.find()) {
+            chunks.add(xml.substring(last, m.start()).getBytes(StandardCharsets.UTF_8));
+            parameters.add(m.group(1));
+            last = m.end();
+        }
+        chunks.add(xml.substring(last).getBytes(StandardCharsets.UTF_8));
+
+        return new PreparedQuery(
+                chunks.toArray(new byte[0][]),
+                parameters.toArray(new String[0]),
+                contentType,
+                etagOnly);
+    }
+
+    /**
+     * @param name Name of the parameter
+     * @return Date serialized as the placeholder of the parameter.
+     */
+    static Date timeParameter(String name) {
+        return new ParameterDate(name);
+    }
+
+    /**
+     * @param name Name of the parameter
+     * @return Text serialized as the placeholder of the parameter.
+     */
+    static String textParameter(String name) {
+        return MARKER_START + name + MARKER_END;
+    }
+
+    /**
+     * @param date Date to check, may be null
+     * @return Whether the date is a placeholder.
+     */
+    static boolean isParameter(Date date) {
+        return date instanceof ParameterDate;
+    }
+
+    /**
+     * @return Names of the parameters of the query, in order of first use.
+     */
+    public Set<String> getParameterNames() {
+        Set<String> names = new LinkedHashSet<>();
+        Collections.addAll(names, parameters);
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * @return The same query, only requesting the ETags of the resources and not their
+     *     calendar-data, e.g. when the resources are looked up in a cache. This query itself if it
+     *     doesn't request calendar-data.
+     */
+    public PreparedQuery withoutCalendarData() {
+        return withoutCalendarData;
+    }
+
+    /**
+     * @return Content-Type of the request body.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @param values Values of the parameters, by name
+     * @return The XML request body, encoded in UTF-8.
+     * @throws CalDAV4JException if a parameter has no value
+     */
+    public byte[] toByteArray(Map<String, ?> values) throws CalDAV4JException {
+        int size = 0;
+        for (byte[] chunk : chunks) {
+            size += chunk.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size + parameters.length * 32);
+        for (int i = 0; i < parameters.length; i++) {
+            out.write(chunks[i], 0, chunks[i].length);
+            Object value = values != null ? values.get(parameters[i]) : null;
+            if (value == null) {
+                throw new CalDAV4JException("No value for query parameter " + parameters[i]);
+            }
+            byte[] escaped = escape(String.valueOf(value)).getBytes(StandardCharsets.UTF_8);
+            out.write(escaped, 0, escaped.length);
+        }
+        byte[] last = chunks[parameters.length];
+        out.write(last, 0, last.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * @param values Values of the parameters, by name
+     * @return The request body, to be sent with a {@link
+     *     com.github.caldav4j.methods.HttpCalDAVReportMethod}
+     * @throws CalDAV4JException if a parameter has no value
+     */
+    public HttpEntity toEntity(Map<String, ?> values) throws CalDAV4JException {
+        ByteArrayEntity entity = new ByteArrayEntity(toByteArray(values));
+        entity.setContentType(contentType);
+        return entity;
+    }
+
+    /** Escapes a value for both XML text and attribute values. */
+    private static String escape(String value) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement;
+            switch (value.charAt(i)) {
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '"':
+                    replacement = "&quot;";
+                    break;
+                default:
+                    replacement = null;
+            }
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(value.length() + 16);
+                escaped.append(value, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(value.charAt(i));
+                }
+            }
+        }
+        return escaped != null ? escaped.toString() : value;
+    }
+
+    /** Date standing for a parameter, serialized as its placeholder. */
+    private static class ParameterDate extends DateTime {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+
+        ParameterDate(String name) {
+            super(true);
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return textParameter(name);
+        }
+    }
+}
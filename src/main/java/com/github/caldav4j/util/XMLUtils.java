@@ -17,18 +17,33 @@
 
 package com.github.caldav4j.util;
 
+import com.github.caldav4j.xml.XmlStreamSerializable;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.XMLConstants;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import org.apache.jackrabbit.webdav.DavConstants;
+import org.apache.jackrabbit.webdav.property.DavProperty;
+import org.apache.jackrabbit.webdav.property.DavPropertyName;
 import org.apache.jackrabbit.webdav.xml.DomUtil;
+import org.apache.jackrabbit.webdav.xml.Namespace;
 import org.apache.jackrabbit.webdav.xml.XmlSerializable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 
 /** Class containing utility functions for XML related work. */
 public class XMLUtils {
@@ -44,6 +59,36 @@ public class XMLUtils {
         return DomUtil.createDocument();
     }
 
+    /**
+     * Returns a property of a multistatus response as an element, whatever the type of its value:
+     * text, an element, or a list of nodes.
+     *
+     * @param property Property to convert
+     * @return The element of the property, with its content
+     * @throws ParserConfigurationException on erroneous state, mostly should not happen.
+     */
+    public static Element toElement(DavProperty<?> property) throws ParserConfigurationException {
+        return property.toXml(DomUtil.createDocument());
+    }
+
+    /**
+     * @param element Element to search
+     * @return The trimmed text of the DAV:href elements under the element, in document order.
+     */
+    public static List<String> getHrefs(Element element) {
+        List<String> hrefs = new ArrayList<>();
+        NodeList nodes =
+                element.getElementsByTagNameNS(
+                        DavConstants.NAMESPACE.getURI(), DavConstants.XML_HREF);
+        for (int i = 0; i < nodes.getLength(); i++) {
+            String href = nodes.item(i).getTextContent().trim();
+            if (!href.isEmpty()) {
+                hrefs.add(href);
+            }
+        }
+        return hrefs;
+    }
+
     /**
      * Serializes a DOM Document to XML
      *
@@ -101,4 +146,132 @@ public class XMLUtils {
         }
         return "";
     }
+
+    /**
+     * Writes the start of an element, declaring its namespace if not already in scope.
+     *
+     * @param writer Writer to write to
+     * @param localName Local name of the element
+     * @param namespace Namespace of the element, may be null
+     * @throws XMLStreamException on error writing
+     */
+    public static void writeStartElement(
+            XMLStreamWriter writer, String localName, Namespace namespace)
+            throws XMLStreamException {
+        String uri = namespace != null ? namespace.getURI() : null;
+        if (uri == null || uri.isEmpty()) {
+            writer.writeStartElement(localName);
+            return;
+        }
+        String prefix = namespace.getPrefix() != null ? namespace.getPrefix() : "";
+        writeStartElement(writer, prefix, localName, uri);
+    }
+
+    private static void writeStartElement(
+            XMLStreamWriter writer, String prefix, String localName, String uri)
+            throws XMLStreamException {
+        boolean inScope = uri.equals(writer.getNamespaceContext().getNamespaceURI(prefix));
+        writer.writeStartElement(prefix, localName, uri);
+        if (!inScope) {
+            if (prefix.isEmpty()) {
+                writer.writeDefaultNamespace(uri);
+                writer.setDefaultNamespace(uri);
+            } else {
+                writer.writeNamespace(prefix, uri);
+                writer.setPrefix(prefix, uri);
+            }
+        }
+    }
+
+    /**
+     * Writes an object as XML, streaming it if it is a {@link XmlStreamSerializable}, otherwise
+     * through a DOM element.
+     *
+     * @param writer Writer to write to
+     * @param xml Object to write
+     * @throws XMLStreamException on error writing
+     */
+    public static void writeXml(XMLStreamWriter writer, XmlSerializable xml)
+            throws XMLStreamException {
+        if (xml instanceof XmlStreamSerializable) {
+            ((XmlStreamSerializable) xml).writeTo(writer);
+        } else if (xml instanceof DavPropertyName) {
+            DavPropertyName name = (DavPropertyName) xml;
+            writeStartElement(writer, name.getName(), name.getNamespace());
+            writer.writeEndElement();
+        } else {
+            try {
+                writeNode(writer, xml.toXml(DomUtil.createDocument()));
+            } catch (ParserConfigurationException e) {
+                throw new XMLStreamException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Writes a DOM node and its descendants.
+     *
+     * @param writer Writer to write to
+     * @param node Element or text node to write, other nodes are skipped
+     * @throws XMLStreamException on error writing
+     */
+    public static void writeNode(XMLStreamWriter writer, Node node) throws XMLStreamException {
+        switch (node.getNodeType()) {
+            case Node.ELEMENT_NODE:
+                writeElement(writer, (Element) node);
+                break;
+            case Node.TEXT_NODE:
+                writer.writeCharacters(node.getNodeValue());
+                break;
+            case Node.CDATA_SECTION_NODE:
+                writer.writeCData(node.getNodeValue());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void writeElement(XMLStreamWriter writer, Element element)
+            throws XMLStreamException {
+        String uri = element.getNamespaceURI();
+        String localName =
+                element.getLocalName() != null ? element.getLocalName() : element.getNodeName();
+        if (uri == null || uri.isEmpty()) {
+            writer.writeStartElement(localName);
+        } else {
+            String prefix = element.getPrefix() != null ? element.getPrefix() : "";
+            writeStartElement(writer, prefix, localName, uri);
+        }
+
+        NamedNodeMap attributes = element.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Attr attribute = (Attr) attributes.item(i);
+            String attributeUri = attribute.getNamespaceURI();
+            if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attributeUri)
+                    || attribute.getName().startsWith(XMLConstants.XMLNS_ATTRIBUTE)) {
+                // namespaces are declared when writing the elements
+                continue;
+            }
+            if (attributeUri == null || attributeUri.isEmpty()) {
+                writer.writeAttribute(attribute.getName(), attribute.getValue());
+            } else {
+                String attributePrefix = attribute.getPrefix() != null ? attribute.getPrefix() : "";
+                if (!attributeUri.equals(
+                        writer.getNamespaceContext().getNamespaceURI(attributePrefix))) {
+                    writer.writeNamespace(attributePrefix, attributeUri);
+                    writer.setPrefix(attributePrefix, attributeUri);
+                }
+                writer.writeAttribute(
+                        attributePrefix,
+                        attributeUri,
+                        attribute.getLocalName(),
+                        attribute.getValue());
+            }
+        }
+
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            writeNode(writer, child);
+        }
+        writer.writeEndElement();
+    }
 }
@@ -17,8 +17,11 @@
 package com.github.caldav4j.xml;
 
 import com.github.caldav4j.exceptions.DOMValidationException;
+import com.github.caldav4j.util.XMLUtils;
 import java.util.Collection;
 import java.util.Map;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import org.apache.jackrabbit.webdav.xml.DomUtil;
 import org.apache.jackrabbit.webdav.xml.Namespace;
 import org.apache.jackrabbit.webdav.xml.XmlSerializable;
@@ -27,8 +30,11 @@ import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
-/** Abstract class for representing objects as Xml */
-public abstract class OutputsDOMBase implements OutputsDOM {
+/**
+ * Abstract class for representing objects as Xml, either as a DOM tree or streamed to a {@link
+ * XMLStreamWriter}
+ */
+public abstract class OutputsDOMBase implements OutputsDOM, XmlStreamSerializable {
 
     private static final Logger log = LoggerFactory.getLogger(OutputsDOMBase.class);
 
@@ -164,6 +170,42 @@ public abstract class OutputsDOMBase implements OutputsDOM {
         }
     }
 
+    /**
+     * Writes the element without building a DOM tree: attributes, children and then the text
+     * content. Children which are not {@link XmlStreamSerializable} are written through their DOM
+     * representation.
+     *
+     * @param writer Writer to write the element to.
+     * @throws XMLStreamException on error writing, or on validation error
+     */
+    public void writeTo(XMLStreamWriter writer) throws XMLStreamException {
+        try {
+            validate();
+        } catch (DOMValidationException e) {
+            throw new XMLStreamException(e.getMessage(), e);
+        }
+        XMLUtils.writeStartElement(writer, getElementName(), getNamespace());
+
+        Map<String, String> attributes = getAttributes();
+        if (attributes != null) {
+            for (Map.Entry<String, String> entry : attributes.entrySet()) {
+                writer.writeAttribute(entry.getKey(), entry.getValue());
+            }
+        }
+
+        Collection<? extends XmlSerializable> children = getChildren();
+        if (children != null) {
+            for (XmlSerializable child : children) {
+                XMLUtils.writeXml(writer, child);
+            }
+        }
+
+        if (getTextContent() != null) {
+            writer.writeCharacters(getTextContent());
+        }
+        writer.writeEndElement();
+    }
+
     /**
      * Convenience method for validating all the objects in a collection
      *
@@ -0,0 +1,32 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.xml;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Object written as XML directly to a {@link XMLStreamWriter}, without building a DOM tree. This is
+ * the streaming counterpart of {@link org.apache.jackrabbit.webdav.xml.XmlSerializable}.
+ */
+public interface XmlStreamSerializable {
+
+    /**
+     * Writes the element representing this object, and its children.
+     *
+     * @param writer Writer to write the element to.
+     * @throws XMLStreamException on error writing, or if the object is not valid.
+     */
+    void writeTo(XMLStreamWriter writer) throws XMLStreamException;
+}
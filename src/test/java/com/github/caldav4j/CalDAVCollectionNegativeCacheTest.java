@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.github.caldav4j.cache.NegativeCache;
+import com.github.caldav4j.exceptions.CalDAV4JException;
+import com.github.caldav4j.exceptions.ResourceNotFoundException;
+import com.github.caldav4j.model.request.CalendarQuery;
+import java.util.Collections;
+import java.util.List;
+import net.fortuna.ical4j.model.Component;
+import org.apache.http.client.HttpClient;
+import org.junit.Test;
+
+public class CalDAVCollectionNegativeCacheTest {
+
+    @Test
+    public void uidMissingFromReportIsCached() throws Exception {
+        StubCollection collection = new StubCollection(null);
+        try {
+            collection.getCalDAVResourceByUID(null, Component.VEVENT, "missing");
+            fail("ResourceNotFoundException expected");
+        } catch (ResourceNotFoundException e) {
+            // expected
+        }
+        assertTrue(collection.getNegativeCache().isMissingUid("missing"));
+    }
+
+    @Test
+    public void failedReportIsNotCached() throws Exception {
+        StubCollection collection = new StubCollection(new CalDAV4JException("REPORT failed"));
+        try {
+            collection.getCalDAVResourceByUID(null, Component.VEVENT, "unknown");
+            fail("CalDAV4JException expected");
+        } catch (ResourceNotFoundException e) {
+            fail("the failure must not be reported as a missing UID");
+        } catch (CalDAV4JException e) {
+            // expected
+        }
+        assertFalse(collection.getNegativeCache().isMissingUid("unknown"));
+    }
+
+    private static class StubCollection extends CalDAVCollection {
+        private final CalDAV4JException failure;
+
+        StubCollection(CalDAV4JException failure) {
+            setCalendarCollectionRoot("/cal/");
+            setNegativeCache(new NegativeCache());
+            this.failure = failure;
+        }
+
+        @Override
+        protected CalDAVResource getCalDAVResource(HttpClient httpClient, String path)
+                throws CalDAV4JException {
+            throw new ResourceNotFoundException(
+                    ResourceNotFoundException.IdentifierType.PATH, path);
+        }
+
+        @Override
+        protected List<CalDAVResource> getCalDAVResources(
+                HttpClient httpClient, CalendarQuery query) throws CalDAV4JException {
+            if (failure != null) {
+                throw failure;
+            }
+            return Collections.emptyList();
+        }
+    }
+}
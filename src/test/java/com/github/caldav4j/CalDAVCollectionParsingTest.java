@@ -0,0 +1,76 @@
+package com.github.caldav4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.github.caldav4j.util.ICalendarUtils;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import net.fortuna.ical4j.model.Calendar;
+import org.apache.jackrabbit.webdav.MultiStatusResponse;
+import org.apache.jackrabbit.webdav.property.DefaultDavProperty;
+import org.junit.After;
+import org.junit.Test;
+
+public class CalDAVCollectionParsingTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private static MultiStatusResponse response(int i, String calendarData) {
+        MultiStatusResponse response = new MultiStatusResponse("/cal/" + i + ".ics", null);
+        response.add(
+                new DefaultDavProperty<>(CalDAVConstants.DNAME_CALENDAR_DATA, calendarData));
+        return response;
+    }
+
+    private static String calendar(int i) {
+        return "BEGIN:VCALENDAR\nVERSION:2.0\nPRODID:-//test//EN\nBEGIN:VEVENT\nUID:event-"
+                + i
+                + "\nDTSTAMP:20200101T000000Z\nEND:VEVENT\nEND:VCALENDAR\n";
+    }
+
+    @Test
+    public void parallelParsingPreservesOrderAndIsolatesErrors() {
+        MultiStatusResponse[] responses = new MultiStatusResponse[100];
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = response(i, i % 10 == 3 ? "BEGIN:VCALENDAR\ninvalid" : calendar(i));
+        }
+        responses[50] = null;
+
+        CalDAVCollection collection = new CalDAVCollection();
+        collection.setParsingExecutor(pool);
+        List<Calendar> calendars = collection.getCalendarsFromResponses(responses);
+
+        assertEquals(responses.length, calendars.size());
+        for (int i = 0; i < responses.length; i++) {
+            if (i % 10 == 3 || i == 50) {
+                assertNull(calendars.get(i));
+            } else {
+                assertEquals("event-" + i, ICalendarUtils.getUIDValue(calendars.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void sameResultsOnCallingThread() {
+        MultiStatusResponse[] responses = new MultiStatusResponse[20];
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = response(i, calendar(i));
+        }
+        CalDAVCollection collection = new CalDAVCollection();
+        List<Calendar> sequential = collection.getCalendarsFromResponses(responses);
+        collection.setParsingExecutor(pool);
+        List<Calendar> parallel = collection.getCalendarsFromResponses(responses);
+
+        for (int i = 0; i < responses.length; i++) {
+            assertEquals(
+                    ICalendarUtils.getUIDValue(sequential.get(i)),
+                    ICalendarUtils.getUIDValue(parallel.get(i)));
+        }
+    }
+}
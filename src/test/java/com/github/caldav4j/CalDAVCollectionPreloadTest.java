@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import static org.junit.Assert.assertEquals;
+
+import com.github.caldav4j.cache.SharedResourceCacheManager;
+import org.apache.http.client.HttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CalDAVCollectionPreloadTest {
+
+    private SharedResourceCacheManager manager;
+
+    @Before
+    public void setUp() throws Exception {
+        manager = new SharedResourceCacheManager(100, 100);
+    }
+
+    @After
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    public void unchangedCTagSkipsListing() throws Exception {
+        StubCollection collection = new StubCollection(true);
+        collection.setCache(manager.getCache("ctag"));
+
+        collection.ctag = "\"1\"";
+        collection.preload(null, new PreloadOptions());
+        collection.preload(null, new PreloadOptions());
+        assertEquals(1, collection.listings);
+
+        collection.ctag = "\"2\"";
+        collection.preload(null, new PreloadOptions());
+        assertEquals(2, collection.listings);
+    }
+
+    @Test
+    public void collectionWithoutCTagIsListed() throws Exception {
+        StubCollection collection = new StubCollection(false);
+        collection.setCache(manager.getCache("no-ctag"));
+
+        collection.preload(null, new PreloadOptions());
+        collection.preload(null, new PreloadOptions());
+        assertEquals(2, collection.listings);
+        assertEquals(0, collection.ctagRequests);
+    }
+
+    private static class StubCollection extends CalDAVCollection {
+        private final boolean ctagSupported;
+        private String ctag;
+        private int listings = 0;
+        private int ctagRequests = 0;
+
+        StubCollection(boolean ctagSupported) {
+            setCalendarCollectionRoot("/cal/");
+            this.ctagSupported = ctagSupported;
+        }
+
+        @Override
+        public ServerCapabilities getServerCapabilities(HttpClient httpClient) {
+            return new ServerCapabilities(null, null, null, ctagSupported);
+        }
+
+        @Override
+        public String getCTag(HttpClient httpClient) {
+            ctagRequests++;
+            return ctag;
+        }
+
+        @Override
+        public CollectionManifest getManifest(HttpClient httpClient) {
+            listings++;
+            return new CollectionManifest.Builder("/cal/").build();
+        }
+    }
+}
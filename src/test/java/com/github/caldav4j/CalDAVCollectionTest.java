@@ -21,6 +21,7 @@ import static org.junit.Assert.*;
 import com.github.caldav4j.cache.EhCacheResourceCache;
 import com.github.caldav4j.exceptions.CalDAV4JException;
 import com.github.caldav4j.exceptions.ResourceNotFoundException;
+import com.github.caldav4j.exceptions.ResourceOutOfDateException;
 import com.github.caldav4j.functional.support.CaldavFixtureHarness;
 import com.github.caldav4j.model.request.CalendarData;
 import com.github.caldav4j.model.request.CalendarQuery;
@@ -376,6 +377,42 @@ public class CalDAVCollectionTest extends BaseTestCase {
         assertEquals("NEW", ICalendarUtils.getSummaryValue(ve));
     }
 
+    @Test
+    public void testPreload() throws Exception {
+        uncachedCollection.setCache(myCache);
+
+        int fetched = uncachedCollection.preload(fixture.getHttpClient(), new PreloadOptions(2, 2));
+        assertTrue(fetched > 0);
+        assertNotNull(myCache.getHrefForEventUID(ICS_ALL_DAY_JAN1_UID));
+
+        // everything is already cached with the current etag
+        assertEquals(0, uncachedCollection.preload(fixture.getHttpClient(), new PreloadOptions()));
+    }
+
+    @Test
+    public void testRawCopy() throws Exception {
+        String source = ICS_ALL_DAY_JAN1_UID + ".ics";
+        RawResource raw = collection.getRaw(fixture.getHttpClient(), source);
+        assertNotNull(raw.getETag());
+        assertTrue(new String(raw.getData(), raw.getCharset()).contains(ICS_ALL_DAY_JAN1_UID));
+
+        // a copy under another name, written unchanged
+        String copy = "raw-copy.ics";
+        collection.delete(fixture.getHttpClient(), Component.VEVENT, ICS_ALL_DAY_JAN1_UID);
+        collection.putRaw(fixture.getHttpClient(), copy, raw.getData(), raw.getCharset(), null);
+        Calendar calendar = collection.getCalendar(fixture.getHttpClient(), copy);
+        assertEquals(
+                ICS_ALL_DAY_JAN1_UID,
+                ICalendarUtils.getUIDValue(calendar.getComponent(Component.VEVENT).get()));
+
+        try {
+            collection.putRaw(fixture.getHttpClient(), copy, raw.getData(), "\"stale\"");
+            fail("Stale etag accepted");
+        } catch (ResourceOutOfDateException e) {
+            // expected
+        }
+    }
+
     /** do a calendar-multiget with a valid event and an invalid one */
     @Test
     public void testMultigetCalendar() throws Exception {
@@ -0,0 +1,112 @@
+package com.github.caldav4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.github.caldav4j.model.response.CalendarProjection;
+import com.github.caldav4j.util.ICalendarUtils;
+import java.util.Collections;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Component;
+import net.fortuna.ical4j.model.Property;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+import net.fortuna.ical4j.model.component.VEvent;
+import net.fortuna.ical4j.model.property.XProperty;
+import org.junit.Test;
+
+public class CalDAVResourceTest implements TestConstants {
+
+    @Test
+    public void snapshotIsIsolatedFromOriginal() throws Exception {
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        CalDAVResource resource = new CalDAVResource(calendar, "\"1\"", "/cal/daily.ics");
+        int components = calendar.getComponents().size();
+
+        CalDAVResource snapshot = resource.snapshot();
+        calendar.add(new VEvent());
+
+        assertTrue(snapshot.isSnapshot());
+        assertFalse(resource.isSnapshot());
+        assertSame(snapshot, snapshot.snapshot());
+        assertEquals(components, snapshot.getCalendar().getComponents().size());
+        assertEquals("\"1\"", snapshot.getResourceMetadata().getETag());
+        assertEquals("/cal/daily.ics", snapshot.getResourceMetadata().getHref());
+    }
+
+    @Test
+    public void updateDoesNotAffectSnapshot() throws Exception {
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        CalDAVResource snapshot =
+                new CalDAVResource(calendar, "\"1\"", "/cal/daily.ics").snapshot();
+
+        Calendar update = snapshot.getCalendarForUpdate();
+        assertNotSame(snapshot.getCalendar(), update);
+        CalendarComponent event = ICalendarUtils.getFirstEvent(update);
+        update.remove(event);
+
+        assertEquals(ICS_DAILY_NY_5PM_UID, ICalendarUtils.getUIDValue(snapshot.getCalendar()));
+    }
+
+    @Test
+    public void snapshotCalendarIsNotShared() throws Exception {
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        CalDAVResource snapshot =
+                new CalDAVResource(calendar, "\"1\"", "/cal/daily.ics").snapshot();
+        int components = calendar.getComponents().size();
+
+        Calendar read = snapshot.getCalendar();
+        read.remove(ICalendarUtils.getFirstEvent(read));
+
+        assertNotSame(read, snapshot.getCalendar());
+        assertEquals(components, snapshot.getCalendar().getComponents().size());
+        assertEquals(
+                ICS_DAILY_NY_5PM_UID,
+                snapshot.getProjection(Component.VEVENT, Collections.singleton(Property.UID))
+                        .getUid());
+    }
+
+    @Test
+    public void projectionOfSnapshotIsKept() throws Exception {
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        CalDAVResource snapshot =
+                new CalDAVResource(calendar, "\"1\"", "/cal/daily.ics").snapshot();
+
+        CalendarProjection projection = snapshot.getProjection();
+        assertEquals(ICS_DAILY_NY_5PM_UID, projection.getUid());
+        assertEquals(ICS_DAILY_NY_5PM_SUMMARY, projection.getSummary());
+        assertSame(projection, snapshot.getProjection());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void snapshotCannotBeReplaced() {
+        new CalDAVResource(new Calendar(), "\"1\"", "/cal/1.ics").snapshot().setCalendar(null);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void snapshotMetadataIsFrozen() {
+        CalDAVResource snapshot =
+                new CalDAVResource(new Calendar(), "\"1\"", "/cal/1.ics").snapshot();
+        assertTrue(snapshot.getResourceMetadata().isFrozen());
+        snapshot.getResourceMetadata().markValidated();
+        snapshot.getResourceMetadata().setETag("\"2\"");
+    }
+
+    @Test
+    public void calendarCopyIsDeep() throws Exception {
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        CalDAVResource snapshot =
+                new CalDAVResource(calendar, "\"1\"", "/cal/daily.ics").snapshot();
+
+        Calendar copy = snapshot.getCalendarCopy();
+        ICalendarUtils.getFirstEvent(copy).add(new XProperty("X-CHANGED", "1"));
+
+        assertEquals(snapshot.getCalendar().getComponents().size(), copy.getComponents().size());
+        assertFalse(
+                ICalendarUtils.getFirstEvent(snapshot.getCalendar())
+                        .getProperty("X-CHANGED")
+                        .isPresent());
+    }
+}
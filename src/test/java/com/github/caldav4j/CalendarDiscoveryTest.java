@@ -0,0 +1,249 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.github.caldav4j.exceptions.CalDAV4JException;
+import com.github.caldav4j.methods.CalDAV4JMethodFactory;
+import com.github.caldav4j.methods.MultiStatusReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.http.HttpHost;
+import org.apache.http.client.HttpClient;
+import org.apache.jackrabbit.webdav.MultiStatusResponse;
+import org.apache.jackrabbit.webdav.property.DavPropertyNameSet;
+import org.junit.Test;
+
+public class CalendarDiscoveryTest {
+
+    private static final String PRINCIPAL =
+            "<D:multistatus xmlns:D=\"DAV:\">"
+                    + "<D:response><D:href>/</D:href><D:propstat><D:prop>"
+                    + "<D:current-user-principal><D:href>/principals/lisa/</D:href>"
+                    + "</D:current-user-principal>"
+                    + "</D:prop><D:status>HTTP/1.1 200 OK</D:status></D:propstat></D:response>"
+                    + "</D:multistatus>";
+
+    private static final String HOME_SET =
+            "<D:multistatus xmlns:D=\"DAV:\" xmlns:C=\"urn:ietf:params:xml:ns:caldav\">"
+                    + "<D:response><D:href>/principals/lisa/</D:href><D:propstat><D:prop>"
+                    + "<C:calendar-home-set>"
+                    + "<D:href>https://cal.example.com/calendars/lisa</D:href>"
+                    + "</C:calendar-home-set>"
+                    + "</D:prop><D:status>HTTP/1.1 200 OK</D:status></D:propstat></D:response>"
+                    + "</D:multistatus>";
+
+    private static final String CALENDARS =
+            "<D:multistatus xmlns:D=\"DAV:\" xmlns:C=\"urn:ietf:params:xml:ns:caldav\""
+                    + " xmlns:CS=\"http://calendarserver.org/ns/\">"
+                    + response("/calendars/lisa/", "<D:collection/>", null, null, null)
+                    + response(
+                            "/calendars/lisa/work/",
+                            "<D:collection/><C:calendar/>",
+                            "Work",
+                            "%WORK%",
+                            "<C:comp name=\"VEVENT\"/>")
+                    + response(
+                            "/calendars/lisa/tasks/",
+                            "<D:collection/><C:calendar/>",
+                            "Tasks",
+                            "\"t1\"",
+                            "<C:comp name=\"VTODO\"/>")
+                    + response("/calendars/lisa/inbox/", "<D:collection/>", "Inbox", null, null)
+                    + "</D:multistatus>";
+
+    @Test
+    public void calendarsAreListed() throws Exception {
+        List<CalendarInfo> calendars =
+                CalendarDiscovery.getCalendarsFromResponses(
+                        "/calendars/lisa", responses(calendars("\"w1\"")));
+        assertEquals(2, calendars.size());
+        CalendarInfo work = calendars.get(0);
+        assertEquals("/calendars/lisa/work/", work.getPath());
+        assertEquals("Work", work.getDisplayName());
+        assertEquals("\"w1\"", work.getCTag());
+        assertEquals(Collections.singleton("VEVENT"), work.getSupportedComponents());
+        assertTrue(work.supports("vevent"));
+
+        CalendarHome home =
+                new CalendarHome(
+                        "/principals/lisa/",
+                        Collections.singletonList("/calendars/lisa/"),
+                        calendars);
+        assertEquals(
+                Collections.singletonList(calendars.get(1)), home.getCalendars("VTODO"));
+        assertSame(work, home.getCalendar("/calendars/lisa/work/"));
+        assertNull(home.getCalendar("/calendars/lisa/inbox/"));
+    }
+
+    @Test
+    public void homeIsCachedAndRevalidatedWithCTags() throws Exception {
+        StubDiscovery discovery = new StubDiscovery(200);
+        discovery.ctag = "\"w1\"";
+
+        CalendarHome home = discovery.discover(null, "/");
+        assertEquals("/principals/lisa/", home.getPrincipalPath());
+        assertEquals(Collections.singletonList("/calendars/lisa/"), home.getHomePaths());
+        assertEquals(2, home.getCalendars().size());
+        assertEquals(
+                Arrays.asList("/ 0", "/principals/lisa/ 0", "/calendars/lisa/ 1"),
+                discovery.requests);
+
+        // fresh: no request
+        discovery.requests.clear();
+        assertSame(home, discovery.getCalendarHome(null, "/principals/lisa/"));
+        assertTrue(discovery.requests.isEmpty());
+
+        // stale but unchanged: one PROPFIND of the ctags
+        Thread.sleep(250);
+        assertSame(home, discovery.getCalendarHome(null, "/principals/lisa/"));
+        assertEquals(Collections.singletonList("/calendars/lisa/ 1"), discovery.requests);
+
+        // stale and changed: replaced from the same PROPFIND
+        Thread.sleep(250);
+        discovery.requests.clear();
+        discovery.ctag = "\"w2\"";
+        CalendarHome changed = discovery.getCalendarHome(null, "/principals/lisa/");
+        assertNotSame(home, changed);
+        assertEquals("\"w2\"", changed.getCalendar("/calendars/lisa/work/").getCTag());
+        assertEquals(Collections.singletonList("/calendars/lisa/ 1"), discovery.requests);
+
+        discovery.invalidate("/principals/lisa/");
+        assertEquals(0, discovery.size());
+    }
+
+    @Test
+    public void calendarsWithoutCTagAreRevalidated() throws Exception {
+        StubDiscovery discovery = new StubDiscovery(200);
+        discovery.ctag = "";
+
+        CalendarHome home = discovery.discover(null, "/");
+        assertNull(home.getCalendar("/calendars/lisa/work/").getCTag());
+
+        Thread.sleep(250);
+        discovery.requests.clear();
+        assertSame(home, discovery.getCalendarHome(null, "/principals/lisa/"));
+        assertEquals(Collections.singletonList("/calendars/lisa/ 1"), discovery.requests);
+    }
+
+    @Test
+    public void homesAreCachedPerUser() throws Exception {
+        StubDiscovery discovery = new StubDiscovery(60000);
+        discovery.ctag = "\"w1\"";
+
+        CalendarHome lisa = discovery.discover(null, "lisa", "/");
+        discovery.requests.clear();
+        assertSame(lisa, discovery.getCalendarHome(null, "lisa", "/principals/lisa/"));
+        assertTrue(discovery.requests.isEmpty());
+
+        CalendarHome bart = discovery.getCalendarHome(null, "bart", "/principals/lisa/");
+        assertNotSame(lisa, bart);
+        assertEquals(
+                Arrays.asList("/principals/lisa/ 0", "/calendars/lisa/ 1"), discovery.requests);
+        assertEquals(2, discovery.size());
+
+        discovery.invalidate("/principals/lisa/");
+        assertEquals(0, discovery.size());
+    }
+
+    @Test
+    public void principalIsCachedPerUser() throws Exception {
+        StubDiscovery discovery = new StubDiscovery(60000);
+        discovery.ctag = "\"w1\"";
+
+        CalendarHome home = discovery.discover(null, "lisa", "/");
+        discovery.requests.clear();
+        assertSame(home, discovery.discover(null, "lisa", "/"));
+        assertTrue(discovery.requests.isEmpty());
+
+        // without a user, the principal is looked up again
+        discovery.discover(null, "/");
+        assertEquals(
+                Arrays.asList("/ 0", "/principals/lisa/ 0", "/calendars/lisa/ 1"),
+                discovery.requests);
+
+        discovery.clear();
+        discovery.requests.clear();
+        discovery.discover(null, "lisa", "/");
+        assertEquals("/ 0", discovery.requests.get(0));
+    }
+
+    private static class StubDiscovery extends CalendarDiscovery {
+        private final List<String> requests = new ArrayList<>();
+        private String ctag;
+
+        StubDiscovery(long ttlMillis) {
+            super(new HttpHost("cal.example.com"), new CalDAV4JMethodFactory(), ttlMillis, 10);
+        }
+
+        @Override
+        protected MultiStatusResponse[] propFind(
+                HttpClient httpClient, String path, DavPropertyNameSet props, int depth)
+                throws CalDAV4JException {
+            requests.add(path + " " + depth);
+            try {
+                switch (path) {
+                    case "/":
+                        return responses(PRINCIPAL);
+                    case "/principals/lisa/":
+                        return responses(HOME_SET);
+                    default:
+                        return responses(calendars(ctag));
+                }
+            } catch (IOException e) {
+                throw new CalDAV4JException("Invalid response", e);
+            }
+        }
+    }
+
+    private static String calendars(String workCTag) {
+        return CALENDARS.replace("%WORK%", workCTag);
+    }
+
+    private static MultiStatusResponse[] responses(String xml) throws IOException {
+        return MultiStatusReader.read(
+                        new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)))
+                .getResponses();
+    }
+
+    private static String response(
+            String href, String resourceType, String displayName, String ctag, String comps) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<D:response><D:href>").append(href).append("</D:href><D:propstat><D:prop>");
+        sb.append("<D:resourcetype>").append(resourceType).append("</D:resourcetype>");
+        if (displayName != null) {
+            sb.append("<D:displayname>").append(displayName).append("</D:displayname>");
+        }
+        if (ctag != null) {
+            sb.append("<CS:getctag>").append(ctag).append("</CS:getctag>");
+        }
+        if (comps != null) {
+            sb.append("<C:supported-calendar-component-set>")
+                    .append(comps)
+                    .append("</C:supported-calendar-component-set>");
+        }
+        sb.append("</D:prop><D:status>HTTP/1.1 200 OK</D:status></D:propstat></D:response>");
+        return sb.toString();
+    }
+}
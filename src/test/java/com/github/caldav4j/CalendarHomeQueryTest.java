@@ -0,0 +1,209 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.github.caldav4j.exceptions.CalDAV4JException;
+import com.github.caldav4j.methods.CalDAV4JMethodFactory;
+import com.github.caldav4j.model.request.CalendarQuery;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.component.VEvent;
+import org.apache.http.HttpHost;
+import org.apache.http.client.HttpClient;
+import org.junit.Test;
+
+public class CalendarHomeQueryTest {
+
+    @Test
+    public void calendarsAreMergedInTimeOrder() throws Exception {
+        CalendarHomeQuery query =
+                new CalendarHomeQuery(
+                        Arrays.asList(
+                                new StubCollection("/cal/a/", 0, event(utc(10), "a10")),
+                                new StubCollection(
+                                        "/cal/b/",
+                                        0,
+                                        event(utc(9), "b9"),
+                                        event(LocalDate.of(2026, 1, 1), "b-day"),
+                                        new Calendar()),
+                                new StubCollection("/cal/c/", 0, event(utc(11), "c11"))));
+
+        CalendarHomeQuery.Result result = query.query(null, new CalendarQuery());
+
+        assertTrue(result.isComplete());
+        assertEquals(3, result.getCalendarsByCollection().size());
+        assertEquals(5, result.getCalendars().size());
+        assertEquals(
+                Arrays.asList("b-day", "b9", "a10", "c11", null),
+                summaries(result.getCalendars()));
+    }
+
+    @Test
+    public void failuresAreIsolated() throws Exception {
+        StubCollection failing = new StubCollection("/cal/broken/", 0);
+        failing.failure = new CalDAV4JException("broken");
+        CalendarHomeQuery query =
+                new CalendarHomeQuery(
+                        Arrays.asList(
+                                new StubCollection("/cal/a/", 0, event(utc(10), "a10")), failing));
+
+        CalendarHomeQuery.Result result = query.query(null, new CalendarQuery());
+
+        assertFalse(result.isComplete());
+        assertEquals(Collections.singletonList("a10"), summaries(result.getCalendars()));
+        assertEquals(Collections.singleton("/cal/broken/"), result.getFailures().keySet());
+        assertEquals("broken", result.getFailures().get("/cal/broken/").getMessage());
+    }
+
+    @Test
+    public void deadlineReturnsPartialResults() throws Exception {
+        CalendarHomeQuery query =
+                new CalendarHomeQuery(
+                        Arrays.asList(
+                                new StubCollection("/cal/a/", 0, event(utc(10), "a10")),
+                                new StubCollection("/cal/slow/", 5000, event(utc(9), "s9"))));
+        query.setTimeoutMillis(200);
+
+        long start = System.currentTimeMillis();
+        CalendarHomeQuery.Result result = query.query(null, new CalendarQuery());
+
+        assertTrue(System.currentTimeMillis() - start < 4000);
+        assertFalse(result.isComplete());
+        assertEquals(Collections.singletonList("a10"), summaries(result.getCalendars()));
+        assertEquals(Collections.singletonList("/cal/slow/"), result.getTimedOut());
+    }
+
+    @Test
+    public void parallelismIsBounded() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CalDAVCollection> collections = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            StubCollection collection = new StubCollection("/cal/" + i + "/", 50);
+            collection.running = running;
+            collection.maxRunning = maxRunning;
+            collections.add(collection);
+        }
+        CalendarHomeQuery query = new CalendarHomeQuery(collections);
+        query.setParallelism(3);
+
+        CalendarHomeQuery.Result result = query.query(null, new CalendarQuery());
+
+        assertTrue(result.isComplete());
+        assertEquals(10, result.getCalendarsByCollection().size());
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    public void collectionsAreCreatedForTheHome() {
+        CalendarHome home =
+                new CalendarHome(
+                        "/principals/lisa/",
+                        Collections.singletonList("/calendars/lisa/"),
+                        Arrays.asList(
+                                new CalendarInfo(
+                                        "/calendars/lisa/work/",
+                                        "Work",
+                                        null,
+                                        Collections.emptySet()),
+                                new CalendarInfo(
+                                        "/calendars/lisa/home/",
+                                        "Home",
+                                        null,
+                                        Collections.emptySet())));
+
+        List<CalDAVCollection> collections =
+                home.createCollections(
+                        new HttpHost("cal.example.com", 443, "https"), new CalDAV4JMethodFactory());
+
+        assertEquals(2, collections.size());
+        assertEquals("/calendars/lisa/work/", collections.get(0).getCalendarCollectionRoot());
+        assertEquals("/calendars/lisa/home/", collections.get(1).getCalendarCollectionRoot());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parallelismMustBePositive() {
+        new CalendarHomeQuery(Collections.emptyList()).setParallelism(0);
+    }
+
+    private static ZonedDateTime utc(int hour) {
+        return ZonedDateTime.of(2026, 1, 1, hour, 0, 0, 0, ZoneOffset.UTC);
+    }
+
+    private static Calendar event(Temporal start, String summary) {
+        Calendar calendar = new Calendar();
+        calendar.add(new VEvent(start, Duration.ofHours(1), summary));
+        return calendar;
+    }
+
+    private static List<String> summaries(List<Calendar> calendars) {
+        List<String> summaries = new ArrayList<>();
+        for (Calendar calendar : calendars) {
+            summaries.add(
+                    calendar.getComponents().isEmpty()
+                            ? null
+                            : calendar.getComponents()
+                                    .get(0)
+                                    .getProperty("SUMMARY")
+                                    .get()
+                                    .getValue());
+        }
+        return summaries;
+    }
+
+    private static class StubCollection extends CalDAVCollection {
+        private final List<Calendar> calendars;
+        private final long delayMillis;
+        private CalDAV4JException failure;
+        private AtomicInteger running = new AtomicInteger();
+        private AtomicInteger maxRunning = new AtomicInteger();
+
+        StubCollection(String path, long delayMillis, Calendar... calendars) {
+            setCalendarCollectionRoot(path);
+            this.delayMillis = delayMillis;
+            this.calendars = Arrays.asList(calendars);
+        }
+
+        @Override
+        public List<Calendar> queryCalendars(HttpClient httpClient, CalendarQuery query)
+                throws CalDAV4JException {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CalDAV4JException("Interrupted", e);
+            } finally {
+                running.decrementAndGet();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return calendars;
+        }
+    }
+}
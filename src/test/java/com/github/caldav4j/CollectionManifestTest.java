@@ -0,0 +1,129 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.github.caldav4j.methods.MultiStatusReader;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class CollectionManifestTest {
+
+    private static final String PROPFIND_RESPONSE =
+            "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n"
+                    + "<D:multistatus xmlns:D=\"DAV:\">\n"
+                    + "  <D:response>\n"
+                    + "    <D:href>/cal/</D:href>\n"
+                    + "    <D:propstat><D:prop><D:getetag>\"c\"</D:getetag></D:prop>\n"
+                    + "      <D:status>HTTP/1.1 200 OK</D:status></D:propstat>\n"
+                    + "  </D:response>\n"
+                    + "  <D:response>\n"
+                    + "    <D:href>https://cal.example.com/cal/b.ics</D:href>\n"
+                    + "    <D:propstat><D:prop>\n"
+                    + "        <D:getetag>\"b1\"</D:getetag>\n"
+                    + "        <D:getcontentlength>512</D:getcontentlength>\n"
+                    + "        <D:getlastmodified>Tue, 15 Nov 1994 12:45:26 GMT"
+                    + "</D:getlastmodified>\n"
+                    + "      </D:prop>\n"
+                    + "      <D:status>HTTP/1.1 200 OK</D:status></D:propstat>\n"
+                    + "  </D:response>\n"
+                    + "  <D:response>\n"
+                    + "    <D:href>/cal/a.ics</D:href>\n"
+                    + "    <D:propstat><D:prop><D:getetag>\"a1\"</D:getetag></D:prop>\n"
+                    + "      <D:status>HTTP/1.1 200 OK</D:status></D:propstat>\n"
+                    + "  </D:response>\n"
+                    + "  <D:response>\n"
+                    + "    <D:href>/cal/inbox/</D:href>\n"
+                    + "    <D:propstat><D:prop><D:getetag>\"i\"</D:getetag></D:prop>\n"
+                    + "      <D:status>HTTP/1.1 200 OK</D:status></D:propstat>\n"
+                    + "  </D:response>\n"
+                    + "</D:multistatus>\n";
+
+    @Test
+    public void manifestIsBuiltFromPropFind() throws Exception {
+        CollectionManifest manifest =
+                CollectionManifest.fromResponses(
+                        "/cal/",
+                        MultiStatusReader.read(
+                                        new ByteArrayInputStream(
+                                                PROPFIND_RESPONSE.getBytes(
+                                                        StandardCharsets.UTF_8)))
+                                .getResponses());
+
+        // the collection and sub-collections are skipped, resources are sorted
+        assertEquals(Arrays.asList("/cal/a.ics", "/cal/b.ics"), manifest.getPaths());
+        assertEquals("\"a1\"", manifest.getETag(0));
+        assertEquals(CollectionManifest.UNKNOWN, manifest.getContentLength(0));
+        assertEquals(512, manifest.getContentLength(1));
+        assertEquals(784903526000L, manifest.getLastModified(1));
+        assertEquals("\"b1\"", manifest.getETag("/cal/b.ics"));
+        assertNull(manifest.getETag("/cal/c.ics"));
+    }
+
+    @Test
+    public void diffWithPreviousManifest() {
+        CollectionManifest previous =
+                new CollectionManifest.Builder("/cal/")
+                        .add("/cal/a.ics", "\"a1\"", -1, -1)
+                        .add("/cal/b.ics", "\"b1\"", -1, -1)
+                        .add("/cal/c.ics", "\"c1\"", -1, -1)
+                        .build();
+        CollectionManifest current =
+                new CollectionManifest.Builder("/cal/")
+                        .add("/cal/d.ics", "\"d1\"", -1, -1)
+                        .add("/cal/b.ics", "\"b2\"", -1, -1)
+                        .add("/cal/a.ics", "\"a1\"", -1, -1)
+                        // outside the collection
+                        .add("/other/e.ics", "\"e1\"", -1, -1)
+                        .build();
+
+        ManifestDiff diff = current.diff(previous);
+        assertEquals(Arrays.asList("/other/e.ics", "/cal/d.ics"), diff.getAdded());
+        assertEquals(Collections.singletonList("/cal/b.ics"), diff.getChanged());
+        assertEquals(Collections.singletonList("/cal/c.ics"), diff.getDeleted());
+        assertEquals("\"e1\"", current.getETag("/other/e.ics"));
+
+        assertTrue(current.diff(current).isEmpty());
+        assertEquals(current.size(), current.diff(null).getAdded().size());
+    }
+
+    @Test
+    public void lastDuplicateIsKept() {
+        CollectionManifest manifest =
+                new CollectionManifest.Builder("/cal")
+                        .add("/cal/a.ics", "\"a1\"", -1, -1)
+                        .add("/cal/a.ics", "\"a2\"", -1, -1)
+                        .build();
+        assertEquals(1, manifest.size());
+        assertEquals("\"a2\"", manifest.getETag("/cal/a.ics"));
+        assertEquals("/cal/", manifest.getCollectionPath());
+    }
+
+    @Test
+    public void largeManifest() {
+        CollectionManifest.Builder builder = new CollectionManifest.Builder("/cal/");
+        for (int i = 0; i < 100000; i++) {
+            builder.add("/cal/event-" + i + ".ics", "\"" + i + "\"", -1, -1);
+        }
+        CollectionManifest manifest = builder.build();
+        assertEquals(100000, manifest.size());
+        assertEquals("\"99999\"", manifest.getETag("/cal/event-99999.ics"));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.github.caldav4j.methods.MultiStatusReader;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.jackrabbit.webdav.MultiStatusResponse;
+import org.junit.Test;
+
+public class ServerCapabilitiesTest {
+
+    private static final String PROPFIND_RESPONSE =
+            "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n"
+                    + "<D:multistatus xmlns:D=\"DAV:\" xmlns:C=\"urn:ietf:params:xml:ns:caldav\""
+                    + " xmlns:CS=\"http://calendarserver.org/ns/\">\n"
+                    + "  <D:response>\n"
+                    + "    <D:href>/cal/</D:href>\n"
+                    + "    <D:propstat>\n"
+                    + "      <D:prop>\n"
+                    + "        <D:supported-report-set>\n"
+                    + "          <D:supported-report><D:report><C:calendar-multiget/></D:report>"
+                    + "</D:supported-report>\n"
+                    + "          <D:supported-report><D:report><C:calendar-query/></D:report>"
+                    + "</D:supported-report>\n"
+                    + "          <D:supported-report><D:report><D:sync-collection/></D:report>"
+                    + "</D:supported-report>\n"
+                    + "        </D:supported-report-set>\n"
+                    + "        <CS:getctag>42</CS:getctag>\n"
+                    + "      </D:prop>\n"
+                    + "      <D:status>HTTP/1.1 200 OK</D:status>\n"
+                    + "    </D:propstat>\n"
+                    + "    <D:propstat>\n"
+                    + "      <D:prop><D:sync-token/></D:prop>\n"
+                    + "      <D:status>HTTP/1.1 404 Not Found</D:status>\n"
+                    + "    </D:propstat>\n"
+                    + "  </D:response>\n"
+                    + "</D:multistatus>\n";
+
+    @Test
+    public void capabilitiesAreParsed() throws Exception {
+        ServerCapabilities capabilities =
+                ServerCapabilities.fromResponses(optionsResponse(), collectionResponse());
+
+        assertTrue(capabilities.isKnown());
+        assertEquals(
+                new HashSet<>(
+                        Arrays.asList(
+                                "1",
+                                "2",
+                                "3",
+                                "access-control",
+                                "calendar-access",
+                                "calendar-auto-schedule")),
+                capabilities.getComplianceClasses());
+        assertTrue(capabilities.isCalendarAccessSupported());
+        assertTrue(capabilities.isMethodAllowed("report"));
+        assertFalse(capabilities.isMethodAllowed("MKCALENDAR"));
+
+        assertTrue(capabilities.isCalendarMultigetSupported());
+        assertTrue(capabilities.isCalendarQuerySupported());
+        assertTrue(capabilities.isSyncCollectionSupported());
+        assertFalse(capabilities.isFreeBusyQuerySupported());
+        assertTrue(capabilities.isCTagSupported());
+    }
+
+    @Test
+    public void unknownCapabilitiesKeepDefaultStrategies() {
+        ServerCapabilities capabilities = ServerCapabilities.fromResponses(null, null);
+        assertFalse(capabilities.isKnown());
+        assertTrue(capabilities.isCalendarAccessSupported());
+        assertTrue(capabilities.isMethodAllowed(CalDAVConstants.METHOD_REPORT));
+        assertTrue(capabilities.isCalendarMultigetSupported());
+        assertTrue(capabilities.isFreeBusyQuerySupported());
+        // optional features are only used when advertised
+        assertFalse(capabilities.isSyncCollectionSupported());
+        assertFalse(capabilities.isCTagSupported());
+
+        assertFalse(ServerCapabilities.UNKNOWN.isKnown());
+        assertTrue(ServerCapabilities.UNKNOWN.isCalendarMultigetSupported());
+    }
+
+    @Test
+    public void reportsNeedTheReportMethod() throws Exception {
+        HttpResponse options = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        options.addHeader("DAV", "1, calendar-access");
+        options.addHeader("Allow", "OPTIONS, GET, PUT, PROPFIND");
+
+        ServerCapabilities capabilities = ServerCapabilities.fromResponses(options, null);
+        assertFalse(capabilities.isCalendarMultigetSupported());
+        assertFalse(capabilities.isCalendarQuerySupported());
+    }
+
+    @Test
+    public void preferSupportIsToldByPreferenceApplied() throws Exception {
+        HttpResponse propFind = new BasicHttpResponse(HttpVersion.HTTP_1_1, 207, "Multi-Status");
+        assertFalse(
+                ServerCapabilities.fromResponses(null, propFind, collectionResponse())
+                        .isPreferSupported());
+
+        propFind.addHeader(CalDAVConstants.HEADER_PREFERENCE_APPLIED, "return=minimal");
+        assertTrue(
+                ServerCapabilities.fromResponses(null, propFind, collectionResponse())
+                        .isPreferSupported());
+        assertFalse(ServerCapabilities.UNKNOWN.isPreferSupported());
+    }
+
+    private static HttpResponse optionsResponse() {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.addHeader("Allow", "OPTIONS, GET, HEAD, POST, DELETE, TRACE");
+        response.addHeader("Allow", "PROPFIND, PROPPATCH, LOCK, UNLOCK, REPORT, ACL");
+        response.addHeader("DAV", "1, 2, 3, access-control");
+        response.addHeader("DAV", "calendar-access, calendar-auto-schedule");
+        return response;
+    }
+
+    private static MultiStatusResponse collectionResponse() throws Exception {
+        return MultiStatusReader.read(
+                        new ByteArrayInputStream(
+                                PROPFIND_RESPONSE.getBytes(StandardCharsets.UTF_8)))
+                .getResponses()[0];
+    }
+}
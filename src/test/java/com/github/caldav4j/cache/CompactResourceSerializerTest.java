@@ -0,0 +1,156 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.github.caldav4j.BaseTestCase;
+import com.github.caldav4j.CalDAVResource;
+import com.github.caldav4j.TestConstants;
+import com.github.caldav4j.exceptions.CacheException;
+import com.github.caldav4j.model.response.CalendarDataProperty;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import net.fortuna.ical4j.model.Calendar;
+import org.junit.Assume;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class CompactResourceSerializerTest implements TestConstants {
+
+    private static final Logger log = LoggerFactory.getLogger(CompactResourceSerializerTest.class);
+
+    private final CompactResourceSerializer serializer = new CompactResourceSerializer();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        CalDAVResource resource = new CalDAVResource(calendar, "\"1\"", "/cal/daily.ics");
+        resource.getResourceMetadata().setLastValidated(1234567890L);
+
+        CalDAVResource restored = serializer.deserialize(serializer.serialize(resource));
+        assertTrue(restored.isSnapshot());
+        assertEquals("\"1\"", restored.getResourceMetadata().getETag());
+        assertEquals("/cal/daily.ics", restored.getResourceMetadata().getHref());
+        assertEquals(1234567890L, restored.getResourceMetadata().getLastValidated());
+        assertEquals(calendar.toString(), restored.getCalendar().toString());
+        assertEquals(ICS_DAILY_NY_5PM_UID, restored.getProjection().getUid());
+    }
+
+    @Test
+    public void testWithoutCalendar() throws Exception {
+        CalDAVResource restored =
+                serializer.deserialize(serializer.serialize(new CalDAVResource()));
+        assertNull(restored.getCalendar());
+        assertNull(restored.getResourceMetadata().getHref());
+        assertNull(restored.getResourceMetadata().getETag());
+    }
+
+    @Test
+    public void testCompression() throws Exception {
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        CalDAVResource resource = new CalDAVResource(calendar, "\"1\"", "/cal/daily.ics");
+        CompactResourceSerializer compressing =
+                new CompactResourceSerializer(0, CalendarDataProperty.DEFAULT_PROFILE);
+        CompactResourceSerializer plain =
+                new CompactResourceSerializer(-1, CalendarDataProperty.DEFAULT_PROFILE);
+
+        byte[] compressed = compressing.serialize(resource);
+        assertTrue(compressed.length < plain.serialize(resource).length);
+        // the format doesn't depend on the settings of the reader
+        assertEquals(calendar.toString(), plain.deserialize(compressed).getCalendar().toString());
+    }
+
+    @Test(expected = CacheException.class)
+    public void testUnsupportedVersion() throws Exception {
+        CalDAVResource resource = new CalDAVResource(new Calendar(), "\"1\"", "/cal/1.ics");
+        byte[] data = serializer.serialize(resource);
+        data[2] = CompactResourceSerializer.VERSION + 1;
+        serializer.deserialize(data);
+    }
+
+    @Test
+    public void testCorruptLength() throws Exception {
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        byte[] data = serializer.serialize(new CalDAVResource(calendar, "\"1\"", "/cal/1.ics"));
+        // length of the href, after magic, version, flags and lastValidated
+        for (int length : new int[] {Integer.MAX_VALUE, -5}) {
+            byte[] corrupt = data.clone();
+            ByteBuffer.wrap(corrupt).putInt(12, length);
+            try {
+                serializer.deserialize(corrupt);
+                fail("Length " + length + " was accepted");
+            } catch (CacheException e) {
+                // expected
+            }
+        }
+    }
+
+    /** Compares the size and speed of the codec with Java serialization. */
+    @Test
+    public void testSmallerThanJavaSerialization() throws Exception {
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        CalDAVResource resource =
+                new CalDAVResource(calendar, "\"1\"", "/cal/daily.ics").snapshot();
+        byte[] java;
+        try {
+            java = javaSerialize(resource);
+        } catch (NotSerializableException e) {
+            Assume.assumeNoException(e);
+            return;
+        }
+        byte[] compact = serializer.serialize(resource);
+        log.info("Serialized size: compact {} bytes, Java {} bytes", compact.length, java.length);
+        assertTrue(compact.length < java.length);
+
+        int iterations = 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            serializer.deserialize(serializer.serialize(resource));
+        }
+        long compactTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            javaDeserialize(javaSerialize(resource));
+        }
+        long javaTime = System.nanoTime() - start;
+        log.info(
+                "Round trip: compact {} us, Java {} us",
+                compactTime / iterations / 1000,
+                javaTime / iterations / 1000);
+    }
+
+    private static byte[] javaSerialize(Object o) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(o);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object javaDeserialize(byte[] data) throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.caldav4j.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.github.caldav4j.BaseTestCase;
+import com.github.caldav4j.CalDAVResource;
+import com.github.caldav4j.TestConstants;
+import java.util.Arrays;
+import java.util.Map;
+import net.fortuna.ical4j.model.Calendar;
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EhCacheResourceCacheTest implements TestConstants {
+
+    private CacheManager cacheManager;
+    private EhCacheResourceCache cache;
+
+    @Before
+    public void setUp() {
+        cacheManager = CacheManager.create();
+        Cache hrefToResource = new Cache("test-hrefToResource", 100, false, true, 0, 0);
+        Cache uidToHref = new Cache("test-uidToHref", 100, false, true, 0, 0);
+        cacheManager.addCache(hrefToResource);
+        cacheManager.addCache(uidToHref);
+        cache = new EhCacheResourceCache(hrefToResource, uidToHref);
+    }
+
+    @After
+    public void tearDown() {
+        cacheManager.removeCache("test-hrefToResource");
+        cacheManager.removeCache("test-uidToHref");
+    }
+
+    @Test
+    public void bulkOperations() throws Exception {
+        checkBulkOperations();
+    }
+
+    @Test
+    public void bulkOperationsSerialized() throws Exception {
+        cache.setResourceSerializer(new CompactResourceSerializer());
+        checkBulkOperations();
+    }
+
+    @Test
+    public void bulkOperationsInterned() throws Exception {
+        cache.setPropertyInterner(new PropertyInterner());
+        checkBulkOperations();
+    }
+
+    @Test
+    public void deserializedResourcesAreReused() throws Exception {
+        cache.setResourceSerializer(new CompactResourceSerializer());
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        cache.putResource(new CalDAVResource(calendar, "\"1\"", "/cal/daily.ics"));
+
+        CalDAVResource first = cache.getResource("/cal/daily.ics");
+        assertSame(first, cache.getResource("/cal/daily.ics"));
+
+        cache.putResource(new CalDAVResource(calendar, "\"2\"", "/cal/daily.ics"));
+        CalDAVResource updated = cache.getResource("/cal/daily.ics");
+        assertNotSame(first, updated);
+        assertEquals("\"2\"", updated.getResourceMetadata().getETag());
+
+        cache.setDeserializedCacheSize(0);
+        assertNotSame(updated, cache.getResource("/cal/daily.ics"));
+    }
+
+    private void checkBulkOperations() throws Exception {
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        cache.putResources(
+                Arrays.asList(
+                        new CalDAVResource(calendar, "\"1\"", "/cal/daily.ics"),
+                        new CalDAVResource(new Calendar(), "\"2\"", "/cal/2.ics")));
+
+        Map<String, CalDAVResource> found =
+                cache.getResources(
+                        Arrays.asList(
+                                "http://localhost/cal/daily.ics", "/cal/2.ics", "/cal/3.ics"));
+        assertEquals(2, found.size());
+        assertTrue(found.get("http://localhost/cal/daily.ics").isSnapshot());
+        assertEquals("\"2\"", found.get("/cal/2.ics").getResourceMetadata().getETag());
+        assertEquals("/cal/daily.ics", cache.getHrefForEventUID(ICS_DAILY_NY_5PM_UID));
+
+        cache.removeResources(Arrays.asList("/cal/daily.ics", "/cal/2.ics"));
+        assertTrue(cache.getResources(Arrays.asList("/cal/daily.ics", "/cal/2.ics")).isEmpty());
+        assertNull(cache.getHrefForEventUID(ICS_DAILY_NY_5PM_UID));
+    }
+}
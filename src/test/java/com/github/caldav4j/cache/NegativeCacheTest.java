@@ -0,0 +1,47 @@
+package com.github.caldav4j.cache;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class NegativeCacheTest {
+
+    @Test
+    public void rememberAndInvalidate() {
+        NegativeCache cache = new NegativeCache();
+
+        cache.putMissingHref("/cal/a.ics");
+        cache.putMissingUid("uid-a");
+        assertTrue(cache.isMissingHref("/cal/a.ics"));
+        assertTrue(cache.isMissingUid("uid-a"));
+        assertFalse("hrefs and uids are kept apart", cache.isMissingUid("/cal/a.ics"));
+
+        cache.invalidateHref("/cal/a.ics");
+        cache.invalidateUid("uid-a");
+        assertFalse(cache.isMissingHref("/cal/a.ics"));
+        assertFalse(cache.isMissingUid("uid-a"));
+    }
+
+    @Test
+    public void entriesExpire() throws InterruptedException {
+        NegativeCache cache = new NegativeCache(20, 10);
+        cache.putMissingUid("uid-a");
+        assertTrue(cache.isMissingUid("uid-a"));
+
+        Thread.sleep(50);
+        assertFalse(cache.isMissingUid("uid-a"));
+    }
+
+    @Test
+    public void sizeIsBounded() {
+        NegativeCache cache = new NegativeCache(60000, 2);
+        cache.putMissingUid("uid-a");
+        cache.putMissingUid("uid-b");
+        cache.putMissingUid("uid-c");
+
+        assertFalse("eldest entry is evicted", cache.isMissingUid("uid-a"));
+        assertTrue(cache.isMissingUid("uid-b"));
+        assertTrue(cache.isMissingUid("uid-c"));
+    }
+}
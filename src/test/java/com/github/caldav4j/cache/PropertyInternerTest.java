@@ -0,0 +1,216 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.github.caldav4j.CalDAVResource;
+import com.github.caldav4j.model.response.ParserProfile;
+import com.github.caldav4j.util.ICalendarUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Parameter;
+import net.fortuna.ical4j.model.Property;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+import net.fortuna.ical4j.model.component.VEvent;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class PropertyInternerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyInternerTest.class);
+
+    @Test
+    public void equalPropertiesAreShared() throws Exception {
+        PropertyInterner interner = new PropertyInterner();
+        Calendar first = event(1, 0);
+        Calendar second = event(2, 0);
+
+        Calendar internedFirst = interner.intern(first);
+        Calendar internedSecond = interner.intern(second);
+        // the given calendars are left untouched
+        assertNotSame(first, internedFirst);
+        assertNotSame(organizer(first), organizer(internedFirst));
+        assertSame(organizer(internedFirst), organizer(internedSecond));
+        assertEquals(organizer(second), organizer(internedSecond));
+        assertEquals(first.toString(), internedFirst.toString());
+        assertEquals(second.toString(), internedSecond.toString());
+        assertTrue(interner.getHitCount() > 0);
+
+        // already interned
+        assertSame(internedSecond, interner.intern(internedSecond));
+    }
+
+    @Test
+    public void otherPropertiesAreKept() throws Exception {
+        PropertyInterner interner =
+                new PropertyInterner(Collections.singleton(Property.LOCATION), 10);
+        Calendar calendar = interner.intern(event(1, 0));
+        Calendar other = interner.intern(event(2, 0));
+        assertNotSame(organizer(calendar), organizer(other));
+        assertSame(
+                ICalendarUtils.getFirstEvent(calendar).getProperty(Property.LOCATION).get(),
+                ICalendarUtils.getFirstEvent(other).getProperty(Property.LOCATION).get());
+        assertEquals(1, interner.size());
+    }
+
+    @Test
+    public void hitsAreCountedOnce() throws Exception {
+        PropertyInterner interner =
+                new PropertyInterner(Collections.singleton(Property.ORGANIZER), 10);
+        interner.intern(event(1, 0));
+        assertEquals(0, interner.getHitCount());
+        interner.intern(event(2, 0));
+        assertEquals(1, interner.getHitCount());
+    }
+
+    @Test
+    public void timeZoneParametersAreShared() throws Exception {
+        PropertyInterner interner = new PropertyInterner();
+        Calendar first = interner.intern(zonedEvent(1));
+        Calendar second = interner.intern(zonedEvent(2));
+        Parameter tzid = tzid(first, Property.DTSTART);
+        assertEquals("Europe/Paris", tzid.getValue());
+        assertSame(tzid, tzid(second, Property.DTSTART));
+        assertSame(tzid, tzid(second, Property.DTEND));
+        assertEquals(1, interner.parameterPoolSize());
+        assertEquals(zonedEvent(2).toString(), second.toString());
+    }
+
+    @Test
+    public void fullPoolKeepsProperties() throws Exception {
+        PropertyInterner interner =
+                new PropertyInterner(Collections.singleton(Property.ORGANIZER), 1);
+        // referenced, so that the canonical instance is not collected
+        Calendar kept = interner.intern(event(1, 0));
+        Calendar calendar = event(2, 1);
+        assertSame(calendar, interner.intern(calendar));
+        assertEquals(1, interner.size());
+        assertEquals("mailto:organizer0@example.com", organizer(kept).getValue());
+    }
+
+    @Test
+    public void resourceSnapshot() throws Exception {
+        PropertyInterner interner = new PropertyInterner();
+        CalDAVResource resource = new CalDAVResource(event(1, 0), "\"1\"", "/cal/1.ics");
+        resource.getResourceMetadata().setLastValidated(42L);
+
+        CalDAVResource interned = interner.snapshot(resource);
+        assertTrue(interned.isSnapshot());
+        assertEquals("\"1\"", interned.getResourceMetadata().getETag());
+        assertEquals("/cal/1.ics", interned.getResourceMetadata().getHref());
+        assertEquals(42L, interned.getResourceMetadata().getLastValidated());
+        assertEquals("event-1", interned.getProjection().getUid());
+    }
+
+    /**
+     * Caches a simulated organisation calendar, and compares the number of property instances
+     * retained with and without interning.
+     */
+    @Test
+    public void retainedProperties() throws Exception {
+        int events = 2000;
+        List<Calendar> plain = new ArrayList<>();
+        List<Calendar> interned = new ArrayList<>();
+        PropertyInterner interner = new PropertyInterner();
+        for (int i = 0; i < events; i++) {
+            Calendar calendar = event(i, i);
+            plain.add(calendar);
+            interned.add(interner.intern(calendar));
+        }
+
+        Set<Property> plainInstances = internableInstances(plain, interner);
+        Set<Property> internedInstances = internableInstances(interned, interner);
+        log.info(
+                "{} events: {} interned property instances retained without interning, {} with",
+                events,
+                plainInstances.size(),
+                internedInstances.size());
+        // 5 organizers, 50 attendees, 10 categories, 20 locations
+        assertEquals(events * 13, plainInstances.size());
+        assertEquals(85, internedInstances.size());
+        assertEquals(85, interner.size());
+    }
+
+    private static Set<Property> internableInstances(
+            List<Calendar> calendars, PropertyInterner interner) {
+        Set<Property> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Calendar calendar : calendars) {
+            for (CalendarComponent component : calendar.getComponentList().getAll()) {
+                for (Property property : component.getPropertyList().getAll()) {
+                    if (interner.getPropertyNames().contains(property.getName())) {
+                        instances.add(property);
+                    }
+                }
+            }
+        }
+        return instances;
+    }
+
+    private static Property organizer(Calendar calendar) {
+        VEvent event = ICalendarUtils.getFirstEvent(calendar);
+        return event.getProperty(Property.ORGANIZER).get();
+    }
+
+    private static Parameter tzid(Calendar calendar, String propertyName) {
+        VEvent event = ICalendarUtils.getFirstEvent(calendar);
+        return event.getProperty(propertyName).get().getParameter(Parameter.TZID).get();
+    }
+
+    /** An event starting and ending in the Europe/Paris time zone. */
+    private static Calendar zonedEvent(int uid) throws Exception {
+        return ParserProfile.STRICT.parse(
+                "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//test//EN\r\nBEGIN:VEVENT\r\n"
+                        + "UID:zoned-"
+                        + uid
+                        + "\r\nDTSTAMP:20260101T000000Z\r\n"
+                        + "DTSTART;TZID=Europe/Paris:20260101T100000\r\n"
+                        + "DTEND;TZID=Europe/Paris:20260101T110000\r\n"
+                        + "SUMMARY:Meeting\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n");
+    }
+
+    /** An event with one organizer, ten attendees, a category and a location. */
+    private static Calendar event(int uid, int seed) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        sb.append("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//test//EN\r\nBEGIN:VEVENT\r\n");
+        sb.append("UID:event-").append(uid).append("\r\n");
+        sb.append("DTSTAMP:20260101T000000Z\r\nDTSTART:20260101T100000Z\r\n");
+        sb.append("SUMMARY:Meeting ").append(uid).append("\r\n");
+        sb.append("ORGANIZER;CN=Organizer ")
+                .append(seed % 5)
+                .append(":mailto:organizer")
+                .append(seed % 5)
+                .append("@example.com\r\n");
+        for (int i = 0; i < 10; i++) {
+            int attendee = (seed + i * 5) % 50;
+            sb.append("ATTENDEE;CN=User ")
+                    .append(attendee)
+                    .append(";PARTSTAT=NEEDS-ACTION:mailto:user")
+                    .append(attendee)
+                    .append("@example.com\r\n");
+        }
+        sb.append("CATEGORIES:Category ").append(seed % 10).append("\r\n");
+        sb.append("LOCATION:Room ").append(seed % 20).append("\r\n");
+        sb.append("END:VEVENT\r\nEND:VCALENDAR\r\n");
+        return ParserProfile.STRICT.parse(sb.toString());
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.caldav4j.cache;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.github.caldav4j.ResourceMetadata;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.Test;
+
+public class RevalidationPolicyTest {
+
+    /** Executor which only queues tasks, so that the test decides when they run. */
+    private static class QueueingExecutor implements Executor {
+        final List<Runnable> tasks = new ArrayList<>();
+
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            for (Runnable r : tasks) r.run();
+            tasks.clear();
+        }
+    }
+
+    @Test
+    public void windows() {
+        RevalidationPolicy policy = new RevalidationPolicy(1000, 5000, new QueueingExecutor(), 1);
+        ResourceMetadata metadata = new ResourceMetadata();
+
+        assertTrue(policy.isFresh(metadata));
+
+        metadata.setLastValidated(System.currentTimeMillis() - 2000);
+        assertFalse(policy.isFresh(metadata));
+        assertTrue(policy.isServableStale(metadata));
+
+        metadata.setLastValidated(System.currentTimeMillis() - 10000);
+        assertFalse(policy.isServableStale(metadata));
+
+        metadata.markValidated();
+        assertTrue(policy.isFresh(metadata));
+    }
+
+    @Test
+    public void refreshesAreCoalescedAndBounded() {
+        QueueingExecutor executor = new QueueingExecutor();
+        RevalidationPolicy policy = new RevalidationPolicy(0, 1000, executor, 2);
+
+        assertTrue(policy.refresh("/a.ics", () -> {}));
+        assertFalse("same href must be coalesced", policy.refresh("/a.ics", () -> {}));
+        assertTrue(policy.refresh("/b.ics", () -> {}));
+        assertFalse("concurrency limit reached", policy.refresh("/c.ics", () -> {}));
+        assertTrue(policy.isRefreshing("/a.ics"));
+        assertFalse(policy.isRefreshing("/c.ics"));
+
+        executor.runAll();
+
+        assertFalse(policy.isRefreshing("/a.ics"));
+        assertTrue(policy.refresh("/c.ics", () -> {}));
+    }
+
+    @Test
+    public void failingRefreshReleasesSlot() {
+        QueueingExecutor executor = new QueueingExecutor();
+        RevalidationPolicy policy = new RevalidationPolicy(0, 1000, executor, 1);
+
+        assertTrue(
+                policy.refresh(
+                        "/a.ics",
+                        () -> {
+                            throw new IllegalStateException("boom");
+                        }));
+        executor.runAll();
+
+        assertTrue(policy.refresh("/a.ics", () -> {}));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.github.caldav4j.ServerCapabilities;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.apache.http.HttpHost;
+import org.junit.Test;
+
+public class ServerCapabilitiesCacheTest {
+
+    private static final HttpHost HOST = new HttpHost("cal.example.com", 443, "https");
+
+    @Test
+    public void entriesAreKeyedByHostAndPath() {
+        ServerCapabilitiesCache cache = new ServerCapabilitiesCache();
+        cache.put(HOST, "/cal/", ServerCapabilities.UNKNOWN);
+        assertSame(ServerCapabilities.UNKNOWN, cache.get(HOST, "/cal/"));
+        assertNull(cache.get(HOST, "/other/"));
+        assertNull(cache.get(new HttpHost("cal.example.com", 80, "http"), "/cal/"));
+
+        cache.invalidate(HOST, "/cal/");
+        assertNull(cache.get(HOST, "/cal/"));
+    }
+
+    @Test
+    public void entriesExpire() {
+        MutableClock clock = new MutableClock();
+        ServerCapabilitiesCache cache = new ServerCapabilitiesCache(20, clock);
+        cache.put(HOST, "/cal/", ServerCapabilities.UNKNOWN);
+        clock.millis = 19;
+        assertSame(ServerCapabilities.UNKNOWN, cache.get(HOST, "/cal/"));
+
+        clock.millis = 20;
+        assertNull(cache.get(HOST, "/cal/"));
+    }
+
+    @Test
+    public void concurrentProbesRunOnce() throws Exception {
+        ServerCapabilitiesCache cache = new ServerCapabilitiesCache();
+        AtomicInteger probes = new AtomicInteger();
+        CountDownLatch probing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ServerCapabilities> probe =
+                () -> {
+                    probes.incrementAndGet();
+                    probing.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ServerCapabilities.UNKNOWN;
+                };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ServerCapabilities>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(HOST, "/cal/", probe)));
+            assertTrue(probing.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> cache.get(HOST, "/cal/", probe)));
+            }
+            release.countDown();
+            for (Future<ServerCapabilities> result : results) {
+                assertSame(ServerCapabilities.UNKNOWN, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, probes.get());
+    }
+
+    private static final class MutableClock extends Clock {
+        private long millis = 0;
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
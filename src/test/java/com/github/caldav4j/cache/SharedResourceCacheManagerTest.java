@@ -0,0 +1,110 @@
+package com.github.caldav4j.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.github.caldav4j.BaseTestCase;
+import com.github.caldav4j.CalDAVResource;
+import com.github.caldav4j.TestConstants;
+import net.fortuna.ical4j.model.Calendar;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedResourceCacheManagerTest implements TestConstants {
+
+    private SharedResourceCacheManager manager;
+
+    @Before
+    public void setUp() throws Exception {
+        manager = new SharedResourceCacheManager(100, 2);
+    }
+
+    @After
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    private static CalDAVResource resource(String href) {
+        return new CalDAVResource(new Calendar(), "\"etag\"", href);
+    }
+
+    @Test
+    public void namespacesAreIsolated() throws Exception {
+        NamespacedResourceCache a = manager.getCache("tenant-a");
+        NamespacedResourceCache b = manager.getCache("tenant-b");
+        assertSame(a, manager.getCache("tenant-a"));
+
+        a.putResource(resource("/cal/1.ics"));
+        assertNotNull(a.getResource("/cal/1.ics"));
+        assertNull(b.getResource("/cal/1.ics"));
+        assertEquals(2, manager.getNamespaceCount());
+    }
+
+    @Test
+    public void quotaEvictsLeastRecentlyUsed() throws Exception {
+        NamespacedResourceCache a = manager.getCache("tenant-a");
+        NamespacedResourceCache b = manager.getCache("tenant-b");
+
+        b.putResource(resource("/cal/b.ics"));
+        a.putResource(resource("/cal/1.ics"));
+        a.putResource(resource("/cal/2.ics"));
+        a.getResource("/cal/1.ics");
+        a.putResource(resource("/cal/3.ics"));
+
+        assertEquals(2, a.size());
+        assertNull(a.getResource("/cal/2.ics"));
+        assertNotNull(a.getResource("/cal/1.ics"));
+        assertNotNull(a.getResource("/cal/3.ics"));
+        assertNotNull("other tenants are untouched", b.getResource("/cal/b.ics"));
+    }
+
+    @Test
+    public void uidIndex() throws Exception {
+        NamespacedResourceCache a = manager.getCache("tenant-a");
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        a.putResource(new CalDAVResource(calendar, "\"etag\"", "/cal/daily.ics"));
+
+        assertEquals("/cal/daily.ics", a.getHrefForEventUID(ICS_DAILY_NY_5PM_UID));
+        assertNull(manager.getCache("tenant-b").getHrefForEventUID(ICS_DAILY_NY_5PM_UID));
+
+        a.removeResource("/cal/daily.ics");
+        assertNull(a.getHrefForEventUID(ICS_DAILY_NY_5PM_UID));
+    }
+
+    @Test
+    public void releaseClearsNamespace() throws Exception {
+        NamespacedResourceCache a = manager.getCache("tenant-a");
+        a.putResource(resource("/cal/1.ics"));
+
+        manager.releaseCache("tenant-a");
+
+        assertEquals(0, manager.getNamespaceCount());
+        assertNull(manager.getCache("tenant-a").getResource("/cal/1.ics"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void releasedViewFailsFast() throws Exception {
+        NamespacedResourceCache a = manager.getCache("tenant-a");
+        manager.releaseCache("tenant-a");
+        a.putResource(resource("/cal/1.ics"));
+    }
+
+    @Test
+    public void hrefsAreNormalized() throws Exception {
+        NamespacedResourceCache a = manager.getCache("tenant-a");
+        a.putResource(resource("https://cal.example.com/cal//1.ics"));
+        assertNotNull(a.getResource("/cal/1.ics"));
+        assertNotNull(a.getResource("https://cal.example.com/cal/1.ics"));
+        assertEquals(1, a.size());
+
+        a.putResource(resource("/cal/1.ics"));
+        assertEquals(1, a.size());
+
+        a.removeResource("https://cal.example.com/cal/1.ics");
+        assertNull(a.getResource("/cal/1.ics"));
+        assertEquals(0, a.size());
+    }
+}
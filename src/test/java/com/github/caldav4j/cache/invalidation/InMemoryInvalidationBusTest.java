@@ -0,0 +1,76 @@
+package com.github.caldav4j.cache.invalidation;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.github.caldav4j.BaseTestCase;
+import com.github.caldav4j.CalDAVCollection;
+import com.github.caldav4j.CalDAVResource;
+import com.github.caldav4j.TestConstants;
+import com.github.caldav4j.cache.NegativeCache;
+import com.github.caldav4j.cache.SharedResourceCacheManager;
+import net.fortuna.ical4j.model.Calendar;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InMemoryInvalidationBusTest implements TestConstants {
+
+    private SharedResourceCacheManager manager;
+    private InMemoryInvalidationBus bus;
+    private CalDAVCollection collection;
+
+    @Before
+    public void setUp() throws Exception {
+        manager = new SharedResourceCacheManager(100, 100);
+        bus = new InMemoryInvalidationBus();
+        collection = new CalDAVCollection("http://localhost/cal/");
+        collection.setCache(manager.getCache("node-b"));
+        collection.setNegativeCache(new NegativeCache());
+        collection.setInvalidationBus(bus);
+    }
+
+    @After
+    public void tearDown() {
+        bus.close();
+        manager.shutdown();
+    }
+
+    private static CalDAVResource resource(Calendar calendar, String href) {
+        return new CalDAVResource(calendar, "\"etag\"", href);
+    }
+
+    @Test
+    public void hrefInvalidationEvictsResource() throws Exception {
+        collection.getCache().putResource(resource(new Calendar(), "/cal/1.ics"));
+        collection.getNegativeCache().putMissingHref("http://localhost/cal/2.ics");
+
+        bus.publish(CacheInvalidation.href("http://localhost/cal/1.ics"));
+        bus.publish(CacheInvalidation.href("http://localhost/cal/2.ics"));
+
+        assertNull(collection.getCache().getResource("/cal/1.ics"));
+        assertFalse(collection.getNegativeCache().isMissingHref("http://localhost/cal/2.ics"));
+    }
+
+    @Test
+    public void uidInvalidationEvictsResource() throws Exception {
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        collection.getCache().putResource(resource(calendar, "/cal/daily.ics"));
+
+        bus.publish(CacheInvalidation.uid(ICS_DAILY_NY_5PM_UID));
+
+        assertNull(collection.getCache().getResource("/cal/daily.ics"));
+    }
+
+    @Test
+    public void unsubscribedOnReplace() throws Exception {
+        collection.getCache().putResource(resource(new Calendar(), "/cal/1.ics"));
+        collection.setInvalidationBus(null);
+
+        bus.publish(CacheInvalidation.href("/cal/1.ics"));
+
+        assertNotNull(collection.getCache().getResource("/cal/1.ics"));
+        assertNull(collection.getInvalidationBus());
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.caldav4j.cache.invalidation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class UdpInvalidationBusTest {
+
+    @Test
+    public void encodeDecode() throws Exception {
+        List<CacheInvalidation> sent =
+                Arrays.asList(CacheInvalidation.href("/cal/1.ics"), CacheInvalidation.uid("é-1"));
+        List<byte[]> datagrams = UdpInvalidationBus.encode("node-a", sent);
+
+        assertEquals(1, datagrams.size());
+        byte[] datagram = datagrams.get(0);
+        assertEquals(sent, UdpInvalidationBus.decode("node-b", datagram, datagram.length));
+        assertTrue(UdpInvalidationBus.decode("node-a", datagram, datagram.length).isEmpty());
+    }
+
+    @Test
+    public void encodeSplitsLargeBatches() throws Exception {
+        List<CacheInvalidation> sent = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            sent.add(CacheInvalidation.href("/calendars/user/collection/" + i + ".ics"));
+        }
+
+        List<CacheInvalidation> received = new ArrayList<>();
+        List<byte[]> datagrams = UdpInvalidationBus.encode("node-a", sent);
+        assertTrue(datagrams.size() > 1);
+        for (byte[] datagram : datagrams) {
+            assertTrue(datagram.length <= UdpInvalidationBus.MAX_DATAGRAM_SIZE);
+            received.addAll(UdpInvalidationBus.decode("node-b", datagram, datagram.length));
+        }
+        assertEquals(sent, received);
+    }
+
+    @Test
+    public void deliversToPeer() throws Exception {
+        InetSocketAddress any = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        UdpInvalidationBus receiver =
+                new UdpInvalidationBus(any, Collections.<InetSocketAddress>emptyList(), 10);
+        UdpInvalidationBus sender =
+                new UdpInvalidationBus(
+                        any,
+                        Collections.singletonList(
+                                new InetSocketAddress(
+                                        InetAddress.getLoopbackAddress(),
+                                        receiver.getLocalPort())),
+                        10);
+        try {
+            final List<CacheInvalidation> received = new CopyOnWriteArrayList<>();
+            final CountDownLatch latch = new CountDownLatch(2);
+            receiver.subscribe(
+                    invalidations -> {
+                        received.addAll(invalidations);
+                        for (int i = 0; i < invalidations.size(); i++) latch.countDown();
+                    });
+
+            sender.publish(CacheInvalidation.href("/cal/1.ics"));
+            sender.publish(CacheInvalidation.href("/cal/1.ics"));
+            sender.publish(CacheInvalidation.uid("uid-1"));
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(
+                    Arrays.asList(
+                            CacheInvalidation.href("/cal/1.ics"), CacheInvalidation.uid("uid-1")),
+                    received);
+        } finally {
+            sender.close();
+            receiver.close();
+        }
+    }
+}
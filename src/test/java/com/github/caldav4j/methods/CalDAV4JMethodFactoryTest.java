@@ -40,6 +40,6 @@ public class CalDAV4JMethodFactoryTest {
         HttpGetMethod method = factory.createGetMethod("url");
 
         assertNotNull("Method", method);
-        assertNotNull("Calendar builder", method.getCalendarBuilder());
+        assertNotNull("Calendar builder pool", method.getCalendarBuilderPool());
     }
 }
@@ -0,0 +1,73 @@
+package com.github.caldav4j.methods;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.github.caldav4j.BaseTestCase;
+import com.github.caldav4j.TestConstants;
+import com.github.caldav4j.model.request.CalendarRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import net.fortuna.ical4j.data.CalendarOutputter;
+import net.fortuna.ical4j.model.Calendar;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+
+public class CalendarEntityTest implements TestConstants {
+
+    private static byte[] serialize(Calendar calendar) throws Exception {
+        StringWriter writer = new StringWriter();
+        new CalendarOutputter(false).output(calendar, writer);
+        return writer.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void precomputedLength() throws Exception {
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        CalendarEntity entity =
+                new CalendarEntity(
+                        calendar, new CalendarOutputter(false), StandardCharsets.UTF_8, true);
+        byte[] expected = serialize(calendar);
+
+        assertFalse(entity.isChunked());
+        assertEquals(expected.length, entity.getContentLength());
+        assertEquals("text/calendar; charset=UTF-8", entity.getContentType().getValue());
+
+        // repeatable
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            entity.writeTo(out);
+            assertArrayEquals(expected, out.toByteArray());
+        }
+    }
+
+    @Test
+    public void chunked() throws Exception {
+        Calendar calendar = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        CalendarEntity entity =
+                new CalendarEntity(
+                        calendar, new CalendarOutputter(false), StandardCharsets.UTF_8, false);
+
+        assertTrue(entity.isChunked());
+        assertEquals(-1, entity.getContentLength());
+        assertArrayEquals(serialize(calendar), EntityUtils.toByteArray(entity));
+    }
+
+    @Test
+    public void preSerializedDataIsSentUnchanged() throws Exception {
+        byte[] data = "BEGIN:VCALENDAR\nEND:VCALENDAR\n".getBytes(StandardCharsets.UTF_8);
+        CalendarRequest request = new CalendarRequest();
+        request.setCalendarData(data);
+        request.setCharset(StandardCharsets.UTF_8);
+
+        HttpPutMethod put = new HttpPutMethod("/cal/1.ics", request, null);
+
+        assertEquals(data.length, put.getEntity().getContentLength());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        put.getEntity().writeTo(out);
+        assertArrayEquals(data, out.toByteArray());
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.methods;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.github.caldav4j.CalDAVConstants;
+import com.github.caldav4j.exceptions.ResponseTooLargeException;
+import com.github.caldav4j.model.response.CalendarDataProperty;
+import com.github.caldav4j.util.CalDAVStatus;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.jackrabbit.webdav.DavException;
+import org.apache.jackrabbit.webdav.MultiStatus;
+import org.apache.jackrabbit.webdav.MultiStatusResponse;
+import org.apache.jackrabbit.webdav.xml.DomUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MultiStatusReaderTest {
+
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void sameAsDom() throws Exception {
+        byte[] body = multiStatus(20);
+        MultiStatus dom =
+                MultiStatus.createFromXml(
+                        DomUtil.parseDocument(new ByteArrayInputStream(body))
+                                .getDocumentElement());
+        MultiStatus streamed = MultiStatusReader.read(new ByteArrayInputStream(body));
+
+        assertEquals(dom.getResponseDescription(), streamed.getResponseDescription());
+        MultiStatusResponse[] expected = dom.getResponses();
+        MultiStatusResponse[] actual = streamed.getResponses();
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].getHref(), actual[i].getHref());
+            assertEquals(
+                    CalendarDataProperty.getEtagfromResponse(expected[i]),
+                    CalendarDataProperty.getEtagfromResponse(actual[i]));
+            assertEquals(calendarData(expected[i]), calendarData(actual[i]));
+            assertEquals(
+                    expected[i].getProperties(CalDAVStatus.SC_NOT_FOUND).getPropertyNames(),
+                    actual[i].getProperties(CalDAVStatus.SC_NOT_FOUND).getPropertyNames());
+        }
+    }
+
+    @Test
+    public void responsesAreHandedOneByOne() throws Exception {
+        List<String> hrefs = new ArrayList<>();
+        String description =
+                MultiStatusReader.read(
+                        new ByteArrayInputStream(multiStatus(3)),
+                        response -> hrefs.add(response.getHref()));
+        assertEquals("done", description);
+        assertEquals(3, hrefs.size());
+        assertEquals("/cal/event-2.ics", hrefs.get(2));
+    }
+
+    @Test(expected = IOException.class)
+    public void notAMultiStatus() throws Exception {
+        MultiStatusReader.read(
+                new ByteArrayInputStream(
+                        "<D:prop xmlns:D=\"DAV:\"/>".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void spooledResponse() throws Exception {
+        byte[] body = multiStatus(200);
+        HttpCalDAVReportMethod method =
+                new HttpCalDAVReportMethod("/cal/", new FakeCalDAVReportRequest());
+        method.setResponseBodyLimits(new ResponseBodyLimits(1024, body.length));
+        MultiStatus multiStatus = method.getResponseBodyAsMultiStatus(response(body, false));
+        assertEquals(200, multiStatus.getResponses().length);
+    }
+
+    @Test
+    public void responsesAreHandedOneAtATime() throws Exception {
+        byte[] body = multiStatus(200);
+        HttpCalDAVReportMethod method =
+                new HttpCalDAVReportMethod("/cal/", new FakeCalDAVReportRequest());
+        List<String> hrefs = new ArrayList<>();
+        method.getResponseBodyAsMultiStatus(
+                response(body, true), response -> hrefs.add(response.getHref()));
+        MultiStatusResponse[] responses =
+                method.getResponseBodyAsMultiStatus(response(body, true)).getResponses();
+        assertEquals(responses.length, hrefs.size());
+        for (int i = 0; i < responses.length; i++) {
+            assertEquals(responses[i].getHref(), hrefs.get(i));
+        }
+    }
+
+    @Test
+    public void defaultLimitsHaveAMaximumSize() {
+        long max = ResponseBodyLimits.DEFAULT_MAX_SIZE;
+        assertFalse(ResponseBodyLimits.DEFAULT.exceedsMaxSize(max));
+        assertTrue(ResponseBodyLimits.DEFAULT.exceedsMaxSize(max + 1));
+        assertFalse(ResponseBodyLimits.UNLIMITED.exceedsMaxSize(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void tooLargeResponseAborts() throws Exception {
+        byte[] body = multiStatus(200);
+        for (boolean announced : new boolean[] {true, false}) {
+            HttpCalDAVReportMethod method =
+                    new HttpCalDAVReportMethod("/cal/", new FakeCalDAVReportRequest());
+            method.setResponseBodyLimits(new ResponseBodyLimits(1024, body.length - 1));
+            try {
+                method.getResponseBodyAsMultiStatus(response(body, announced));
+                fail("The limit was not applied");
+            } catch (DavException e) {
+                assertTrue(e.getCause() instanceof ResponseTooLargeException);
+                assertEquals(
+                        body.length - 1, ((ResponseTooLargeException) e.getCause()).getMaxSize());
+                assertTrue(method.isAborted());
+            }
+        }
+    }
+
+    @Test
+    public void spooledBody() throws Exception {
+        byte[] body = multiStatus(50);
+        File directory = temporaryFolder.newFolder();
+        ResponseBodyLimits limits = new ResponseBodyLimits(1024, -1, directory);
+        try (SpooledResponseBody spooled =
+                SpooledResponseBody.read(new ByteArrayInputStream(body), -1, limits)) {
+            assertTrue(spooled.isSpooled());
+            assertEquals(body.length, spooled.getSize());
+            assertEquals(1, directory.list().length);
+            try (InputStream in = spooled.getContent()) {
+                assertEquals(50, MultiStatusReader.read(in).getResponses().length);
+            }
+        }
+        assertEquals(0, directory.list().length);
+
+        try (SpooledResponseBody buffered =
+                SpooledResponseBody.read(
+                        new ByteArrayInputStream(body), body.length, ResponseBodyLimits.DEFAULT)) {
+            assertFalse(buffered.isSpooled());
+            assertEquals(body.length, buffered.getSize());
+        }
+    }
+
+    private static BasicHttpResponse response(byte[] body, boolean announceLength) {
+        BasicHttpResponse response =
+                new BasicHttpResponse(HttpVersion.HTTP_1_1, CalDAVStatus.SC_MULTI_STATUS, null);
+        response.setEntity(
+                announceLength
+                        ? new ByteArrayEntity(body)
+                        : new InputStreamEntity(new ByteArrayInputStream(body)));
+        return response;
+    }
+
+    private static String calendarData(MultiStatusResponse response) {
+        Object value =
+                response.getProperties(CalDAVStatus.SC_OK)
+                        .get(CalDAVConstants.DNAME_CALENDAR_DATA)
+                        .getValue();
+        return value.toString();
+    }
+
+    private static byte[] multiStatus(int responses) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append("<D:multistatus xmlns:D=\"DAV:\" xmlns:C=\"urn:ietf:params:xml:ns:caldav\">\n");
+        for (int i = 0; i < responses; i++) {
+            sb.append("  <D:response>\n");
+            sb.append("    <D:href>/cal/event-").append(i).append(".ics</D:href>\n");
+            sb.append("    <D:propstat><D:prop>\n");
+            sb.append("      <D:getetag>\"").append(i).append("\"</D:getetag>\n");
+            sb.append("      <C:calendar-data><![CDATA[BEGIN:VCALENDAR\r\nVERSION:2.0\r\n");
+            sb.append("UID:event-").append(i).append(" & <more>\r\nEND:VCALENDAR\r\n]]>");
+            sb.append("</C:calendar-data>\n");
+            sb.append("    </D:prop><D:status>HTTP/1.1 200 OK</D:status></D:propstat>\n");
+            sb.append("    <D:propstat><D:prop><D:displayname/></D:prop>\n");
+            sb.append("      <D:status>HTTP/1.1 404 Not Found</D:status></D:propstat>\n");
+            sb.append("  </D:response>\n");
+        }
+        sb.append("  <D:responsedescription>done</D:responsedescription>\n");
+        sb.append("</D:multistatus>\n");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
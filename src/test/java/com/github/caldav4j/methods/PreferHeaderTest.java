@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.methods;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.github.caldav4j.CalDAVConstants;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.jackrabbit.webdav.property.DavPropertyNameSet;
+import org.junit.Test;
+
+public class PreferHeaderTest {
+
+    @Test
+    public void preferencesAreSetAndRemoved() throws Exception {
+        HttpPropFindMethod method =
+                new HttpPropFindMethod("/cal/", new DavPropertyNameSet(), CalDAVConstants.DEPTH_1);
+
+        method.setPreferences(
+                CalDAVConstants.PREFER_RETURN_MINIMAL, CalDAVConstants.PREFER_DEPTH_NOROOT);
+        assertEquals(
+                "return=minimal, depth-noroot",
+                method.getFirstHeader(CalDAVConstants.HEADER_PREFER).getValue());
+
+        method.setPreferences();
+        assertNull(method.getFirstHeader(CalDAVConstants.HEADER_PREFER));
+    }
+
+    @Test
+    public void preferencesAppliedAreParsed() {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 207, "Multi-Status");
+        response.addHeader(CalDAVConstants.HEADER_PREFERENCE_APPLIED, "Return=\"minimal\"; x=1");
+        response.addHeader(CalDAVConstants.HEADER_PREFERENCE_APPLIED, " depth-noroot , ");
+
+        assertEquals(
+                new LinkedHashSet<>(Arrays.asList("return=minimal", "depth-noroot")),
+                PreferHeader.getPreferencesApplied(response));
+        assertTrue(PreferHeader.isApplied(response, CalDAVConstants.PREFER_RETURN_MINIMAL));
+        assertFalse(
+                PreferHeader.isApplied(
+                        new BasicHttpResponse(HttpVersion.HTTP_1_1, 207, "Multi-Status"),
+                        CalDAVConstants.PREFER_RETURN_MINIMAL));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.methods;
+
+import static org.junit.Assert.assertEquals;
+
+import com.github.caldav4j.CalDAVConstants;
+import com.github.caldav4j.model.request.CalendarData;
+import com.github.caldav4j.model.request.CalendarDescription;
+import com.github.caldav4j.model.request.CalendarMultiget;
+import com.github.caldav4j.model.request.DisplayName;
+import com.github.caldav4j.model.request.MkCalendar;
+import com.github.caldav4j.model.request.Prop;
+import com.github.caldav4j.util.GenerateQuery;
+import com.github.caldav4j.xml.OutputsDOMBase;
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.apache.http.HttpEntity;
+import org.apache.http.util.EntityUtils;
+import org.apache.jackrabbit.webdav.client.methods.XmlEntity;
+import org.junit.Test;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+public class XmlStreamEntityTest {
+
+    @Test
+    public void testCalendarQuery() throws Exception {
+        GenerateQuery gq =
+                new GenerateQuery(
+                        "VEVENT : UID, DTSTART",
+                        "VEVENT [20260101T000000Z;20260201T000000Z] : UID==a<b&c, SUMMARY!=UNDEF");
+        assertSameAsDom(gq.generate());
+    }
+
+    @Test
+    public void testCalendarMultiget() throws Exception {
+        CalendarMultiget multiget = new CalendarMultiget();
+        multiget.addProperty(CalDAVConstants.DNAME_GETETAG);
+        multiget.setCalendarDataProp(new CalendarData());
+        for (int i = 0; i < 100; i++) {
+            multiget.addHref("/calendars/user/home/event-" + i + ".ics");
+        }
+        assertSameAsDom(multiget);
+    }
+
+    @Test
+    public void testMkCalendar() throws Exception {
+        Prop<?> prop = new Prop<>();
+        prop.add(new DisplayName("My calendar"));
+        prop.add(new CalendarDescription("Ma description", "fr-CA"));
+        assertSameAsDom(new MkCalendar(prop));
+    }
+
+    private static void assertSameAsDom(OutputsDOMBase body) throws Exception {
+        XmlStreamEntity entity = new XmlStreamEntity(body);
+        byte[] streamed = EntityUtils.toByteArray(entity);
+        assertEquals(streamed.length, entity.getContentLength());
+
+        HttpEntity dom = XmlEntity.create(body);
+        assertEquals(dom.getContentType().getValue(), entity.getContentType().getValue());
+        assertEquals(describe(parse(EntityUtils.toByteArray(dom))), describe(parse(streamed)));
+    }
+
+    private static Element parse(byte[] xml) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder()
+                .parse(new ByteArrayInputStream(xml))
+                .getDocumentElement();
+    }
+
+    /** Describes the element, ignoring where namespaces are declared. */
+    private static String describe(Element element) {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{').append(element.getNamespaceURI()).append('}');
+        sb.append(element.getLocalName());
+
+        Map<String, String> attributes = new TreeMap<>();
+        NamedNodeMap map = element.getAttributes();
+        for (int i = 0; i < map.getLength(); i++) {
+            Attr attribute = (Attr) map.item(i);
+            if (!XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attribute.getNamespaceURI())) {
+                attributes.put(attribute.getName(), attribute.getValue());
+            }
+        }
+        sb.append(attributes).append('(');
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element) {
+                sb.append(describe((Element) child));
+            } else if (child.getNodeType() == Node.TEXT_NODE) {
+                sb.append(child.getNodeValue());
+            }
+        }
+        return sb.append(')').toString();
+    }
+}
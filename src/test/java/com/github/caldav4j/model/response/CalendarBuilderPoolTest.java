@@ -0,0 +1,115 @@
+package com.github.caldav4j.model.response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.fortuna.ical4j.data.CalendarBuilder;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.model.TimeZone;
+import org.junit.Test;
+
+public class CalendarBuilderPoolTest {
+
+    private static final String CALENDAR =
+            "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//test//EN\r\nBEGIN:VEVENT\r\n"
+                    + "UID:pooled\r\nDTSTAMP:20200101T000000Z\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n";
+
+    @Test
+    public void buildersAreReused() throws Exception {
+        CalendarBuilderPool pool = new CalendarBuilderPool(CalendarBuilder::new, 2);
+
+        CalendarBuilder builder = pool.borrow();
+        pool.release(builder);
+        assertSame(builder, pool.borrow());
+
+        for (int i = 0; i < 100; i++) {
+            assertNotNull(pool.build(b -> b.build(new StringReader(CALENDAR))));
+        }
+        assertEquals(1, pool.getCreatedCount());
+    }
+
+    @Test
+    public void timeZonesAreNotKeptBetweenParses() throws Exception {
+        CalendarBuilderPool pool =
+                new CalendarBuilderPool(ParserProfile.STRICT::createCalendarBuilder, 1);
+
+        CalendarBuilder builder = pool.borrow();
+        builder.build(new StringReader(zonedCalendar("+0100")));
+        assertNotNull(builder.getRegistry().getTimeZone("Custom/Zone"));
+        pool.release(builder);
+
+        assertSame(builder, pool.borrow());
+        assertNull(builder.getRegistry().getTimeZone("Custom/Zone"));
+        builder.build(new StringReader(zonedCalendar("+0500")));
+        TimeZone zone = builder.getRegistry().getTimeZone("Custom/Zone");
+        assertEquals(5 * 60 * 60 * 1000, zone.getRawOffset());
+    }
+
+    @Test
+    public void idleBuildersAreBounded() {
+        CalendarBuilderPool pool = new CalendarBuilderPool(CalendarBuilder::new, 2);
+        List<CalendarBuilder> borrowed = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            borrowed.add(pool.borrow());
+        }
+        borrowed.forEach(pool::release);
+
+        assertEquals(5, pool.getCreatedCount());
+        assertEquals(2, pool.getIdleCount());
+    }
+
+    @Test
+    public void failedBuilderIsDropped() throws Exception {
+        CalendarBuilderPool pool = new CalendarBuilderPool(CalendarBuilder::new, 2);
+        try {
+            pool.build(b -> b.build(new StringReader("BEGIN:VCALENDAR\r\ninvalid\r\n")));
+            fail("Invalid data parsed");
+        } catch (ParserException e) {
+            // expected
+        }
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    public void concurrentParsing() throws Exception {
+        CalendarBuilderPool pool = new CalendarBuilderPool(CalendarBuilder::new, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(
+                        executor.submit(
+                                () -> pool.build(b -> b.build(new StringReader(CALENDAR)))));
+            }
+            for (Future<?> future : futures) {
+                assertNotNull(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // at most one builder per concurrent parse
+        assertTrue(pool.getCreatedCount() <= 4);
+    }
+
+    private static String zonedCalendar(String offset) {
+        return "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//test//EN\r\n"
+                + "BEGIN:VTIMEZONE\r\nTZID:Custom/Zone\r\nBEGIN:STANDARD\r\n"
+                + "DTSTART:19700101T000000\r\nTZOFFSETFROM:"
+                + offset
+                + "\r\nTZOFFSETTO:"
+                + offset
+                + "\r\nEND:STANDARD\r\nEND:VTIMEZONE\r\n"
+                + "BEGIN:VEVENT\r\nUID:zoned\r\nDTSTAMP:20200101T000000Z\r\n"
+                + "DTSTART;TZID=Custom/Zone:20200101T120000\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n";
+    }
+}
@@ -1,8 +1,10 @@
 package com.github.caldav4j.model.response;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
+import com.github.caldav4j.util.ICalendarUtils;
 import net.fortuna.ical4j.model.Calendar;
 import org.apache.jackrabbit.webdav.property.DavProperty;
 import org.apache.jackrabbit.webdav.property.DavPropertyName;
@@ -29,6 +31,26 @@ public class CalendarDataPropertyTest {
                 "Calendar object for a property with null value should be null object", calendar);
     }
 
+    @Test
+    public void getCalendarfromPropertyWithBareLineFeeds() {
+        String text =
+                "BEGIN:VCALENDAR\nVERSION:2.0\nPRODID:-//test//EN\nBEGIN:VEVENT\nUID:lf-only\n"
+                        + "DTSTAMP:20200101T000000Z\nDTSTART:20200101T100000Z\nSUMMARY:long\n"
+                        + " summary\nEND:VEVENT\nEND:VCALENDAR\n";
+        DavProperty<?> davProperty =
+                new DefaultDavProperty<>(
+                        "calendar-data",
+                        text,
+                        Namespace.getNamespace("urn:ietf:params:xml:ns:caldav"));
+
+        Calendar calendar = CalendarDataProperty.getCalendarfromProperty(davProperty);
+        assertNotNull(calendar);
+        assertEquals("lf-only", ICalendarUtils.getUIDValue(calendar));
+        assertEquals(
+                "longsummary",
+                ICalendarUtils.getSummaryValue(ICalendarUtils.getFirstEvent(calendar)));
+    }
+
     @Test
     public void getEtagfromProperty() {
         DavProperty<?> davProperty = null;
@@ -0,0 +1,75 @@
+package com.github.caldav4j.model.response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.github.caldav4j.util.ICalendarUtils;
+import java.io.StringReader;
+import net.fortuna.ical4j.data.ParserException;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Property;
+import net.fortuna.ical4j.model.component.VEvent;
+import org.junit.Test;
+
+public class ParserProfileTest {
+
+    private static final String INVALID = "BEGIN:VCALENDAR\r\nnot a property\r\nEND:VCALENDAR\r\n";
+
+    // folded with bare LF, as done by some XML parsers
+    private static final String LF_FOLDED =
+            "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//test//EN\r\nBEGIN:VEVENT\r\n"
+                    + "UID:folded\r\nDTSTAMP:20200101T000000Z\r\nSUMMARY:a\n b\r\n"
+                    + "END:VEVENT\r\nEND:VCALENDAR\r\n";
+
+    @Test(expected = ParserException.class)
+    public void strictRejectsInvalidData() throws Exception {
+        ParserProfile.STRICT.parse(INVALID);
+    }
+
+    @Test(expected = ParserException.class)
+    public void fallbackFailureIsReported() throws Exception {
+        ParserProfile.STRICT.withFallback(ParserProfile.RELAXED).parse(INVALID);
+    }
+
+    @Test
+    public void fallbackChain() {
+        ParserProfile profile = ParserProfile.STRICT.withFallback(ParserProfile.RELAXED);
+        assertSame(ParserProfile.RELAXED, profile.getFallback());
+        assertNull(ParserProfile.RELAXED.getFallback());
+        assertEquals("STRICT>RELAXED", profile.toString());
+        assertTrue(ParserProfile.LENIENT.isSuppressInvalidProperties());
+        assertTrue(ParserProfile.RELAXED.isRelaxedUnfolding());
+    }
+
+    @Test
+    public void relaxedUnfolding() throws Exception {
+        Calendar calendar = ParserProfile.RELAXED.parse(new StringReader(LF_FOLDED));
+        VEvent event = ICalendarUtils.getFirstEvent(calendar);
+        assertEquals("folded", ICalendarUtils.getUIDValue(calendar));
+        assertEquals("ab", ICalendarUtils.getPropertyValue(event, Property.SUMMARY));
+    }
+
+    @Test
+    public void buildersArePooledPerProfile() throws Exception {
+        assertSame(
+                ParserProfile.LENIENT.getCalendarBuilderPool(),
+                ParserProfile.LENIENT.getCalendarBuilderPool());
+        assertNotSame(
+                ParserProfile.LENIENT.getCalendarBuilderPool(),
+                ParserProfile.STRICT.getCalendarBuilderPool());
+
+        CalendarBuilderPool pool = ParserProfile.RELAXED.getCalendarBuilderPool();
+        ParserProfile.RELAXED.parse(new StringReader(LF_FOLDED));
+        long created = pool.getCreatedCount();
+        ParserProfile.RELAXED.parse(new StringReader(LF_FOLDED));
+        assertEquals(created, pool.getCreatedCount());
+    }
+
+    @Test
+    public void unparsablePropertyIsNull() {
+        assertNull(CalendarDataProperty.getCalendarfromProperty(null, ParserProfile.STRICT));
+    }
+}
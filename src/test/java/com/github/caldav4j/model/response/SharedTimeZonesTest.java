@@ -0,0 +1,189 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.model.response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.github.caldav4j.BaseTestCase;
+import com.github.caldav4j.CalDAVResource;
+import com.github.caldav4j.TestConstants;
+import com.github.caldav4j.util.ICalendarUtils;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.component.VTimeZone;
+import net.fortuna.ical4j.model.property.XProperty;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SharedTimeZonesTest implements TestConstants {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedTimeZonesTest.class);
+
+    @Test
+    public void duplicatesResolveToOneInstance() throws Exception {
+        SharedTimeZones registry = new SharedTimeZones(SharedTimeZones.DEFAULT_MAX_SIZE);
+        Calendar first = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        Calendar second = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH);
+        assertNotSame(ICalendarUtils.getTimezone(first), ICalendarUtils.getTimezone(second));
+
+        // a copy of the first definition becomes the canonical one
+        Calendar deduplicatedFirst = registry.deduplicate(first);
+        VTimeZone canonical = ICalendarUtils.getTimezone(deduplicatedFirst);
+        assertNotSame(ICalendarUtils.getTimezone(first), canonical);
+        Calendar deduplicated = registry.deduplicate(second);
+        assertNotSame(second, deduplicated);
+        assertSame(canonical, ICalendarUtils.getTimezone(deduplicated));
+        assertSame(deduplicated, registry.deduplicate(deduplicated));
+        assertEquals(second.toString(), deduplicated.toString());
+        assertEquals(1, registry.size());
+        assertEquals(1, registry.getHitCount());
+
+        assertSame(
+                registry.getTimeZone(ICalendarUtils.getTimezone(first)),
+                registry.getTimeZone(ICalendarUtils.getTimezone(second)));
+        assertNull(registry.deduplicate(null));
+    }
+
+    @Test
+    public void canonicalInstanceIsIsolatedFromCaller() throws Exception {
+        SharedTimeZones registry = new SharedTimeZones(SharedTimeZones.DEFAULT_MAX_SIZE);
+        VTimeZone newYork =
+                ICalendarUtils.getTimezone(
+                        BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH));
+        VTimeZone canonical = registry.canonical(newYork);
+
+        newYork.add(new XProperty("X-CHANGED", "1"));
+
+        assertFalse(canonical.getProperty("X-CHANGED").isPresent());
+        assertNotSame(canonical, registry.canonical(newYork));
+    }
+
+    @Test
+    public void differentDefinitionsAreKept() throws Exception {
+        SharedTimeZones registry = new SharedTimeZones(SharedTimeZones.DEFAULT_MAX_SIZE);
+        VTimeZone newYork =
+                ICalendarUtils.getTimezone(
+                        BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH));
+        // same TZID, different content
+        String pacific = BaseTestCase.getCalendarResource(ICS_NORMAL_PACIFIC_1PM_PATH).toString();
+        VTimeZone renamed =
+                ICalendarUtils.getTimezone(
+                        ParserProfile.STRICT.parse(
+                                pacific.replace("US/Pacific", "America/New_York")));
+
+        VTimeZone canonical = registry.canonical(newYork);
+        assertEquals(newYork, canonical);
+        assertNotSame(canonical, registry.canonical(renamed));
+        assertEquals(2, registry.size());
+        assertEquals(0, registry.getHitCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedAreEvicted() throws Exception {
+        SharedTimeZones registry = new SharedTimeZones(1);
+        VTimeZone newYork =
+                registry.canonical(
+                        ICalendarUtils.getTimezone(
+                                BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH)));
+        VTimeZone pacific =
+                registry.canonical(
+                        ICalendarUtils.getTimezone(
+                                BaseTestCase.getCalendarResource(ICS_NORMAL_PACIFIC_1PM_PATH)));
+        assertEquals(1, registry.size());
+
+        // still shared, while the evicted definition is registered again
+        assertSame(
+                pacific,
+                registry.canonical(
+                        ICalendarUtils.getTimezone(
+                                BaseTestCase.getCalendarResource(ICS_NORMAL_PACIFIC_1PM_PATH))));
+        assertNotSame(
+                newYork,
+                registry.canonical(
+                        ICalendarUtils.getTimezone(
+                                BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH))));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void profileResolvesTimeZones() throws Exception {
+        SharedTimeZones registry = new SharedTimeZones(SharedTimeZones.DEFAULT_MAX_SIZE);
+        ParserProfile profile = CalendarDataProperty.DEFAULT_PROFILE.withSharedTimeZones(registry);
+        assertSame(registry, profile.getFallback().getSharedTimeZones());
+
+        String text = BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH).toString();
+        assertSame(
+                ICalendarUtils.getTimezone(profile.parse(text)),
+                ICalendarUtils.getTimezone(profile.parse(text)));
+    }
+
+    @Test
+    public void snapshotsShareTimeZones() throws Exception {
+        CalDAVResource first =
+                new CalDAVResource(
+                        BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH), "\"1\"", "/1.ics");
+        CalDAVResource second =
+                new CalDAVResource(
+                        BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH), "\"1\"", "/2.ics");
+        assertSame(
+                ICalendarUtils.getTimezone(first.snapshot().getCalendar()),
+                ICalendarUtils.getTimezone(second.snapshot().getCalendar()));
+    }
+
+    @Test
+    public void retainedTimeZones() throws Exception {
+        int resources = 1000;
+        String[] texts = {
+            BaseTestCase.getCalendarResource(ICS_DAILY_NY_5PM_PATH).toString(),
+            BaseTestCase.getCalendarResource(ICS_NORMAL_PACIFIC_1PM_PATH).toString()
+        };
+        SharedTimeZones registry = new SharedTimeZones(SharedTimeZones.DEFAULT_MAX_SIZE);
+        ParserProfile shared = ParserProfile.STRICT.withSharedTimeZones(registry);
+        List<Calendar> plain = new ArrayList<>();
+        List<Calendar> deduplicated = new ArrayList<>();
+        for (int i = 0; i < resources; i++) {
+            plain.add(ParserProfile.STRICT.parse(texts[i % texts.length]));
+            deduplicated.add(shared.parse(texts[i % texts.length]));
+        }
+
+        Set<VTimeZone> plainInstances = timeZoneInstances(plain);
+        Set<VTimeZone> sharedInstances = timeZoneInstances(deduplicated);
+        log.info(
+                "{} resources: {} VTIMEZONE instances retained without the registry, {} with",
+                resources,
+                plainInstances.size(),
+                sharedInstances.size());
+        assertEquals(resources, plainInstances.size());
+        assertEquals(texts.length, sharedInstances.size());
+        assertEquals(texts.length, registry.size());
+        assertEquals(resources - texts.length, registry.getHitCount());
+    }
+
+    private static Set<VTimeZone> timeZoneInstances(List<Calendar> calendars) {
+        Set<VTimeZone> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Calendar calendar : calendars) {
+            instances.add(ICalendarUtils.getTimezone(calendar));
+        }
+        return instances;
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.caldav4j.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import org.junit.Test;
+
+public class CrLfNormalizingReaderTest {
+
+    private static String normalize(String text, int bufferSize, int readSize) throws IOException {
+        Reader reader = new CrLfNormalizingReader(new StringReader(text), bufferSize);
+        StringBuilder sb = new StringBuilder();
+        char[] chars = new char[readSize];
+        int n;
+        while ((n = reader.read(chars, 0, chars.length)) != -1) {
+            sb.append(chars, 0, n);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void normalizesLineEndings() throws IOException {
+        String text = "BEGIN:VCALENDAR\nVERSION:2.0\r\nX-A:a\rb\n\nEND:VCALENDAR\n";
+        String expected = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nX-A:a\rb\r\n\r\nEND:VCALENDAR\r\n";
+
+        assertEquals(expected, normalize(text, 8192, 8192));
+        // CRLF split across buffers, and output split across reads
+        for (int size = 1; size < 8; size++) {
+            assertEquals(expected, normalize(text, size, size));
+            assertEquals(expected, normalize(text, size, 3));
+        }
+    }
+
+    @Test
+    public void singleCharacterReads() throws IOException {
+        Reader reader = new CrLfNormalizingReader(new StringReader("a\nb"));
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1) {
+            sb.append((char) c);
+        }
+        assertEquals("a\r\nb", sb.toString());
+    }
+
+    @Test
+    public void mixedReadsAcrossBuffers() throws IOException {
+        Reader reader = new CrLfNormalizingReader(new StringReader("a\r\nb\n\nc"), 1);
+        char[] chars = new char[2];
+        StringBuilder sb = new StringBuilder();
+        sb.append((char) reader.read()).append((char) reader.read());
+        int n = reader.read(chars, 0, 2);
+        sb.append(chars, 0, n);
+        int c;
+        while ((c = reader.read()) != -1) {
+            sb.append((char) c);
+        }
+        assertEquals("a\r\nb\r\n\r\nc", sb.toString());
+    }
+
+    @Test
+    public void emptyInput() throws IOException {
+        assertEquals(-1, new CrLfNormalizingReader(new StringReader("")).read());
+    }
+}
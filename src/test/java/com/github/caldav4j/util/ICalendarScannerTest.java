@@ -0,0 +1,84 @@
+package com.github.caldav4j.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import com.github.caldav4j.model.response.CalendarProjection;
+import java.util.Arrays;
+import java.util.Collections;
+import net.fortuna.ical4j.model.Component;
+import net.fortuna.ical4j.model.Property;
+import org.junit.Test;
+
+public class ICalendarScannerTest {
+
+    private static final String CALENDAR =
+            "BEGIN:VCALENDAR\r\n"
+                    + "VERSION:2.0\r\n"
+                    + "PRODID:-//test//EN\r\n"
+                    + "BEGIN:VTIMEZONE\r\n"
+                    + "TZID:Europe/Rome\r\n"
+                    + "BEGIN:STANDARD\r\n"
+                    + "DTSTART:19701025T030000\r\n"
+                    + "END:STANDARD\r\n"
+                    + "END:VTIMEZONE\r\n"
+                    + "BEGIN:VEVENT\r\n"
+                    + "uid:event-1\r\n"
+                    + "DTSTART;TZID=\"Europe/Rome\";VALUE=DATE-TIME:20200101T100000\r\n"
+                    + "SUMMARY;LANGUAGE=en:Meeting\\, with\r\n"
+                    + "  folded\\ntext\n"
+                    + "SEQUENCE:3\r\n"
+                    + "BEGIN:VALARM\r\n"
+                    + "SUMMARY:alarm\r\n"
+                    + "END:VALARM\r\n"
+                    + "END:VEVENT\r\n"
+                    + "END:VCALENDAR\r\n";
+
+    @Test
+    public void scanHotProperties() {
+        CalendarProjection projection =
+                ICalendarScanner.scan(CALENDAR, null, CalendarProjection.HOT_PROPERTIES);
+
+        assertEquals(Component.VEVENT, projection.getComponentName());
+        assertEquals("event-1", projection.getUid());
+        assertEquals("20200101T100000", projection.getDtStart());
+        assertEquals("Europe/Rome", projection.getParameter(Property.DTSTART, "tzid"));
+        assertEquals("DATE-TIME", projection.getParameter(Property.DTSTART, "VALUE"));
+        assertEquals("Meeting, with folded\ntext", projection.getSummary());
+        assertEquals("en", projection.getParameter(Property.SUMMARY, "LANGUAGE"));
+        assertEquals(3, projection.getSequence());
+        assertNull(projection.getDtEnd());
+        assertFalse(projection.contains(Property.RECURRENCE_ID));
+    }
+
+    @Test
+    public void quotedParameterWithDelimiters() {
+        String text =
+                "BEGIN:VCALENDAR\nBEGIN:VTODO\n"
+                        + "ORGANIZER;CN=\"Doe; John: Jr\":mailto:john@example.com\n"
+                        + "END:VTODO\nEND:VCALENDAR\n";
+        CalendarProjection projection =
+                ICalendarScanner.scan(text, null, Collections.singleton(Property.ORGANIZER));
+
+        assertEquals(Component.VTODO, projection.getComponentName());
+        assertEquals("mailto:john@example.com", projection.getValue(Property.ORGANIZER));
+        assertEquals("Doe; John: Jr", projection.getParameter(Property.ORGANIZER, "CN"));
+    }
+
+    @Test
+    public void missingComponent() {
+        CalendarProjection projection =
+                ICalendarScanner.scan(
+                        CALENDAR, Component.VTODO, Arrays.asList(Property.UID, Property.SUMMARY));
+
+        assertNull(projection.getComponentName());
+        assertNull(projection.getUid());
+    }
+
+    @Test
+    public void unescape() {
+        assertEquals("a,b;c\\d\ne", ICalendarScanner.unescape("a\\,b\\;c\\\\d\\ne"));
+        assertEquals("plain", ICalendarScanner.unescape("plain"));
+    }
+}
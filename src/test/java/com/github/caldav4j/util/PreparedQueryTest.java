@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.caldav4j.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.github.caldav4j.exceptions.CalDAV4JException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import net.fortuna.ical4j.model.DateTime;
+import org.apache.http.HttpEntity;
+import org.apache.http.util.EntityUtils;
+import org.apache.jackrabbit.webdav.client.methods.XmlEntity;
+import org.junit.Test;
+
+public class PreparedQueryTest {
+
+    private static final String START = "20260101T000000Z";
+    private static final String END = "20260201T000000Z";
+
+    @Test
+    public void testSameBodyAsGeneratedQuery() throws Exception {
+        PreparedQuery prepared =
+                new GenerateQuery(
+                                "VEVENT : UID, DTSTART",
+                                "VEVENT [${start};${end}] : UID==${uid}, SUMMARY!=${summary}")
+                        .prepare();
+        GenerateQuery literal =
+                new GenerateQuery(
+                        "VEVENT : UID, DTSTART",
+                        "VEVENT [" + START + ";" + END + "] : UID==abc, SUMMARY!=lunch");
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("start", new DateTime(START));
+        parameters.put("end", new DateTime(END));
+        parameters.put("uid", "abc");
+        parameters.put("summary", "lunch");
+
+        HttpEntity expected = XmlEntity.create(literal.generate());
+        HttpEntity entity = prepared.toEntity(parameters);
+        assertArrayEquals(EntityUtils.toByteArray(expected), EntityUtils.toByteArray(entity));
+        assertEquals(expected.getContentType().getValue(), entity.getContentType().getValue());
+        assertEquals(
+                new LinkedHashSet<>(Arrays.asList("start", "end", "uid", "summary")),
+                prepared.getParameterNames());
+    }
+
+    @Test
+    public void testValuesAreEscaped() throws Exception {
+        PreparedQuery prepared = new GenerateQuery("VEVENT", "VEVENT : UID==${uid}").prepare();
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("uid", "<a&\"b\">");
+        String xml = new String(prepared.toByteArray(parameters), StandardCharsets.UTF_8);
+        assertTrue(xml, xml.contains("&lt;a&amp;&quot;b&quot;&gt;"));
+    }
+
+    @Test
+    public void testWithoutCalendarData() throws Exception {
+        PreparedQuery prepared =
+                new GenerateQuery("VEVENT", "VEVENT [${start};] : UID==${uid}").prepare();
+        PreparedQuery etagOnly = prepared.withoutCalendarData();
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("start", new DateTime(START));
+        parameters.put("uid", "abc");
+        String full = new String(prepared.toByteArray(parameters), StandardCharsets.UTF_8);
+        assertTrue(full, full.contains("calendar-data"));
+        String xml = new String(etagOnly.toByteArray(parameters), StandardCharsets.UTF_8);
+        assertFalse(xml, xml.contains("calendar-data"));
+        assertTrue(xml, xml.contains(START));
+        assertSame(etagOnly, etagOnly.withoutCalendarData());
+    }
+
+    @Test(expected = CalDAV4JException.class)
+    public void testMissingParameter() throws Exception {
+        PreparedQuery prepared = new GenerateQuery("VEVENT", "VEVENT : UID==${uid}").prepare();
+        prepared.toByteArray(new HashMap<>());
+    }
+
+    @Test(expected = CalDAV4JException.class)
+    public void testGenerateWithParameters() throws Exception {
+        new GenerateQuery("VEVENT", "VEVENT [${start};] : UID==abc").generate();
+    }
+}